@@ -0,0 +1,231 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.aspectj;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Cheap type-level pre-filter for AspectJ pointcut expressions which
+ * require a specific annotation through {@code @annotation}, {@code @within}
+ * or {@code @target}.
+ *
+ * <p>AspectJ cannot rule out such expressions on a per-type basis, so every
+ * method of every candidate class would otherwise go through shadow matching.
+ * This filter extracts the annotation requirements from the top-level
+ * conjunction of the expression and rejects classes which do not carry the
+ * annotation at all, before any shadow matching takes place.
+ *
+ * <p>The filter is conservative: it only ever answers "definitely not"
+ * for a class; any expression or annotation type it does not understand
+ * leads to a "maybe", deferring to the regular AspectJ evaluation.
+ *
+ * @since 5.1.10
+ * @see AspectJExpressionPointcut#matches(Class)
+ */
+final class AnnotationPointcutPrefilter {
+
+	private static final Pattern ANNOTATION_PRIMITIVE =
+			Pattern.compile("^@(annotation|within|target)\\(\\s*([\\w.$]+)\\s*\\)$");
+
+
+	private final List<Class<? extends Annotation>> methodAnnotationTypes;
+
+	private final List<Class<? extends Annotation>> typeAnnotationTypes;
+
+
+	private AnnotationPointcutPrefilter(List<Class<? extends Annotation>> methodAnnotationTypes,
+			List<Class<? extends Annotation>> typeAnnotationTypes) {
+
+		this.methodAnnotationTypes = methodAnnotationTypes;
+		this.typeAnnotationTypes = typeAnnotationTypes;
+	}
+
+
+	/**
+	 * Determine whether the given class could possibly contain join points
+	 * matched by the pointcut expression that this pre-filter has been built for.
+	 * @param targetClass the candidate class
+	 * @return {@code false} if the class can definitely not match,
+	 * {@code true} if it may match (to be determined by AspectJ)
+	 */
+	public boolean couldMatch(Class<?> targetClass) {
+		ClassLoader classLoader = targetClass.getClassLoader();
+		for (Class<? extends Annotation> annotationType : this.typeAnnotationTypes) {
+			if (ClassUtils.isVisible(annotationType, classLoader) &&
+					AnnotationUtils.findAnnotation(targetClass, annotationType) == null) {
+				return false;
+			}
+		}
+		for (Class<? extends Annotation> annotationType : this.methodAnnotationTypes) {
+			if (ClassUtils.isVisible(annotationType, classLoader) &&
+					!hasAnnotatedMethod(targetClass, annotationType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean hasAnnotatedMethod(Class<?> targetClass, Class<? extends Annotation> annotationType) {
+		if (hasAnnotatedMethodInHierarchy(targetClass, annotationType)) {
+			return true;
+		}
+		for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+			if (hasAnnotatedMethodInHierarchy(ifc, annotationType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean hasAnnotatedMethodInHierarchy(Class<?> clazz, Class<? extends Annotation> annotationType) {
+		for (Method method : ReflectionUtils.getAllDeclaredMethods(clazz)) {
+			if (AnnotationUtils.getAnnotation(method, annotationType) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Build a pre-filter for the given pointcut expression, if possible.
+	 * @param expression the pointcut expression (with AspectJ boolean operators)
+	 * @param paramNames the pointcut parameter names
+	 * @param paramTypes the pointcut parameter types
+	 * @param declarationScope the declaration scope of the pointcut (may be {@code null})
+	 * @param classLoader the ClassLoader to resolve annotation types against
+	 * @return the pre-filter, or {@code null} if the expression does not contain
+	 * any annotation requirement that can be checked upfront
+	 */
+	@Nullable
+	public static AnnotationPointcutPrefilter forExpression(String expression,
+			String[] paramNames, Class<?>[] paramTypes,
+			@Nullable Class<?> declarationScope, @Nullable ClassLoader classLoader) {
+
+		List<String> conjuncts = splitTopLevelConjunction(expression);
+		if (conjuncts == null) {
+			return null;
+		}
+		List<Class<? extends Annotation>> methodAnnotationTypes = new ArrayList<>(1);
+		List<Class<? extends Annotation>> typeAnnotationTypes = new ArrayList<>(1);
+		for (String conjunct : conjuncts) {
+			Matcher matcher = ANNOTATION_PRIMITIVE.matcher(conjunct);
+			if (matcher.matches()) {
+				Class<? extends Annotation> annotationType = resolveAnnotationType(
+						matcher.group(2), paramNames, paramTypes, declarationScope, classLoader);
+				if (annotationType != null) {
+					if ("annotation".equals(matcher.group(1))) {
+						methodAnnotationTypes.add(annotationType);
+					}
+					else {
+						typeAnnotationTypes.add(annotationType);
+					}
+				}
+			}
+		}
+		if (methodAnnotationTypes.isEmpty() && typeAnnotationTypes.isEmpty()) {
+			return null;
+		}
+		return new AnnotationPointcutPrefilter(methodAnnotationTypes, typeAnnotationTypes);
+	}
+
+	/**
+	 * Split the given expression into its top-level {@code &&} conjuncts.
+	 * @return the trimmed conjuncts, or {@code null} if the expression
+	 * contains a top-level disjunction or unbalanced parentheses
+	 */
+	@Nullable
+	private static List<String> splitTopLevelConjunction(String expression) {
+		List<String> conjuncts = new ArrayList<>(2);
+		int depth = 0;
+		int start = 0;
+		int length = expression.length();
+		for (int i = 0; i < length; i++) {
+			char c = expression.charAt(i);
+			if (c == '(') {
+				depth++;
+			}
+			else if (c == ')') {
+				depth--;
+				if (depth < 0) {
+					return null;
+				}
+			}
+			else if (depth == 0 && i + 1 < length) {
+				char next = expression.charAt(i + 1);
+				if (c == '|' && next == '|') {
+					return null;
+				}
+				if (c == '&' && next == '&') {
+					conjuncts.add(expression.substring(start, i).trim());
+					start = i + 2;
+					i++;
+				}
+			}
+		}
+		if (depth != 0) {
+			return null;
+		}
+		conjuncts.add(expression.substring(start).trim());
+		return conjuncts;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private static Class<? extends Annotation> resolveAnnotationType(String name,
+			String[] paramNames, Class<?>[] paramTypes,
+			@Nullable Class<?> declarationScope, @Nullable ClassLoader classLoader) {
+
+		Class<?> type = null;
+		for (int i = 0; i < paramNames.length; i++) {
+			if (name.equals(paramNames[i])) {
+				type = paramTypes[i];
+				break;
+			}
+		}
+		if (type == null && name.indexOf('.') != -1) {
+			try {
+				type = ClassUtils.forName(name, classLoader);
+			}
+			catch (Throwable ex) {
+				// Possibly a reference to a nested or otherwise unresolvable type -
+				// leave it to AspectJ.
+			}
+		}
+		if (type == null && declarationScope != null) {
+			try {
+				type = ClassUtils.forName(
+						ClassUtils.getPackageName(declarationScope) + "." + name, classLoader);
+			}
+			catch (Throwable ex) {
+				// Not a type in the same package as the declaring aspect either.
+			}
+		}
+		return (type != null && type.isAnnotation() ? (Class<? extends Annotation>) type : null);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -119,6 +119,9 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	@Nullable
 	private transient PointcutExpression pointcutExpression;
 
+	@Nullable
+	private transient AnnotationPointcutPrefilter annotationPrefilter;
+
 	private transient Map<Method, ShadowMatch> shadowMatchCache = new ConcurrentHashMap<>(32);
 
 
@@ -195,6 +198,9 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		}
 		if (this.pointcutExpression == null) {
 			this.pointcutClassLoader = determinePointcutClassLoader();
+			this.annotationPrefilter = AnnotationPointcutPrefilter.forExpression(
+					replaceBooleanOperators(resolveExpression()), this.pointcutParameterNames,
+					this.pointcutParameterTypes, this.pointcutDeclarationScope, this.pointcutClassLoader);
 			this.pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
 		}
 		return this.pointcutExpression;
@@ -270,6 +276,11 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	@Override
 	public boolean matches(Class<?> targetClass) {
 		PointcutExpression pointcutExpression = obtainPointcutExpression();
+		AnnotationPointcutPrefilter prefilter = this.annotationPrefilter;
+		if (prefilter != null && !prefilter.couldMatch(targetClass)) {
+			// Required annotation not present anywhere on the class - no need for shadow matching.
+			return false;
+		}
 		try {
 			try {
 				return pointcutExpression.couldMatchJoinPointsInType(targetClass);
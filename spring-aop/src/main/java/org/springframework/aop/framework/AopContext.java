@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,7 @@
 
 package org.springframework.aop.framework;
 
-import org.springframework.core.NamedThreadLocal;
+import org.springframework.core.ThreadContextVariable;
 import org.springframework.lang.Nullable;
 
 /**
@@ -42,12 +42,13 @@ import org.springframework.lang.Nullable;
 public final class AopContext {
 
 	/**
-	 * ThreadLocal holder for AOP proxy associated with this thread.
+	 * Thread-bound holder for AOP proxy associated with this thread.
 	 * Will contain {@code null} unless the "exposeProxy" property on
 	 * the controlling proxy configuration has been set to "true".
 	 * @see ProxyConfig#setExposeProxy
 	 */
-	private static final ThreadLocal<Object> currentProxy = new NamedThreadLocal<>("Current AOP proxy");
+	private static final ThreadContextVariable<Object> currentProxy =
+			new ThreadContextVariable<>("Current AOP proxy");
 
 
 	private AopContext() {
@@ -81,14 +82,7 @@ public final class AopContext {
 	 */
 	@Nullable
 	static Object setCurrentProxy(@Nullable Object proxy) {
-		Object old = currentProxy.get();
-		if (proxy != null) {
-			currentProxy.set(proxy);
-		}
-		else {
-			currentProxy.remove();
-		}
-		return old;
+		return currentProxy.getAndSet(proxy);
 	}
 
 }
@@ -17,6 +17,8 @@
 package org.springframework.aop.framework.autoproxy;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.aop.Advisor;
 import org.springframework.aop.TargetSource;
@@ -52,6 +54,8 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 	@Nullable
 	private BeanFactoryAdvisorRetrievalHelper advisorRetrievalHelper;
 
+	private final AtomicLong advisorMatchingTime = new AtomicLong();
+
 
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
@@ -121,15 +125,34 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 	protected List<Advisor> findAdvisorsThatCanApply(
 			List<Advisor> candidateAdvisors, Class<?> beanClass, String beanName) {
 
+		long startTime = System.nanoTime();
 		ProxyCreationContext.setCurrentProxiedBeanName(beanName);
 		try {
 			return AopUtils.findAdvisorsThatCanApply(candidateAdvisors, beanClass);
 		}
 		finally {
 			ProxyCreationContext.setCurrentProxiedBeanName(null);
+			long matchingTime = System.nanoTime() - startTime;
+			this.advisorMatchingTime.addAndGet(matchingTime);
+			if (logger.isTraceEnabled()) {
+				logger.trace("Matched " + candidateAdvisors.size() + " candidate Advisors against bean '" +
+						beanName + "' in " + TimeUnit.NANOSECONDS.toMicros(matchingTime) + " microseconds");
+			}
 		}
 	}
 
+	/**
+	 * Return the accumulated time spent in matching candidate Advisors
+	 * against bean classes so far, typically dominated by the pointcut
+	 * evaluation during application context startup.
+	 * @return the advisor matching time in milliseconds
+	 * @since 5.1.10
+	 * @see #findAdvisorsThatCanApply
+	 */
+	public long getAdvisorMatchingTime() {
+		return TimeUnit.NANOSECONDS.toMillis(this.advisorMatchingTime.get());
+	}
+
 	/**
 	 * Return whether the Advisor bean with the given name is eligible
 	 * for proxying in the first place.
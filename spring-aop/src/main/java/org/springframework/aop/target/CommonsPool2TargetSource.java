@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -255,6 +255,28 @@ public class CommonsPool2TargetSource extends AbstractPoolingTargetSource implem
 		return (this.pool != null ? this.pool.getNumIdle() : 0);
 	}
 
+	@Override
+	public long getBorrowCount() throws UnsupportedOperationException {
+		return obtainGenericObjectPool().getBorrowedCount();
+	}
+
+	@Override
+	public long getCreatedCount() throws UnsupportedOperationException {
+		return obtainGenericObjectPool().getCreatedCount();
+	}
+
+	@Override
+	public long getDestroyedCount() throws UnsupportedOperationException {
+		return obtainGenericObjectPool().getDestroyedCount();
+	}
+
+	private GenericObjectPool obtainGenericObjectPool() {
+		if (!(this.pool instanceof GenericObjectPool)) {
+			throw new UnsupportedOperationException("Pool statistics only available for GenericObjectPool");
+		}
+		return (GenericObjectPool) this.pool;
+	}
+
 
 	/**
 	 * Closes the underlying {@code ObjectPool} when destroying this object.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -41,4 +41,31 @@ public interface PoolingConfig {
 	 */
 	int getIdleCount() throws UnsupportedOperationException;
 
+	/**
+	 * Return the total number of objects borrowed from the pool.
+	 * @throws UnsupportedOperationException if not supported by the pool
+	 * @since 5.1.10
+	 */
+	default long getBorrowCount() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Borrow count not supported by this pool");
+	}
+
+	/**
+	 * Return the total number of objects created by the pool.
+	 * @throws UnsupportedOperationException if not supported by the pool
+	 * @since 5.1.10
+	 */
+	default long getCreatedCount() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Created count not supported by this pool");
+	}
+
+	/**
+	 * Return the total number of objects destroyed by the pool.
+	 * @throws UnsupportedOperationException if not supported by the pool
+	 * @since 5.1.10
+	 */
+	default long getDestroyedCount() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("Destroyed count not supported by this pool");
+	}
+
 }
@@ -0,0 +1,440 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.target;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link org.springframework.aop.TargetSource} implementation that holds
+ * objects in a set of lock-free, thread-affine pool stripes.
+ *
+ * <p>Idle objects are kept in one {@link ConcurrentLinkedDeque} per stripe,
+ * with each thread preferring the stripe derived from its thread id and only
+ * stealing from other stripes if its own stripe is empty. Objects are handed
+ * out in LIFO order so that recently used (and therefore cache-warm) instances
+ * are reused first. In contrast to {@link CommonsPool2TargetSource}, no locks
+ * are taken on borrow and return; the maximum pool size is enforced through a
+ * non-fair {@link Semaphore}, which only blocks once the pool is exhausted.
+ *
+ * <p>Idle objects beyond {@link #setMaxIdle "maxIdle"} are destroyed on return.
+ * Eviction of objects which have been idle for longer than
+ * {@link #setMinEvictableIdleTimeMillis "minEvictableIdleTimeMillis"} is
+ * performed on return as well, at most once per
+ * {@link #setTimeBetweenEvictionRunsMillis "timeBetweenEvictionRunsMillis"},
+ * without requiring a dedicated evictor thread.
+ *
+ * <p>This is primarily intended for non-thread-safe components which are
+ * accessed under high concurrency, where a single contended pool becomes a
+ * bottleneck. Pool statistics are available through the {@link PoolingConfig}
+ * interface, e.g. via the {@link #getPoolingConfigMixin() PoolingConfig mixin}.
+ *
+ * @since 5.1.10
+ * @see #setMaxSize
+ * @see #setMaxIdle
+ * @see #setMaxWait
+ * @see #setStripes
+ */
+@SuppressWarnings("serial")
+public class StripedPoolingTargetSource extends AbstractPoolingTargetSource {
+
+	/** Default maximum size of the pool, in line with {@link CommonsPool2TargetSource}. */
+	public static final int DEFAULT_MAX_SIZE = 8;
+
+
+	private int maxIdle = DEFAULT_MAX_SIZE;
+
+	private int minIdle = 0;
+
+	private long maxWait = -1;
+
+	private long timeBetweenEvictionRunsMillis = -1;
+
+	private long minEvictableIdleTimeMillis = 1000L * 60L * 30L;
+
+	private int stripes = Runtime.getRuntime().availableProcessors();
+
+	@Nullable
+	private ConcurrentLinkedDeque<IdleTarget>[] pool;
+
+	@Nullable
+	private Semaphore permits;
+
+	private final AtomicInteger activeCount = new AtomicInteger();
+
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	private final AtomicLong borrowCount = new AtomicLong();
+
+	private final AtomicLong createdCount = new AtomicLong();
+
+	private final AtomicLong destroyedCount = new AtomicLong();
+
+	private final AtomicLong nextEvictionRun = new AtomicLong();
+
+	private volatile boolean closed;
+
+
+	/**
+	 * Create a StripedPoolingTargetSource with default settings.
+	 * Default maximum size of the pool is 8.
+	 * @see #setMaxSize
+	 */
+	public StripedPoolingTargetSource() {
+		setMaxSize(DEFAULT_MAX_SIZE);
+	}
+
+
+	/**
+	 * Set the maximum number of idle objects in the pool.
+	 * Default is 8; a negative value indicates no limit.
+	 */
+	public void setMaxIdle(int maxIdle) {
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * Return the maximum number of idle objects in the pool.
+	 */
+	public int getMaxIdle() {
+		return this.maxIdle;
+	}
+
+	/**
+	 * Set the minimum number of idle objects to keep in the pool
+	 * when evicting objects which have been idle for too long.
+	 * Default is 0.
+	 */
+	public void setMinIdle(int minIdle) {
+		this.minIdle = minIdle;
+	}
+
+	/**
+	 * Return the minimum number of idle objects in the pool.
+	 */
+	public int getMinIdle() {
+		return this.minIdle;
+	}
+
+	/**
+	 * Set the maximum waiting time for fetching an object from an exhausted pool.
+	 * Default is -1, waiting forever; 0 indicates not to wait at all.
+	 */
+	public void setMaxWait(long maxWait) {
+		this.maxWait = maxWait;
+	}
+
+	/**
+	 * Return the maximum waiting time for fetching an object from the pool.
+	 */
+	public long getMaxWait() {
+		return this.maxWait;
+	}
+
+	/**
+	 * Set the minimum time between eviction runs that check for objects which
+	 * have been idle for too long. Eviction runs are triggered on return of
+	 * an object to the pool. Default is -1, not performing any eviction.
+	 */
+	public void setTimeBetweenEvictionRunsMillis(long timeBetweenEvictionRunsMillis) {
+		this.timeBetweenEvictionRunsMillis = timeBetweenEvictionRunsMillis;
+	}
+
+	/**
+	 * Return the time between eviction runs that check idle objects.
+	 */
+	public long getTimeBetweenEvictionRunsMillis() {
+		return this.timeBetweenEvictionRunsMillis;
+	}
+
+	/**
+	 * Set the minimum time that an idle object can sit in the pool before
+	 * it becomes subject to eviction. Default is 1800000 (30 minutes).
+	 * <p>Note that eviction runs need to be enabled to take this
+	 * setting into effect.
+	 * @see #setTimeBetweenEvictionRunsMillis
+	 */
+	public void setMinEvictableIdleTimeMillis(long minEvictableIdleTimeMillis) {
+		this.minEvictableIdleTimeMillis = minEvictableIdleTimeMillis;
+	}
+
+	/**
+	 * Return the minimum time that an idle object can sit in the pool.
+	 */
+	public long getMinEvictableIdleTimeMillis() {
+		return this.minEvictableIdleTimeMillis;
+	}
+
+	/**
+	 * Set the number of pool stripes to spread idle objects across.
+	 * Will be rounded up to the next power of two.
+	 * <p>Default is the number of available processors.
+	 */
+	public void setStripes(int stripes) {
+		Assert.isTrue(stripes > 0, "Number of stripes must be greater than 0");
+		this.stripes = stripes;
+	}
+
+	/**
+	 * Return the number of pool stripes.
+	 */
+	public int getStripes() {
+		return this.stripes;
+	}
+
+
+	/**
+	 * Creates the pool stripes and the permits for the maximum pool size.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	protected final void createPool() {
+		logger.debug("Creating striped object pool");
+		int stripeCount = 1;
+		while (stripeCount < this.stripes) {
+			stripeCount <<= 1;
+		}
+		ConcurrentLinkedDeque<IdleTarget>[] pool = new ConcurrentLinkedDeque[stripeCount];
+		for (int i = 0; i < stripeCount; i++) {
+			pool[i] = new ConcurrentLinkedDeque<>();
+		}
+		this.pool = pool;
+		this.permits = (getMaxSize() > 0 ? new Semaphore(getMaxSize()) : null);
+		scheduleNextEvictionRun();
+	}
+
+	/**
+	 * Borrows an object from the pool, preferably from the current
+	 * thread's stripe, creating a new object if no idle one is available.
+	 * @throws NoSuchElementException if the pool is exhausted and no object
+	 * has been returned within the configured maximum waiting time
+	 */
+	@Override
+	public Object getTarget() throws Exception {
+		ConcurrentLinkedDeque<IdleTarget>[] pool = this.pool;
+		Assert.state(pool != null && !this.closed, "Striped object pool not available");
+		acquirePermit();
+		try {
+			int mask = pool.length - 1;
+			int home = stripeIndex(mask);
+			for (int i = 0; i <= mask; i++) {
+				IdleTarget idle = pool[(home + i) & mask].pollFirst();
+				if (idle != null) {
+					this.idleCount.decrementAndGet();
+					this.activeCount.incrementAndGet();
+					this.borrowCount.incrementAndGet();
+					return idle.target;
+				}
+			}
+			Object target = newPrototypeInstance();
+			this.createdCount.incrementAndGet();
+			this.activeCount.incrementAndGet();
+			this.borrowCount.incrementAndGet();
+			return target;
+		}
+		catch (Throwable ex) {
+			releasePermit();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Returns the specified object to the current thread's pool stripe,
+	 * or destroys it if the maximum number of idle objects has been reached.
+	 */
+	@Override
+	public void releaseTarget(Object target) throws Exception {
+		ConcurrentLinkedDeque<IdleTarget>[] pool = this.pool;
+		if (pool == null) {
+			return;
+		}
+		this.activeCount.decrementAndGet();
+		try {
+			boolean keepIdle = false;
+			if (!this.closed) {
+				int idle = this.idleCount.incrementAndGet();
+				if (this.maxIdle < 0 || idle <= this.maxIdle) {
+					keepIdle = true;
+				}
+				else {
+					this.idleCount.decrementAndGet();
+				}
+			}
+			if (keepIdle) {
+				ConcurrentLinkedDeque<IdleTarget> stripe = pool[stripeIndex(pool.length - 1)];
+				IdleTarget idle = new IdleTarget(target);
+				stripe.offerFirst(idle);
+				// Pool closed in the meantime: take the object back out unless destroy() drained it already
+				if (this.closed && stripe.removeFirstOccurrence(idle)) {
+					this.idleCount.decrementAndGet();
+					destroyTarget(target);
+				}
+			}
+			else {
+				destroyTarget(target);
+			}
+		}
+		finally {
+			releasePermit();
+		}
+		evictIfNecessary(pool);
+	}
+
+	@Override
+	public int getActiveCount() {
+		return this.activeCount.get();
+	}
+
+	@Override
+	public int getIdleCount() {
+		return this.idleCount.get();
+	}
+
+	@Override
+	public long getBorrowCount() {
+		return this.borrowCount.get();
+	}
+
+	@Override
+	public long getCreatedCount() {
+		return this.createdCount.get();
+	}
+
+	@Override
+	public long getDestroyedCount() {
+		return this.destroyedCount.get();
+	}
+
+
+	/**
+	 * Destroys all idle objects when destroying this object.
+	 * Objects which are still in use get destroyed on return.
+	 */
+	@Override
+	public void destroy() {
+		logger.debug("Closing striped object pool");
+		this.closed = true;
+		ConcurrentLinkedDeque<IdleTarget>[] pool = this.pool;
+		if (pool != null) {
+			for (ConcurrentLinkedDeque<IdleTarget> stripe : pool) {
+				IdleTarget idle;
+				while ((idle = stripe.pollFirst()) != null) {
+					this.idleCount.decrementAndGet();
+					destroyTarget(idle.target);
+				}
+			}
+		}
+	}
+
+
+	private int stripeIndex(int mask) {
+		long id = Thread.currentThread().getId();
+		return (int) (id ^ (id >>> 16)) & mask;
+	}
+
+	private void acquirePermit() throws InterruptedException {
+		Semaphore permits = this.permits;
+		if (permits == null) {
+			return;
+		}
+		boolean acquired;
+		if (this.maxWait < 0) {
+			permits.acquire();
+			acquired = true;
+		}
+		else {
+			acquired = permits.tryAcquire(this.maxWait, TimeUnit.MILLISECONDS);
+		}
+		if (!acquired) {
+			throw new NoSuchElementException("Timeout waiting for idle object in pool for bean '" +
+					getTargetBeanName() + "' (maxSize=" + getMaxSize() + ", maxWait=" + this.maxWait + ")");
+		}
+	}
+
+	private void releasePermit() {
+		Semaphore permits = this.permits;
+		if (permits != null) {
+			permits.release();
+		}
+	}
+
+	private void destroyTarget(Object target) {
+		this.destroyedCount.incrementAndGet();
+		destroyPrototypeInstance(target);
+	}
+
+	private void scheduleNextEvictionRun() {
+		if (this.timeBetweenEvictionRunsMillis > 0) {
+			this.nextEvictionRun.set(System.currentTimeMillis() + this.timeBetweenEvictionRunsMillis);
+		}
+	}
+
+	/**
+	 * Evict objects which have been idle for too long, if an eviction run is due.
+	 * Only one thread performs an eviction run at any given time.
+	 */
+	private void evictIfNecessary(ConcurrentLinkedDeque<IdleTarget>[] pool) {
+		if (this.timeBetweenEvictionRunsMillis <= 0) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		long scheduled = this.nextEvictionRun.get();
+		if (now < scheduled ||
+				!this.nextEvictionRun.compareAndSet(scheduled, now + this.timeBetweenEvictionRunsMillis)) {
+			return;
+		}
+		long idleThreshold = now - this.minEvictableIdleTimeMillis;
+		for (ConcurrentLinkedDeque<IdleTarget> stripe : pool) {
+			// Oldest idle objects are at the tail of each stripe
+			Iterator<IdleTarget> it = stripe.descendingIterator();
+			while (it.hasNext() && this.idleCount.get() > this.minIdle) {
+				IdleTarget idle = it.next();
+				if (idle.idleSince > idleThreshold) {
+					break;
+				}
+				if (stripe.removeLastOccurrence(idle)) {
+					this.idleCount.decrementAndGet();
+					destroyTarget(idle.target);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Holder for an idle target object, along with the time it was returned.
+	 */
+	private static final class IdleTarget {
+
+		final Object target;
+
+		final long idleSince = System.currentTimeMillis();
+
+		IdleTarget(Object target) {
+			this.target = target;
+		}
+	}
+
+}
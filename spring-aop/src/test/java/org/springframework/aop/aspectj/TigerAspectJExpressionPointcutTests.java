@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -179,6 +179,40 @@ public class TigerAspectJExpressionPointcutTests {
 		assertTrue(ajexp.matches(IBeanA.class.getMethod("getAge"), proxy.getClass()));
 	}
 
+	@Test
+	public void testAnnotationOnMethodPrefiltersClasses() throws Exception {
+		AspectJExpressionPointcut ajexp = new AspectJExpressionPointcut();
+		ajexp.setExpression("execution(* *(..)) && @annotation(test.annotation.transaction.Tx)");
+
+		assertFalse(ajexp.matches(TestBean.class));
+		assertFalse(ajexp.matches(HasTransactionalAnnotation.class));
+		assertTrue(ajexp.matches(BeanA.class));
+
+		ProxyFactory factory = new ProxyFactory(new BeanA());
+		factory.setProxyTargetClass(false);
+		assertTrue(ajexp.matches(factory.getProxy().getClass()));
+	}
+
+	@Test
+	public void testAnnotationOnClassPrefiltersClasses() throws Exception {
+		AspectJExpressionPointcut ajexp = new AspectJExpressionPointcut();
+		ajexp.setExpression("@within(test.annotation.transaction.Tx)");
+
+		assertFalse(ajexp.matches(TestBean.class));
+		assertFalse(ajexp.matches(BeanA.class));
+		assertTrue(ajexp.matches(BeanB.class));
+		assertTrue(ajexp.matches(HasTransactionalAnnotation.class));
+	}
+
+	@Test
+	public void testAnnotationInDisjunctionDoesNotPrefilterClasses() throws Exception {
+		AspectJExpressionPointcut ajexp = new AspectJExpressionPointcut();
+		ajexp.setExpression("execution(* *(..)) || @annotation(test.annotation.transaction.Tx)");
+
+		assertTrue(ajexp.matches(TestBean.class));
+		assertTrue(ajexp.matches(getAge, TestBean.class));
+	}
+
 	@Test
 	public void testAnnotationOnMethodWithWildcard() throws Exception {
 		String expression = "execution(@(test.annotation..*) * *(..))";
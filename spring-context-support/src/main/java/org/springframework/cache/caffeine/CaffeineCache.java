@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.function.Function;
 
@@ -105,11 +107,21 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 		return this.cache.getIfPresent(key);
 	}
 
+	@Override
+	protected Map<Object, Object> lookupAll(Collection<?> keys) {
+		return this.cache.getAllPresent(keys);
+	}
+
 	@Override
 	public void put(Object key, @Nullable Object value) {
 		this.cache.put(key, toStoreValue(value));
 	}
 
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		this.cache.putAll(toStoreValues(entries));
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable final Object value) {
@@ -120,11 +132,13 @@ public class CaffeineCache extends AbstractValueAdaptingCache {
 
 	@Override
 	public void evict(Object key) {
+		invalidatePendingLoad(key);
 		this.cache.invalidate(key);
 	}
 
 	@Override
 	public void clear() {
+		invalidatePendingLoads();
 		this.cache.invalidateAll();
 	}
 
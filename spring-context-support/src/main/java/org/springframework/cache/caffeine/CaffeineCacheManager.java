@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,19 +16,27 @@
 
 package org.springframework.cache.caffeine;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.CacheSnapshotStore;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
@@ -45,6 +53,10 @@ import org.springframework.util.ObjectUtils;
  * A {@link CaffeineSpec}-compliant expression value can also be applied
  * via the {@link #setCacheSpecification "cacheSpecification"} bean property.
  *
+ * <p>With a {@link #setSnapshotStore snapshot store}, the contents of the caches
+ * are saved on shutdown and restored when a cache is first requested after a
+ * restart, so that caches do not start out cold.
+ *
  * <p>Requires Caffeine 2.1 or higher.
  *
  * @author Ben Manes
@@ -53,7 +65,10 @@ import org.springframework.util.ObjectUtils;
  * @since 4.3
  * @see CaffeineCache
  */
-public class CaffeineCacheManager implements CacheManager {
+public class CaffeineCacheManager implements CacheManager, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(CaffeineCacheManager.class);
+
 
 	private final ConcurrentMap<String, Cache> cacheMap = new ConcurrentHashMap<>(16);
 
@@ -66,6 +81,11 @@ public class CaffeineCacheManager implements CacheManager {
 
 	private boolean allowNullValues = true;
 
+	@Nullable
+	private CacheSnapshotStore snapshotStore;
+
+	private final Set<String> restoredCaches = ConcurrentHashMap.newKeySet();
+
 
 	/**
 	 * Construct a dynamic CaffeineCacheManager,
@@ -169,6 +189,18 @@ public class CaffeineCacheManager implements CacheManager {
 		return this.allowNullValues;
 	}
 
+	/**
+	 * Specify a store to save the contents of the caches to on shutdown, and to
+	 * restore them from when a cache is first requested.
+	 * <p>Default is none, i.e. caches start empty. The snapshot of a cache is
+	 * discarded if it is older than the cache's expire-after-write setting.
+	 * @since 5.1.10
+	 * @see org.springframework.cache.support.FileSystemCacheSnapshotStore
+	 */
+	public void setSnapshotStore(@Nullable CacheSnapshotStore snapshotStore) {
+		this.snapshotStore = snapshotStore;
+	}
+
 
 	@Override
 	public Collection<String> getCacheNames() {
@@ -188,9 +220,30 @@ public class CaffeineCacheManager implements CacheManager {
 				}
 			}
 		}
+		if (cache != null && this.snapshotStore != null && !this.restoredCaches.contains(name)) {
+			restoreSnapshot(this.snapshotStore, name, cache);
+		}
 		return cache;
 	}
 
+	@SuppressWarnings("unchecked")
+	private void restoreSnapshot(CacheSnapshotStore snapshotStore, String name, Cache cache) {
+		Object nativeCache = cache.getNativeCache();
+		if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache && this.restoredCaches.add(name)) {
+			com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeineCache =
+					(com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache;
+			Duration timeToLive = caffeineCache.policy().expireAfterWrite()
+					.map(expiration -> Duration.ofNanos(expiration.getExpiresAfter(TimeUnit.NANOSECONDS)))
+					.orElse(null);
+			try {
+				snapshotStore.load(name, timeToLive, caffeineCache.asMap()::putIfAbsent);
+			}
+			catch (IOException | RuntimeException ex) {
+				logger.warn("Failed to restore snapshot for cache '" + name + "'", ex);
+			}
+		}
+	}
+
 	/**
 	 * Create a new CaffeineCache instance for the specified cache name.
 	 * @param name the name of the cache
@@ -228,6 +281,33 @@ public class CaffeineCacheManager implements CacheManager {
 		for (Map.Entry<String, Cache> entry : this.cacheMap.entrySet()) {
 			entry.setValue(createCaffeineCache(entry.getKey()));
 		}
+		this.restoredCaches.clear();
+	}
+
+	/**
+	 * Save the contents of all caches which have been restored from
+	 * the {@link #setSnapshotStore snapshot store} before.
+	 * <p>Caches which have not been requested since startup are left out,
+	 * keeping their previous snapshot.
+	 */
+	@Override
+	public void destroy() {
+		CacheSnapshotStore snapshotStore = this.snapshotStore;
+		if (snapshotStore == null) {
+			return;
+		}
+		for (String name : this.restoredCaches) {
+			Cache cache = this.cacheMap.get(name);
+			Object nativeCache = (cache != null ? cache.getNativeCache() : null);
+			if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+				try {
+					snapshotStore.save(name, ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).asMap());
+				}
+				catch (IOException | RuntimeException ex) {
+					logger.warn("Failed to save snapshot for cache '" + name + "'", ex);
+				}
+			}
+		}
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,11 @@
 
 package org.springframework.cache.ehcache;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import net.sf.ehcache.Ehcache;
@@ -128,6 +133,26 @@ public class EhCacheCache implements Cache {
 		this.cache.put(new Element(key, value));
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, Element> elements = this.cache.getAll(keys);
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(elements.size());
+		for (Object key : keys) {
+			Element element = elements.get(key);
+			if (element != null) {
+				result.put(key, toValueWrapper(element));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		List<Element> elements = new ArrayList<>(entries.size());
+		entries.forEach((key, value) -> elements.add(new Element(key, value)));
+		this.cache.putAll(elements);
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.cache.jcache;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import javax.cache.Cache;
 import javax.cache.processor.EntryProcessor;
@@ -77,6 +80,11 @@ public class JCacheCache extends AbstractValueAdaptingCache {
 		return this.cache.get(key);
 	}
 
+	@Override
+	protected Map<Object, Object> lookupAll(Collection<?> keys) {
+		return this.cache.getAll(new LinkedHashSet<>(keys));
+	}
+
 	@Override
 	@Nullable
 	public <T> T get(Object key, Callable<T> valueLoader) {
@@ -93,6 +101,11 @@ public class JCacheCache extends AbstractValueAdaptingCache {
 		this.cache.put(key, toStoreValue(value));
 	}
 
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		this.cache.putAll(toStoreValues(entries));
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
@@ -102,11 +115,13 @@ public class JCacheCache extends AbstractValueAdaptingCache {
 
 	@Override
 	public void evict(Object key) {
+		invalidatePendingLoad(key);
 		this.cache.remove(key);
 	}
 
 	@Override
 	public void clear() {
+		invalidatePendingLoads();
 		this.cache.removeAll();
 	}
 
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.offheap;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Bounded memory region outside of the Java heap, divided into blocks of a
+ * fixed size: either allocated as direct {@link ByteBuffer ByteBuffers}, or
+ * memory-mapped from a file. Data gets stored in a set of blocks which do
+ * not need to be contiguous, avoiding fragmentation of the region.
+ *
+ * <p>Instances are not thread-safe: callers need to synchronize access,
+ * as done by {@link OffHeapCache}.
+ *
+ * @since 5.1.10
+ * @see OffHeapCache
+ */
+public class OffHeapArena implements Closeable {
+
+	private static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+
+	private final int blockSize;
+
+	private final int blockCount;
+
+	private final int blocksPerSegment;
+
+	private final ByteBuffer[] segments;
+
+	private final int[] freeBlocks;
+
+	private int freeBlockCount;
+
+	@Nullable
+	private final File file;
+
+	@Nullable
+	private final RandomAccessFile randomAccessFile;
+
+
+	/**
+	 * Create a new arena allocated as direct ByteBuffers.
+	 * @param capacity the capacity of the arena in bytes
+	 * @param blockSize the size of a single block in bytes
+	 * @see ByteBuffer#allocateDirect(int)
+	 */
+	public OffHeapArena(long capacity, int blockSize) {
+		this.blockSize = blockSize;
+		this.blockCount = determineBlockCount(capacity, blockSize);
+		this.blocksPerSegment = MAX_SEGMENT_SIZE / blockSize;
+		this.segments = new ByteBuffer[(this.blockCount + this.blocksPerSegment - 1) / this.blocksPerSegment];
+		for (int i = 0; i < this.segments.length; i++) {
+			this.segments[i] = ByteBuffer.allocateDirect(getSegmentSize(i));
+		}
+		this.freeBlocks = initFreeBlocks(this.blockCount);
+		this.freeBlockCount = this.blockCount;
+		this.file = null;
+		this.randomAccessFile = null;
+	}
+
+	/**
+	 * Create a new arena memory-mapped from the given file. The file serves
+	 * as scratch space only and gets deleted when the arena is closed.
+	 * @param file the file to map (created or overwritten)
+	 * @param capacity the capacity of the arena in bytes
+	 * @param blockSize the size of a single block in bytes
+	 * @throws IOException if the file cannot be mapped
+	 * @see FileChannel#map
+	 */
+	public OffHeapArena(File file, long capacity, int blockSize) throws IOException {
+		this.blockSize = blockSize;
+		this.blockCount = determineBlockCount(capacity, blockSize);
+		this.blocksPerSegment = MAX_SEGMENT_SIZE / blockSize;
+		this.segments = new ByteBuffer[(this.blockCount + this.blocksPerSegment - 1) / this.blocksPerSegment];
+		this.file = file;
+		this.randomAccessFile = new RandomAccessFile(file, "rw");
+		try {
+			FileChannel channel = this.randomAccessFile.getChannel();
+			long position = 0;
+			for (int i = 0; i < this.segments.length; i++) {
+				int segmentSize = getSegmentSize(i);
+				this.segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, segmentSize);
+				position += segmentSize;
+			}
+		}
+		catch (IOException ex) {
+			close();
+			throw ex;
+		}
+		this.freeBlocks = initFreeBlocks(this.blockCount);
+		this.freeBlockCount = this.blockCount;
+	}
+
+	private static int determineBlockCount(long capacity, int blockSize) {
+		Assert.isTrue(blockSize > 0 && blockSize <= MAX_SEGMENT_SIZE, "Block size must be between 1 byte and 1 GB");
+		Assert.isTrue(capacity >= blockSize, "Capacity must not be smaller than the block size");
+		long blockCount = capacity / blockSize;
+		Assert.isTrue(blockCount <= Integer.MAX_VALUE, "Too many blocks: increase the block size");
+		return (int) blockCount;
+	}
+
+	private static int[] initFreeBlocks(int blockCount) {
+		int[] freeBlocks = new int[blockCount];
+		for (int i = 0; i < blockCount; i++) {
+			// Hand out low block indexes first
+			freeBlocks[i] = blockCount - 1 - i;
+		}
+		return freeBlocks;
+	}
+
+	private int getSegmentSize(int segment) {
+		int blocks = Math.min(this.blocksPerSegment, this.blockCount - segment * this.blocksPerSegment);
+		return blocks * this.blockSize;
+	}
+
+
+	/**
+	 * Return the size of a single block in bytes.
+	 */
+	public int getBlockSize() {
+		return this.blockSize;
+	}
+
+	/**
+	 * Return the total number of blocks.
+	 */
+	public int getBlockCount() {
+		return this.blockCount;
+	}
+
+	/**
+	 * Return the number of currently unused blocks.
+	 */
+	public int getFreeBlockCount() {
+		return this.freeBlockCount;
+	}
+
+	/**
+	 * Return the number of blocks needed to store the given number of bytes.
+	 */
+	public int getBlocksNeeded(int length) {
+		return Math.max(1, (length + this.blockSize - 1) / this.blockSize);
+	}
+
+	/**
+	 * Store the given data in free blocks.
+	 * @param data the data to store
+	 * @return the indexes of the blocks holding the data,
+	 * or {@code null} if there are not enough free blocks
+	 */
+	@Nullable
+	public int[] store(byte[] data) {
+		int needed = getBlocksNeeded(data.length);
+		if (needed > this.freeBlockCount) {
+			return null;
+		}
+		int[] blocks = new int[needed];
+		for (int i = 0; i < needed; i++) {
+			int block = this.freeBlocks[--this.freeBlockCount];
+			blocks[i] = block;
+			int offset = i * this.blockSize;
+			getBlockBuffer(block).put(data, offset, Math.min(this.blockSize, data.length - offset));
+		}
+		return blocks;
+	}
+
+	/**
+	 * Read data from the given blocks.
+	 * @param blocks the indexes of the blocks holding the data
+	 * @param length the length of the data in bytes
+	 * @return the data
+	 */
+	public byte[] read(int[] blocks, int length) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < blocks.length; i++) {
+			int offset = i * this.blockSize;
+			getBlockBuffer(blocks[i]).get(data, offset, Math.min(this.blockSize, length - offset));
+		}
+		return data;
+	}
+
+	/**
+	 * Release the given blocks for storing other data.
+	 * @param blocks the indexes of the blocks to release
+	 */
+	public void release(int[] blocks) {
+		for (int block : blocks) {
+			this.freeBlocks[this.freeBlockCount++] = block;
+		}
+	}
+
+	private ByteBuffer getBlockBuffer(int block) {
+		ByteBuffer buffer = this.segments[block / this.blocksPerSegment].duplicate();
+		buffer.position((block % this.blocksPerSegment) * this.blockSize);
+		return buffer;
+	}
+
+	/**
+	 * Close the arena, deleting the file of a memory-mapped arena.
+	 * Direct buffers and mapped regions get released on garbage collection.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (this.randomAccessFile != null) {
+			this.randomAccessFile.close();
+		}
+		if (this.file != null && !this.file.delete()) {
+			this.file.deleteOnExit();
+		}
+	}
+
+}
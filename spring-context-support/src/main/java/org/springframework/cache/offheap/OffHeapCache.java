@@ -0,0 +1,283 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.offheap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Callable;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link org.springframework.cache.Cache} implementation storing serialized
+ * values in an {@link OffHeapArena}, outside of the Java heap and therefore
+ * outside of the reach of the garbage collector. Only the keys and the block
+ * indexes of each entry are held on the heap.
+ *
+ * <p>Once the arena is full, entries get evicted in least-recently-used order.
+ * A value which does not fit into the arena at all does not get cached.
+ *
+ * <p>Values are serialized through a {@link Serializer} and {@link Deserializer}
+ * pair, by default using Java serialization. Since every access copies and
+ * deserializes a value, this cache is suited for large values which are
+ * expensive to compute; each retrieval returns a new copy of the value.
+ *
+ * @since 5.1.10
+ * @see OffHeapCacheManager
+ */
+public class OffHeapCache extends AbstractValueAdaptingCache {
+
+	private static final int LOAD_LOCK_COUNT = 64;
+
+	private static final Log logger = LogFactory.getLog(OffHeapCache.class);
+
+
+	private final String name;
+
+	private final OffHeapArena arena;
+
+	private final Serializer<Object> serializer;
+
+	private final Deserializer<Object> deserializer;
+
+	private final LinkedHashMap<Object, Entry> index = new LinkedHashMap<>(256, 0.75f, true);
+
+	private final Object[] loadLocks = new Object[LOAD_LOCK_COUNT];
+
+
+	/**
+	 * Create a new OffHeapCache using Java serialization.
+	 * @param name the name of the cache
+	 * @param arena the arena to store the values in
+	 */
+	public OffHeapCache(String name, OffHeapArena arena) {
+		this(name, arena, true, new DefaultSerializer(), new DefaultDeserializer());
+	}
+
+	/**
+	 * Create a new OffHeapCache.
+	 * @param name the name of the cache
+	 * @param arena the arena to store the values in, exclusively used by this cache
+	 * @param allowNullValues whether to accept and convert {@code null} values
+	 * @param serializer the serializer for the values to store
+	 * @param deserializer the deserializer for the stored values
+	 */
+	public OffHeapCache(String name, OffHeapArena arena, boolean allowNullValues,
+			Serializer<Object> serializer, Deserializer<Object> deserializer) {
+
+		super(allowNullValues);
+		Assert.notNull(name, "Name must not be null");
+		Assert.notNull(arena, "OffHeapArena must not be null");
+		Assert.notNull(serializer, "Serializer must not be null");
+		Assert.notNull(deserializer, "Deserializer must not be null");
+		this.name = name;
+		this.arena = arena;
+		this.serializer = serializer;
+		this.deserializer = deserializer;
+		for (int i = 0; i < LOAD_LOCK_COUNT; i++) {
+			this.loadLocks[i] = new Object();
+		}
+	}
+
+
+	@Override
+	public final String getName() {
+		return this.name;
+	}
+
+	@Override
+	public final OffHeapArena getNativeCache() {
+		return this.arena;
+	}
+
+	/**
+	 * Return the number of entries in this cache.
+	 */
+	public int size() {
+		synchronized (this.index) {
+			return this.index.size();
+		}
+	}
+
+	@Override
+	@Nullable
+	protected Object lookup(Object key) {
+		byte[] data;
+		synchronized (this.index) {
+			Entry entry = this.index.get(key);
+			if (entry == null) {
+				return null;
+			}
+			data = this.arena.read(entry.blocks, entry.length);
+		}
+		return deserialize(data);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = get(key);
+		if (wrapper != null) {
+			return (T) wrapper.get();
+		}
+		synchronized (this.loadLocks[(key.hashCode() & Integer.MAX_VALUE) % LOAD_LOCK_COUNT]) {
+			wrapper = get(key);
+			if (wrapper != null) {
+				return (T) wrapper.get();
+			}
+			T value;
+			try {
+				value = valueLoader.call();
+			}
+			catch (Throwable ex) {
+				throw new ValueRetrievalException(key, valueLoader, ex);
+			}
+			put(key, value);
+			return value;
+		}
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		byte[] data = serialize(key, toStoreValue(value));
+		synchronized (this.index) {
+			remove(key);
+			store(key, data);
+		}
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		byte[] data = serialize(key, toStoreValue(value));
+		byte[] existing = null;
+		synchronized (this.index) {
+			Entry entry = this.index.get(key);
+			if (entry != null) {
+				existing = this.arena.read(entry.blocks, entry.length);
+			}
+			else {
+				store(key, data);
+			}
+		}
+		return (existing != null ? toValueWrapper(deserialize(existing)) : null);
+	}
+
+	@Override
+	public void evict(Object key) {
+		invalidatePendingLoad(key);
+		synchronized (this.index) {
+			remove(key);
+		}
+	}
+
+	@Override
+	public void clear() {
+		invalidatePendingLoads();
+		synchronized (this.index) {
+			for (Entry entry : this.index.values()) {
+				this.arena.release(entry.blocks);
+			}
+			this.index.clear();
+		}
+	}
+
+	/**
+	 * Store the given data, evicting least recently used entries if necessary.
+	 * To be called with the index lock held.
+	 */
+	private void store(Object key, byte[] data) {
+		int needed = this.arena.getBlocksNeeded(data.length);
+		if (needed > this.arena.getBlockCount()) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Value for key '" + key + "' of " + data.length + " bytes exceeds capacity of cache '" +
+						this.name + "'");
+			}
+			return;
+		}
+		Iterator<Entry> lru = this.index.values().iterator();
+		while (needed > this.arena.getFreeBlockCount() && lru.hasNext()) {
+			this.arena.release(lru.next().blocks);
+			lru.remove();
+		}
+		int[] blocks = this.arena.store(data);
+		Assert.state(blocks != null, "Not enough free blocks after eviction");
+		this.index.put(key, new Entry(blocks, data.length));
+	}
+
+	/**
+	 * Remove the entry for the given key, if any.
+	 * To be called with the index lock held.
+	 */
+	private void remove(Object key) {
+		Entry entry = this.index.remove(key);
+		if (entry != null) {
+			this.arena.release(entry.blocks);
+		}
+	}
+
+	private byte[] serialize(Object key, Object storeValue) {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+			this.serializer.serialize(storeValue, out);
+			return out.toByteArray();
+		}
+		catch (Throwable ex) {
+			throw new IllegalArgumentException("Failed to serialize cache value for key '" + key +
+					"'. Does it implement Serializable?", ex);
+		}
+	}
+
+	private Object deserialize(byte[] data) {
+		try {
+			return this.deserializer.deserialize(new ByteArrayInputStream(data));
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException("Failed to deserialize cache value", ex);
+		}
+	}
+
+
+	/**
+	 * Heap-side index entry: the blocks holding a serialized value.
+	 */
+	private static final class Entry {
+
+		final int[] blocks;
+
+		final int length;
+
+		Entry(int[] blocks, int length) {
+			this.blocks = blocks;
+			this.length = length;
+		}
+	}
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.offheap;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheManager} implementation that lazily builds {@link OffHeapCache}
+ * instances for each {@link #getCache} request, each with an arena of the
+ * configured {@link #setCapacity capacity}. Also supports a 'static' mode where
+ * the set of cache names is pre-defined through {@link #setCacheNames}, with no
+ * dynamic creation of further cache regions at runtime.
+ *
+ * <p>Arenas are allocated as direct buffers by default, counting against the
+ * JVM's {@code -XX:MaxDirectMemorySize} limit. With a {@link #setDirectory
+ * directory} set, arenas get memory-mapped from a file per cache instead,
+ * leaving it to the operating system to page the data in and out.
+ *
+ * <p>Note: Configuration properties apply to caches created afterwards,
+ * and are therefore to be set before the first {@link #getCache} call.
+ *
+ * @since 5.1.10
+ * @see OffHeapCache
+ * @see OffHeapArena
+ */
+public class OffHeapCacheManager implements CacheManager, BeanClassLoaderAware, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(OffHeapCacheManager.class);
+
+
+	private final ConcurrentMap<String, OffHeapCache> cacheMap = new ConcurrentHashMap<>(16);
+
+	@Nullable
+	private Set<String> staticCacheNames;
+
+	private long capacity = 64 * 1024 * 1024;
+
+	private int blockSize = 1024;
+
+	@Nullable
+	private File directory;
+
+	private boolean allowNullValues = true;
+
+	private Serializer<Object> serializer = new DefaultSerializer();
+
+	@Nullable
+	private Deserializer<Object> deserializer;
+
+	@Nullable
+	private ClassLoader beanClassLoader;
+
+
+	/**
+	 * Construct a dynamic OffHeapCacheManager,
+	 * lazily creating cache instances as they are being requested.
+	 */
+	public OffHeapCacheManager() {
+	}
+
+	/**
+	 * Construct a static OffHeapCacheManager,
+	 * managing caches for the specified cache names only.
+	 */
+	public OffHeapCacheManager(String... cacheNames) {
+		setCacheNames(Arrays.asList(cacheNames));
+	}
+
+
+	/**
+	 * Specify the set of cache names for this CacheManager's 'static' mode.
+	 * <p>The number of caches and their names will be fixed after a call to this method,
+	 * with no creation of further cache regions at runtime.
+	 * <p>Calling this with a {@code null} collection argument resets the
+	 * mode to 'dynamic', allowing for further creation of caches again.
+	 */
+	public void setCacheNames(@Nullable Collection<String> cacheNames) {
+		this.staticCacheNames = (cacheNames != null ? new LinkedHashSet<>(cacheNames) : null);
+	}
+
+	/**
+	 * Specify the capacity of the arena of each cache in bytes.
+	 * <p>Default is 64 MB.
+	 */
+	public void setCapacity(long capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Specify the size of the blocks that each arena is divided into, in bytes.
+	 * <p>Default is 1 KB. Values occupy a whole number of blocks, so the block
+	 * size trades the waste per entry against the management overhead for
+	 * large values.
+	 */
+	public void setBlockSize(int blockSize) {
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * Specify a directory to create memory-mapped files for the arenas in.
+	 * <p>Default is none, i.e. arenas allocated as direct buffers.
+	 */
+	public void setDirectory(@Nullable File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Specify whether to accept and convert {@code null} values for all caches
+	 * in this cache manager.
+	 * <p>Default is "true".
+	 */
+	public void setAllowNullValues(boolean allowNullValues) {
+		this.allowNullValues = allowNullValues;
+	}
+
+	/**
+	 * Return whether this cache manager accepts and converts {@code null} values
+	 * for all of its caches.
+	 */
+	public boolean isAllowNullValues() {
+		return this.allowNullValues;
+	}
+
+	/**
+	 * Specify the serializer for the cached values.
+	 * <p>Default is a {@link DefaultSerializer}, using Java serialization.
+	 */
+	public void setSerializer(Serializer<Object> serializer) {
+		Assert.notNull(serializer, "Serializer must not be null");
+		this.serializer = serializer;
+	}
+
+	/**
+	 * Specify the deserializer for the cached values.
+	 * <p>Default is a {@link DefaultDeserializer} for the bean ClassLoader.
+	 */
+	public void setDeserializer(Deserializer<Object> deserializer) {
+		Assert.notNull(deserializer, "Deserializer must not be null");
+		this.deserializer = deserializer;
+	}
+
+	@Override
+	public void setBeanClassLoader(ClassLoader classLoader) {
+		this.beanClassLoader = classLoader;
+	}
+
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return Collections.unmodifiableSet(this.staticCacheNames != null ?
+				this.staticCacheNames : this.cacheMap.keySet());
+	}
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		Cache cache = this.cacheMap.get(name);
+		if (cache == null && (this.staticCacheNames == null || this.staticCacheNames.contains(name))) {
+			cache = this.cacheMap.computeIfAbsent(name, this::createOffHeapCache);
+		}
+		return cache;
+	}
+
+	/**
+	 * Create a new OffHeapCache instance for the specified cache name.
+	 * @param name the name of the cache
+	 * @return the OffHeapCache
+	 */
+	protected OffHeapCache createOffHeapCache(String name) {
+		Deserializer<Object> deserializer = (this.deserializer != null ? this.deserializer :
+				new DefaultDeserializer(this.beanClassLoader));
+		return new OffHeapCache(name, createArena(name), isAllowNullValues(), this.serializer, deserializer);
+	}
+
+	/**
+	 * Create the arena for the cache of the specified name.
+	 * @param name the name of the cache
+	 * @return the arena, either direct or memory-mapped
+	 */
+	protected OffHeapArena createArena(String name) {
+		if (this.directory == null) {
+			return new OffHeapArena(this.capacity, this.blockSize);
+		}
+		try {
+			File file = File.createTempFile("cache-" + name.replaceAll("[^\\w.-]", "_") + "-", ".arena", this.directory);
+			return new OffHeapArena(file, this.capacity, this.blockSize);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to create memory-mapped arena for cache '" + name + "'", ex);
+		}
+	}
+
+	/**
+	 * Close the arenas of all caches, deleting any memory-mapped files.
+	 */
+	@Override
+	public void destroy() {
+		for (OffHeapCache cache : this.cacheMap.values()) {
+			try {
+				cache.getNativeCache().close();
+			}
+			catch (IOException ex) {
+				logger.debug("Could not close arena of cache '" + cache.getName() + "'", ex);
+			}
+		}
+		this.cacheMap.clear();
+	}
+
+}
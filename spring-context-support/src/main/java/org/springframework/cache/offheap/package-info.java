@@ -0,0 +1,10 @@
+/**
+ * Cache implementation storing serialized values outside of the Java heap,
+ * in direct or memory-mapped buffers.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.cache.offheap;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.io.Serializable;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Message describing the invalidation of a single entry or of all entries
+ * of a named cache, as exchanged through a {@link CacheInvalidationChannel}.
+ *
+ * <p>Serializable for the benefit of channel implementations on top of
+ * a messaging system, as long as the cache keys are serializable.
+ *
+ * @since 5.1.10
+ * @see TieredCacheManager
+ */
+@SuppressWarnings("serial")
+public final class CacheInvalidation implements Serializable {
+
+	private final String sourceId;
+
+	private final String cacheName;
+
+	@Nullable
+	private final Object key;
+
+
+	/**
+	 * Create a new CacheInvalidation.
+	 * @param sourceId the identifier of the node that sends the invalidation
+	 * @param cacheName the name of the affected cache
+	 * @param key the key of the invalidated entry, or {@code null} for all entries
+	 */
+	public CacheInvalidation(String sourceId, String cacheName, @Nullable Object key) {
+		Assert.notNull(sourceId, "Source id must not be null");
+		Assert.notNull(cacheName, "Cache name must not be null");
+		this.sourceId = sourceId;
+		this.cacheName = cacheName;
+		this.key = key;
+	}
+
+
+	/**
+	 * Return the identifier of the node that sent this invalidation.
+	 */
+	public String getSourceId() {
+		return this.sourceId;
+	}
+
+	/**
+	 * Return the name of the affected cache.
+	 */
+	public String getCacheName() {
+		return this.cacheName;
+	}
+
+	/**
+	 * Return the key of the invalidated entry, or {@code null} if all
+	 * entries of the cache have been invalidated.
+	 */
+	@Nullable
+	public Object getKey() {
+		return this.key;
+	}
+
+	/**
+	 * Return whether all entries of the cache have been invalidated.
+	 */
+	public boolean isClear() {
+		return (this.key == null);
+	}
+
+
+	@Override
+	public String toString() {
+		return "CacheInvalidation from '" + this.sourceId + "' for cache '" + this.cacheName + "'" +
+				(this.key != null ? " and key '" + this.key + "'" : " (all entries)");
+	}
+
+}
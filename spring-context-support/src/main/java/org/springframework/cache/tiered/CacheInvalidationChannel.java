@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.function.Consumer;
+
+/**
+ * Strategy interface for broadcasting {@link CacheInvalidation} messages
+ * between the nodes of a {@link TieredCacheManager} setup, e.g. on top of
+ * a pub/sub facility of the remote cache provider or a messaging system.
+ *
+ * <p>Messages are delivered to all subscribers, including the sending node;
+ * receivers ignore their own messages based on the
+ * {@link CacheInvalidation#getSourceId() source id}.
+ *
+ * @since 5.1.10
+ * @see InMemoryCacheInvalidationChannel
+ */
+public interface CacheInvalidationChannel {
+
+	/**
+	 * Broadcast the given invalidation to all subscribers.
+	 * @param invalidation the invalidation message
+	 */
+	void publish(CacheInvalidation invalidation);
+
+	/**
+	 * Register a subscriber for invalidation messages.
+	 * @param subscriber the callback for received messages
+	 */
+	void subscribe(Consumer<CacheInvalidation> subscriber);
+
+	/**
+	 * Remove a previously registered subscriber.
+	 * @param subscriber the subscriber to remove
+	 */
+	void unsubscribe(Consumer<CacheInvalidation> subscriber);
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Simple {@link CacheInvalidationChannel} which delivers messages synchronously
+ * to subscribers within the same JVM: for example, for testing a multi-node
+ * setup with several {@link TieredCacheManager} instances.
+ *
+ * @since 5.1.10
+ */
+public class InMemoryCacheInvalidationChannel implements CacheInvalidationChannel {
+
+	private static final Log logger = LogFactory.getLog(InMemoryCacheInvalidationChannel.class);
+
+	private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+
+	@Override
+	public void publish(CacheInvalidation invalidation) {
+		for (Consumer<CacheInvalidation> subscriber : this.subscribers) {
+			try {
+				subscriber.accept(invalidation);
+			}
+			catch (RuntimeException ex) {
+				logger.warn("Failed to deliver " + invalidation, ex);
+			}
+		}
+	}
+
+	@Override
+	public void subscribe(Consumer<CacheInvalidation> subscriber) {
+		this.subscribers.add(subscriber);
+	}
+
+	@Override
+	public void unsubscribe(Consumer<CacheInvalidation> subscriber) {
+		this.subscribers.remove(subscriber);
+	}
+
+}
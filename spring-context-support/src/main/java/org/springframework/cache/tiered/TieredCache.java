@@ -0,0 +1,291 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Two-level {@link Cache} with a local near cache (L1) in front of a
+ * typically remote cache (L2). Reads are served from the local cache if
+ * possible, populating it from the remote cache on a local miss. Writes go
+ * to both caches, and are announced to other nodes through a
+ * {@link CacheInvalidationChannel} so that they evict their local entries.
+ *
+ * <p>The local cache is expected to be bounded and to expire its entries
+ * after a short time-to-live, e.g. a Caffeine cache with a corresponding
+ * specification, limiting the staleness in case of a lost invalidation.
+ * A {@code null} value is not held locally if the local cache does not allow
+ * {@code null} values.
+ *
+ * @since 5.1.10
+ * @see TieredCacheManager
+ */
+public class TieredCache implements Cache {
+
+	private final Cache localCache;
+
+	private final Cache remoteCache;
+
+	@Nullable
+	private final CacheInvalidationChannel invalidationChannel;
+
+	private final String sourceId;
+
+	private final boolean localNullValues;
+
+	// Incremented on every modification and invalidation, so that a value
+	// read from the remote cache concurrently does not linger in the local cache
+	private final AtomicLong modificationCount = new AtomicLong();
+
+
+	/**
+	 * Create a new TieredCache without invalidation messages, e.g. for a single node.
+	 * @param localCache the local near cache
+	 * @param remoteCache the remote cache
+	 */
+	public TieredCache(Cache localCache, Cache remoteCache) {
+		this(localCache, remoteCache, null, "");
+	}
+
+	/**
+	 * Create a new TieredCache.
+	 * @param localCache the local near cache
+	 * @param remoteCache the remote cache
+	 * @param invalidationChannel the channel to announce modifications through
+	 * @param sourceId the identifier of this node in invalidation messages
+	 */
+	public TieredCache(Cache localCache, Cache remoteCache,
+			@Nullable CacheInvalidationChannel invalidationChannel, String sourceId) {
+
+		Assert.notNull(localCache, "Local Cache must not be null");
+		Assert.notNull(remoteCache, "Remote Cache must not be null");
+		Assert.notNull(sourceId, "Source id must not be null");
+		this.localCache = localCache;
+		this.remoteCache = remoteCache;
+		this.invalidationChannel = invalidationChannel;
+		this.sourceId = sourceId;
+		this.localNullValues = (!(localCache instanceof AbstractValueAdaptingCache) ||
+				((AbstractValueAdaptingCache) localCache).isAllowNullValues());
+	}
+
+
+	/**
+	 * Return the local near cache.
+	 */
+	public Cache getLocalCache() {
+		return this.localCache;
+	}
+
+	/**
+	 * Return the remote cache.
+	 */
+	public Cache getRemoteCache() {
+		return this.remoteCache;
+	}
+
+	@Override
+	public String getName() {
+		return this.remoteCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.remoteCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper == null) {
+			long modification = this.modificationCount.get();
+			wrapper = this.remoteCache.get(key);
+			if (wrapper != null) {
+				putLocal(key, wrapper.get(), modification);
+			}
+		}
+		return wrapper;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper != null) {
+			return (T) wrapper.get();
+		}
+		long modification = this.modificationCount.get();
+		T value = this.remoteCache.get(key, valueLoader);
+		putLocal(key, value, modification);
+		return value;
+	}
+
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> localHits = this.localCache.getAll(keys);
+		Map<Object, ValueWrapper> remoteHits = null;
+		if (localHits.size() < keys.size()) {
+			Set<Object> missingKeys = new LinkedHashSet<>(keys);
+			missingKeys.removeAll(localHits.keySet());
+			long modification = this.modificationCount.get();
+			remoteHits = this.remoteCache.getAll(missingKeys);
+			if (!remoteHits.isEmpty()) {
+				Map<Object, Object> entries = new LinkedHashMap<>(remoteHits.size());
+				remoteHits.forEach((key, wrapper) -> {
+					if (wrapper.get() != null || this.localNullValues) {
+						entries.put(key, wrapper.get());
+					}
+				});
+				this.localCache.putAll(entries);
+				if (this.modificationCount.get() != modification) {
+					entries.keySet().forEach(this.localCache::evict);
+				}
+			}
+		}
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper wrapper = localHits.get(key);
+			if (wrapper == null && remoteHits != null) {
+				wrapper = remoteHits.get(key);
+			}
+			if (wrapper != null) {
+				result.put(key, wrapper);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.remoteCache.put(key, value);
+		this.modificationCount.incrementAndGet();
+		putLocal(key, value);
+		publishInvalidation(key);
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		this.remoteCache.putAll(entries);
+		this.modificationCount.incrementAndGet();
+		if (this.localNullValues || !entries.containsValue(null)) {
+			this.localCache.putAll(entries);
+		}
+		else {
+			entries.forEach(this::putLocal);
+		}
+		entries.keySet().forEach(this::publishInvalidation);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		ValueWrapper existing = this.remoteCache.putIfAbsent(key, value);
+		this.modificationCount.incrementAndGet();
+		if (existing != null) {
+			putLocal(key, existing.get());
+		}
+		else {
+			putLocal(key, value);
+			publishInvalidation(key);
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.remoteCache.evict(key);
+		this.modificationCount.incrementAndGet();
+		this.localCache.evict(key);
+		publishInvalidation(key);
+	}
+
+	@Override
+	public void clear() {
+		this.remoteCache.clear();
+		this.modificationCount.incrementAndGet();
+		this.localCache.clear();
+		publishInvalidation(null);
+	}
+
+	/**
+	 * Evict the given entry, or all entries, from the local cache only:
+	 * typically in response to an invalidation message from another node.
+	 * @param key the key of the entry to evict, or {@code null} for all entries
+	 */
+	public void invalidateLocal(@Nullable Object key) {
+		this.modificationCount.incrementAndGet();
+		if (key != null) {
+			this.localCache.evict(key);
+		}
+		else {
+			this.localCache.clear();
+		}
+	}
+
+	/**
+	 * Hold the given value in the local cache, as long as no modification
+	 * or invalidation happened since the given count has been obtained:
+	 * in that case, the value read from the remote cache may be stale already.
+	 */
+	private void putLocal(Object key, @Nullable Object value, long modification) {
+		putLocal(key, value);
+		if (this.modificationCount.get() != modification) {
+			this.localCache.evict(key);
+		}
+	}
+
+	private void putLocal(Object key, @Nullable Object value) {
+		if (value != null || this.localNullValues) {
+			this.localCache.put(key, value);
+		}
+		else {
+			this.localCache.evict(key);
+		}
+	}
+
+	private void publishInvalidation(@Nullable Object key) {
+		if (this.invalidationChannel != null) {
+			this.invalidationChannel.publish(new CacheInvalidation(this.sourceId, getName(), key));
+		}
+	}
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheManager} combining a local near cache manager with a remote
+ * cache manager into {@link TieredCache} instances, for each cache name
+ * known to the remote cache manager.
+ *
+ * <p>A typical setup uses a
+ * {@link org.springframework.cache.caffeine.CaffeineCacheManager} with a
+ * bounded, short-lived specification (e.g. "maximumSize=10000,expireAfterWrite=30s")
+ * as local cache manager, in front of a
+ * {@link org.springframework.cache.jcache.JCacheCacheManager} for a
+ * distributed store. With an {@link #setInvalidationChannel invalidation channel},
+ * modifications on one node evict the corresponding local entries on all
+ * other nodes.
+ *
+ * @since 5.1.10
+ * @see TieredCache
+ * @see CacheInvalidationChannel
+ */
+public class TieredCacheManager implements CacheManager, InitializingBean, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(TieredCacheManager.class);
+
+	private final CacheManager localCacheManager;
+
+	private final CacheManager remoteCacheManager;
+
+	@Nullable
+	private CacheInvalidationChannel invalidationChannel;
+
+	private String sourceId = UUID.randomUUID().toString();
+
+	private final Consumer<CacheInvalidation> invalidationSubscriber = this::onInvalidation;
+
+	private final ConcurrentMap<String, TieredCache> cacheMap = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Create a new TieredCacheManager for the given local and remote cache managers.
+	 * @param localCacheManager the cache manager for the local near caches
+	 * @param remoteCacheManager the cache manager for the remote caches
+	 */
+	public TieredCacheManager(CacheManager localCacheManager, CacheManager remoteCacheManager) {
+		Assert.notNull(localCacheManager, "Local CacheManager must not be null");
+		Assert.notNull(remoteCacheManager, "Remote CacheManager must not be null");
+		this.localCacheManager = localCacheManager;
+		this.remoteCacheManager = remoteCacheManager;
+	}
+
+
+	/**
+	 * Specify the channel for exchanging invalidation messages with other nodes.
+	 * <p>Default is none, which is only appropriate for a single node.
+	 */
+	public void setInvalidationChannel(@Nullable CacheInvalidationChannel invalidationChannel) {
+		this.invalidationChannel = invalidationChannel;
+	}
+
+	/**
+	 * Specify the identifier of this node in invalidation messages.
+	 * <p>Default is a random UUID.
+	 */
+	public void setSourceId(String sourceId) {
+		Assert.hasText(sourceId, "Source id must not be empty");
+		this.sourceId = sourceId;
+	}
+
+	/**
+	 * Return the identifier of this node in invalidation messages.
+	 */
+	public String getSourceId() {
+		return this.sourceId;
+	}
+
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.invalidationChannel != null) {
+			this.invalidationChannel.subscribe(this.invalidationSubscriber);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (this.invalidationChannel != null) {
+			this.invalidationChannel.unsubscribe(this.invalidationSubscriber);
+		}
+	}
+
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		TieredCache cache = this.cacheMap.get(name);
+		if (cache != null) {
+			return cache;
+		}
+		Cache remoteCache = this.remoteCacheManager.getCache(name);
+		if (remoteCache == null) {
+			return null;
+		}
+		Cache localCache = this.localCacheManager.getCache(name);
+		if (localCache == null) {
+			// No near cache configured for this name: use the remote cache as-is
+			return remoteCache;
+		}
+		return this.cacheMap.computeIfAbsent(name, key ->
+				new TieredCache(localCache, remoteCache, this.invalidationChannel, this.sourceId));
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return this.remoteCacheManager.getCacheNames();
+	}
+
+	/**
+	 * Apply an invalidation message from another node to the local caches.
+	 */
+	private void onInvalidation(CacheInvalidation invalidation) {
+		if (this.sourceId.equals(invalidation.getSourceId())) {
+			return;
+		}
+		TieredCache cache = this.cacheMap.get(invalidation.getCacheName());
+		if (cache != null) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Applying " + invalidation);
+			}
+			cache.invalidateLocal(invalidation.getKey());
+		}
+	}
+
+}
@@ -0,0 +1,10 @@
+/**
+ * Two-level cache support: a local near cache in front of a remote cache,
+ * kept consistent across nodes through invalidation messages.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.cache.tiered;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
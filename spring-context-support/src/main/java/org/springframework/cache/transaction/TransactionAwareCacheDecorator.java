@@ -16,11 +16,11 @@
 
 package org.springframework.cache.transaction;
 
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.springframework.cache.Cache;
 import org.springframework.lang.Nullable;
-import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
@@ -32,6 +32,12 @@ import org.springframework.util.Assert;
  * transaction. If no transaction is active, {@link #put}, {@link #evict} and
  * {@link #clear} operations will be performed immediately, as usual.
  *
+ * <p>As of 5.1.10, the mutations of all such decorated caches within a
+ * transaction are collected in a single transaction-scoped buffer: subsequent
+ * mutations for the same key are coalesced, and the remaining ones get applied
+ * in one batch per cache after commit. Mutations issued in the after-commit
+ * phase itself, e.g. from other synchronizations, are performed immediately.
+ *
  * <p><b>Note:</b> Use of immediate operations such as {@link #putIfAbsent}
  * cannot be deferred to the after-commit phase of a running transaction.
  * Use these with care in a transactional environment.
@@ -92,20 +98,27 @@ public class TransactionAwareCacheDecorator implements Cache {
 	}
 
 	@Override
-	public void put(final Object key, @Nullable final Object value) {
-		if (TransactionSynchronizationManager.isSynchronizationActive()) {
-			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
-				@Override
-				public void afterCommit() {
-					TransactionAwareCacheDecorator.this.targetCache.put(key, value);
-				}
-			});
+	public void put(Object key, @Nullable Object value) {
+		TransactionalCacheWrites writes = TransactionalCacheWrites.currentWrites();
+		if (writes != null) {
+			writes.put(this.targetCache, key, value);
 		}
 		else {
 			this.targetCache.put(key, value);
 		}
 	}
 
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		TransactionalCacheWrites writes = TransactionalCacheWrites.currentWrites();
+		if (writes != null) {
+			writes.putAll(this.targetCache, entries);
+		}
+		else {
+			this.targetCache.putAll(entries);
+		}
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
@@ -113,14 +126,10 @@ public class TransactionAwareCacheDecorator implements Cache {
 	}
 
 	@Override
-	public void evict(final Object key) {
-		if (TransactionSynchronizationManager.isSynchronizationActive()) {
-			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
-				@Override
-				public void afterCommit() {
-					TransactionAwareCacheDecorator.this.targetCache.evict(key);
-				}
-			});
+	public void evict(Object key) {
+		TransactionalCacheWrites writes = TransactionalCacheWrites.currentWrites();
+		if (writes != null) {
+			writes.evict(this.targetCache, key);
 		}
 		else {
 			this.targetCache.evict(key);
@@ -129,13 +138,9 @@ public class TransactionAwareCacheDecorator implements Cache {
 
 	@Override
 	public void clear() {
-		if (TransactionSynchronizationManager.isSynchronizationActive()) {
-			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
-				@Override
-				public void afterCommit() {
-					targetCache.clear();
-				}
-			});
+		TransactionalCacheWrites writes = TransactionalCacheWrites.currentWrites();
+		if (writes != null) {
+			writes.clear(this.targetCache);
 		}
 		else {
 			this.targetCache.clear();
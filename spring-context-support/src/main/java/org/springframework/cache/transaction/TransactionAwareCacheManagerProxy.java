@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,20 @@
 
 package org.springframework.cache.transaction;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.Assert;
 
 /**
@@ -31,17 +39,31 @@ import org.springframework.util.Assert;
  * performing the actual cache put operation only in the after-commit phase of a successful transaction.
  * If no transaction is active, {@link Cache#put} operations will be performed immediately, as usual.
  *
+ * <p>With a {@link #setWriteBehindScheduler write-behind scheduler} set, updates outside
+ * of transactions (and transactional updates after commit) are deferred and coalesced
+ * per key through a {@link WriteBehindCacheDecorator} instead.
+ *
  * @author Juergen Hoeller
  * @since 3.2
  * @see #setTargetCacheManager
  * @see TransactionAwareCacheDecorator
  * @see org.springframework.transaction.support.TransactionSynchronizationManager
  */
-public class TransactionAwareCacheManagerProxy implements CacheManager, InitializingBean {
+public class TransactionAwareCacheManagerProxy implements CacheManager, InitializingBean, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(TransactionAwareCacheManagerProxy.class);
+
 
 	@Nullable
 	private CacheManager targetCacheManager;
 
+	@Nullable
+	private TaskScheduler writeBehindScheduler;
+
+	private Duration writeBehindDelay = Duration.ofSeconds(1);
+
+	private final ConcurrentMap<String, WriteBehindCacheDecorator> writeBehindCaches = new ConcurrentHashMap<>(16);
+
 
 	/**
 	 * Create a new TransactionAwareCacheManagerProxy, setting the target CacheManager
@@ -67,6 +89,30 @@ public class TransactionAwareCacheManagerProxy implements CacheManager, Initiali
 		this.targetCacheManager = targetCacheManager;
 	}
 
+	/**
+	 * Set the scheduler to flush deferred updates with, enabling write-behind
+	 * for updates which are not bound to a transaction.
+	 * <p>Default is none, i.e. updates outside of transactions are applied
+	 * to the target caches immediately.
+	 * @since 5.1.10
+	 * @see WriteBehindCacheDecorator
+	 */
+	public void setWriteBehindScheduler(@Nullable TaskScheduler writeBehindScheduler) {
+		this.writeBehindScheduler = writeBehindScheduler;
+	}
+
+	/**
+	 * Set the delay between the first deferred update of a cache and the flush
+	 * of all of its pending updates, in write-behind mode.
+	 * <p>Default is 1 second.
+	 * @since 5.1.10
+	 * @see #setWriteBehindScheduler
+	 */
+	public void setWriteBehindDelay(Duration writeBehindDelay) {
+		Assert.notNull(writeBehindDelay, "Write-behind delay must not be null");
+		this.writeBehindDelay = writeBehindDelay;
+	}
+
 	@Override
 	public void afterPropertiesSet() {
 		if (this.targetCacheManager == null) {
@@ -80,7 +126,30 @@ public class TransactionAwareCacheManagerProxy implements CacheManager, Initiali
 	public Cache getCache(String name) {
 		Assert.state(this.targetCacheManager != null, "No target CacheManager set");
 		Cache targetCache = this.targetCacheManager.getCache(name);
-		return (targetCache != null ? new TransactionAwareCacheDecorator(targetCache) : null);
+		if (targetCache == null) {
+			return null;
+		}
+		if (this.writeBehindScheduler != null) {
+			targetCache = getWriteBehindCache(name, targetCache, this.writeBehindScheduler);
+		}
+		return new TransactionAwareCacheDecorator(targetCache);
+	}
+
+	private Cache getWriteBehindCache(String name, Cache targetCache, TaskScheduler scheduler) {
+		WriteBehindCacheDecorator cache = this.writeBehindCaches.get(name);
+		if (cache != null && cache.getTargetCache() == targetCache) {
+			return cache;
+		}
+		return this.writeBehindCaches.compute(name, (key, existing) -> {
+			if (existing != null && existing.getTargetCache() == targetCache) {
+				return existing;
+			}
+			if (existing != null) {
+				// The target cache has been replaced in the meantime: hand over pending updates
+				existing.flush();
+			}
+			return new WriteBehindCacheDecorator(targetCache, scheduler, this.writeBehindDelay);
+		});
 	}
 
 	@Override
@@ -89,4 +158,19 @@ public class TransactionAwareCacheManagerProxy implements CacheManager, Initiali
 		return this.targetCacheManager.getCacheNames();
 	}
 
+	/**
+	 * Flush the pending updates of all write-behind caches.
+	 */
+	@Override
+	public void destroy() {
+		for (WriteBehindCacheDecorator cache : this.writeBehindCaches.values()) {
+			try {
+				cache.flush();
+			}
+			catch (RuntimeException ex) {
+				logger.warn("Failed to flush pending updates of cache '" + cache.getName() + "'", ex);
+			}
+		}
+	}
+
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.transaction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction-scoped buffer for the cache mutations of all
+ * {@link TransactionAwareCacheDecorator} instances, registered as a single
+ * synchronization per transaction and applied in one batch per cache in the
+ * after-commit phase.
+ *
+ * <p>Subsequent mutations for the same key replace each other, and a clear
+ * supersedes all mutations buffered for that cache before it. The buffer is
+ * bound as a transactional resource, following suspension and resumption of
+ * the transaction that it belongs to.
+ *
+ * @since 5.1.10
+ * @see TransactionAwareCacheDecorator
+ */
+final class TransactionalCacheWrites extends TransactionSynchronizationAdapter {
+
+	private static final Object RESOURCE_KEY = TransactionalCacheWrites.class.getName();
+
+	private static final Object EVICTED = new Object();
+
+
+	private final Map<Cache, PendingWrites> pendingWrites = new LinkedHashMap<>(4);
+
+	private boolean committed;
+
+
+	private TransactionalCacheWrites() {
+	}
+
+
+	/**
+	 * Return the buffer for the current transaction, registering a new one
+	 * if none is bound yet.
+	 * @return the buffer, or {@code null} if no transaction synchronization is
+	 * active or the current transaction has committed already, in which case
+	 * mutations are to be applied to the target cache right away
+	 */
+	@Nullable
+	static TransactionalCacheWrites currentWrites() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return null;
+		}
+		TransactionalCacheWrites writes =
+				(TransactionalCacheWrites) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+		if (writes == null) {
+			writes = new TransactionalCacheWrites();
+			TransactionSynchronizationManager.bindResource(RESOURCE_KEY, writes);
+			TransactionSynchronizationManager.registerSynchronization(writes);
+		}
+		return (!writes.committed ? writes : null);
+	}
+
+
+	public void put(Cache cache, Object key, @Nullable Object value) {
+		getPendingWrites(cache).entries.put(key, value);
+	}
+
+	public void putAll(Cache cache, Map<?, ?> entries) {
+		getPendingWrites(cache).entries.putAll(entries);
+	}
+
+	public void evict(Cache cache, Object key) {
+		getPendingWrites(cache).entries.put(key, EVICTED);
+	}
+
+	public void clear(Cache cache) {
+		PendingWrites writes = getPendingWrites(cache);
+		writes.entries.clear();
+		writes.clear = true;
+	}
+
+	private PendingWrites getPendingWrites(Cache cache) {
+		return this.pendingWrites.computeIfAbsent(cache, PendingWrites::new);
+	}
+
+
+	@Override
+	public void suspend() {
+		TransactionSynchronizationManager.unbindResource(RESOURCE_KEY);
+	}
+
+	@Override
+	public void resume() {
+		TransactionSynchronizationManager.bindResource(RESOURCE_KEY, this);
+	}
+
+	@Override
+	public void afterCommit() {
+		this.committed = true;
+		for (PendingWrites writes : this.pendingWrites.values()) {
+			writes.apply();
+		}
+	}
+
+	@Override
+	public void afterCompletion(int status) {
+		this.committed = true;
+		this.pendingWrites.clear();
+		TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+	}
+
+
+	/**
+	 * The buffered mutations for a specific cache.
+	 */
+	private static final class PendingWrites {
+
+		private final Cache cache;
+
+		private final Map<Object, Object> entries = new LinkedHashMap<>();
+
+		private boolean clear;
+
+		PendingWrites(Cache cache) {
+			this.cache = cache;
+		}
+
+		void apply() {
+			if (this.clear) {
+				this.cache.clear();
+			}
+			Map<Object, Object> puts = new LinkedHashMap<>(this.entries.size());
+			this.entries.forEach((key, value) -> {
+				if (value == EVICTED) {
+					this.cache.evict(key);
+				}
+				else {
+					puts.put(key, value);
+				}
+			});
+			if (puts.size() == 1) {
+				Map.Entry<Object, Object> entry = puts.entrySet().iterator().next();
+				this.cache.put(entry.getKey(), entry.getValue());
+			}
+			else if (!puts.isEmpty()) {
+				this.cache.putAll(puts);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.transaction;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.Assert;
+
+/**
+ * Cache decorator which defers its {@link #put}, {@link #putAll} and
+ * {@link #evict} operations, coalescing subsequent updates for the same key
+ * and applying the latest state of each key to the target cache in a batch,
+ * a configurable delay after the first pending update.
+ *
+ * <p>Reads through this decorator see pending updates right away. Other
+ * clients of the target cache only see them after the flush, so this is
+ * meant for write-heavy caches where the target store is comparatively
+ * expensive to update, e.g. a remote cache. {@link #putIfAbsent} and
+ * {@link #clear} are applied immediately.
+ *
+ * <p>Can be combined with {@link TransactionAwareCacheDecorator} on top,
+ * buffering transactional writes until commit and then handing them to
+ * this decorator. Call {@link #flush()} on shutdown to apply any pending
+ * updates.
+ *
+ * @since 5.1.10
+ * @see TransactionAwareCacheManagerProxy#setWriteBehindScheduler
+ */
+public class WriteBehindCacheDecorator implements Cache {
+
+	private static final Object NULL_VALUE = new Object();
+
+	private static final Object EVICTED = new Object();
+
+	private static final Log logger = LogFactory.getLog(WriteBehindCacheDecorator.class);
+
+
+	private final Cache targetCache;
+
+	private final TaskScheduler taskScheduler;
+
+	private final Duration flushDelay;
+
+	private final ConcurrentMap<Object, Object> pendingWrites = new ConcurrentHashMap<>(64);
+
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+	private final Object flushMonitor = new Object();
+
+
+	/**
+	 * Create a new WriteBehindCacheDecorator for the given target Cache.
+	 * @param targetCache the target Cache to decorate
+	 * @param taskScheduler the scheduler to perform the deferred flushes with
+	 * @param flushDelay the delay between the first pending update and
+	 * the flush of all pending updates
+	 */
+	public WriteBehindCacheDecorator(Cache targetCache, TaskScheduler taskScheduler, Duration flushDelay) {
+		Assert.notNull(targetCache, "Target Cache must not be null");
+		Assert.notNull(taskScheduler, "TaskScheduler must not be null");
+		Assert.isTrue(!flushDelay.isNegative(), "Flush delay must not be negative");
+		this.targetCache = targetCache;
+		this.taskScheduler = taskScheduler;
+		this.flushDelay = flushDelay;
+	}
+
+
+	/**
+	 * Return the target Cache that this Cache should delegate to.
+	 */
+	public Cache getTargetCache() {
+		return this.targetCache;
+	}
+
+	/**
+	 * Return the number of keys with updates that have not been applied yet.
+	 */
+	public int getPendingWriteCount() {
+		return this.pendingWrites.size();
+	}
+
+	@Override
+	public String getName() {
+		return this.targetCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.targetCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		Object pending = this.pendingWrites.get(key);
+		if (pending != null) {
+			return (pending != EVICTED ? new SimpleValueWrapper(fromPendingValue(pending)) : null);
+		}
+		return this.targetCache.get(key);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		Object pending = this.pendingWrites.get(key);
+		if (pending != null) {
+			Object value = (pending != EVICTED ? fromPendingValue(pending) : null);
+			if (value != null && type != null && !type.isInstance(value)) {
+				throw new IllegalStateException(
+						"Cached value is not of required type [" + type.getName() + "]: " + value);
+			}
+			return (T) value;
+		}
+		return this.targetCache.get(key, type);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		Object pending = this.pendingWrites.get(key);
+		if (pending != null && pending != EVICTED) {
+			return (T) fromPendingValue(pending);
+		}
+		if (pending != null) {
+			flush(key);
+		}
+		return this.targetCache.get(key, valueLoader);
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.pendingWrites.put(key, toPendingValue(value));
+		scheduleFlush();
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		// Validate all entries before accepting any of them
+		Map<Object, Object> pending = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> pending.put(key, toPendingValue(value)));
+		this.pendingWrites.putAll(pending);
+		scheduleFlush();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		flush(key);
+		return this.targetCache.putIfAbsent(key, value);
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.pendingWrites.put(key, EVICTED);
+		scheduleFlush();
+	}
+
+	@Override
+	public void clear() {
+		synchronized (this.flushMonitor) {
+			this.pendingWrites.clear();
+			this.targetCache.clear();
+		}
+	}
+
+
+	/**
+	 * Apply all pending updates to the target cache.
+	 * <p>Updates remain visible as pending until they have been applied,
+	 * and updates arriving in the meantime are kept for the next flush.
+	 * Updates rejected by the target cache are logged and discarded,
+	 * evicting the affected keys from the target cache where possible.
+	 */
+	public void flush() {
+		synchronized (this.flushMonitor) {
+			this.flushScheduled.set(false);
+			if (this.pendingWrites.isEmpty()) {
+				return;
+			}
+			Map<Object, Object> snapshot = new LinkedHashMap<>(this.pendingWrites);
+			Map<Object, Object> puts = new LinkedHashMap<>(snapshot.size());
+			List<Object> evictions = new ArrayList<>();
+			snapshot.forEach((key, pending) -> {
+				if (pending == EVICTED) {
+					evictions.add(key);
+				}
+				else {
+					puts.put(key, fromPendingValue(pending));
+				}
+			});
+			if (!puts.isEmpty()) {
+				try {
+					this.targetCache.putAll(puts);
+				}
+				catch (RuntimeException ex) {
+					// Keep a single rejected entry from holding back all others
+					puts.forEach(this::applyPut);
+				}
+			}
+			for (Object key : evictions) {
+				applyEvict(key);
+			}
+			snapshot.forEach(this.pendingWrites::remove);
+		}
+	}
+
+	private void applyPut(Object key, @Nullable Object value) {
+		try {
+			this.targetCache.put(key, value);
+		}
+		catch (RuntimeException ex) {
+			logger.warn("Failed to apply pending put for key '" + key + "' to cache '" + getName() +
+					"' - discarding it", ex);
+			// Do not leave an outdated value behind in the target cache
+			applyEvict(key);
+		}
+	}
+
+	private void applyEvict(Object key) {
+		try {
+			this.targetCache.evict(key);
+		}
+		catch (RuntimeException ex) {
+			logger.warn("Failed to apply pending eviction for key '" + key + "' to cache '" + getName() +
+					"' - discarding it", ex);
+		}
+	}
+
+	/**
+	 * Apply a pending update for the given key, if any.
+	 */
+	private void flush(Object key) {
+		synchronized (this.flushMonitor) {
+			Object pending = this.pendingWrites.get(key);
+			if (pending == EVICTED) {
+				this.targetCache.evict(key);
+			}
+			else if (pending != null) {
+				this.targetCache.put(key, fromPendingValue(pending));
+			}
+			if (pending != null) {
+				this.pendingWrites.remove(key, pending);
+			}
+		}
+	}
+
+	private void scheduleFlush() {
+		if (this.flushScheduled.compareAndSet(false, true)) {
+			try {
+				this.taskScheduler.schedule(this::flush, Instant.now().plus(this.flushDelay));
+			}
+			catch (RejectedExecutionException ex) {
+				// E.g. scheduler shut down: apply the pending updates right away
+				if (logger.isDebugEnabled()) {
+					logger.debug("Deferred flush of cache '" + getName() + "' rejected - flushing immediately", ex);
+				}
+				this.flushScheduled.set(false);
+				flush();
+			}
+		}
+	}
+
+	private Object toPendingValue(@Nullable Object value) {
+		if (value != null) {
+			return value;
+		}
+		// Reject right away what the target cache would reject on flush
+		if (this.targetCache instanceof AbstractValueAdaptingCache &&
+				!((AbstractValueAdaptingCache) this.targetCache).isAllowNullValues()) {
+			throw new IllegalArgumentException(
+					"Cache '" + getName() + "' is configured to not allow null values but null was provided");
+		}
+		return NULL_VALUE;
+	}
+
+	@Nullable
+	private static Object fromPendingValue(Object pending) {
+		return (pending != NULL_VALUE ? pending : null);
+	}
+
+}
@@ -16,15 +16,19 @@
 
 package org.springframework.cache.caffeine;
 
+import java.util.concurrent.TimeUnit;
+
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.CaffeineSpec;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.FileSystemCacheSnapshotStore;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -39,6 +43,9 @@ public class CaffeineCacheManagerTests {
 	@Rule
 	public final ExpectedException thrown = ExpectedException.none();
 
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void testDynamicMode() {
 		CacheManager cm = new CaffeineCacheManager();
@@ -192,6 +199,29 @@ public class CaffeineCacheManagerTests {
 		assertNull(cache1.get("foo"));
 	}
 
+	@Test
+	public void snapshotStore() throws Exception {
+		FileSystemCacheSnapshotStore store = new FileSystemCacheSnapshotStore(this.folder.getRoot());
+		CaffeineCacheManager cm = new CaffeineCacheManager();
+		cm.setSnapshotStore(store);
+		Cache cache1 = cm.getCache("c1");
+		cache1.put("key1", "value1");
+		cache1.put("key2", null);
+		cm.destroy();
+
+		CaffeineCacheManager cm2 = new CaffeineCacheManager();
+		cm2.setSnapshotStore(store);
+		Cache cache1again = cm2.getCache("c1");
+		assertEquals("value1", cache1again.get("key1").get());
+		assertNull(cache1again.get("key2").get());
+
+		Thread.sleep(20);
+		CaffeineCacheManager cm3 = new CaffeineCacheManager();
+		cm3.setCaffeine(Caffeine.newBuilder().expireAfterWrite(10, TimeUnit.MILLISECONDS));
+		cm3.setSnapshotStore(store);
+		assertNull(cm3.getCache("c1").get("key1"));
+	}
+
 	@SuppressWarnings("unchecked")
 	private CacheLoader<Object, Object> mockCacheLoader() {
 		return mock(CacheLoader.class);
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.offheap;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.util.FileSystemUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link OffHeapCacheManager}.
+ */
+public class OffHeapCacheManagerTests {
+
+	private File directory;
+
+
+	@Before
+	public void createDirectory() throws Exception {
+		this.directory = Files.createTempDirectory("offheap").toFile();
+	}
+
+	@After
+	public void deleteDirectory() {
+		FileSystemUtils.deleteRecursively(this.directory);
+	}
+
+
+	@Test
+	public void testDynamicMode() {
+		OffHeapCacheManager cm = new OffHeapCacheManager();
+		cm.setCapacity(64 * 1024);
+		Cache cache1 = cm.getCache("c1");
+		assertTrue(cache1 instanceof OffHeapCache);
+		assertSame(cache1, cm.getCache("c1"));
+		Cache cache2 = cm.getCache("c2");
+		assertNotSame(cache1, cache2);
+		assertEquals(2, cm.getCacheNames().size());
+
+		cache1.put("key1", "value1");
+		assertEquals("value1", cache1.get("key1").get());
+		cache1.put("key2", null);
+		assertNull(cache1.get("key2").get());
+		assertNull(cache2.get("key1"));
+		cm.destroy();
+	}
+
+	@Test
+	public void testStaticMode() {
+		OffHeapCacheManager cm = new OffHeapCacheManager("c1", "c2");
+		cm.setCapacity(64 * 1024);
+		assertNotNull(cm.getCache("c1"));
+		assertNotNull(cm.getCache("c2"));
+		assertNull(cm.getCache("c3"));
+		assertEquals(2, cm.getCacheNames().size());
+		cm.destroy();
+	}
+
+	@Test
+	public void testConfiguration() {
+		OffHeapCacheManager cm = new OffHeapCacheManager();
+		cm.setCapacity(16 * 1024);
+		cm.setBlockSize(512);
+		cm.setAllowNullValues(false);
+		OffHeapCache cache = (OffHeapCache) cm.getCache("c1");
+		assertEquals(32, cache.getNativeCache().getBlockCount());
+		assertEquals(512, cache.getNativeCache().getBlockSize());
+		assertFalse(cache.isAllowNullValues());
+		cm.destroy();
+	}
+
+	@Test
+	public void testMemoryMappedArenas() {
+		OffHeapCacheManager cm = new OffHeapCacheManager();
+		cm.setCapacity(64 * 1024);
+		cm.setDirectory(this.directory);
+		Cache cache = cm.getCache("c1");
+		cache.put("key", "value");
+		assertEquals("value", cache.get("key").get());
+		assertEquals(1, this.directory.listFiles().length);
+
+		cm.destroy();
+		assertEquals(0, this.directory.listFiles().length);
+	}
+
+}
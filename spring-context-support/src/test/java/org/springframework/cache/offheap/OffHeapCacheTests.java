@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.offheap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.AbstractCacheTests;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link OffHeapCache}.
+ */
+public class OffHeapCacheTests extends AbstractCacheTests<OffHeapCache> {
+
+	private OffHeapArena arena;
+
+	private OffHeapCache cache;
+
+
+	@Before
+	public void setUp() {
+		this.arena = new OffHeapArena(64 * 1024, 256);
+		this.cache = new OffHeapCache(CACHE_NAME, this.arena);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.arena.close();
+	}
+
+	@Override
+	protected OffHeapCache getCache() {
+		return this.cache;
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.arena;
+	}
+
+
+	@Test
+	public void valuesAreCopies() {
+		StringBuilder value = new StringBuilder("value");
+		this.cache.put("key", value);
+		value.append("-modified");
+		assertEquals("value", this.cache.get("key", StringBuilder.class).toString());
+		assertNotSame(this.cache.get("key").get(), this.cache.get("key").get());
+	}
+
+	@Test
+	public void evictReleasesBlocks() {
+		int freeBlocks = this.arena.getFreeBlockCount();
+		this.cache.put("key", new byte[1000]);
+		assertTrue(this.arena.getFreeBlockCount() < freeBlocks);
+
+		this.cache.evict("key");
+		assertEquals(freeBlocks, this.arena.getFreeBlockCount());
+		assertEquals(0, this.cache.size());
+	}
+
+	@Test
+	public void replaceReleasesBlocks() {
+		this.cache.put("key", new byte[1000]);
+		int freeBlocks = this.arena.getFreeBlockCount();
+		this.cache.put("key", new byte[1000]);
+		assertEquals(freeBlocks, this.arena.getFreeBlockCount());
+	}
+
+	@Test
+	public void leastRecentlyUsedEntryEvicted() {
+		OffHeapArena smallArena = new OffHeapArena(4 * 1024, 1024);
+		OffHeapCache smallCache = new OffHeapCache(CACHE_NAME, smallArena);
+		smallCache.put("a", new byte[800]);
+		smallCache.put("b", new byte[800]);
+		smallCache.put("c", new byte[800]);
+		smallCache.put("d", new byte[800]);
+		assertEquals(4, smallCache.size());
+
+		assertNotNull(smallCache.get("a"));
+		smallCache.put("e", new byte[800]);
+		assertEquals(4, smallCache.size());
+		assertNotNull(smallCache.get("a"));
+		assertNull(smallCache.get("b"));
+		assertNotNull(smallCache.get("e"));
+	}
+
+	@Test
+	public void oversizedValueNotCached() {
+		this.cache.put("key", "value");
+		this.cache.put("key", new byte[128 * 1024]);
+		assertNull(this.cache.get("key"));
+		assertEquals(this.arena.getBlockCount(), this.arena.getFreeBlockCount());
+	}
+
+	@Test
+	public void clearReleasesAllBlocks() {
+		this.cache.put("key1", "value1");
+		this.cache.put("key2", new byte[2000]);
+		this.cache.clear();
+		assertEquals(0, this.cache.size());
+		assertEquals(this.arena.getBlockCount(), this.arena.getFreeBlockCount());
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TieredCacheManager}, simulating two nodes
+ * which share a remote cache manager.
+ */
+public class TieredCacheManagerTests {
+
+	private final ConcurrentMapCacheManager remoteCacheManager = new ConcurrentMapCacheManager("test");
+
+	private final InMemoryCacheInvalidationChannel channel = new InMemoryCacheInvalidationChannel();
+
+	private TieredCacheManager node1;
+
+	private TieredCacheManager node2;
+
+
+	@Before
+	public void setUp() {
+		this.node1 = createNode();
+		this.node2 = createNode();
+	}
+
+	@After
+	public void tearDown() {
+		this.node1.destroy();
+		this.node2.destroy();
+	}
+
+	private TieredCacheManager createNode() {
+		TieredCacheManager cacheManager =
+				new TieredCacheManager(new ConcurrentMapCacheManager(), this.remoteCacheManager);
+		cacheManager.setInvalidationChannel(this.channel);
+		cacheManager.afterPropertiesSet();
+		return cacheManager;
+	}
+
+
+	@Test
+	public void cacheNamesFromRemoteCacheManager() {
+		assertEquals(1, this.node1.getCacheNames().size());
+		assertTrue(this.node1.getCacheNames().contains("test"));
+		assertNull(this.node1.getCache("unknown"));
+
+		Cache cache = this.node1.getCache("test");
+		assertTrue(cache instanceof TieredCache);
+		assertSame(cache, this.node1.getCache("test"));
+	}
+
+	@Test
+	public void putInvalidatesOtherNode() {
+		TieredCache cache1 = (TieredCache) this.node1.getCache("test");
+		TieredCache cache2 = (TieredCache) this.node2.getCache("test");
+		cache1.put("key", "value1");
+		assertEquals("value1", cache2.get("key").get());
+
+		cache1.put("key", "value2");
+		assertEquals("value2", cache1.getLocalCache().get("key").get());
+		assertNull(cache2.getLocalCache().get("key"));
+		assertEquals("value2", cache2.get("key").get());
+	}
+
+	@Test
+	public void evictAndClearInvalidateOtherNode() {
+		TieredCache cache1 = (TieredCache) this.node1.getCache("test");
+		TieredCache cache2 = (TieredCache) this.node2.getCache("test");
+		cache1.put("a", "1");
+		cache1.put("b", "2");
+		cache2.get("a");
+		cache2.get("b");
+
+		cache1.evict("a");
+		assertNull(cache2.getLocalCache().get("a"));
+		assertNotNull(cache2.getLocalCache().get("b"));
+
+		cache1.clear();
+		assertNull(cache2.getLocalCache().get("b"));
+		assertNull(cache2.get("b"));
+	}
+
+	@Test
+	public void ownMessagesIgnored() {
+		List<CacheInvalidation> received = new ArrayList<>();
+		this.channel.subscribe(received::add);
+		TieredCache cache1 = (TieredCache) this.node1.getCache("test");
+		cache1.put("key", "value");
+
+		assertEquals(1, received.size());
+		assertEquals(this.node1.getSourceId(), received.get(0).getSourceId());
+		assertEquals("value", cache1.getLocalCache().get("key").get());
+	}
+
+	@Test
+	public void noMessagesAfterDestroy() {
+		TieredCache cache1 = (TieredCache) this.node1.getCache("test");
+		TieredCache cache2 = (TieredCache) this.node2.getCache("test");
+		cache1.put("key", "value1");
+		cache2.get("key");
+
+		this.node2.destroy();
+		cache1.put("key", "value2");
+		assertEquals("value1", cache2.get("key").get());
+	}
+
+}
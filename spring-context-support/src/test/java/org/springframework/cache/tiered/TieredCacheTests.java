@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.AbstractCacheTests;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TieredCache}.
+ */
+public class TieredCacheTests extends AbstractCacheTests<TieredCache> {
+
+	private ConcurrentMapCache localCache;
+
+	private ConcurrentMap<Object, Object> remoteNativeCache;
+
+	private ConcurrentMapCache remoteCache;
+
+	private TieredCache cache;
+
+
+	@Before
+	public void setUp() {
+		this.localCache = new ConcurrentMapCache(CACHE_NAME);
+		this.remoteNativeCache = new ConcurrentHashMap<>();
+		this.remoteCache = new ConcurrentMapCache(CACHE_NAME, this.remoteNativeCache, true);
+		this.cache = new TieredCache(this.localCache, this.remoteCache);
+	}
+
+	@Override
+	protected TieredCache getCache() {
+		return this.cache;
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.remoteNativeCache;
+	}
+
+
+	@Test
+	public void readPopulatesLocalCache() {
+		this.remoteCache.put("key", "value");
+		assertNull(this.localCache.get("key"));
+
+		assertEquals("value", this.cache.get("key", String.class));
+		assertEquals("value", this.localCache.get("key").get());
+	}
+
+	@Test
+	public void readPrefersLocalCache() {
+		this.remoteCache.put("key", "remote");
+		this.localCache.put("key", "local");
+		assertEquals("local", this.cache.get("key").get());
+	}
+
+	@Test
+	public void valueLoaderPopulatesBothCaches() {
+		assertEquals("value", this.cache.get("key", () -> "value"));
+		assertEquals("value", this.remoteCache.get("key").get());
+		assertEquals("value", this.localCache.get("key").get());
+	}
+
+	@Test
+	public void getAllLoadsMissingKeysFromRemoteCache() {
+		this.localCache.put("a", "1");
+		this.remoteCache.put("b", "2");
+
+		Map<Object, Cache.ValueWrapper> result = this.cache.getAll(Arrays.asList("a", "b", "c"));
+		assertEquals(2, result.size());
+		assertEquals("1", result.get("a").get());
+		assertEquals("2", result.get("b").get());
+		assertEquals("2", this.localCache.get("b").get());
+	}
+
+	@Test
+	public void putIfAbsentRefreshesLocalCacheWithExistingValue() {
+		this.remoteCache.put("key", "existing");
+		this.localCache.put("key", "stale");
+
+		assertEquals("existing", this.cache.putIfAbsent("key", "other").get());
+		assertEquals("existing", this.localCache.get("key").get());
+	}
+
+	@Test
+	public void invalidateLocalKeepsRemoteCache() {
+		this.cache.put("a", "1");
+		this.cache.put("b", "2");
+
+		this.cache.invalidateLocal("a");
+		assertNull(this.localCache.get("a"));
+		assertNotNull(this.localCache.get("b"));
+
+		this.cache.invalidateLocal(null);
+		assertNull(this.localCache.get("b"));
+		assertEquals("1", this.remoteCache.get("a").get());
+		assertEquals("2", this.remoteCache.get("b").get());
+	}
+
+	@Test
+	public void remoteNullNotHeldInLocalCacheWithoutNulls() {
+		ConcurrentMapCache localCache = new ConcurrentMapCache(CACHE_NAME, false);
+		TieredCache cache = new TieredCache(localCache, this.remoteCache);
+		this.remoteCache.put("key", null);
+
+		assertNull(cache.get("key").get());
+		assertNull(localCache.get("key"));
+		assertNull(cache.get("other", () -> null));
+		assertNull(localCache.get("other"));
+	}
+
+	@Test
+	public void invalidationDuringRemoteReadIsNotLost() {
+		TieredCache[] holder = new TieredCache[1];
+		ConcurrentMapCache remoteCache = new ConcurrentMapCache(CACHE_NAME) {
+			@Override
+			public ValueWrapper get(Object key) {
+				ValueWrapper wrapper = super.get(key);
+				// An invalidation message arriving while the remote value is on its way
+				holder[0].invalidateLocal(key);
+				return wrapper;
+			}
+		};
+		holder[0] = new TieredCache(this.localCache, remoteCache);
+		remoteCache.put("key", "stale");
+
+		assertEquals("stale", holder[0].get("key").get());
+		assertNull(this.localCache.get("key"));
+	}
+
+}
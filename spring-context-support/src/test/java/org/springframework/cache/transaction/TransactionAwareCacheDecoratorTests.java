@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.cache.transaction;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -27,6 +30,8 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import static org.junit.Assert.*;
 
@@ -162,4 +167,123 @@ public class TransactionAwareCacheDecoratorTests {
 
 		assertNull(target.get(key));
 	}
+
+	@Test
+	public void putAllTransactional() {
+		Cache target = new ConcurrentMapCache("testCache");
+		Cache cache = new TransactionAwareCacheDecorator(target);
+		Map<String, String> entries = new LinkedHashMap<>();
+		entries.put("a", "1");
+		entries.put("b", "2");
+
+		TransactionStatus status = this.txManager.getTransaction(
+				new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRED));
+		cache.putAll(entries);
+		assertNull(target.get("a"));
+		this.txManager.commit(status);
+
+		assertEquals("1", target.get("a", String.class));
+		assertEquals("2", target.get("b", String.class));
+	}
+
+	@Test
+	public void singleSynchronizationPerTransaction() {
+		Cache target1 = new ConcurrentMapCache("testCache1");
+		Cache target2 = new ConcurrentMapCache("testCache2");
+		Cache cache1 = new TransactionAwareCacheDecorator(target1);
+		Cache cache2 = new TransactionAwareCacheDecorator(target2);
+
+		TransactionStatus status = this.txManager.getTransaction(
+				new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRED));
+		for (int i = 0; i < 1000; i++) {
+			cache1.put(i, "value" + i);
+			cache2.evict(i);
+		}
+		assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+		this.txManager.commit(status);
+
+		assertEquals("value999", target1.get(999, String.class));
+		assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+	}
+
+	@Test
+	public void coalescedMutationsTransactional() {
+		Cache target = new ConcurrentMapCache("testCache");
+		Cache cache = new TransactionAwareCacheDecorator(target);
+		target.put("a", "0");
+		target.put("c", "0");
+
+		TransactionStatus status = this.txManager.getTransaction(
+				new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRED));
+		cache.put("a", "1");
+		cache.evict("a");
+		cache.evict("b");
+		cache.put("b", "2");
+		this.txManager.commit(status);
+
+		assertNull(target.get("a"));
+		assertEquals("2", target.get("b", String.class));
+		assertEquals("0", target.get("c", String.class));
+	}
+
+	@Test
+	public void clearSupersedesEarlierMutationsTransactional() {
+		Cache target = new ConcurrentMapCache("testCache");
+		Cache cache = new TransactionAwareCacheDecorator(target);
+		target.put("a", "0");
+
+		TransactionStatus status = this.txManager.getTransaction(
+				new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRED));
+		cache.put("b", "1");
+		cache.clear();
+		cache.put("c", "2");
+		this.txManager.commit(status);
+
+		assertNull(target.get("a"));
+		assertNull(target.get("b"));
+		assertEquals("2", target.get("c", String.class));
+	}
+
+	@Test
+	public void rollbackDiscardsMutations() {
+		Cache target = new ConcurrentMapCache("testCache");
+		Cache cache = new TransactionAwareCacheDecorator(target);
+		target.put("a", "0");
+
+		TransactionStatus status = this.txManager.getTransaction(
+				new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRED));
+		cache.put("b", "1");
+		cache.evict("a");
+		this.txManager.rollback(status);
+
+		assertEquals("0", target.get("a", String.class));
+		assertNull(target.get("b"));
+
+		status = this.txManager.getTransaction(
+				new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRED));
+		cache.put("c", "2");
+		this.txManager.commit(status);
+		assertEquals("2", target.get("c", String.class));
+	}
+
+	@Test
+	public void putInAfterCommitPerformedImmediately() {
+		Cache target = new ConcurrentMapCache("testCache");
+		Cache cache = new TransactionAwareCacheDecorator(target);
+
+		TransactionStatus status = this.txManager.getTransaction(
+				new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRED));
+		cache.put("a", "1");
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCommit() {
+				cache.put("b", "2");
+			}
+		});
+		this.txManager.commit(status);
+
+		assertEquals("1", target.get("a", String.class));
+		assertEquals("2", target.get("b", String.class));
+	}
+
 }
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.transaction;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.tests.transaction.CallCountingTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link WriteBehindCacheDecorator}.
+ */
+public class WriteBehindCacheDecoratorTests {
+
+	private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+	private final Cache target = new ConcurrentMapCache("testCache");
+
+	private WriteBehindCacheDecorator cache;
+
+
+	@Before
+	public void setup() {
+		this.scheduler.initialize();
+		this.cache = new WriteBehindCacheDecorator(this.target, this.scheduler, Duration.ofHours(1));
+	}
+
+	@After
+	public void shutdown() {
+		this.scheduler.shutdown();
+	}
+
+
+	@Test
+	public void putDeferredUntilFlush() {
+		this.cache.put("a", "1");
+		assertNull(this.target.get("a"));
+		assertEquals("1", this.cache.get("a").get());
+		assertEquals("1", this.cache.get("a", String.class));
+
+		this.cache.flush();
+		assertEquals("1", this.target.get("a", String.class));
+		assertEquals(0, this.cache.getPendingWriteCount());
+	}
+
+	@Test
+	public void updatesCoalescedPerKey() {
+		this.target.put("c", "0");
+		this.cache.put("a", "1");
+		this.cache.put("a", "2");
+		this.cache.put("b", null);
+		this.cache.evict("c");
+		assertEquals(3, this.cache.getPendingWriteCount());
+		assertNull(this.cache.get("b").get());
+		assertNull(this.cache.get("c"));
+		assertEquals("0", this.target.get("c", String.class));
+
+		this.cache.flush();
+		assertEquals("2", this.target.get("a", String.class));
+		assertNotNull(this.target.get("b"));
+		assertNull(this.target.get("c"));
+	}
+
+	@Test
+	public void putIfAbsentAppliesPendingUpdate() {
+		this.cache.put("a", "1");
+		assertEquals("1", this.cache.putIfAbsent("a", "2").get());
+		assertEquals("1", this.target.get("a", String.class));
+
+		this.target.put("b", "0");
+		this.cache.evict("b");
+		assertNull(this.cache.putIfAbsent("b", "2"));
+		assertEquals("2", this.target.get("b", String.class));
+	}
+
+	@Test
+	public void valueLoaderSeesPendingUpdates() {
+		this.cache.put("a", "1");
+		assertEquals("1", this.cache.get("a", () -> "loaded"));
+
+		this.target.put("b", "0");
+		this.cache.evict("b");
+		assertEquals("loaded", this.cache.get("b", () -> "loaded"));
+	}
+
+	@Test
+	public void clearDiscardsPendingUpdates() {
+		this.target.put("a", "0");
+		this.cache.put("b", "1");
+		this.cache.clear();
+		assertEquals(0, this.cache.getPendingWriteCount());
+		assertNull(this.target.get("a"));
+		assertNull(this.cache.get("b"));
+	}
+
+	@Test
+	public void nullValueRejectedUpfront() {
+		WriteBehindCacheDecorator cache = new WriteBehindCacheDecorator(
+				new ConcurrentMapCache("testCache", false), this.scheduler, Duration.ofHours(1));
+		try {
+			cache.put("a", null);
+			fail("Should have thrown IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {
+			// expected
+		}
+		Map<String, String> entries = new LinkedHashMap<>();
+		entries.put("b", "2");
+		entries.put("c", null);
+		try {
+			cache.putAll(entries);
+			fail("Should have thrown IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {
+			// expected
+		}
+		assertEquals(0, cache.getPendingWriteCount());
+	}
+
+	@Test
+	public void rejectedUpdateDoesNotHoldBackOthers() {
+		ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("testCache");
+		cacheManager.setStoreByValue(true);
+		cacheManager.setBeanClassLoader(getClass().getClassLoader());
+		Cache target = cacheManager.getCache("testCache");
+		WriteBehindCacheDecorator cache = new WriteBehindCacheDecorator(target, this.scheduler, Duration.ofHours(1));
+		target.put("b", "0");
+		cache.put("a", "1");
+		cache.put("b", new Object());
+		cache.put("c", "3");
+
+		cache.flush();
+		assertEquals(0, cache.getPendingWriteCount());
+		assertEquals("1", target.get("a", String.class));
+		assertNull(target.get("b"));
+		assertEquals("3", target.get("c", String.class));
+	}
+
+	@Test
+	public void scheduledFlush() throws Exception {
+		WriteBehindCacheDecorator cache =
+				new WriteBehindCacheDecorator(this.target, this.scheduler, Duration.ofMillis(10));
+		cache.put("a", "1");
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (this.target.get("a") == null && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals("1", this.target.get("a", String.class));
+		assertEquals(0, cache.getPendingWriteCount());
+	}
+
+	@Test
+	public void flushImmediatelyWhenSchedulingRejected() {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.initialize();
+		scheduler.shutdown();
+		WriteBehindCacheDecorator cache = new WriteBehindCacheDecorator(this.target, scheduler, Duration.ofHours(1));
+
+		cache.put("a", "1");
+		assertEquals("1", this.target.get("a", String.class));
+		assertEquals(0, cache.getPendingWriteCount());
+
+		cache.put("a", "2");
+		assertEquals("2", this.target.get("a", String.class));
+		assertEquals(0, cache.getPendingWriteCount());
+	}
+
+	@Test
+	public void transactionAwareCacheManagerProxyWithWriteBehind() {
+		ConcurrentMapCacheManager targetCacheManager = new ConcurrentMapCacheManager("testCache");
+		TransactionAwareCacheManagerProxy cacheManager = new TransactionAwareCacheManagerProxy(targetCacheManager);
+		cacheManager.setWriteBehindScheduler(this.scheduler);
+		cacheManager.setWriteBehindDelay(Duration.ofHours(1));
+		Cache target = targetCacheManager.getCache("testCache");
+		Cache cache = cacheManager.getCache("testCache");
+
+		PlatformTransactionManager txManager = new CallCountingTransactionManager();
+		TransactionStatus status = txManager.getTransaction(
+				new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRED));
+		cache.put("a", "1");
+		assertNull(cache.get("a"));
+		txManager.commit(status);
+
+		assertEquals("1", cacheManager.getCache("testCache").get("a").get());
+		assertNull(target.get("a"));
+
+		cacheManager.destroy();
+		assertEquals("1", target.get("a", String.class));
+	}
+
+	@Test
+	public void transactionAwareCacheManagerProxyWithRequiresNew() {
+		ConcurrentMapCacheManager targetCacheManager = new ConcurrentMapCacheManager("testCache");
+		TransactionAwareCacheManagerProxy cacheManager = new TransactionAwareCacheManagerProxy(targetCacheManager);
+		cacheManager.setWriteBehindScheduler(this.scheduler);
+		cacheManager.setWriteBehindDelay(Duration.ofHours(1));
+		Cache target = targetCacheManager.getCache("testCache");
+		Cache cache = cacheManager.getCache("testCache");
+
+		PlatformTransactionManager txManager = new SuspendingTransactionManager();
+		TransactionStatus outer = txManager.getTransaction(
+				new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRED));
+		cache.put("a", "1");
+
+		TransactionStatus inner = txManager.getTransaction(
+				new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+		cache.put("b", "2");
+		txManager.commit(inner);
+		assertEquals("2", cache.get("b", String.class));
+		assertNull(cache.get("a"));
+
+		txManager.commit(outer);
+		assertEquals("1", cache.get("a", String.class));
+
+		cacheManager.destroy();
+		assertEquals("1", target.get("a", String.class));
+		assertEquals("2", target.get("b", String.class));
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class SuspendingTransactionManager extends CallCountingTransactionManager {
+
+		@Override
+		protected boolean isExistingTransaction(Object transaction) {
+			return (this.inflight > 0);
+		}
+
+		@Override
+		protected Object doSuspend(Object transaction) {
+			return null;
+		}
+
+		@Override
+		protected void doResume(Object transaction, Object suspendedResources) {
+		}
+	}
+
+}
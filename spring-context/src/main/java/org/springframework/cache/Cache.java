@@ -16,7 +16,12 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.springframework.lang.Nullable;
 
@@ -100,6 +105,54 @@ public interface Cache {
 	@Nullable
 	<T> T get(Object key, Callable<T> valueLoader);
 
+	/**
+	 * Asynchronously retrieve the value to which this cache maps the specified key.
+	 * <p>The default implementation delegates to the synchronous {@link #get(Object)}
+	 * method. Implementations backed by a remote store should override this method
+	 * in order to avoid blocking the calling thread.
+	 * @param key the key whose associated value is to be returned
+	 * @return a future for the value to which this cache maps the specified key,
+	 * contained within a {@link ValueWrapper} which may also hold a cached
+	 * {@code null} value. A straight {@code null} being returned, or the future
+	 * completing with {@code null}, means that the cache contains no mapping
+	 * for this key.
+	 * @since 5.1.10
+	 * @see #get(Object)
+	 */
+	@Nullable
+	default CompletableFuture<ValueWrapper> retrieve(Object key) {
+		ValueWrapper wrapper = get(key);
+		return (wrapper != null ? CompletableFuture.completedFuture(wrapper) : null);
+	}
+
+	/**
+	 * Asynchronously retrieve the value to which this cache maps the specified key,
+	 * obtaining that value from {@code valueLoader} if necessary and associating
+	 * it with the key once the loader's future completes successfully.
+	 * <p>If possible, implementations should ensure that concurrent retrievals
+	 * for the same key share a single loading operation.
+	 * <p>The default implementation delegates to the synchronous {@link #get(Object)}
+	 * and {@link #put(Object, Object)} methods, without sharing loading operations.
+	 * @param key the key whose associated value is to be returned
+	 * @param valueLoader the loader for the value in case of a cache miss
+	 * @return a future for the value to which this cache maps the specified key
+	 * (which may be {@code null} itself), completing exceptionally if the
+	 * {@code valueLoader} or its future fails
+	 * @since 5.1.10
+	 * @see #get(Object, Callable)
+	 */
+	@SuppressWarnings("unchecked")
+	default <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		ValueWrapper wrapper = get(key);
+		if (wrapper != null) {
+			return CompletableFuture.completedFuture((T) wrapper.get());
+		}
+		return valueLoader.get().thenApply(value -> {
+			put(key, value);
+			return value;
+		});
+	}
+
 	/**
 	 * Associate the specified value with the specified key in this cache.
 	 * <p>If the cache previously contained a mapping for this key, the old
@@ -109,6 +162,41 @@ public interface Cache {
 	 */
 	void put(Object key, @Nullable Object value);
 
+	/**
+	 * Return the values to which this cache maps the specified keys, in a
+	 * single bulk operation if supported by the underlying store.
+	 * <p>The default implementation calls {@link #get(Object)} for each key.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a map containing an entry for each key that this cache contains
+	 * a mapping for, in the iteration order of the given keys, with each value
+	 * contained within a {@link ValueWrapper} which may also hold a cached
+	 * {@code null} value
+	 * @since 5.1.10
+	 * @see #get(Object)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper wrapper = get(key);
+			if (wrapper != null) {
+				result.put(key, wrapper);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Associate the specified values with the specified keys in this cache,
+	 * in a single bulk operation if supported by the underlying store.
+	 * <p>The default implementation calls {@link #put(Object, Object)} for each entry.
+	 * @param entries the keys and values to be stored
+	 * @since 5.1.10
+	 * @see #put(Object, Object)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		entries.forEach(this::put);
+	}
+
 	/**
 	 * Atomically associate the specified value with the specified key in this cache
 	 * if it is not set already.
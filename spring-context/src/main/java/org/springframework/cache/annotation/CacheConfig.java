@@ -73,4 +73,13 @@ public @interface CacheConfig {
 	 */
 	String cacheResolver() default "";
 
+	/**
+	 * The default age after which values cached by {@link Cacheable} operations
+	 * in the annotated class get refreshed asynchronously on access.
+	 * <p>If none is set at the operation level, this one is used instead.
+	 * @since 5.1.10
+	 * @see Cacheable#refreshAfter()
+	 */
+	String refreshAfter() default "";
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -179,4 +179,49 @@ public @interface Cacheable {
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Cache the individual entries of a bulk lookup method: a method with a
+	 * single {@link java.util.Collection} parameter holding the keys, returning
+	 * a {@link java.util.Map} from key to value. All keys are looked up at once
+	 * and the method gets invoked for the missing keys only, with the
+	 * {@code Collection} argument replaced by the missing subset. The returned
+	 * map merges the cached and the freshly loaded entries, in key order.
+	 * <p>Batch mode leads to a couple of limitations:
+	 * <ol>
+	 * <li>The collection elements are the cache keys: {@link #key()} is not
+	 * supported and a {@link #keyGenerator()} does not apply</li>
+	 * <li>{@link #unless()} is evaluated for each loaded value</li>
+	 * <li>No other cache-related operation can be combined</li>
+	 * </ol>
+	 * Restricting the invocation to the missing keys requires the caching
+	 * aspect to be able to change method arguments, as is the case for the
+	 * proxy-based {@code CacheInterceptor} but not for the AspectJ caching
+	 * aspect: an {@link IllegalStateException} is thrown on cache misses then.
+	 * @since 5.1.10
+	 * @see org.springframework.cache.Cache#getAll(java.util.Collection)
+	 * @see org.springframework.cache.Cache#putAll(java.util.Map)
+	 */
+	boolean batch() default false;
+
+	/**
+	 * The age after which a cached value gets refreshed ahead of its expiration:
+	 * a cache hit for an entry older than this returns the cached value right
+	 * away, and triggers an asynchronous invocation of the method which replaces
+	 * the entry with the fresh value. Concurrent hits on the same entry trigger
+	 * a single refresh only.
+	 * <p>Together with an expiration policy of the cache provider, this gives
+	 * stale-while-revalidate semantics: values are served from the cache during
+	 * the refresh, and callers only wait for the method invocation once the entry
+	 * expired without being accessed. The refresh age is therefore typically
+	 * shorter than the time-to-live of the cache.
+	 * <p>The value may be specified in milliseconds or as an ISO-8601 duration
+	 * (e.g. "PT30S"). Default is none, i.e. no refresh-ahead. Refreshing is not
+	 * supported in {@link #batch()} mode, and does not apply to methods returning
+	 * a {@code CompletableFuture} or a reactive type.
+	 * @since 5.1.10
+	 * @see CacheConfig#refreshAfter()
+	 * @see org.springframework.cache.interceptor.CacheAspectSupport#setRefreshExecutor
+	 */
+	String refreshAfter() default "";
+
 }
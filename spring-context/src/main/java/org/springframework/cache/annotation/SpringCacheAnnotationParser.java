@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -122,6 +122,8 @@ public class SpringCacheAnnotationParser implements CacheAnnotationParser, Seria
 		builder.setCacheManager(cacheable.cacheManager());
 		builder.setCacheResolver(cacheable.cacheResolver());
 		builder.setSync(cacheable.sync());
+		builder.setBatch(cacheable.batch());
+		builder.setRefreshAfter(cacheable.refreshAfter());
 
 		defaultConfig.applyDefault(builder);
 		CacheableOperation op = builder.build();
@@ -245,6 +247,9 @@ public class SpringCacheAnnotationParser implements CacheAnnotationParser, Seria
 		@Nullable
 		private String cacheResolver;
 
+		@Nullable
+		private String refreshAfter;
+
 		private boolean initialized = false;
 
 		public DefaultCacheConfig(Class<?> target) {
@@ -263,6 +268,7 @@ public class SpringCacheAnnotationParser implements CacheAnnotationParser, Seria
 					this.keyGenerator = annotation.keyGenerator();
 					this.cacheManager = annotation.cacheManager();
 					this.cacheResolver = annotation.cacheResolver();
+					this.refreshAfter = annotation.refreshAfter();
 				}
 				this.initialized = true;
 			}
@@ -284,6 +290,13 @@ public class SpringCacheAnnotationParser implements CacheAnnotationParser, Seria
 			else if (StringUtils.hasText(this.cacheManager)) {
 				builder.setCacheManager(this.cacheManager);
 			}
+
+			if (builder instanceof CacheableOperation.Builder) {
+				CacheableOperation.Builder cacheableBuilder = (CacheableOperation.Builder) builder;
+				if (!StringUtils.hasText(cacheableBuilder.getRefreshAfter()) && StringUtils.hasText(this.refreshAfter)) {
+					cacheableBuilder.setRefreshAfter(this.refreshAfter);
+				}
+			}
 		}
 	}
 
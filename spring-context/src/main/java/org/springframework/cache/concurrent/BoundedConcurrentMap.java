@@ -0,0 +1,533 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntBiFunction;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ConcurrentMap} with an upper bound for its number of entries or their
+ * total weight, and optional expiration of entries after write or access.
+ * Serves as a bounded store for a {@link ConcurrentMapCache}, without any
+ * dependency on a third-party caching library.
+ *
+ * <p>Entries are held in a {@link ConcurrentHashMap}. Once a bound is exceeded,
+ * entries get evicted in approximate least-recently-used order, following the
+ * CLOCK algorithm: a read only marks an entry as referenced, and the eviction
+ * sweep gives referenced entries a second chance before evicting them. This
+ * keeps reads free of any locking or reordering.
+ *
+ * <p>Expired entries are never returned. They are removed when accessed, and
+ * through a periodic cleanup on write. {@link #size()} may include expired
+ * entries which have not been cleaned up yet.
+ *
+ * <p>Does not support {@code null} keys or values, just like ConcurrentHashMap.
+ *
+ * @since 5.1.10
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @see ConcurrentMapCacheManager#setMaximumSize
+ */
+public final class BoundedConcurrentMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+	private static final long MIN_CLEANUP_INTERVAL = Duration.ofSeconds(1).toNanos();
+
+
+	private final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>(256);
+
+	private final ConcurrentLinkedQueue<Node<K, V>> evictionQueue = new ConcurrentLinkedQueue<>();
+
+	private final long maximumSize;
+
+	private final long maximumWeight;
+
+	@Nullable
+	private final ToIntBiFunction<? super K, ? super V> weigher;
+
+	private final long expireAfterWriteNanos;
+
+	private final long expireAfterAccessNanos;
+
+	private final LongSupplier ticker;
+
+	private final AtomicLong totalWeight = new AtomicLong();
+
+	private final AtomicInteger staleNodes = new AtomicInteger();
+
+	private final AtomicLong lastCleanup;
+
+	@Nullable
+	private EntrySet entrySet;
+
+
+	/**
+	 * Create a new BoundedConcurrentMap.
+	 * @param maximumSize the maximum number of entries, or -1 for no limit
+	 * @param maximumWeight the maximum total weight of all entries, or -1 for no limit
+	 * @param weigher the function calculating the weight of an entry, which must
+	 * be non-negative and is determined when the entry gets written
+	 * (required for a maximum weight)
+	 * @param expireAfterWrite the time after which an entry expires once written,
+	 * or {@code null} for no expiration after write
+	 * @param expireAfterAccess the time after which an entry expires once written
+	 * or read, or {@code null} for no expiration after access
+	 */
+	public BoundedConcurrentMap(long maximumSize, long maximumWeight,
+			@Nullable ToIntBiFunction<? super K, ? super V> weigher,
+			@Nullable Duration expireAfterWrite, @Nullable Duration expireAfterAccess) {
+
+		this(maximumSize, maximumWeight, weigher, expireAfterWrite, expireAfterAccess, System::nanoTime);
+	}
+
+	BoundedConcurrentMap(long maximumSize, long maximumWeight,
+			@Nullable ToIntBiFunction<? super K, ? super V> weigher,
+			@Nullable Duration expireAfterWrite, @Nullable Duration expireAfterAccess, LongSupplier ticker) {
+
+		Assert.isTrue(maximumSize != 0 && maximumSize >= -1, "'maximumSize' must be positive or -1");
+		Assert.isTrue(maximumWeight != 0 && maximumWeight >= -1, "'maximumWeight' must be positive or -1");
+		Assert.isTrue(maximumWeight < 0 || weigher != null, "A weigher is required for a maximum weight");
+		this.maximumSize = maximumSize;
+		this.maximumWeight = maximumWeight;
+		this.weigher = weigher;
+		this.expireAfterWriteNanos = toNanos(expireAfterWrite, "expireAfterWrite");
+		this.expireAfterAccessNanos = toNanos(expireAfterAccess, "expireAfterAccess");
+		this.ticker = ticker;
+		this.lastCleanup = new AtomicLong(ticker.getAsLong());
+	}
+
+	private static long toNanos(@Nullable Duration duration, String name) {
+		if (duration == null) {
+			return 0;
+		}
+		Assert.isTrue(!duration.isNegative() && !duration.isZero(), () -> "'" + name + "' must be positive");
+		return duration.toNanos();
+	}
+
+
+	/**
+	 * Return the current total weight of all entries, as determined by the weigher.
+	 * Always 0 without a weigher.
+	 */
+	public long getTotalWeight() {
+		return this.totalWeight.get();
+	}
+
+	@Override
+	public int size() {
+		return this.map.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.map.isEmpty();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (get(key) != null);
+	}
+
+	@Override
+	@Nullable
+	public V get(Object key) {
+		Node<K, V> node = this.map.get(key);
+		if (node == null) {
+			return null;
+		}
+		long now = this.ticker.getAsLong();
+		if (isExpired(node, now)) {
+			if (this.map.remove(key, node)) {
+				onRemoval(node, true);
+			}
+			return null;
+		}
+		node.referenced = true;
+		if (this.expireAfterAccessNanos > 0) {
+			node.accessTime = now;
+		}
+		return node.value;
+	}
+
+	@Override
+	@Nullable
+	public V put(K key, V value) {
+		return write(key, value, false);
+	}
+
+	@Override
+	@Nullable
+	public V putIfAbsent(K key, V value) {
+		return write(key, value, true);
+	}
+
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		Assert.notNull(mappingFunction, "Mapping function must not be null");
+		long now = this.ticker.getAsLong();
+		Object[] result = new Object[2];
+		this.map.compute(key, (k, node) -> {
+			if (node != null && !isExpired(node, now)) {
+				node.referenced = true;
+				if (this.expireAfterAccessNanos > 0) {
+					node.accessTime = now;
+				}
+				result[0] = node.value;
+				return node;
+			}
+			// An expired node only counts as removed once the function succeeded:
+			// otherwise, it remains in the map
+			V value = mappingFunction.apply(k);
+			if (node != null) {
+				onRemoval(node, true);
+			}
+			if (value == null) {
+				return null;
+			}
+			Node<K, V> created = createNode(k, value, now);
+			result[0] = value;
+			result[1] = created;
+			return created;
+		});
+		afterWrite(result[1], now);
+		@SuppressWarnings("unchecked")
+		V value = (V) result[0];
+		return value;
+	}
+
+	@Nullable
+	private V write(K key, V value, boolean onlyIfAbsent) {
+		Assert.notNull(value, "Value must not be null");
+		long now = this.ticker.getAsLong();
+		Object[] result = new Object[2];
+		this.map.compute(key, (k, node) -> {
+			if (node != null && !isExpired(node, now)) {
+				result[0] = node.value;
+				if (!onlyIfAbsent) {
+					update(node, value, now);
+				}
+				return node;
+			}
+			if (node != null) {
+				onRemoval(node, true);
+			}
+			Node<K, V> created = createNode(k, value, now);
+			result[1] = created;
+			return created;
+		});
+		afterWrite(result[1], now);
+		@SuppressWarnings("unchecked")
+		V previous = (V) result[0];
+		return previous;
+	}
+
+	@Override
+	@Nullable
+	public V replace(K key, V value) {
+		Assert.notNull(value, "Value must not be null");
+		long now = this.ticker.getAsLong();
+		Object[] result = new Object[1];
+		this.map.computeIfPresent(key, (k, node) -> {
+			if (isExpired(node, now)) {
+				onRemoval(node, true);
+				return null;
+			}
+			result[0] = node.value;
+			update(node, value, now);
+			return node;
+		});
+		afterWrite(null, now);
+		@SuppressWarnings("unchecked")
+		V previous = (V) result[0];
+		return previous;
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		Assert.notNull(oldValue, "Old value must not be null");
+		Assert.notNull(newValue, "New value must not be null");
+		long now = this.ticker.getAsLong();
+		boolean[] replaced = new boolean[1];
+		this.map.computeIfPresent(key, (k, node) -> {
+			if (isExpired(node, now)) {
+				onRemoval(node, true);
+				return null;
+			}
+			if (node.value.equals(oldValue)) {
+				update(node, newValue, now);
+				replaced[0] = true;
+			}
+			return node;
+		});
+		afterWrite(null, now);
+		return replaced[0];
+	}
+
+	@Override
+	@Nullable
+	public V remove(Object key) {
+		Node<K, V> node = this.map.remove(key);
+		if (node == null) {
+			return null;
+		}
+		onRemoval(node, true);
+		return (isExpired(node, this.ticker.getAsLong()) ? null : node.value);
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		Node<K, V> node = this.map.get(key);
+		if (node != null && node.value.equals(value) && this.map.remove(key, node)) {
+			onRemoval(node, true);
+			return !isExpired(node, this.ticker.getAsLong());
+		}
+		return false;
+	}
+
+	@Override
+	public void clear() {
+		for (K key : this.map.keySet()) {
+			remove(key);
+		}
+		this.staleNodes.set(0);
+		this.evictionQueue.removeIf(node -> node.removed);
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		EntrySet entrySet = this.entrySet;
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+			this.entrySet = entrySet;
+		}
+		return entrySet;
+	}
+
+
+	private Node<K, V> createNode(K key, V value, long now) {
+		int weight = weigh(key, value);
+		this.totalWeight.addAndGet(weight);
+		return new Node<>(key, value, weight, now);
+	}
+
+	private void update(Node<K, V> node, V value, long now) {
+		int weight = weigh(node.key, value);
+		this.totalWeight.addAndGet(weight - node.weight);
+		node.value = value;
+		node.weight = weight;
+		node.writeTime = now;
+		node.accessTime = now;
+		node.referenced = true;
+	}
+
+	private int weigh(K key, V value) {
+		if (this.weigher == null) {
+			return 0;
+		}
+		int weight = this.weigher.applyAsInt(key, value);
+		Assert.state(weight >= 0, "Weigher must not return a negative weight");
+		return weight;
+	}
+
+	private boolean isExpired(Node<K, V> node, long now) {
+		return ((this.expireAfterWriteNanos > 0 && now - node.writeTime >= this.expireAfterWriteNanos) ||
+				(this.expireAfterAccessNanos > 0 && now - node.accessTime >= this.expireAfterAccessNanos));
+	}
+
+	/**
+	 * Account for the removal of the given node from the map.
+	 * @param node the removed node
+	 * @param queued whether the node is still held in the eviction queue
+	 */
+	private void onRemoval(Node<K, V> node, boolean queued) {
+		node.removed = true;
+		this.totalWeight.addAndGet(-node.weight);
+		if (queued && this.staleNodes.incrementAndGet() > Math.max(this.map.size(), 64)) {
+			// Purge removed nodes which the eviction sweep did not come across yet
+			this.staleNodes.set(0);
+			this.evictionQueue.removeIf(candidate -> candidate.removed);
+		}
+	}
+
+	private void afterWrite(@Nullable Object createdNode, long now) {
+		if (createdNode != null) {
+			@SuppressWarnings("unchecked")
+			Node<K, V> node = (Node<K, V>) createdNode;
+			this.evictionQueue.offer(node);
+		}
+		if (this.expireAfterWriteNanos > 0 || this.expireAfterAccessNanos > 0) {
+			cleanUpIfDue(now);
+		}
+		evictIfNecessary();
+	}
+
+	private boolean isOverBounds() {
+		return ((this.maximumSize > 0 && this.map.size() > this.maximumSize) ||
+				(this.maximumWeight > 0 && this.totalWeight.get() > this.maximumWeight));
+	}
+
+	/**
+	 * Evict entries until the map is within its bounds again, sweeping the
+	 * eviction queue in CLOCK fashion: referenced entries get a second chance.
+	 */
+	private void evictIfNecessary() {
+		int secondChances = 0;
+		while (isOverBounds()) {
+			Node<K, V> node = this.evictionQueue.poll();
+			if (node == null) {
+				return;
+			}
+			if (node.removed) {
+				continue;
+			}
+			if (node.referenced && secondChances <= this.map.size()) {
+				node.referenced = false;
+				secondChances++;
+				this.evictionQueue.offer(node);
+				continue;
+			}
+			if (this.map.remove(node.key, node)) {
+				onRemoval(node, false);
+			}
+		}
+	}
+
+	/**
+	 * Remove all expired entries, at most once per cleanup interval.
+	 */
+	private void cleanUpIfDue(long now) {
+		long last = this.lastCleanup.get();
+		long interval = Math.max(MIN_CLEANUP_INTERVAL,
+				Math.max(this.expireAfterWriteNanos, this.expireAfterAccessNanos) / 2);
+		if (now - last < interval || !this.lastCleanup.compareAndSet(last, now)) {
+			return;
+		}
+		for (Node<K, V> node : this.map.values()) {
+			if (isExpired(node, now) && this.map.remove(node.key, node)) {
+				onRemoval(node, true);
+			}
+		}
+	}
+
+
+	private static final class Node<K, V> {
+
+		final K key;
+
+		volatile V value;
+
+		volatile int weight;
+
+		volatile long writeTime;
+
+		volatile long accessTime;
+
+		volatile boolean referenced;
+
+		volatile boolean removed;
+
+		Node(K key, V value, int weight, long now) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.writeTime = now;
+			this.accessTime = now;
+		}
+	}
+
+
+	/**
+	 * Entry set view over the unexpired entries.
+	 */
+	private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return BoundedConcurrentMap.this.size();
+		}
+
+		@Override
+		public void clear() {
+			BoundedConcurrentMap.this.clear();
+		}
+	}
+
+
+	private final class EntryIterator implements Iterator<Entry<K, V>> {
+
+		private final Iterator<Node<K, V>> nodes = BoundedConcurrentMap.this.map.values().iterator();
+
+		private final long now = BoundedConcurrentMap.this.ticker.getAsLong();
+
+		@Nullable
+		private Node<K, V> next;
+
+		@Nullable
+		private Node<K, V> last;
+
+		@Override
+		public boolean hasNext() {
+			while (this.next == null && this.nodes.hasNext()) {
+				Node<K, V> candidate = this.nodes.next();
+				if (!isExpired(candidate, this.now)) {
+					this.next = candidate;
+				}
+			}
+			return (this.next != null);
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Node<K, V> node = this.next;
+			Assert.state(node != null, "No next node");
+			this.next = null;
+			this.last = node;
+			return new SimpleImmutableEntry<>(node.key, node.value);
+		}
+
+		@Override
+		public void remove() {
+			Assert.state(this.last != null, "No current entry");
+			BoundedConcurrentMap.this.remove(this.last.key, this.last.value);
+			this.last = null;
+		}
+	}
+
+}
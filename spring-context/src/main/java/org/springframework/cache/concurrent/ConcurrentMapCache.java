@@ -19,6 +19,7 @@ package org.springframework.cache.concurrent;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -156,6 +157,11 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 		this.store.put(key, toStoreValue(value));
 	}
 
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		this.store.putAll(toStoreValues(entries));
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
@@ -165,11 +171,13 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 
 	@Override
 	public void evict(Object key) {
+		invalidatePendingLoad(key);
 		this.store.remove(key);
 	}
 
 	@Override
 	public void clear() {
+		invalidatePendingLoads();
 		this.store.clear();
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,18 +16,29 @@
 
 package org.springframework.cache.concurrent;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntBiFunction;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.CacheSnapshotStore;
 import org.springframework.core.serializer.support.SerializationDelegate;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
 
 /**
  * {@link CacheManager} implementation that lazily builds {@link ConcurrentMapCache}
@@ -35,9 +46,18 @@ import org.springframework.lang.Nullable;
  * the set of cache names is pre-defined through {@link #setCacheNames}, with no
  * dynamic creation of further cache regions at runtime.
  *
- * <p>Note: This is by no means a sophisticated CacheManager; it comes with no
- * cache configuration options. However, it may be useful for testing or simple
- * caching scenarios. For advanced local caching needs, consider
+ * <p>By default, caches are unbounded. A {@link #setMaximumSize maximum size},
+ * a {@link #setMaximumWeight maximum weight} and expiration settings turn them
+ * into bounded caches backed by a {@link BoundedConcurrentMap}, evicting entries
+ * in approximate least-recently-used order.
+ *
+ * <p>With a {@link #setSnapshotStore snapshot store}, the contents of the caches
+ * are saved on shutdown and restored when a cache is first requested after a
+ * restart, so that caches do not start out cold.
+ *
+ * <p>Note: This is by no means a sophisticated CacheManager; it comes with only
+ * basic cache configuration options. However, it may be useful for testing or
+ * simple caching scenarios. For advanced local caching needs, consider
  * {@link org.springframework.cache.jcache.JCacheCacheManager},
  * {@link org.springframework.cache.ehcache.EhCacheCacheManager},
  * {@link org.springframework.cache.caffeine.CaffeineCacheManager}.
@@ -46,7 +66,10 @@ import org.springframework.lang.Nullable;
  * @since 3.1
  * @see ConcurrentMapCache
  */
-public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderAware {
+public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderAware, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(ConcurrentMapCacheManager.class);
+
 
 	private final ConcurrentMap<String, Cache> cacheMap = new ConcurrentHashMap<>(16);
 
@@ -56,6 +79,24 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 
 	private boolean storeByValue = false;
 
+	private long maximumSize = -1;
+
+	private long maximumWeight = -1;
+
+	@Nullable
+	private ToIntBiFunction<Object, Object> weigher;
+
+	@Nullable
+	private Duration expireAfterWrite;
+
+	@Nullable
+	private Duration expireAfterAccess;
+
+	@Nullable
+	private CacheSnapshotStore snapshotStore;
+
+	private final Set<String> restoredCaches = ConcurrentHashMap.newKeySet();
+
 	@Nullable
 	private SerializationDelegate serialization;
 
@@ -146,6 +187,109 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 		return this.storeByValue;
 	}
 
+	/**
+	 * Specify the maximum number of entries per cache, evicting entries in
+	 * approximate least-recently-used order once exceeded.
+	 * <p>Default is -1, i.e. no limit.
+	 * <p>Note: A change of the bounds will reset all existing caches, if any,
+	 * to reconfigure them with the new bounds.
+	 * @since 5.1.10
+	 * @see BoundedConcurrentMap
+	 */
+	public void setMaximumSize(long maximumSize) {
+		if (maximumSize != this.maximumSize) {
+			this.maximumSize = maximumSize;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Specify the maximum total weight of the entries per cache, as determined
+	 * by the {@link #setWeigher weigher}, evicting entries in approximate
+	 * least-recently-used order once exceeded. Requires a weigher to be
+	 * specified first.
+	 * <p>Default is -1, i.e. no limit.
+	 * @throws IllegalStateException if a positive maximum weight is specified
+	 * without a weigher
+	 * @since 5.1.10
+	 * @see #setWeigher
+	 */
+	public void setMaximumWeight(long maximumWeight) {
+		Assert.state(maximumWeight <= 0 || this.weigher != null,
+				"A weigher needs to be specified before a maximum weight");
+		if (maximumWeight != this.maximumWeight) {
+			this.maximumWeight = maximumWeight;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Specify the function calculating the weight of a cache entry, e.g. its
+	 * approximate size in bytes, for a {@link #setMaximumWeight maximum weight}.
+	 * <p>The weigher receives the stored value: the internal null holder for
+	 * {@code null} values, and the serialized byte array in store-by-value mode.
+	 * @throws IllegalStateException if the weigher is removed while a maximum
+	 * weight is specified
+	 * @since 5.1.10
+	 */
+	public void setWeigher(@Nullable ToIntBiFunction<Object, Object> weigher) {
+		Assert.state(weigher != null || this.maximumWeight <= 0,
+				"A weigher is required for a maximum weight");
+		if (weigher != this.weigher) {
+			this.weigher = weigher;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Specify the time after which an entry expires once written.
+	 * <p>Default is none, i.e. no expiration after write.
+	 * @since 5.1.10
+	 */
+	public void setExpireAfterWrite(@Nullable Duration expireAfterWrite) {
+		if (!ObjectUtils.nullSafeEquals(expireAfterWrite, this.expireAfterWrite)) {
+			this.expireAfterWrite = expireAfterWrite;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Specify the time after which an entry expires once last written or read.
+	 * <p>Default is none, i.e. no expiration after access.
+	 * @since 5.1.10
+	 */
+	public void setExpireAfterAccess(@Nullable Duration expireAfterAccess) {
+		if (!ObjectUtils.nullSafeEquals(expireAfterAccess, this.expireAfterAccess)) {
+			this.expireAfterAccess = expireAfterAccess;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Specify a store to save the contents of the caches to on shutdown, and to
+	 * restore them from when a cache is first requested.
+	 * <p>Default is none, i.e. caches start empty. The snapshot of a cache is
+	 * discarded if it is older than the {@link #setExpireAfterWrite write} or
+	 * {@link #setExpireAfterAccess access} expiration, whichever is shorter.
+	 * <p>A cache is populated from its snapshot before it is handed out,
+	 * so concurrent callers wait for the restore to complete.
+	 * @since 5.1.10
+	 * @see org.springframework.cache.support.FileSystemCacheSnapshotStore
+	 */
+	public void setSnapshotStore(@Nullable CacheSnapshotStore snapshotStore) {
+		this.snapshotStore = snapshotStore;
+	}
+
+	/**
+	 * Return whether this cache manager creates bounded caches, i.e. caches
+	 * with a maximum size or weight, or with expiration.
+	 * @since 5.1.10
+	 */
+	public boolean isBounded() {
+		return (this.maximumSize > 0 || this.maximumWeight > 0 ||
+				this.expireAfterWrite != null || this.expireAfterAccess != null);
+	}
+
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
 		this.serialization = new SerializationDelegate(classLoader);
@@ -165,21 +309,69 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 	@Nullable
 	public Cache getCache(String name) {
 		Cache cache = this.cacheMap.get(name);
-		if (cache == null && this.dynamic) {
+		if ((cache == null && this.dynamic) || (cache != null && !isRestored(name))) {
 			synchronized (this.cacheMap) {
 				cache = this.cacheMap.get(name);
-				if (cache == null) {
+				if (cache == null && this.dynamic) {
 					cache = createConcurrentMapCache(name);
+					// Populate the new cache before it becomes visible to other callers
+					restoreSnapshot(name, cache);
 					this.cacheMap.put(name, cache);
 				}
+				else if (cache != null) {
+					restoreSnapshot(name, cache);
+				}
 			}
 		}
 		return cache;
 	}
 
+	private boolean isRestored(String name) {
+		return (this.snapshotStore == null || this.restoredCaches.contains(name));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void restoreSnapshot(String name, Cache cache) {
+		CacheSnapshotStore snapshotStore = this.snapshotStore;
+		if (snapshotStore == null || this.restoredCaches.contains(name)) {
+			return;
+		}
+		Object store = cache.getNativeCache();
+		if (store instanceof ConcurrentMap) {
+			ConcurrentMap<Object, Object> map = (ConcurrentMap<Object, Object>) store;
+			try {
+				snapshotStore.load(name, getSnapshotTimeToLive(), map::putIfAbsent);
+			}
+			catch (IOException | RuntimeException ex) {
+				logger.warn("Failed to restore snapshot for cache '" + name + "'", ex);
+			}
+		}
+		this.restoredCaches.add(name);
+	}
+
+	/**
+	 * Return the time after which a snapshot is considered stale: the shorter
+	 * of the write and access expiration, since an entry that is neither
+	 * written nor read would have expired by then.
+	 */
+	@Nullable
+	private Duration getSnapshotTimeToLive() {
+		if (this.expireAfterWrite == null) {
+			return this.expireAfterAccess;
+		}
+		if (this.expireAfterAccess == null) {
+			return this.expireAfterWrite;
+		}
+		return (this.expireAfterWrite.compareTo(this.expireAfterAccess) <= 0 ?
+				this.expireAfterWrite : this.expireAfterAccess);
+	}
+
 	private void recreateCaches() {
-		for (Map.Entry<String, Cache> entry : this.cacheMap.entrySet()) {
-			entry.setValue(createConcurrentMapCache(entry.getKey()));
+		synchronized (this.cacheMap) {
+			for (Map.Entry<String, Cache> entry : this.cacheMap.entrySet()) {
+				entry.setValue(createConcurrentMapCache(entry.getKey()));
+			}
+			this.restoredCaches.clear();
 		}
 	}
 
@@ -190,9 +382,36 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 	 */
 	protected Cache createConcurrentMapCache(String name) {
 		SerializationDelegate actualSerialization = (isStoreByValue() ? this.serialization : null);
-		return new ConcurrentMapCache(name, new ConcurrentHashMap<>(256),
-				isAllowNullValues(), actualSerialization);
+		ConcurrentMap<Object, Object> store = (isBounded() ?
+				new BoundedConcurrentMap<>(this.maximumSize, this.maximumWeight, this.weigher,
+						this.expireAfterWrite, this.expireAfterAccess) :
+				new ConcurrentHashMap<>(256));
+		return new ConcurrentMapCache(name, store, isAllowNullValues(), actualSerialization);
+	}
 
+	/**
+	 * Save the contents of all caches which have been restored from
+	 * the {@link #setSnapshotStore snapshot store} before.
+	 * <p>Caches which have not been requested since startup are left out,
+	 * keeping their previous snapshot.
+	 */
+	@Override
+	public void destroy() {
+		CacheSnapshotStore snapshotStore = this.snapshotStore;
+		if (snapshotStore == null) {
+			return;
+		}
+		for (String name : this.restoredCaches) {
+			Cache cache = this.cacheMap.get(name);
+			if (cache != null && cache.getNativeCache() instanceof Map) {
+				try {
+					snapshotStore.save(name, (Map<?, ?>) cache.getNativeCache());
+				}
+				catch (IOException | RuntimeException ex) {
+					logger.warn("Failed to save snapshot for cache '" + name + "'", ex);
+				}
+			}
+		}
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,29 @@
 
 package org.springframework.cache.interceptor;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import org.springframework.cache.Cache;
+import org.springframework.cache.metrics.CacheMetricsRecorder;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.function.SingletonSupplier;
 
 /**
  * A base component for invoking {@link Cache} operations and using a
  * configurable {@link CacheErrorHandler} when an exception occurs.
+ * The operations may optionally be recorded with a {@link CacheMetricsRecorder}:
+ * a failure of the recorder gets logged, without involving the error handler.
  *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
@@ -31,8 +47,13 @@ import org.springframework.util.function.SingletonSupplier;
  */
 public abstract class AbstractCacheInvoker {
 
+	private static final Log metricsLogger = LogFactory.getLog(AbstractCacheInvoker.class);
+
 	protected SingletonSupplier<CacheErrorHandler> errorHandler;
 
+	@Nullable
+	private CacheMetricsRecorder metricsRecorder;
+
 
 	protected AbstractCacheInvoker() {
 		this.errorHandler = SingletonSupplier.of(SimpleCacheErrorHandler::new);
@@ -59,6 +80,25 @@ public abstract class AbstractCacheInvoker {
 		return this.errorHandler.obtain();
 	}
 
+	/**
+	 * Set the {@link CacheMetricsRecorder} to record the cache operations
+	 * performed by this invoker with. Default is none.
+	 * @since 5.1.10
+	 * @see org.springframework.cache.metrics.SimpleCacheMetricsRecorder
+	 */
+	public void setMetricsRecorder(@Nullable CacheMetricsRecorder metricsRecorder) {
+		this.metricsRecorder = metricsRecorder;
+	}
+
+	/**
+	 * Return the {@link CacheMetricsRecorder} to use, if any.
+	 * @since 5.1.10
+	 */
+	@Nullable
+	public CacheMetricsRecorder getMetricsRecorder() {
+		return this.metricsRecorder;
+	}
+
 
 	/**
 	 * Execute {@link Cache#get(Object)} on the specified {@link Cache} and
@@ -70,7 +110,13 @@ public abstract class AbstractCacheInvoker {
 	@Nullable
 	protected Cache.ValueWrapper doGet(Cache cache, Object key) {
 		try {
-			return cache.get(key);
+			if (this.metricsRecorder == null) {
+				return cache.get(key);
+			}
+			long start = System.nanoTime();
+			Cache.ValueWrapper wrapper = cache.get(key);
+			recordLookup(cache, key, wrapper != null, System.nanoTime() - start);
+			return wrapper;
 		}
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCacheGetError(ex, cache, key);
@@ -78,26 +124,164 @@ public abstract class AbstractCacheInvoker {
 		}
 	}
 
+	/**
+	 * Execute {@link Cache#retrieve(Object)} on the specified {@link Cache} and
+	 * invoke the error handler if an exception occurs, either right away or
+	 * through the returned future. Return {@code null} or a future completing
+	 * with {@code null} if the handler does not throw any exception, which
+	 * simulates a cache miss in case of error.
+	 * @since 5.1.10
+	 * @see Cache#retrieve(Object)
+	 */
+	@Nullable
+	protected CompletableFuture<Cache.ValueWrapper> doRetrieve(Cache cache, Object key) {
+		try {
+			long start = System.nanoTime();
+			CompletableFuture<Cache.ValueWrapper> result = cache.retrieve(key);
+			if (result == null) {
+				if (this.metricsRecorder != null) {
+					recordLookup(cache, key, false, System.nanoTime() - start);
+				}
+				return null;
+			}
+			if (this.metricsRecorder != null) {
+				result = result.whenComplete((wrapper, ex) -> {
+					if (ex == null) {
+						recordLookup(cache, key, wrapper != null, System.nanoTime() - start);
+					}
+				});
+			}
+			return result.exceptionally(ex -> {
+				Throwable cause = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+				getErrorHandler().handleCacheGetError((cause instanceof RuntimeException ?
+						(RuntimeException) cause : new IllegalStateException(cause)), cache, key);
+				return null;  // If the exception is handled, return a cache miss
+			});
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, key);
+			return null;  // If the exception is handled, return a cache miss
+		}
+	}
+
+	/**
+	 * Execute {@link Cache#retrieve(Object, Supplier)} on the specified
+	 * {@link Cache} and invoke the error handler if an exception occurs,
+	 * either right away or through the returned future. If the handler does
+	 * not throw any exception, the value gets loaded through the given loader
+	 * (or taken from its earlier invocation), which simulates a cache miss
+	 * in case of error. A failure of the loader itself is propagated as is.
+	 * @since 5.1.10
+	 * @see Cache#retrieve(Object, Supplier)
+	 */
+	protected <T> CompletableFuture<T> doRetrieve(Cache cache, Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		AtomicReference<CompletableFuture<T>> loaded = new AtomicReference<>();
+		CompletableFuture<T> result;
+		try {
+			result = cache.retrieve(key, () -> {
+				CompletableFuture<T> future = valueLoader.get();
+				loaded.set(future);
+				return future;
+			});
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, key);
+			CompletableFuture<T> future = loaded.get();
+			return (future != null ? future : valueLoader.get());  // If the exception is handled, load the value
+		}
+		return result.handle((value, ex) -> {
+			if (ex == null) {
+				return CompletableFuture.completedFuture(value);
+			}
+			CompletableFuture<T> future = loaded.get();
+			if (future != null && future.isCompletedExceptionally()) {
+				return future;
+			}
+			Throwable cause = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+			getErrorHandler().handleCacheGetError((cause instanceof RuntimeException ?
+					(RuntimeException) cause : new IllegalStateException(cause)), cache, key);
+			return (future != null ? future : valueLoader.get());  // If the exception is handled, load the value
+		}).thenCompose(Function.identity());
+	}
+
+	/**
+	 * Execute {@link Cache#getAll(Collection)} on the specified {@link Cache}
+	 * and invoke the error handler for each key if an exception occurs. Return
+	 * an empty map if the handler does not throw any exception, which simulates
+	 * a cache miss for all keys in case of error.
+	 * @since 5.1.10
+	 * @see Cache#getAll(Collection)
+	 */
+	protected Map<Object, Cache.ValueWrapper> doGetAll(Cache cache, Collection<?> keys) {
+		try {
+			if (this.metricsRecorder == null || keys.isEmpty()) {
+				return cache.getAll(keys);
+			}
+			long start = System.nanoTime();
+			Map<Object, Cache.ValueWrapper> result = cache.getAll(keys);
+			long nanosPerKey = (System.nanoTime() - start) / keys.size();
+			for (Object key : keys) {
+				recordLookup(cache, key, result.containsKey(key), nanosPerKey);
+			}
+			return result;
+		}
+		catch (RuntimeException ex) {
+			for (Object key : keys) {
+				getErrorHandler().handleCacheGetError(ex, cache, key);
+			}
+			return Collections.emptyMap();  // If the exception is handled, return a cache miss
+		}
+	}
+
 	/**
 	 * Execute {@link Cache#put(Object, Object)} on the specified {@link Cache}
 	 * and invoke the error handler if an exception occurs.
 	 */
 	protected void doPut(Cache cache, Object key, @Nullable Object result) {
 		try {
+			long start = System.nanoTime();
 			cache.put(key, result);
+			if (this.metricsRecorder != null) {
+				recordPut(cache, key, System.nanoTime() - start);
+			}
 		}
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCachePutError(ex, cache, key, result);
 		}
 	}
 
+	/**
+	 * Execute {@link Cache#putAll(Map)} on the specified {@link Cache}
+	 * and invoke the error handler for each entry if an exception occurs.
+	 * @since 5.1.10
+	 */
+	protected void doPutAll(Cache cache, Map<?, ?> entries) {
+		try {
+			long start = System.nanoTime();
+			cache.putAll(entries);
+			if (this.metricsRecorder != null && !entries.isEmpty()) {
+				long nanosPerKey = (System.nanoTime() - start) / entries.size();
+				for (Object key : entries.keySet()) {
+					recordPut(cache, key, nanosPerKey);
+				}
+			}
+		}
+		catch (RuntimeException ex) {
+			entries.forEach((key, value) -> getErrorHandler().handleCachePutError(ex, cache, key, value));
+		}
+	}
+
 	/**
 	 * Execute {@link Cache#evict(Object)} on the specified {@link Cache} and
 	 * invoke the error handler if an exception occurs.
 	 */
 	protected void doEvict(Cache cache, Object key) {
 		try {
+			long start = System.nanoTime();
 			cache.evict(key);
+			if (this.metricsRecorder != null) {
+				recordEviction(cache, key, System.nanoTime() - start);
+			}
 		}
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCacheEvictError(ex, cache, key);
@@ -110,11 +294,83 @@ public abstract class AbstractCacheInvoker {
 	 */
 	protected void doClear(Cache cache) {
 		try {
+			long start = System.nanoTime();
 			cache.clear();
+			if (this.metricsRecorder != null) {
+				recordEviction(cache, null, System.nanoTime() - start);
+			}
 		}
 		catch (RuntimeException ex) {
 			getErrorHandler().handleCacheClearError(ex, cache);
 		}
 	}
 
+	/**
+	 * Record a lookup with the {@link CacheMetricsRecorder}, logging
+	 * rather than propagating any failure of the recorder.
+	 * @param cache the cache looked up
+	 * @param key the key looked up
+	 * @param hit whether an entry has been found
+	 * @param nanos the duration of the lookup in nanoseconds
+	 * @since 5.1.10
+	 */
+	protected void recordLookup(Cache cache, Object key, boolean hit, long nanos) {
+		Assert.state(this.metricsRecorder != null, "No CacheMetricsRecorder set");
+		try {
+			if (hit) {
+				this.metricsRecorder.recordHit(cache.getName(), key, nanos);
+			}
+			else {
+				this.metricsRecorder.recordMiss(cache.getName(), key, nanos);
+			}
+		}
+		catch (RuntimeException ex) {
+			logMetricsFailure(cache, ex);
+		}
+	}
+
+	/**
+	 * Record a load with the {@link CacheMetricsRecorder}, logging
+	 * rather than propagating any failure of the recorder.
+	 * @param cache the cache the value has been loaded for
+	 * @param nanos the duration of the load in nanoseconds
+	 * @param success whether the value has been loaded successfully
+	 * @since 5.1.10
+	 */
+	protected void recordLoad(Cache cache, long nanos, boolean success) {
+		Assert.state(this.metricsRecorder != null, "No CacheMetricsRecorder set");
+		try {
+			this.metricsRecorder.recordLoad(cache.getName(), nanos, success);
+		}
+		catch (RuntimeException ex) {
+			logMetricsFailure(cache, ex);
+		}
+	}
+
+	private void recordPut(Cache cache, Object key, long nanos) {
+		Assert.state(this.metricsRecorder != null, "No CacheMetricsRecorder set");
+		try {
+			this.metricsRecorder.recordPut(cache.getName(), key, nanos);
+		}
+		catch (RuntimeException ex) {
+			logMetricsFailure(cache, ex);
+		}
+	}
+
+	private void recordEviction(Cache cache, @Nullable Object key, long nanos) {
+		Assert.state(this.metricsRecorder != null, "No CacheMetricsRecorder set");
+		try {
+			this.metricsRecorder.recordEviction(cache.getName(), key, nanos);
+		}
+		catch (RuntimeException ex) {
+			logMetricsFailure(cache, ex);
+		}
+	}
+
+	private void logMetricsFailure(Cache cache, RuntimeException ex) {
+		if (metricsLogger.isWarnEnabled()) {
+			metricsLogger.warn("Failed to record operation on cache '" + cache.getName() + "'", ex);
+		}
+	}
+
 }
@@ -18,18 +18,30 @@ package org.springframework.cache.interceptor;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
@@ -42,13 +54,18 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.metrics.CacheMetricsRecorder;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.ObjectUtils;
@@ -69,6 +86,22 @@ import org.springframework.util.function.SupplierUtils;
  * used for determining caching operations, a {@link KeyGenerator} will build the
  * cache keys, and a {@link CacheResolver} will resolve the actual cache(s) to use.
  *
+ * <p>For methods returning a {@link CompletableFuture} or a reactive type known
+ * to the {@link ReactiveAdapterRegistry} (e.g. Reactor's {@code Mono} or
+ * {@code Flux}), the value emitted by the returned future or publisher gets
+ * cached rather than the return value itself, through the asynchronous
+ * {@link Cache#retrieve} operations. Multi-value publishers are cached as a
+ * {@code List} of their elements. Reactive support requires Reactor.
+ *
+ * <p>For {@link CacheableOperation#getRefreshAfter() refresh-ahead} operations,
+ * a cache hit on an entry older than the refresh age triggers an asynchronous
+ * invocation of the underlying method on the {@link #setRefreshExecutor refresh
+ * executor}, replacing the entry while the existing value keeps being served.
+ *
+ * <p>With a {@link #setMetricsRecorder metrics recorder}, the cache lookups, puts
+ * and evictions performed by the aspect get recorded, as well as the duration of
+ * each method invocation loading a value after a cache miss.
+ *
  * <p>Note: A cache aspect is serializable but does not perform any actual caching
  * after deserialization.
  *
@@ -83,6 +116,29 @@ import org.springframework.util.function.SupplierUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	/**
+	 * The bean name of an {@link Executor} to pick up for refreshing
+	 * cache entries, unless a refresh executor has been set explicitly.
+	 * @since 5.1.10
+	 * @see #setRefreshExecutor
+	 */
+	public static final String DEFAULT_REFRESH_EXECUTOR_BEAN_NAME = "cacheRefreshExecutor";
+
+	/**
+	 * The bean name of a {@link CacheMetricsRecorder} to pick up for recording
+	 * cache operations, unless a metrics recorder has been set explicitly.
+	 * @since 5.1.10
+	 * @see #setMetricsRecorder
+	 */
+	public static final String DEFAULT_METRICS_RECORDER_BEAN_NAME = "cacheMetricsRecorder";
+
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Flux", CacheAspectSupport.class.getClassLoader());
+
+	@Nullable
+	private static final ReactiveCachingHandler reactiveCachingHandler =
+			(reactorPresent ? new ReactiveCachingHandler() : null);
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
@@ -97,6 +153,13 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	@Nullable
 	private SingletonSupplier<CacheResolver> cacheResolver;
 
+	@Nullable
+	private Executor refreshExecutor;
+
+	private final Map<RefreshKey, Long> refreshTimestamps = new ConcurrentReferenceHashMap<>(256);
+
+	private final Set<RefreshKey> refreshesInProgress = ConcurrentHashMap.newKeySet();
+
 	@Nullable
 	private BeanFactory beanFactory;
 
@@ -194,6 +257,20 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		this.cacheResolver = SingletonSupplier.of(new SimpleCacheResolver(cacheManager));
 	}
 
+	/**
+	 * Set the {@link Executor} to refresh cache entries of
+	 * {@link CacheableOperation#getRefreshAfter() refresh-ahead} operations on.
+	 * <p>The default is an {@code Executor} bean named "cacheRefreshExecutor"
+	 * if available in the containing {@link BeanFactory}, or a
+	 * {@link SimpleAsyncTaskExecutor} otherwise.
+	 * @since 5.1.10
+	 * @see #DEFAULT_REFRESH_EXECUTOR_BEAN_NAME
+	 */
+	public void setRefreshExecutor(Executor refreshExecutor) {
+		Assert.notNull(refreshExecutor, "Refresh Executor must not be null");
+		this.refreshExecutor = refreshExecutor;
+	}
+
 	/**
 	 * Set the containing {@link BeanFactory} for {@link CacheManager} and other
 	 * service lookups.
@@ -228,6 +305,18 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 						"Register a CacheManager bean or remove the @EnableCaching annotation from your configuration.");
 			}
 		}
+		if (this.refreshExecutor == null) {
+			if (this.beanFactory != null && this.beanFactory.containsBean(DEFAULT_REFRESH_EXECUTOR_BEAN_NAME)) {
+				this.refreshExecutor = this.beanFactory.getBean(DEFAULT_REFRESH_EXECUTOR_BEAN_NAME, Executor.class);
+			}
+			else {
+				this.refreshExecutor = new SimpleAsyncTaskExecutor("cache-refresh-");
+			}
+		}
+		if (getMetricsRecorder() == null && this.beanFactory != null &&
+				this.beanFactory.containsBean(DEFAULT_METRICS_RECORDER_BEAN_NAME)) {
+			setMetricsRecorder(this.beanFactory.getBean(DEFAULT_METRICS_RECORDER_BEAN_NAME, CacheMetricsRecorder.class));
+		}
 		this.initialized = true;
 	}
 
@@ -300,7 +389,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				Assert.state(operationCacheResolver != null, "No CacheResolver/CacheManager set");
 			}
 			metadata = new CacheOperationMetadata(operation, method, targetClass,
-					operationKeyGenerator, operationCacheResolver);
+					operationKeyGenerator, operationCacheResolver, this.evaluator);
 			this.metadataCache.put(cacheKey, metadata);
 		}
 		return metadata;
@@ -365,20 +454,58 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return invoker.invoke();
 	}
 
+	/**
+	 * Invoke the underlying operation for loading a value into the caches of
+	 * the given contexts, recording the load with the metrics recorder, if any.
+	 * @param invoker the invoker handling the operation being cached
+	 * @param contexts the contexts to load the value for
+	 * @return the result of the invocation
+	 * @see #setMetricsRecorder
+	 */
+	private Object invokeLoad(CacheOperationInvoker invoker, Collection<CacheOperationContext> contexts) {
+		CacheMetricsRecorder metricsRecorder = getMetricsRecorder();
+		if (metricsRecorder == null || contexts.isEmpty()) {
+			return invokeOperation(invoker);
+		}
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			Object result = invokeOperation(invoker);
+			success = true;
+			return result;
+		}
+		finally {
+			long nanos = System.nanoTime() - start;
+			for (CacheOperationContext context : contexts) {
+				for (Cache cache : context.getCaches()) {
+					recordLoad(cache, nanos, success);
+				}
+			}
+		}
+	}
+
 	private Class<?> getTargetClass(Object target) {
 		return AopProxyUtils.ultimateTargetClass(target);
 	}
 
 	@Nullable
 	private Object execute(final CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+		AsyncResultAdapter asyncAdapter = getAsyncResultAdapter(method);
+
 		// Special handling of synchronized invocation
 		if (contexts.isSynchronized()) {
 			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
 			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
 				Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
 				Cache cache = context.getCaches().iterator().next();
+				if (asyncAdapter != null) {
+					return asyncAdapter.fromFuture(() -> retrieveSynchronized(cache, key, invoker, asyncAdapter));
+				}
 				try {
-					return wrapCacheValue(method, cache.get(key, () -> unwrapReturnValue(invokeOperation(invoker))));
+					if (contexts.isRefreshAhead()) {
+						return wrapCacheValue(method, getAndRefresh(context, cache, key, invoker));
+					}
+					return wrapCacheValue(method, getSynchronized(context, cache, key, invoker, new AtomicBoolean()));
 				}
 				catch (Cache.ValueRetrievalException ex) {
 					// The invoker wraps any Throwable in a ThrowableWrapper instance so we
@@ -392,13 +519,25 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 		}
 
+		// Special handling of bulk lookups
+		if (contexts.isBatch()) {
+			return executeBatch(invoker, contexts);
+		}
+
+		// Cache the emitted value of a future or publisher, rather than the return value itself
+		if (asyncAdapter != null) {
+			return asyncAdapter.fromFuture(() -> executeAsync(invoker, asyncAdapter, contexts));
+		}
 
 		// Process any early evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
 				CacheOperationExpressionEvaluator.NO_RESULT);
 
-		// Check if we have a cached item matching the conditions
-		Cache.ValueWrapper cacheHit = findCachedItem(contexts.get(CacheableOperation.class));
+		// Check if we have a cached item matching the conditions, refreshing it if
+		// stale unless the method gets invoked for a @CachePut anyway
+		CacheOperationInvoker refreshInvoker =
+				(contexts.isRefreshAhead() && !hasCachePut(contexts) ? invoker : null);
+		Cache.ValueWrapper cacheHit = findCachedItem(contexts.get(CacheableOperation.class), refreshInvoker);
 
 		// Collect puts from any @Cacheable miss, if no cached item is found
 		List<CachePutRequest> cachePutRequests = new LinkedList<>();
@@ -417,7 +556,11 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 		else {
 			// Invoke the method if we don't have a cache hit
-			returnValue = invokeOperation(invoker);
+			List<CacheOperationContext> loadingContexts = new ArrayList<>(cachePutRequests.size());
+			for (CachePutRequest cachePutRequest : cachePutRequests) {
+				loadingContexts.add(cachePutRequest.context);
+			}
+			returnValue = invokeLoad(invoker, loadingContexts);
 			cacheValue = unwrapReturnValue(returnValue);
 		}
 
@@ -435,6 +578,156 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return returnValue;
 	}
 
+	/**
+	 * Batch variant of the cache operation flow for a bulk lookup method:
+	 * looks up all keys at once, invokes the method for the missing keys only
+	 * and merges the cached and the loaded entries.
+	 */
+	@Nullable
+	private Object executeBatch(CacheOperationInvoker invoker, CacheOperationContexts contexts) {
+		CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+		Object[] args = contexts.getArgs();
+		int keysIndex = contexts.getBatchParameterIndex();
+		Collection<?> keys = (Collection<?>) args[keysIndex];
+		if (keys == null || !isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+			// No caching required, only call the underlying method
+			return invokeOperation(invoker);
+		}
+
+		// Look up all keys at once, in one cache after the other
+		Map<Object, Cache.ValueWrapper> cacheHits = new HashMap<>(keys.size());
+		Set<Object> missingKeys = new LinkedHashSet<>(keys);
+		for (Cache cache : context.getCaches()) {
+			if (missingKeys.isEmpty()) {
+				break;
+			}
+			Map<Object, Cache.ValueWrapper> found = doGetAll(cache, missingKeys);
+			cacheHits.putAll(found);
+			missingKeys.removeAll(found.keySet());
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Cache entries found for " + cacheHits.size() + " out of " + keys.size() +
+					" keys in cache(s) " + context.getCacheNames());
+		}
+
+		// Invoke the method for the missing keys only, and cache the loaded entries
+		Map<?, ?> loaded = null;
+		if (!missingKeys.isEmpty()) {
+			Class<?> keysType = context.getMethod().getParameterTypes()[keysIndex];
+			Object[] batchArgs = args.clone();
+			batchArgs[keysIndex] = (keysType.isAssignableFrom(ArrayList.class) ?
+					new ArrayList<>(missingKeys) : missingKeys);
+			CacheOperationInvoker batchInvoker = () -> {
+				try {
+					return invoker.invoke(batchArgs);
+				}
+				catch (UnsupportedOperationException ex) {
+					throw new IllegalStateException("@Cacheable(batch=true) requires a caching aspect " +
+							"which is able to change method arguments, such as the proxy-based " +
+							"CacheInterceptor: " + context.getMethod(), ex);
+				}
+			};
+			loaded = (Map<?, ?>) invokeLoad(batchInvoker, Collections.singletonList(context));
+			if (loaded != null) {
+				Map<Object, Object> cacheEntries = new LinkedHashMap<>(loaded.size());
+				loaded.forEach((key, value) -> {
+					if (context.canPutToCache(value)) {
+						cacheEntries.put(key, value);
+					}
+				});
+				if (!cacheEntries.isEmpty()) {
+					for (Cache cache : context.getCaches()) {
+						doPutAll(cache, cacheEntries);
+					}
+				}
+			}
+		}
+
+		// Merge cached and loaded entries in key order
+		Map<Object, Object> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			Cache.ValueWrapper cacheHit = cacheHits.get(key);
+			if (cacheHit != null) {
+				result.put(key, cacheHit.get());
+			}
+			else if (loaded != null && loaded.containsKey(key)) {
+				result.put(key, loaded.get(key));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Asynchronous variant of the cache operation flow, operating on the value
+	 * which the future of the underlying method invocation completes with.
+	 */
+	private CompletableFuture<Object> executeAsync(
+			CacheOperationInvoker invoker, AsyncResultAdapter asyncAdapter, CacheOperationContexts contexts) {
+
+		// Process any early evictions
+		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
+				CacheOperationExpressionEvaluator.NO_RESULT);
+
+		// Continues synchronously if the lookup is complete already, as for in-memory caches
+		return findCachedItemAsync(contexts.get(CacheableOperation.class)).thenCompose(cacheHit -> {
+			if (cacheHit != null && !hasCachePut(contexts)) {
+				// If there are no put requests, just use the cache hit
+				return CompletableFuture.completedFuture(cacheHit.get());
+			}
+
+			// Collect puts from any @Cacheable miss, if no cached item is found
+			List<CachePutRequest> cachePutRequests = new LinkedList<>();
+			if (cacheHit == null) {
+				collectPutRequests(contexts.get(CacheableOperation.class),
+						CacheOperationExpressionEvaluator.NO_RESULT, cachePutRequests);
+			}
+
+			return invokeAsync(invoker, asyncAdapter).thenApply(cacheValue -> {
+				// Collect any explicit @CachePuts
+				collectPutRequests(contexts.get(CachePutOperation.class), cacheValue, cachePutRequests);
+
+				// Process any collected put requests, either from @CachePut or a @Cacheable miss
+				for (CachePutRequest cachePutRequest : cachePutRequests) {
+					cachePutRequest.apply(cacheValue);
+				}
+
+				// Process any late evictions
+				processCacheEvicts(contexts.get(CacheEvictOperation.class), false, cacheValue);
+
+				return cacheValue;
+			});
+		});
+	}
+
+	/**
+	 * Invoke the underlying method, adapting its return value to a future
+	 * for the emitted value. An exception thrown by the method itself is
+	 * exposed through the future as well.
+	 */
+	private CompletableFuture<Object> invokeAsync(CacheOperationInvoker invoker, AsyncResultAdapter asyncAdapter) {
+		try {
+			return asyncAdapter.toFuture(invokeOperation(invoker));
+		}
+		catch (CacheOperationInvoker.ThrowableWrapper ex) {
+			CompletableFuture<Object> future = new CompletableFuture<>();
+			future.completeExceptionally(ex.getOriginal());
+			return future;
+		}
+	}
+
+	/**
+	 * Determine an adapter for the asynchronous return type of the given method.
+	 * @return the adapter, or {@code null} for a regular return type
+	 */
+	@Nullable
+	private AsyncResultAdapter getAsyncResultAdapter(Method method) {
+		Class<?> returnType = method.getReturnType();
+		if (returnType == CompletableFuture.class || returnType == CompletionStage.class) {
+			return CompletableFutureResultAdapter.INSTANCE;
+		}
+		return (reactiveCachingHandler != null ? reactiveCachingHandler.getResultAdapter(returnType) : null);
+	}
+
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
 		if (method.getReturnType() == Optional.class &&
@@ -507,16 +800,20 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	/**
 	 * Find a cached item only for {@link CacheableOperation} that passes the condition.
 	 * @param contexts the cacheable operations
+	 * @param refreshInvoker the invoker to refresh a stale item with,
+	 * or {@code null} if no refresh should be triggered
 	 * @return a {@link Cache.ValueWrapper} holding the cached item,
 	 * or {@code null} if none is found
 	 */
 	@Nullable
-	private Cache.ValueWrapper findCachedItem(Collection<CacheOperationContext> contexts) {
+	private Cache.ValueWrapper findCachedItem(Collection<CacheOperationContext> contexts,
+			@Nullable CacheOperationInvoker refreshInvoker) {
+
 		Object result = CacheOperationExpressionEvaluator.NO_RESULT;
 		for (CacheOperationContext context : contexts) {
 			if (isConditionPassing(context, result)) {
 				Object key = generateKey(context, result);
-				Cache.ValueWrapper cached = findInCaches(context, key);
+				Cache.ValueWrapper cached = findInCaches(context, key, refreshInvoker);
 				if (cached != null) {
 					return cached;
 				}
@@ -530,6 +827,41 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return null;
 	}
 
+	/**
+	 * Asynchronous variant of {@link #findCachedItem}, looking up the caches
+	 * one after the other through {@link Cache#retrieve(Object)}.
+	 * @param contexts the cacheable operations
+	 * @return a future for the {@link Cache.ValueWrapper} holding the cached item,
+	 * completing with {@code null} if none is found
+	 */
+	private CompletableFuture<Cache.ValueWrapper> findCachedItemAsync(Collection<CacheOperationContext> contexts) {
+		Object result = CacheOperationExpressionEvaluator.NO_RESULT;
+		List<Supplier<CompletableFuture<Cache.ValueWrapper>>> lookups = new ArrayList<>();
+		for (CacheOperationContext context : contexts) {
+			if (isConditionPassing(context, result)) {
+				Object key = generateKey(context, result);
+				for (Cache cache : context.getCaches()) {
+					lookups.add(() -> doRetrieve(cache, key));
+				}
+			}
+		}
+		return retrieveFirst(lookups, 0);
+	}
+
+	private CompletableFuture<Cache.ValueWrapper> retrieveFirst(
+			List<Supplier<CompletableFuture<Cache.ValueWrapper>>> lookups, int index) {
+
+		for (int i = index; i < lookups.size(); i++) {
+			CompletableFuture<Cache.ValueWrapper> cached = lookups.get(i).get();
+			if (cached != null) {
+				int next = i + 1;
+				return cached.thenCompose(wrapper ->
+						(wrapper != null ? CompletableFuture.completedFuture(wrapper) : retrieveFirst(lookups, next)));
+			}
+		}
+		return CompletableFuture.completedFuture(null);
+	}
+
 	/**
 	 * Collect the {@link CachePutRequest} for all {@link CacheOperation} using
 	 * the specified result item.
@@ -549,19 +881,147 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 	@Nullable
-	private Cache.ValueWrapper findInCaches(CacheOperationContext context, Object key) {
+	private Cache.ValueWrapper findInCaches(CacheOperationContext context, Object key,
+			@Nullable CacheOperationInvoker refreshInvoker) {
+
 		for (Cache cache : context.getCaches()) {
 			Cache.ValueWrapper wrapper = doGet(cache, key);
 			if (wrapper != null) {
 				if (logger.isTraceEnabled()) {
 					logger.trace("Cache entry for key '" + key + "' found in cache '" + cache.getName() + "'");
 				}
+				if (refreshInvoker != null) {
+					refreshIfStale(context, cache, key, refreshInvoker);
+				}
 				return wrapper;
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Perform a synchronized {@link Cache#get(Object, java.util.concurrent.Callable)},
+	 * recording the lookup as a miss if the value had to be loaded, or as a hit otherwise.
+	 * @param loaded set to {@code true} if the value has been loaded through the invoker
+	 */
+	@Nullable
+	private Object getSynchronized(CacheOperationContext context, Cache cache, Object key,
+			CacheOperationInvoker invoker, AtomicBoolean loaded) {
+
+		boolean recordLookup = (getMetricsRecorder() != null);
+		long start = System.nanoTime();
+		Object value = cache.get(key, () -> {
+			loaded.set(true);
+			if (recordLookup) {
+				recordLookup(cache, key, false, System.nanoTime() - start);
+			}
+			return unwrapReturnValue(invokeLoad(invoker, Collections.singletonList(context)));
+		});
+		if (recordLookup && !loaded.get()) {
+			recordLookup(cache, key, true, System.nanoTime() - start);
+		}
+		return value;
+	}
+
+	/**
+	 * Perform a synchronized {@link Cache#retrieve(Object, java.util.function.Supplier)},
+	 * recording the lookup as a miss if the value has to be loaded, or as a hit otherwise.
+	 * @see #doRetrieve(Cache, Object, java.util.function.Supplier)
+	 */
+	private CompletableFuture<Object> retrieveSynchronized(Cache cache, Object key,
+			CacheOperationInvoker invoker, AsyncResultAdapter asyncAdapter) {
+
+		if (getMetricsRecorder() == null) {
+			return doRetrieve(cache, key, () -> invokeAsync(invoker, asyncAdapter));
+		}
+		AtomicBoolean loaded = new AtomicBoolean();
+		long start = System.nanoTime();
+		CompletableFuture<Object> result = doRetrieve(cache, key, () -> {
+			loaded.set(true);
+			recordLookup(cache, key, false, System.nanoTime() - start);
+			return invokeAsync(invoker, asyncAdapter);
+		});
+		if (!loaded.get()) {
+			recordLookup(cache, key, true, System.nanoTime() - start);
+		}
+		return result;
+	}
+
+	/**
+	 * Variant of a synchronized {@link Cache#get(Object, java.util.concurrent.Callable)}
+	 * for a refresh-ahead operation, refreshing the entry if found but stale.
+	 */
+	@Nullable
+	private Object getAndRefresh(CacheOperationContext context, Cache cache, Object key,
+			CacheOperationInvoker invoker) {
+
+		AtomicBoolean loaded = new AtomicBoolean();
+		Object value = getSynchronized(context, cache, key, invoker, loaded);
+		if (loaded.get()) {
+			this.refreshTimestamps.put(new RefreshKey(cache, key), System.nanoTime());
+		}
+		else {
+			refreshIfStale(context, cache, key, invoker);
+		}
+		return value;
+	}
+
+	/**
+	 * Trigger an asynchronous refresh of the given cache entry if it is older
+	 * than the refresh age of the operation and not being refreshed already.
+	 * An entry of unknown age, e.g. written by another party, counts as fresh.
+	 */
+	private void refreshIfStale(CacheOperationContext context, Cache cache, Object key,
+			CacheOperationInvoker invoker) {
+
+		Duration refreshAfter = ((CacheableOperation) context.getOperation()).getRefreshAfter();
+		if (refreshAfter == null) {
+			return;
+		}
+		RefreshKey refreshKey = new RefreshKey(cache, key);
+		long now = System.nanoTime();
+		Long writeTime = this.refreshTimestamps.putIfAbsent(refreshKey, now);
+		if (writeTime == null || now - writeTime < refreshAfter.toNanos() ||
+				!this.refreshesInProgress.add(refreshKey)) {
+			return;
+		}
+		Assert.state(this.refreshExecutor != null, "No refresh Executor set");
+		try {
+			this.refreshExecutor.execute(() -> refresh(context, refreshKey, invoker));
+		}
+		catch (RejectedExecutionException ex) {
+			this.refreshesInProgress.remove(refreshKey);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Refresh of cache entry for key '" + key + "' in cache '" +
+						cache.getName() + "' rejected", ex);
+			}
+		}
+	}
+
+	private void refresh(CacheOperationContext context, RefreshKey refreshKey, CacheOperationInvoker invoker) {
+		try {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Refreshing cache entry for key '" + refreshKey.key + "' in cache(s) " +
+						context.getCacheNames());
+			}
+			Object value = unwrapReturnValue(invokeLoad(invoker, Collections.singletonList(context)));
+			new CachePutRequest(context, refreshKey.key).apply(value);
+		}
+		catch (Throwable ex) {
+			Throwable cause = (ex instanceof CacheOperationInvoker.ThrowableWrapper ?
+					((CacheOperationInvoker.ThrowableWrapper) ex).getOriginal() : ex);
+			if (logger.isWarnEnabled()) {
+				logger.warn("Failed to refresh cache entry for key '" + refreshKey.key + "' in cache(s) " +
+						context.getCacheNames() + ": keeping current value", cause);
+			}
+		}
+		finally {
+			// Do not retry a failed refresh before the refresh age has passed again
+			this.refreshTimestamps.put(refreshKey, System.nanoTime());
+			this.refreshesInProgress.remove(refreshKey);
+		}
+	}
+
 	private boolean isConditionPassing(CacheOperationContext context, @Nullable Object result) {
 		boolean passing = context.isConditionPassing(result);
 		if (!passing && logger.isTraceEnabled()) {
@@ -590,6 +1050,12 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final boolean sync;
 
+		private final Object[] args;
+
+		private final int batchParameterIndex;
+
+		private final boolean refreshAhead;
+
 		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
 				Object[] args, Object target, Class<?> targetClass) {
 
@@ -598,6 +1064,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
 			}
 			this.sync = determineSyncFlag(method);
+			this.args = args;
+			this.batchParameterIndex = determineBatchParameterIndex(method);
+			this.refreshAhead = determineRefreshAheadFlag();
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -609,6 +1078,22 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.sync;
 		}
 
+		public boolean isBatch() {
+			return (this.batchParameterIndex >= 0);
+		}
+
+		public Object[] getArgs() {
+			return this.args;
+		}
+
+		public int getBatchParameterIndex() {
+			return this.batchParameterIndex;
+		}
+
+		public boolean isRefreshAhead() {
+			return this.refreshAhead;
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -644,6 +1129,66 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			return false;
 		}
+
+		private int determineBatchParameterIndex(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
+				return -1;
+			}
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				CacheableOperation operation = (CacheableOperation) cacheOperationContext.getOperation();
+				if (operation.isBatch()) {
+					if (this.sync) {
+						throw new IllegalStateException(
+								"@Cacheable(batch=true) cannot be combined with sync=true on '" + method + "'");
+					}
+					if (this.contexts.size() > 1 || cacheOperationContexts.size() > 1) {
+						throw new IllegalStateException(
+								"@Cacheable(batch=true) cannot be combined with other cache operations on '" + method + "'");
+					}
+					if (StringUtils.hasText(operation.getKey())) {
+						throw new IllegalStateException(
+								"@Cacheable(batch=true) does not support key attribute on '" + operation + "'");
+					}
+					if (operation.getRefreshAfter() != null) {
+						throw new IllegalStateException(
+								"@Cacheable(batch=true) does not support refreshAfter attribute on '" + operation + "'");
+					}
+					if (!method.getReturnType().isAssignableFrom(LinkedHashMap.class)) {
+						throw new IllegalStateException(
+								"@Cacheable(batch=true) requires a Map return type on '" + method + "'");
+					}
+					int index = -1;
+					Class<?>[] parameterTypes = method.getParameterTypes();
+					for (int i = 0; i < parameterTypes.length; i++) {
+						if (Collection.class.isAssignableFrom(parameterTypes[i])) {
+							if (index >= 0) {
+								throw new IllegalStateException(
+										"@Cacheable(batch=true) requires a single Collection parameter on '" + method + "'");
+							}
+							index = i;
+						}
+					}
+					if (index < 0 || method.isVarArgs() ||
+							!(parameterTypes[index].isAssignableFrom(ArrayList.class) ||
+									parameterTypes[index].isAssignableFrom(LinkedHashSet.class))) {
+						throw new IllegalStateException("@Cacheable(batch=true) requires a single Collection, " +
+								"List or Set parameter on '" + method + "'");
+					}
+					return index;
+				}
+			}
+			return -1;
+		}
+
+		private boolean determineRefreshAheadFlag() {
+			for (CacheOperationContext context : get(CacheableOperation.class)) {
+				if (((CacheableOperation) context.getOperation()).getRefreshAfter() != null) {
+					return true;
+				}
+			}
+			return false;
+		}
 	}
 
 
@@ -667,9 +1212,19 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final CacheResolver cacheResolver;
 
+		@Nullable
+		private final CacheOperationKeyBuilder keyBuilder;
+
 		public CacheOperationMetadata(CacheOperation operation, Method method, Class<?> targetClass,
 				KeyGenerator keyGenerator, CacheResolver cacheResolver) {
 
+			this(operation, method, targetClass, keyGenerator, cacheResolver, null);
+		}
+
+		CacheOperationMetadata(CacheOperation operation, Method method, Class<?> targetClass,
+				KeyGenerator keyGenerator, CacheResolver cacheResolver,
+				@Nullable CacheOperationExpressionEvaluator evaluator) {
+
 			this.operation = operation;
 			this.method = BridgeMethodResolver.findBridgedMethod(method);
 			this.targetClass = targetClass;
@@ -678,6 +1233,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 			this.keyGenerator = keyGenerator;
 			this.cacheResolver = cacheResolver;
+			this.keyBuilder = CacheOperationKeyBuilder.forOperation(
+					operation, this.method, this.targetMethod, keyGenerator, evaluator);
 		}
 	}
 
@@ -700,6 +1257,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		@Nullable
 		private Boolean conditionPassing;
 
+		@Nullable
+		private Object builtKey;
+
 		public CacheOperationContext(CacheOperationMetadata metadata, Object[] args, Object target) {
 			this.metadata = metadata;
 			this.args = extractArgs(metadata.method, args);
@@ -773,6 +1333,14 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		 */
 		@Nullable
 		protected Object generateKey(@Nullable Object result) {
+			CacheOperationKeyBuilder keyBuilder = this.metadata.keyBuilder;
+			if (keyBuilder != null) {
+				// Independent of the result: build once per invocation
+				if (this.builtKey == null) {
+					this.builtKey = keyBuilder.buildKey(this.args);
+				}
+				return this.builtKey;
+			}
 			if (StringUtils.hasText(this.metadata.operation.getKey())) {
 				EvaluationContext evaluationContext = createEvaluationContext(result);
 				return evaluator.key(this.metadata.operation.getKey(), this.metadata.methodKey, evaluationContext);
@@ -816,14 +1384,170 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		public void apply(@Nullable Object result) {
 			if (this.context.canPutToCache(result)) {
+				boolean refreshAhead = (this.context.getOperation() instanceof CacheableOperation &&
+						((CacheableOperation) this.context.getOperation()).getRefreshAfter() != null);
 				for (Cache cache : this.context.getCaches()) {
 					doPut(cache, this.key, result);
+					if (refreshAhead) {
+						refreshTimestamps.put(new RefreshKey(cache, this.key), System.nanoTime());
+					}
 				}
 			}
 		}
 	}
 
 
+	/**
+	 * Identifies an entry of a given cache instance for tracking its refreshes.
+	 */
+	private static final class RefreshKey {
+
+		private final Cache cache;
+
+		private final Object key;
+
+		public RefreshKey(Cache cache, Object key) {
+			this.cache = cache;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof RefreshKey)) {
+				return false;
+			}
+			RefreshKey otherKey = (RefreshKey) other;
+			return (this.cache == otherKey.cache && this.key.equals(otherKey.key));
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.cache) * 31 + this.key.hashCode();
+		}
+	}
+
+
+	/**
+	 * Adapter between an asynchronous return type and a {@link CompletableFuture}
+	 * for the value to cache.
+	 */
+	private interface AsyncResultAdapter {
+
+		/**
+		 * Adapt the given return value of a method invocation to a future
+		 * for the value to cache.
+		 */
+		CompletableFuture<Object> toFuture(@Nullable Object returnValue);
+
+		/**
+		 * Adapt the future for a cached or freshly computed value to the
+		 * return type of the method.
+		 * @param futureSupplier supplier for the future, invoked right away
+		 * or, for lazy reactive types, on subscription
+		 */
+		Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier);
+	}
+
+
+	/**
+	 * {@link AsyncResultAdapter} for {@link CompletableFuture} and
+	 * {@link CompletionStage} return types.
+	 */
+	private static class CompletableFutureResultAdapter implements AsyncResultAdapter {
+
+		static final CompletableFutureResultAdapter INSTANCE = new CompletableFutureResultAdapter();
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public CompletableFuture<Object> toFuture(@Nullable Object returnValue) {
+			return (returnValue != null ?
+					((CompletionStage<Object>) returnValue).toCompletableFuture() :
+					CompletableFuture.completedFuture(null));
+		}
+
+		@Override
+		public Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+			return futureSupplier.get();
+		}
+	}
+
+
+	/**
+	 * Inner class to avoid a hard dependency on Reactor at runtime.
+	 */
+	private static class ReactiveCachingHandler {
+
+		private final ReactiveAdapterRegistry registry = ReactiveAdapterRegistry.getSharedInstance();
+
+		@Nullable
+		public AsyncResultAdapter getResultAdapter(Class<?> returnType) {
+			ReactiveAdapter adapter = this.registry.getAdapter(returnType);
+			if (adapter == null || adapter.isNoValue()) {
+				return null;
+			}
+			return (adapter.isMultiValue() ? new MultiValueResultAdapter(adapter) :
+					new SingleValueResultAdapter(adapter));
+		}
+	}
+
+
+	/**
+	 * {@link AsyncResultAdapter} for single-value reactive types such as {@link Mono},
+	 * deferring the cache operations until subscription.
+	 */
+	private static class SingleValueResultAdapter implements AsyncResultAdapter {
+
+		private final ReactiveAdapter adapter;
+
+		public SingleValueResultAdapter(ReactiveAdapter adapter) {
+			this.adapter = adapter;
+		}
+
+		@Override
+		public CompletableFuture<Object> toFuture(@Nullable Object returnValue) {
+			return (returnValue != null ?
+					Mono.<Object>from(this.adapter.toPublisher(returnValue)).toFuture() :
+					CompletableFuture.completedFuture(null));
+		}
+
+		@Override
+		public Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+			return this.adapter.fromPublisher(Mono.defer(() -> Mono.fromFuture(futureSupplier.get())));
+		}
+	}
+
+
+	/**
+	 * {@link AsyncResultAdapter} for multi-value reactive types such as {@link Flux},
+	 * caching the elements as a {@code List} and deferring the cache operations
+	 * until subscription.
+	 */
+	private static class MultiValueResultAdapter implements AsyncResultAdapter {
+
+		private final ReactiveAdapter adapter;
+
+		public MultiValueResultAdapter(ReactiveAdapter adapter) {
+			this.adapter = adapter;
+		}
+
+		@Override
+		public CompletableFuture<Object> toFuture(@Nullable Object returnValue) {
+			return (returnValue != null ?
+					Flux.from(this.adapter.toPublisher(returnValue)).collectList().<Object>map(list -> list).toFuture() :
+					CompletableFuture.completedFuture(null));
+		}
+
+		@Override
+		public Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+			return this.adapter.fromPublisher(Mono.defer(() -> Mono.fromFuture(futureSupplier.get()))
+					.flatMapIterable(list -> (Iterable<?>) list));
+		}
+	}
+
+
 	private static final class CacheOperationCacheKey implements Comparable<CacheOperationCacheKey> {
 
 		private final CacheOperation cacheOperation;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import org.springframework.cache.Cache;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.lang.Nullable;
@@ -87,6 +88,7 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 				caches, method, args, target, targetClass);
 		CacheEvaluationContext evaluationContext = new CacheEvaluationContext(
 				rootObject, targetMethod, args, getParameterNameDiscoverer());
+		applySharedDelegates(evaluationContext);
 		if (result == RESULT_UNAVAILABLE) {
 			evaluationContext.addUnavailableVariable(RESULT_VARIABLE);
 		}
@@ -114,6 +116,54 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 				evalContext, Boolean.class)));
 	}
 
+	/**
+	 * Determine whether the given key expression is a plain reference to a method
+	 * argument, i.e. {@code #pX}, {@code #aX} or {@code #paramName}, resolving it
+	 * the same way as the evaluation context would.
+	 * @param keyExpression the key expression
+	 * @param targetMethod the target method to discover the parameter names on
+	 * @return the index of the referenced argument, or -1 if the expression is
+	 * anything else or does not resolve to an argument of a fixed-arity method
+	 * @since 5.1.10
+	 */
+	public int getArgumentIndex(String keyExpression, Method targetMethod) {
+		String expression = keyExpression.trim();
+		if (expression.length() < 2 || expression.charAt(0) != '#' || targetMethod.isVarArgs()) {
+			return -1;
+		}
+		String name = expression.substring(1);
+		if (!isIdentifier(name) || "root".equals(name) || "this".equals(name) || RESULT_VARIABLE.equals(name)) {
+			return -1;
+		}
+		int paramCount = targetMethod.getParameterCount();
+		int index = MethodBasedEvaluationContext.getArgumentIndex(name);
+		if (index >= paramCount) {
+			index = -1;
+		}
+		// Like MethodBasedEvaluationContext: the latest parameter wins in case of a clash
+		String[] paramNames = getParameterNameDiscoverer().getParameterNames(targetMethod);
+		if (paramNames != null) {
+			for (int i = paramNames.length - 1; i > index; i--) {
+				if (name.equals(paramNames[i])) {
+					return i;
+				}
+			}
+		}
+		return index;
+	}
+
+	private static boolean isIdentifier(String name) {
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			boolean valid = ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$' ||
+					(i > 0 && c >= '0' && c <= '9'));
+			if (!valid) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Clear all caches.
 	 */
@@ -38,6 +38,22 @@ public interface CacheOperationInvoker {
 	 */
 	Object invoke() throws ThrowableWrapper;
 
+	/**
+	 * Invoke the cache operation defined by this instance with the given
+	 * arguments in place of the original ones, as required for a
+	 * {@code @Cacheable(batch=true)} method.
+	 * <p>The default implementation throws an {@link UnsupportedOperationException}:
+	 * to be overridden by invokers which are able to change method arguments.
+	 * @param args the arguments to invoke the operation with
+	 * @return the result of the operation
+	 * @throws ThrowableWrapper if an error occurred while invoking the operation
+	 * @since 5.1.10
+	 */
+	default Object invoke(Object[] args) throws ThrowableWrapper {
+		throw new UnsupportedOperationException(
+				"Invocation with changed arguments not supported by " + getClass().getName());
+	}
+
 
 	/**
 	 * Wrap any exception thrown while invoking {@link #invoke()}.
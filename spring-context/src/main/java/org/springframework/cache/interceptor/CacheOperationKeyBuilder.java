@@ -0,0 +1,131 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Key computation for a cache operation on a specific method, pre-resolved for
+ * common shapes so that no {@link KeyGenerator} dispatch or SpEL evaluation is
+ * needed per invocation: a key expression which simply refers to an argument,
+ * and the default {@link SimpleKeyGenerator} for no-arg, single primitive-arg
+ * and further fixed-arity methods.
+ *
+ * <p>The keys built are identical to the ones that the regular mechanism
+ * would produce.
+ *
+ * @since 5.1.10
+ * @see CacheAspectSupport.CacheOperationMetadata
+ */
+abstract class CacheOperationKeyBuilder {
+
+	/**
+	 * Build the key for the given (already var-arg expanded) arguments.
+	 * @param args the method arguments
+	 * @return the key, or {@code null} if the referenced argument is {@code null}
+	 */
+	@Nullable
+	public abstract Object buildKey(Object[] args);
+
+
+	/**
+	 * Determine a key builder for the given operation, if its shape is supported.
+	 * @param operation the cache operation
+	 * @param method the method on which the operation is invoked
+	 * @param targetMethod the most specific target method, for parameter names
+	 * @param keyGenerator the key generator resolved for the operation
+	 * @param evaluator the evaluator for key expressions, or {@code null} to
+	 * not shortcut any key expression
+	 * @return the key builder, or {@code null} to go through the key expression
+	 * or key generator instead
+	 */
+	@Nullable
+	static CacheOperationKeyBuilder forOperation(CacheOperation operation, Method method, Method targetMethod,
+			KeyGenerator keyGenerator, @Nullable CacheOperationExpressionEvaluator evaluator) {
+
+		if (method.isVarArgs()) {
+			return null;
+		}
+		if (StringUtils.hasText(operation.getKey())) {
+			int index = (evaluator != null ? evaluator.getArgumentIndex(operation.getKey(), targetMethod) : -1);
+			return (index >= 0 ? new ArgumentKeyBuilder(index) : null);
+		}
+		if (keyGenerator.getClass() != SimpleKeyGenerator.class) {
+			return null;
+		}
+		int paramCount = method.getParameterCount();
+		if (paramCount == 0) {
+			return EmptyKeyBuilder.INSTANCE;
+		}
+		if (paramCount == 1 && method.getParameterTypes()[0].isPrimitive()) {
+			// A boxed primitive is never null nor an array: use it as-is
+			return new ArgumentKeyBuilder(0);
+		}
+		return SimpleKeyBuilder.INSTANCE;
+	}
+
+
+	/**
+	 * Builder returning a single argument as the key.
+	 */
+	private static final class ArgumentKeyBuilder extends CacheOperationKeyBuilder {
+
+		private final int index;
+
+		ArgumentKeyBuilder(int index) {
+			this.index = index;
+		}
+
+		@Override
+		@Nullable
+		public Object buildKey(Object[] args) {
+			return (this.index < args.length ? args[this.index] : null);
+		}
+	}
+
+
+	/**
+	 * Builder returning {@link SimpleKey#EMPTY} for no-arg methods.
+	 */
+	private static final class EmptyKeyBuilder extends CacheOperationKeyBuilder {
+
+		static final EmptyKeyBuilder INSTANCE = new EmptyKeyBuilder();
+
+		@Override
+		public Object buildKey(Object[] args) {
+			return SimpleKey.EMPTY;
+		}
+	}
+
+
+	/**
+	 * Builder applying the {@link SimpleKeyGenerator} algorithm directly.
+	 */
+	private static final class SimpleKeyBuilder extends CacheOperationKeyBuilder {
+
+		static final SimpleKeyBuilder INSTANCE = new SimpleKeyBuilder();
+
+		@Override
+		public Object buildKey(Object[] args) {
+			return SimpleKeyGenerator.generateKey(args);
+		}
+	}
+
+}
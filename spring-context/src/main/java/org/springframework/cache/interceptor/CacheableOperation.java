@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,11 @@
 
 package org.springframework.cache.interceptor;
 
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+
 import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
 
 /**
  * Class describing a cache 'cacheable' operation.
@@ -33,6 +37,11 @@ public class CacheableOperation extends CacheOperation {
 
 	private final boolean sync;
 
+	private final boolean batch;
+
+	@Nullable
+	private final Duration refreshAfter;
+
 
 	/**
 	 * Create a new {@link CacheableOperation} instance from the given builder.
@@ -42,6 +51,28 @@ public class CacheableOperation extends CacheOperation {
 		super(b);
 		this.unless = b.unless;
 		this.sync = b.sync;
+		this.batch = b.batch;
+		this.refreshAfter = parseRefreshAfter(b.refreshAfter);
+	}
+
+	@Nullable
+	private static Duration parseRefreshAfter(@Nullable String refreshAfter) {
+		if (!StringUtils.hasText(refreshAfter)) {
+			return null;
+		}
+		try {
+			Duration duration = (Character.isDigit(refreshAfter.charAt(0)) ?
+					Duration.ofMillis(Long.parseLong(refreshAfter)) : Duration.parse(refreshAfter));
+			if (duration.isNegative() || duration.isZero()) {
+				throw new IllegalArgumentException("Invalid refreshAfter value \"" + refreshAfter +
+						"\" - must be a positive duration");
+			}
+			return duration;
+		}
+		catch (NumberFormatException | DateTimeParseException ex) {
+			throw new IllegalArgumentException("Invalid refreshAfter value \"" + refreshAfter +
+					"\" - cannot parse into milliseconds or ISO-8601 duration", ex);
+		}
 	}
 
 
@@ -54,6 +85,24 @@ public class CacheableOperation extends CacheOperation {
 		return this.sync;
 	}
 
+	/**
+	 * Return whether this operation caches the individual entries of a bulk lookup.
+	 * @since 5.1.10
+	 */
+	public boolean isBatch() {
+		return this.batch;
+	}
+
+	/**
+	 * Return the age after which a cached value gets refreshed asynchronously
+	 * on access, or {@code null} if no refresh-ahead applies.
+	 * @since 5.1.10
+	 */
+	@Nullable
+	public Duration getRefreshAfter() {
+		return this.refreshAfter;
+	}
+
 
 	/**
 	 * A builder that can be used to create a {@link CacheableOperation}.
@@ -66,6 +115,11 @@ public class CacheableOperation extends CacheOperation {
 
 		private boolean sync;
 
+		private boolean batch;
+
+		@Nullable
+		private String refreshAfter;
+
 		public void setUnless(String unless) {
 			this.unless = unless;
 		}
@@ -74,6 +128,30 @@ public class CacheableOperation extends CacheOperation {
 			this.sync = sync;
 		}
 
+		/**
+		 * @since 5.1.10
+		 */
+		public void setBatch(boolean batch) {
+			this.batch = batch;
+		}
+
+		/**
+		 * Set the age after which a cached value gets refreshed on access,
+		 * in milliseconds or as an ISO-8601 duration (e.g. "PT30S").
+		 * @since 5.1.10
+		 */
+		public void setRefreshAfter(String refreshAfter) {
+			this.refreshAfter = refreshAfter;
+		}
+
+		/**
+		 * @since 5.1.10
+		 */
+		@Nullable
+		public String getRefreshAfter() {
+			return this.refreshAfter;
+		}
+
 		@Override
 		protected StringBuilder getOperationDescription() {
 			StringBuilder sb = super.getOperationDescription();
@@ -83,6 +161,12 @@ public class CacheableOperation extends CacheOperation {
 			sb.append(" | sync='");
 			sb.append(this.sync);
 			sb.append("'");
+			sb.append(" | batch='");
+			sb.append(this.batch);
+			sb.append("'");
+			sb.append(" | refreshAfter='");
+			sb.append(this.refreshAfter);
+			sb.append("'");
 			return sb;
 		}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.interceptor;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Arrays;
 
@@ -38,7 +40,8 @@ public class SimpleKey implements Serializable {
 
 	private final Object[] params;
 
-	private final int hashCode;
+	// Effectively final, just re-calculated on deserialization
+	private transient int hashCode;
 
 
 	/**
@@ -49,14 +52,20 @@ public class SimpleKey implements Serializable {
 		Assert.notNull(elements, "Elements must not be null");
 		this.params = new Object[elements.length];
 		System.arraycopy(elements, 0, this.params, 0, elements.length);
-		this.hashCode = Arrays.deepHashCode(this.params);
+		this.hashCode = hashCode(this.params);
 	}
 
 
 	@Override
 	public boolean equals(Object other) {
-		return (this == other ||
-				(other instanceof SimpleKey && Arrays.deepEquals(this.params, ((SimpleKey) other).params)));
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof SimpleKey)) {
+			return false;
+		}
+		SimpleKey otherKey = (SimpleKey) other;
+		return (this.hashCode == otherKey.hashCode && paramsEqual(this.params, otherKey.params));
 	}
 
 	@Override
@@ -69,4 +78,54 @@ public class SimpleKey implements Serializable {
 		return getClass().getSimpleName() + " [" + StringUtils.arrayToCommaDelimitedString(this.params) + "]";
 	}
 
+
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ois.defaultReadObject();
+		// Enum and Class parameters have identity-based hash codes which differ per JVM
+		this.hashCode = hashCode(this.params);
+	}
+
+
+	/**
+	 * Compute the same hash code as {@link Arrays#deepHashCode}, without going
+	 * through its chain of array type checks for every plain element.
+	 */
+	private static int hashCode(Object[] params) {
+		int result = 1;
+		for (Object param : params) {
+			if (param != null && param.getClass().isArray()) {
+				return Arrays.deepHashCode(params);
+			}
+			result = 31 * result + (param != null ? param.hashCode() : 0);
+		}
+		return result;
+	}
+
+	/**
+	 * Determine equality like {@link Arrays#deepEquals}, comparing plain
+	 * elements directly and only falling back to a deep comparison for arrays.
+	 */
+	private static boolean paramsEqual(Object[] params, Object[] otherParams) {
+		if (params.length != otherParams.length) {
+			return false;
+		}
+		for (int i = 0; i < params.length; i++) {
+			Object param = params[i];
+			Object otherParam = otherParams[i];
+			if (param == otherParam) {
+				continue;
+			}
+			if (param == null || otherParam == null) {
+				return false;
+			}
+			if (param.getClass().isArray()) {
+				return Arrays.deepEquals(params, otherParams);
+			}
+			if (!param.equals(otherParam)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.metrics;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Strategy for recording cache operations, e.g. into a metrics registry.
+ *
+ * <p>Called by an {@link InstrumentedCache} for the operations on the
+ * decorated cache, or by the caching aspect for the cache operations that
+ * it performs. Implementations are called on the calling thread of each
+ * cache operation, and must therefore be thread-safe and fast.
+ *
+ * @since 5.1.10
+ * @see SimpleCacheMetricsRecorder
+ * @see InstrumentedCacheManager
+ * @see org.springframework.cache.interceptor.AbstractCacheInvoker#setMetricsRecorder
+ */
+public interface CacheMetricsRecorder {
+
+	/**
+	 * Record a lookup which found an entry for the given key.
+	 * @param cacheName the name of the cache
+	 * @param key the key looked up
+	 * @param nanos the duration of the lookup in nanoseconds
+	 */
+	void recordHit(String cacheName, Object key, long nanos);
+
+	/**
+	 * Record a lookup which found no entry for the given key.
+	 * @param cacheName the name of the cache
+	 * @param key the key looked up
+	 * @param nanos the duration of the lookup in nanoseconds
+	 */
+	void recordMiss(String cacheName, Object key, long nanos);
+
+	/**
+	 * Record the loading of a value after a cache miss.
+	 * @param cacheName the name of the cache
+	 * @param nanos the duration of the load in nanoseconds
+	 * @param success whether the value has been loaded successfully
+	 */
+	void recordLoad(String cacheName, long nanos, boolean success);
+
+	/**
+	 * Record a put of an entry with the given key.
+	 * @param cacheName the name of the cache
+	 * @param key the key of the entry
+	 * @param nanos the duration of the put in nanoseconds
+	 */
+	void recordPut(String cacheName, Object key, long nanos);
+
+	/**
+	 * Record the eviction of the entry with the given key, or of all entries.
+	 * @param cacheName the name of the cache
+	 * @param key the key of the evicted entry, or {@code null} if the cache
+	 * has been cleared
+	 * @param nanos the duration of the eviction in nanoseconds
+	 */
+	void recordEviction(String cacheName, @Nullable Object key, long nanos);
+
+}
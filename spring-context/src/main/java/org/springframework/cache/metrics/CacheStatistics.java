@@ -0,0 +1,252 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Statistics of a single cache collected by a {@link SimpleCacheMetricsRecorder}:
+ * hit, miss, put and eviction counts, lookup and load times, and the keys
+ * accessed most frequently.
+ *
+ * <p>Counters are updated without locking and may be read at any time,
+ * e.g. for exposure through JMX (see {@link CacheStatisticsMXBean})
+ * or a metrics registry.
+ *
+ * @since 5.1.10
+ * @see SimpleCacheMetricsRecorder#getStatistics(String)
+ */
+public final class CacheStatistics implements CacheStatisticsMXBean {
+
+	private final String cacheName;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder totalLookupNanos = new LongAdder();
+
+	private final LongAdder loadSuccessCount = new LongAdder();
+
+	private final LongAdder loadFailureCount = new LongAdder();
+
+	private final LongAdder totalLoadNanos = new LongAdder();
+
+	private final LongAccumulator maxLoadNanos = new LongAccumulator(Math::max, 0);
+
+	private final LongAdder putCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private final LongAdder clearCount = new LongAdder();
+
+	private final HotKeySketch hotKeys;
+
+
+	CacheStatistics(String cacheName, int hotKeyCount, double hotKeySampleRate) {
+		this.cacheName = cacheName;
+		this.hotKeys = new HotKeySketch(hotKeyCount, hotKeySampleRate);
+	}
+
+
+	/**
+	 * Return the name of the cache.
+	 */
+	@Override
+	public String getCacheName() {
+		return this.cacheName;
+	}
+
+	/**
+	 * Return the number of lookups which found an entry.
+	 */
+	@Override
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups which found no entry.
+	 */
+	@Override
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the ratio of lookups which found an entry, between 0 and 1,
+	 * or 0 if no lookups have been performed yet.
+	 */
+	@Override
+	public double getHitRatio() {
+		long hits = getHitCount();
+		long lookups = hits + getMissCount();
+		return (lookups > 0 ? (double) hits / lookups : 0);
+	}
+
+	/**
+	 * Return the average duration of a lookup.
+	 * @param unit the time unit to return the time in
+	 */
+	public long getAverageLookupTime(TimeUnit unit) {
+		return unit.convert(getAverageLookupNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public long getAverageLookupNanos() {
+		long count = getHitCount() + getMissCount();
+		return (count > 0 ? this.totalLookupNanos.sum() / count : 0);
+	}
+
+	/**
+	 * Return the number of values loaded successfully after a miss.
+	 */
+	@Override
+	public long getLoadSuccessCount() {
+		return this.loadSuccessCount.sum();
+	}
+
+	/**
+	 * Return the number of failed attempts to load a value after a miss.
+	 */
+	@Override
+	public long getLoadFailureCount() {
+		return this.loadFailureCount.sum();
+	}
+
+	/**
+	 * Return the average duration of a load, successful or not.
+	 * @param unit the time unit to return the time in
+	 */
+	public long getAverageLoadTime(TimeUnit unit) {
+		return unit.convert(getAverageLoadNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public long getAverageLoadNanos() {
+		long count = getLoadSuccessCount() + getLoadFailureCount();
+		return (count > 0 ? this.totalLoadNanos.sum() / count : 0);
+	}
+
+	/**
+	 * Return the longest duration of a single load.
+	 * @param unit the time unit to return the time in
+	 */
+	public long getMaxLoadTime(TimeUnit unit) {
+		return unit.convert(getMaxLoadNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public long getMaxLoadNanos() {
+		return this.maxLoadNanos.get();
+	}
+
+	/**
+	 * Return the number of entries put into the cache.
+	 */
+	@Override
+	public long getPutCount() {
+		return this.putCount.sum();
+	}
+
+	/**
+	 * Return the number of individual entries evicted explicitly.
+	 */
+	@Override
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	/**
+	 * Return the number of times that the cache has been cleared.
+	 */
+	@Override
+	public long getClearCount() {
+		return this.clearCount.sum();
+	}
+
+	/**
+	 * Return the most frequently looked up keys with their estimated number
+	 * of lookups, in descending order. Estimates are based on a sample of
+	 * the lookups, as configured on the {@link SimpleCacheMetricsRecorder}.
+	 */
+	public Map<Object, Long> getHotKeys() {
+		return this.hotKeys.getHotKeys();
+	}
+
+	@Override
+	public Map<String, Long> getHotKeyCounts() {
+		Map<Object, Long> hotKeys = getHotKeys();
+		Map<String, Long> result = new LinkedHashMap<>(hotKeys.size());
+		hotKeys.forEach((key, count) -> result.merge(String.valueOf(key), count, Long::sum));
+		return result;
+	}
+
+	/**
+	 * Reset all counters, e.g. at the start of a new reporting interval.
+	 */
+	@Override
+	public void reset() {
+		this.hitCount.reset();
+		this.missCount.reset();
+		this.totalLookupNanos.reset();
+		this.loadSuccessCount.reset();
+		this.loadFailureCount.reset();
+		this.totalLoadNanos.reset();
+		this.maxLoadNanos.reset();
+		this.putCount.reset();
+		this.evictionCount.reset();
+		this.clearCount.reset();
+		this.hotKeys.reset();
+	}
+
+
+	void recordLookup(Object key, boolean hit, long nanos) {
+		(hit ? this.hitCount : this.missCount).increment();
+		this.totalLookupNanos.add(nanos);
+		this.hotKeys.offer(key);
+	}
+
+	void recordLoad(long nanos, boolean success) {
+		(success ? this.loadSuccessCount : this.loadFailureCount).increment();
+		this.totalLoadNanos.add(nanos);
+		this.maxLoadNanos.accumulate(nanos);
+	}
+
+	void recordPut() {
+		this.putCount.increment();
+	}
+
+	void recordEviction(@Nullable Object key) {
+		(key != null ? this.evictionCount : this.clearCount).increment();
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStatistics for '" + this.cacheName + "': hits=" + getHitCount() +
+				", misses=" + getMissCount() + ", puts=" + getPutCount() +
+				", evictions=" + getEvictionCount() +
+				", average load=" + getAverageLoadTime(TimeUnit.MICROSECONDS) + "us";
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link CacheStatistics}, as exposed through JMX
+ * by a {@link SimpleCacheMetricsRecorder}. Durations are exposed in
+ * nanoseconds and hot keys by their {@code toString()} representation,
+ * so that all attributes map to JMX open types.
+ *
+ * @since 5.1.10
+ * @see SimpleCacheMetricsRecorder#setMBeanExporter
+ */
+public interface CacheStatisticsMXBean {
+
+	/**
+	 * Return the name of the cache.
+	 */
+	String getCacheName();
+
+	/**
+	 * Return the number of lookups which found an entry.
+	 */
+	long getHitCount();
+
+	/**
+	 * Return the number of lookups which found no entry.
+	 */
+	long getMissCount();
+
+	/**
+	 * Return the ratio of lookups which found an entry, between 0 and 1.
+	 */
+	double getHitRatio();
+
+	/**
+	 * Return the average duration of a lookup in nanoseconds.
+	 */
+	long getAverageLookupNanos();
+
+	/**
+	 * Return the number of values loaded successfully after a miss.
+	 */
+	long getLoadSuccessCount();
+
+	/**
+	 * Return the number of failed attempts to load a value after a miss.
+	 */
+	long getLoadFailureCount();
+
+	/**
+	 * Return the average duration of a load in nanoseconds.
+	 */
+	long getAverageLoadNanos();
+
+	/**
+	 * Return the longest duration of a single load in nanoseconds.
+	 */
+	long getMaxLoadNanos();
+
+	/**
+	 * Return the number of entries put into the cache.
+	 */
+	long getPutCount();
+
+	/**
+	 * Return the number of individual entries evicted explicitly.
+	 */
+	long getEvictionCount();
+
+	/**
+	 * Return the number of times that the cache has been cleared.
+	 */
+	long getClearCount();
+
+	/**
+	 * Return the most frequently looked up keys, as strings, with their
+	 * estimated number of lookups.
+	 */
+	Map<String, Long> getHotKeyCounts();
+
+	/**
+	 * Reset all counters.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Approximate top-K tracker for frequently accessed keys, based on the
+ * Space-Saving algorithm over a random sample of the accesses: a bounded
+ * number of counters, where a new key replaces the key with the lowest
+ * count and inherits that count as its potential overestimation.
+ *
+ * @since 5.1.10
+ */
+final class HotKeySketch {
+
+	private final int topKeys;
+
+	private final int capacity;
+
+	private final double sampleRate;
+
+	private final Map<Object, Counter> counters;
+
+
+	/**
+	 * Create a new sketch.
+	 * @param topKeys the number of hot keys to report
+	 * @param sampleRate the fraction of accesses to consider, between 0 and 1
+	 */
+	HotKeySketch(int topKeys, double sampleRate) {
+		this.topKeys = topKeys;
+		// Track more keys than reported for a better accuracy of the top ones
+		this.capacity = topKeys * 4;
+		this.sampleRate = sampleRate;
+		this.counters = new HashMap<>(this.capacity * 2);
+	}
+
+
+	/**
+	 * Consider an access to the given key, subject to sampling.
+	 */
+	void offer(Object key) {
+		if (this.sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= this.sampleRate) {
+			return;
+		}
+		synchronized (this.counters) {
+			Counter counter = this.counters.get(key);
+			if (counter != null) {
+				counter.count++;
+			}
+			else if (this.counters.size() < this.capacity) {
+				this.counters.put(key, new Counter(key, 1));
+			}
+			else {
+				Counter min = null;
+				for (Counter candidate : this.counters.values()) {
+					if (min == null || candidate.count < min.count) {
+						min = candidate;
+					}
+				}
+				this.counters.remove(min.key);
+				this.counters.put(key, new Counter(key, min.count + 1));
+			}
+		}
+	}
+
+	/**
+	 * Return the hottest keys with their estimated number of accesses,
+	 * in descending order.
+	 */
+	Map<Object, Long> getHotKeys() {
+		List<Counter> snapshot;
+		synchronized (this.counters) {
+			snapshot = new ArrayList<>(this.counters.size());
+			for (Counter counter : this.counters.values()) {
+				snapshot.add(new Counter(counter.key, counter.count));
+			}
+		}
+		snapshot.sort((c1, c2) -> Long.compare(c2.count, c1.count));
+		Map<Object, Long> result = new LinkedHashMap<>(this.topKeys);
+		for (int i = 0; i < snapshot.size() && i < this.topKeys; i++) {
+			Counter counter = snapshot.get(i);
+			result.put(counter.key, Math.round(counter.count / this.sampleRate));
+		}
+		return result;
+	}
+
+	void reset() {
+		synchronized (this.counters) {
+			this.counters.clear();
+		}
+	}
+
+
+	private static final class Counter {
+
+		final Object key;
+
+		long count;
+
+		Counter(Object key, long count) {
+			this.key = key;
+			this.count = count;
+		}
+	}
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.metrics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Cache decorator which records the operations on the target {@link Cache}
+ * with a {@link CacheMetricsRecorder}.
+ *
+ * <p>Lookups through {@link #get(Object, Class)} cannot distinguish a cached
+ * {@code null} value from a missing entry and record both as a miss. The
+ * duration of a bulk operation is divided evenly among its keys.
+ *
+ * @since 5.1.10
+ * @see InstrumentedCacheManager
+ */
+public class InstrumentedCache implements Cache {
+
+	private final Cache targetCache;
+
+	private final CacheMetricsRecorder metricsRecorder;
+
+
+	/**
+	 * Create a new InstrumentedCache for the given target Cache.
+	 * @param targetCache the target Cache to decorate
+	 * @param metricsRecorder the recorder to record the operations with
+	 */
+	public InstrumentedCache(Cache targetCache, CacheMetricsRecorder metricsRecorder) {
+		Assert.notNull(targetCache, "Target Cache must not be null");
+		Assert.notNull(metricsRecorder, "CacheMetricsRecorder must not be null");
+		this.targetCache = targetCache;
+		this.metricsRecorder = metricsRecorder;
+	}
+
+
+	/**
+	 * Return the target Cache that this Cache should delegate to.
+	 */
+	public Cache getTargetCache() {
+		return this.targetCache;
+	}
+
+	@Override
+	public String getName() {
+		return this.targetCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.targetCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		long start = System.nanoTime();
+		ValueWrapper wrapper = this.targetCache.get(key);
+		recordLookup(key, wrapper != null, System.nanoTime() - start);
+		return wrapper;
+	}
+
+	@Override
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		long start = System.nanoTime();
+		T value = this.targetCache.get(key, type);
+		recordLookup(key, value != null, System.nanoTime() - start);
+		return value;
+	}
+
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		long[] loadNanos = new long[1];
+		AtomicBoolean loaded = new AtomicBoolean();
+		long start = System.nanoTime();
+		try {
+			return this.targetCache.get(key, () -> {
+				loaded.set(true);
+				long loadStart = System.nanoTime();
+				boolean success = false;
+				try {
+					T value = valueLoader.call();
+					success = true;
+					return value;
+				}
+				finally {
+					loadNanos[0] = System.nanoTime() - loadStart;
+					this.metricsRecorder.recordLoad(getName(), loadNanos[0], success);
+				}
+			});
+		}
+		finally {
+			recordLookup(key, !loaded.get(), System.nanoTime() - start - loadNanos[0]);
+		}
+	}
+
+	@Override
+	@Nullable
+	public CompletableFuture<ValueWrapper> retrieve(Object key) {
+		long start = System.nanoTime();
+		CompletableFuture<ValueWrapper> result = this.targetCache.retrieve(key);
+		if (result == null) {
+			recordLookup(key, false, System.nanoTime() - start);
+			return null;
+		}
+		return result.whenComplete((wrapper, ex) -> {
+			if (ex == null) {
+				recordLookup(key, wrapper != null, System.nanoTime() - start);
+			}
+		});
+	}
+
+	@Override
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		AtomicBoolean loaded = new AtomicBoolean();
+		long start = System.nanoTime();
+		return this.targetCache.retrieve(key, () -> {
+			loaded.set(true);
+			recordLookup(key, false, System.nanoTime() - start);
+			long loadStart = System.nanoTime();
+			return valueLoader.get().whenComplete((value, ex) ->
+					this.metricsRecorder.recordLoad(getName(), System.nanoTime() - loadStart, ex == null));
+		}).whenComplete((value, ex) -> {
+			if (ex == null && !loaded.get()) {
+				recordLookup(key, true, System.nanoTime() - start);
+			}
+		});
+	}
+
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		long start = System.nanoTime();
+		Map<Object, ValueWrapper> result = this.targetCache.getAll(keys);
+		if (!keys.isEmpty()) {
+			long nanosPerKey = (System.nanoTime() - start) / keys.size();
+			for (Object key : keys) {
+				recordLookup(key, result.containsKey(key), nanosPerKey);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		long start = System.nanoTime();
+		this.targetCache.put(key, value);
+		this.metricsRecorder.recordPut(getName(), key, System.nanoTime() - start);
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		long start = System.nanoTime();
+		this.targetCache.putAll(entries);
+		if (!entries.isEmpty()) {
+			long nanosPerKey = (System.nanoTime() - start) / entries.size();
+			for (Object key : entries.keySet()) {
+				this.metricsRecorder.recordPut(getName(), key, nanosPerKey);
+			}
+		}
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		long start = System.nanoTime();
+		ValueWrapper existing = this.targetCache.putIfAbsent(key, value);
+		if (existing == null) {
+			this.metricsRecorder.recordPut(getName(), key, System.nanoTime() - start);
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		long start = System.nanoTime();
+		this.targetCache.evict(key);
+		this.metricsRecorder.recordEviction(getName(), key, System.nanoTime() - start);
+	}
+
+	@Override
+	public void clear() {
+		long start = System.nanoTime();
+		this.targetCache.clear();
+		this.metricsRecorder.recordEviction(getName(), null, System.nanoTime() - start);
+	}
+
+	private void recordLookup(Object key, boolean hit, long nanos) {
+		if (hit) {
+			this.metricsRecorder.recordHit(getName(), key, nanos);
+		}
+		else {
+			this.metricsRecorder.recordMiss(getName(), key, nanos);
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.metrics;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Proxy for a target {@link CacheManager}, exposing {@link InstrumentedCache}
+ * objects which record all operations on the target caches with a
+ * {@link CacheMetricsRecorder}.
+ *
+ * <p>This records the operations of all users of the caches. Alternatively,
+ * the caching aspect may record the operations that it performs itself
+ * through {@link org.springframework.cache.interceptor.AbstractCacheInvoker#setMetricsRecorder};
+ * the two should not be combined for the same recorder.
+ *
+ * @since 5.1.10
+ * @see SimpleCacheMetricsRecorder
+ */
+public class InstrumentedCacheManager implements CacheManager {
+
+	private final CacheManager targetCacheManager;
+
+	private final CacheMetricsRecorder metricsRecorder;
+
+	private final ConcurrentMap<String, Cache> cacheMap = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Create a new InstrumentedCacheManager for the given target CacheManager.
+	 * @param targetCacheManager the target CacheManager to proxy
+	 * @param metricsRecorder the recorder to record the cache operations with
+	 */
+	public InstrumentedCacheManager(CacheManager targetCacheManager, CacheMetricsRecorder metricsRecorder) {
+		Assert.notNull(targetCacheManager, "Target CacheManager must not be null");
+		Assert.notNull(metricsRecorder, "CacheMetricsRecorder must not be null");
+		this.targetCacheManager = targetCacheManager;
+		this.metricsRecorder = metricsRecorder;
+	}
+
+
+	/**
+	 * Return the recorder that the cache operations get recorded with.
+	 */
+	public CacheMetricsRecorder getMetricsRecorder() {
+		return this.metricsRecorder;
+	}
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		Cache cache = this.cacheMap.get(name);
+		if (cache != null) {
+			return cache;
+		}
+		Cache targetCache = this.targetCacheManager.getCache(name);
+		if (targetCache == null) {
+			return null;
+		}
+		return this.cacheMap.computeIfAbsent(name, key -> new InstrumentedCache(targetCache, this.metricsRecorder));
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return this.targetCacheManager.getCacheNames();
+	}
+
+}
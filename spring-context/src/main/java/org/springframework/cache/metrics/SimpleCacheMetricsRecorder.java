@@ -0,0 +1,206 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Hashtable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.jmx.export.MBeanExportException;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.jmx.support.ObjectNameManager;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Default {@link CacheMetricsRecorder}, keeping {@link CacheStatistics}
+ * in memory for each cache name.
+ *
+ * <p>The statistics may optionally be exposed through JMX: with an
+ * {@link #setMBeanExporter MBeanExporter} set, each {@link CacheStatistics}
+ * instance gets registered as an MBean named
+ * {@code <domain>:type=CacheStatistics,name=<cacheName>} when created, through
+ * its {@link CacheStatisticsMXBean} interface. A failed registration gets logged;
+ * the statistics are collected nevertheless.
+ *
+ * @since 5.1.10
+ * @see InstrumentedCacheManager
+ */
+public class SimpleCacheMetricsRecorder implements CacheMetricsRecorder {
+
+	/**
+	 * The default JMX domain for cache statistics MBeans.
+	 */
+	public static final String DEFAULT_OBJECT_NAME_DOMAIN = "org.springframework.cache";
+
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private int hotKeyCount = 10;
+
+	private double hotKeySampleRate = 0.1;
+
+	@Nullable
+	private MBeanExporter mbeanExporter;
+
+	private String objectNameDomain = DEFAULT_OBJECT_NAME_DOMAIN;
+
+	private final ConcurrentMap<String, CacheStatistics> statisticsMap = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Specify the number of hot keys to report per cache. Default is 10.
+	 */
+	public void setHotKeyCount(int hotKeyCount) {
+		Assert.isTrue(hotKeyCount > 0, "'hotKeyCount' must be greater than 0");
+		this.hotKeyCount = hotKeyCount;
+	}
+
+	/**
+	 * Specify the fraction of lookups to consider for hot key tracking,
+	 * between 0 (exclusive) and 1 (every lookup). Default is 0.1.
+	 * <p>Sampling keeps the synchronization overhead of the tracking low;
+	 * frequently accessed keys are still detected reliably.
+	 */
+	public void setHotKeySampleRate(double hotKeySampleRate) {
+		Assert.isTrue(hotKeySampleRate > 0 && hotKeySampleRate <= 1,
+				"'hotKeySampleRate' must be greater than 0 and not greater than 1");
+		this.hotKeySampleRate = hotKeySampleRate;
+	}
+
+	/**
+	 * Set the {@link MBeanExporter} to register the statistics of each cache with.
+	 * <p>Default is none, i.e. no JMX exposure.
+	 */
+	public void setMBeanExporter(@Nullable MBeanExporter mbeanExporter) {
+		this.mbeanExporter = mbeanExporter;
+	}
+
+	/**
+	 * Specify the JMX domain for the statistics MBeans.
+	 * <p>Default is "org.springframework.cache".
+	 */
+	public void setObjectNameDomain(String objectNameDomain) {
+		Assert.hasText(objectNameDomain, "'objectNameDomain' must not be empty");
+		this.objectNameDomain = objectNameDomain;
+	}
+
+
+	/**
+	 * Return the statistics for the given cache, if any operation has
+	 * been recorded for it already.
+	 * @param cacheName the name of the cache
+	 * @return the statistics, or {@code null} if none
+	 */
+	@Nullable
+	public CacheStatistics getStatistics(String cacheName) {
+		return this.statisticsMap.get(cacheName);
+	}
+
+	/**
+	 * Return the names of all caches with recorded statistics.
+	 */
+	public Collection<String> getCacheNames() {
+		return Collections.unmodifiableSet(this.statisticsMap.keySet());
+	}
+
+	/**
+	 * Reset the statistics of all caches.
+	 * @see CacheStatistics#reset()
+	 */
+	public void reset() {
+		this.statisticsMap.values().forEach(CacheStatistics::reset);
+	}
+
+
+	@Override
+	public void recordHit(String cacheName, Object key, long nanos) {
+		obtainStatistics(cacheName).recordLookup(key, true, nanos);
+	}
+
+	@Override
+	public void recordMiss(String cacheName, Object key, long nanos) {
+		obtainStatistics(cacheName).recordLookup(key, false, nanos);
+	}
+
+	@Override
+	public void recordLoad(String cacheName, long nanos, boolean success) {
+		obtainStatistics(cacheName).recordLoad(nanos, success);
+	}
+
+	@Override
+	public void recordPut(String cacheName, Object key, long nanos) {
+		obtainStatistics(cacheName).recordPut();
+	}
+
+	@Override
+	public void recordEviction(String cacheName, @Nullable Object key, long nanos) {
+		obtainStatistics(cacheName).recordEviction(key);
+	}
+
+	private CacheStatistics obtainStatistics(String cacheName) {
+		CacheStatistics statistics = this.statisticsMap.get(cacheName);
+		if (statistics == null) {
+			CacheStatistics created = new CacheStatistics(cacheName, this.hotKeyCount, this.hotKeySampleRate);
+			statistics = this.statisticsMap.putIfAbsent(cacheName, created);
+			if (statistics == null) {
+				statistics = created;
+				if (this.mbeanExporter != null) {
+					registerStatistics(this.mbeanExporter, created);
+				}
+			}
+		}
+		return statistics;
+	}
+
+	private void registerStatistics(MBeanExporter mbeanExporter, CacheStatistics statistics) {
+		try {
+			mbeanExporter.registerManagedResource(statistics, getObjectName(statistics.getCacheName()));
+		}
+		catch (MBeanExportException ex) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Failed to register statistics of cache '" + statistics.getCacheName() +
+						"' with JMX", ex);
+			}
+		}
+	}
+
+	/**
+	 * Build the JMX object name for the statistics of the given cache.
+	 * @param cacheName the name of the cache
+	 * @return the object name to register the statistics under
+	 */
+	protected ObjectName getObjectName(String cacheName) {
+		Hashtable<String, String> properties = new Hashtable<>(4);
+		properties.put("type", "CacheStatistics");
+		properties.put("name", ObjectName.quote(cacheName));
+		try {
+			return ObjectNameManager.getInstance(this.objectNameDomain, properties);
+		}
+		catch (MalformedObjectNameException ex) {
+			throw new MBeanExportException("Invalid object name for statistics of cache '" + cacheName + "'", ex);
+		}
+	}
+
+}
@@ -0,0 +1,11 @@
+/**
+ * Instrumentation for Spring's cache abstraction: a metrics recording SPI,
+ * a default implementation with per-cache statistics and hot key tracking,
+ * and a decorating CacheManager.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.cache.metrics;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,14 @@
 
 package org.springframework.cache.support;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
 import org.springframework.cache.Cache;
 import org.springframework.lang.Nullable;
 
@@ -28,6 +36,13 @@ import org.springframework.lang.Nullable;
  * {@link NullValue#INSTANCE}, if configured to support {@code null} values
  * (as indicated by {@link #isAllowNullValues()}.
  *
+ * <p>Also provides non-blocking {@link #retrieve(Object, Supplier)} support
+ * on top of {@link #lookup} and {@link #put}, sharing a single loading
+ * operation between concurrent retrievals of the same key. Subclasses should
+ * call {@link #invalidatePendingLoad} and {@link #invalidatePendingLoads} from
+ * their {@link #evict} and {@link #clear} implementations, before touching
+ * the store, so that the result of a pending load does not outlive an eviction.
+ *
  * @author Juergen Hoeller
  * @since 4.2.2
  */
@@ -35,6 +50,8 @@ public abstract class AbstractValueAdaptingCache implements Cache {
 
 	private final boolean allowNullValues;
 
+	private final ConcurrentMap<Object, CompletableFuture<?>> pendingLoads = new ConcurrentHashMap<>(16);
+
 
 	/**
 	 * Create an {@code AbstractValueAdaptingCache} with the given setting.
@@ -71,6 +88,106 @@ public abstract class AbstractValueAdaptingCache implements Cache {
 		return (T) value;
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, Object> storeValues = lookupAll(keys);
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(storeValues.size());
+		for (Object key : keys) {
+			Object storeValue = storeValues.get(key);
+			if (storeValue != null) {
+				result.put(key, toValueWrapper(storeValue));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	@Nullable
+	public CompletableFuture<ValueWrapper> retrieve(Object key) {
+		Object value = lookup(key);
+		return (value != null ? CompletableFuture.completedFuture(toValueWrapper(value)) : null);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+		Object value = lookup(key);
+		if (value != null) {
+			return CompletableFuture.completedFuture((T) fromStoreValue(value));
+		}
+
+		CompletableFuture<Object> loading = new CompletableFuture<>();
+		CompletableFuture<?> existing = this.pendingLoads.putIfAbsent(key, loading);
+		if (existing != null) {
+			// Join the pending load, without exposing the shared future to the caller
+			return existing.thenApply(result -> (T) result);
+		}
+
+		// Never expose the shared future itself to a caller
+		CompletableFuture<T> result = loading.thenApply(loaded -> (T) loaded);
+
+		// Re-check: a load may have completed in the meantime
+		value = lookup(key);
+		if (value != null) {
+			this.pendingLoads.remove(key, loading);
+			loading.complete(fromStoreValue(value));
+			return result;
+		}
+
+		try {
+			valueLoader.get().whenComplete((loaded, ex) -> {
+				Throwable failure = ex;
+				if (failure == null && (loaded != null || this.allowNullValues) &&
+						this.pendingLoads.get(key) == loading) {
+					try {
+						put(key, loaded);
+						if (!this.pendingLoads.remove(key, loading)) {
+							// Invalidated while storing: the eviction wins
+							evict(key);
+						}
+					}
+					catch (Throwable putEx) {
+						failure = putEx;
+					}
+				}
+				this.pendingLoads.remove(key, loading);
+				if (failure != null) {
+					loading.completeExceptionally(failure);
+				}
+				else {
+					loading.complete(loaded);
+				}
+			});
+		}
+		catch (Throwable ex) {
+			this.pendingLoads.remove(key, loading);
+			loading.completeExceptionally(ex);
+		}
+		return result;
+	}
+
+	/**
+	 * Invalidate a pending {@link #retrieve(Object, Supplier)} load for the
+	 * given key: its result will still be handed to the waiting callers but
+	 * not be stored in this cache anymore.
+	 * @param key the key to invalidate a pending load for
+	 * @since 5.1.10
+	 * @see #evict
+	 */
+	protected final void invalidatePendingLoad(Object key) {
+		this.pendingLoads.remove(key);
+	}
+
+	/**
+	 * Invalidate all pending {@link #retrieve(Object, Supplier)} loads.
+	 * @since 5.1.10
+	 * @see #invalidatePendingLoad
+	 * @see #clear
+	 */
+	protected final void invalidatePendingLoads() {
+		this.pendingLoads.clear();
+	}
+
 	/**
 	 * Perform an actual lookup in the underlying store.
 	 * @param key the key whose associated value is to be returned
@@ -80,6 +197,39 @@ public abstract class AbstractValueAdaptingCache implements Cache {
 	protected abstract Object lookup(Object key);
 
 
+	/**
+	 * Perform an actual bulk lookup in the underlying store.
+	 * <p>The default implementation calls {@link #lookup} for each key.
+	 * Subclasses may override this with a native bulk operation.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return the raw store values for the keys that have a mapping
+	 * @since 5.1.10
+	 */
+	protected Map<Object, Object> lookupAll(Collection<?> keys) {
+		Map<Object, Object> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			Object value = lookup(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Convert the values of the given entries to store values,
+	 * e.g. for a native bulk put operation.
+	 * @param entries the keys and user values
+	 * @return a map of the keys and the corresponding store values
+	 * @since 5.1.10
+	 * @see #toStoreValue
+	 */
+	protected Map<Object, Object> toStoreValues(Map<?, ?> entries) {
+		Map<Object, Object> storeValues = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> storeValues.put(key, toStoreValue(value)));
+		return storeValues;
+	}
+
 	/**
 	 * Convert the given value from the internal store to a user value
 	 * returned from the get method (adapting {@code null}).
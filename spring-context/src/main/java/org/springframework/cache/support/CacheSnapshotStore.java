@@ -0,0 +1,62 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Strategy for persisting the contents of local caches across restarts,
+ * allowing a {@link org.springframework.cache.CacheManager} to start with
+ * warm caches instead of hitting the underlying resources for every entry.
+ *
+ * <p>Snapshots operate on the native store of a cache, i.e. on the keys and
+ * values as held by the cache provider (including null value markers).
+ *
+ * @since 5.1.10
+ * @see FileSystemCacheSnapshotStore
+ * @see org.springframework.cache.concurrent.ConcurrentMapCacheManager#setSnapshotStore
+ */
+public interface CacheSnapshotStore {
+
+	/**
+	 * Save the given entries as the snapshot for the specified cache,
+	 * replacing any previous snapshot for that cache.
+	 * @param cacheName the name of the cache
+	 * @param entries the entries of the native store of the cache
+	 * @throws IOException in case of I/O errors
+	 */
+	void save(String cacheName, Map<?, ?> entries) throws IOException;
+
+	/**
+	 * Load the snapshot for the specified cache, if any.
+	 * @param cacheName the name of the cache
+	 * @param timeToLive the time after which entries expire in the cache,
+	 * or {@code null} if they do not expire: a snapshot older than this gets
+	 * discarded since all of its entries have expired in the meantime
+	 * @param consumer the consumer to hand each key and value to
+	 * @return the number of entries loaded
+	 * @throws IOException in case of I/O errors
+	 */
+	int load(String cacheName, @Nullable Duration timeToLive, BiConsumer<Object, Object> consumer)
+			throws IOException;
+
+}
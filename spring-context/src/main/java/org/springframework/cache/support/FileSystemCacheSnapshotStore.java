@@ -0,0 +1,313 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheSnapshotStore} implementation keeping one snapshot file per cache
+ * in a local directory, with keys and values converted through the
+ * {@link Serializer}/{@link Deserializer} abstraction (Java serialization
+ * by default).
+ *
+ * <p>Entries which cannot be serialized are skipped when saving, and entries
+ * which cannot be deserialized anymore (e.g. after incompatible class changes)
+ * are skipped when loading. Snapshots get written to a temporary file first
+ * and then moved into place, so that a crash during shutdown does not leave a
+ * truncated snapshot behind.
+ *
+ * <p>Snapshots older than the {@link #setMaxAge maximum age}, or older than
+ * the time-to-live of the cache that they are loaded into, are discarded.
+ * Note that entries of a snapshot which is young enough are restored with
+ * a fresh expiration period, since their original write time is unknown.
+ *
+ * <p>Snapshot files are deserialized on startup, so the directory must be a
+ * trusted location owned by the application: with Java serialization, anybody
+ * able to write to it could make the application instantiate arbitrary
+ * serializable classes. Consider a {@link #setDeserializer custom deserializer}
+ * which restricts the classes to be deserialized. Corrupt snapshot files are
+ * logged and ignored.
+ *
+ * @since 5.1.10
+ */
+public class FileSystemCacheSnapshotStore implements CacheSnapshotStore, BeanClassLoaderAware {
+
+	private static final int MAGIC = 0x53504353;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_LENGTH = 16;
+
+	private static final String FILE_SUFFIX = ".snapshot";
+
+	private static final Log logger = LogFactory.getLog(FileSystemCacheSnapshotStore.class);
+
+
+	private final File directory;
+
+	private Serializer<Object> serializer = new DefaultSerializer();
+
+	private Deserializer<Object> deserializer = new DefaultDeserializer();
+
+	private boolean customDeserializer = false;
+
+	@Nullable
+	private Duration maxAge;
+
+
+	/**
+	 * Create a new FileSystemCacheSnapshotStore for the given directory,
+	 * which gets created on the first save if it does not exist yet.
+	 * @param directory the directory to keep the snapshot files in
+	 */
+	public FileSystemCacheSnapshotStore(File directory) {
+		Assert.notNull(directory, "Directory must not be null");
+		this.directory = directory;
+	}
+
+
+	/**
+	 * Return the directory that the snapshot files are kept in.
+	 */
+	public File getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * Specify the serializer for keys and values.
+	 * <p>Default is a {@link DefaultSerializer}, using Java serialization.
+	 */
+	public void setSerializer(Serializer<Object> serializer) {
+		Assert.notNull(serializer, "Serializer must not be null");
+		this.serializer = serializer;
+	}
+
+	/**
+	 * Specify the deserializer for keys and values.
+	 * <p>Default is a {@link DefaultDeserializer} for the bean ClassLoader.
+	 * A custom deserializer may restrict the classes that get deserialized,
+	 * e.g. through a serialization filter for the expected key and value types.
+	 */
+	public void setDeserializer(Deserializer<Object> deserializer) {
+		Assert.notNull(deserializer, "Deserializer must not be null");
+		this.deserializer = deserializer;
+		this.customDeserializer = true;
+	}
+
+	/**
+	 * Specify the maximum age of a snapshot to be loaded, independent from the
+	 * time-to-live of the cache that it is loaded into.
+	 * <p>Default is none, i.e. any snapshot gets loaded into a cache without
+	 * expiration.
+	 */
+	public void setMaxAge(@Nullable Duration maxAge) {
+		this.maxAge = maxAge;
+	}
+
+	@Override
+	public void setBeanClassLoader(ClassLoader classLoader) {
+		if (!this.customDeserializer) {
+			this.deserializer = new DefaultDeserializer(classLoader);
+		}
+	}
+
+
+	@Override
+	public void save(String cacheName, Map<?, ?> entries) throws IOException {
+		Path file = getSnapshotFile(cacheName);
+		Files.createDirectories(file.getParent());
+		Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+		int count = 0;
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(System.currentTimeMillis());
+				ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+				for (Map.Entry<?, ?> entry : entries.entrySet()) {
+					byte[] key = serialize(entry.getKey(), buffer);
+					byte[] value = (key != null ? serialize(entry.getValue(), buffer) : null);
+					if (key != null && value != null) {
+						out.writeBoolean(true);
+						writeBytes(out, key);
+						writeBytes(out, value);
+						count++;
+					}
+				}
+				out.writeBoolean(false);
+			}
+			try {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(tempFile);
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Saved snapshot of " + count + " entries for cache '" + cacheName + "' to " + file);
+		}
+	}
+
+	@Nullable
+	private byte[] serialize(@Nullable Object object, ByteArrayOutputStream buffer) {
+		buffer.reset();
+		try {
+			this.serializer.serialize(object, buffer);
+			return buffer.toByteArray();
+		}
+		catch (IOException | RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Skipping cache entry which cannot be serialized: " + object, ex);
+			}
+			return null;
+		}
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	@Override
+	public int load(String cacheName, @Nullable Duration timeToLive, BiConsumer<Object, Object> consumer)
+			throws IOException {
+
+		Path file = getSnapshotFile(cacheName);
+		if (!Files.exists(file)) {
+			return 0;
+		}
+		int count = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				logger.info("Ignoring incompatible snapshot file " + file);
+				return 0;
+			}
+			Duration age = Duration.ofMillis(System.currentTimeMillis() - in.readLong());
+			if (isExpired(age, timeToLive) || isExpired(age, this.maxAge)) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Discarding expired snapshot for cache '" + cacheName + "' of age " + age);
+				}
+				return 0;
+			}
+			// Read all entries upfront, ignoring the entire file if it turns out to be corrupt
+			List<byte[]> entries = new ArrayList<>();
+			long remaining = Files.size(file) - HEADER_LENGTH;
+			try {
+				while (in.readBoolean()) {
+					byte[] key = readBytes(in, remaining - 1);
+					byte[] value = readBytes(in, remaining - 1 - 4 - key.length);
+					remaining -= 1 + 4 + key.length + 4 + value.length;
+					entries.add(key);
+					entries.add(value);
+				}
+			}
+			catch (EOFException ex) {
+				logger.info("Snapshot file " + file + " is truncated - loading " + entries.size() / 2 +
+						" entries only");
+			}
+			catch (StreamCorruptedException ex) {
+				logger.warn("Ignoring corrupt snapshot file " + file + ": " + ex.getMessage());
+				return 0;
+			}
+			for (int i = 0; i < entries.size(); i += 2) {
+				try {
+					consumer.accept(deserialize(entries.get(i)), deserialize(entries.get(i + 1)));
+					count++;
+				}
+				catch (IOException | RuntimeException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Skipping snapshot entry which cannot be deserialized", ex);
+					}
+				}
+			}
+		}
+		catch (EOFException ex) {
+			logger.info("Ignoring truncated snapshot file " + file);
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Loaded snapshot of " + count + " entries for cache '" + cacheName + "' from " + file);
+		}
+		return count;
+	}
+
+	private static boolean isExpired(Duration age, @Nullable Duration timeToLive) {
+		return (timeToLive != null && age.compareTo(timeToLive) >= 0);
+	}
+
+	private static byte[] readBytes(DataInputStream in, long remaining) throws IOException {
+		int length = in.readInt();
+		if (length < 0 || length > remaining - 4) {
+			throw new StreamCorruptedException("Invalid entry length " + length);
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	private Object deserialize(byte[] bytes) throws IOException {
+		return this.deserializer.deserialize(new ByteArrayInputStream(bytes));
+	}
+
+	/**
+	 * Return the snapshot file for the specified cache.
+	 * @param cacheName the name of the cache
+	 */
+	protected Path getSnapshotFile(String cacheName) {
+		try {
+			return new File(this.directory, URLEncoder.encode(cacheName, "UTF-8") + FILE_SUFFIX).toPath();
+		}
+		catch (UnsupportedEncodingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.context.annotation;
 
+import java.io.File;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -37,6 +38,8 @@ import org.springframework.beans.factory.support.SimpleInstantiationStrategy;
 import org.springframework.cglib.core.ClassGenerator;
 import org.springframework.cglib.core.Constants;
 import org.springframework.cglib.core.DefaultGeneratorStrategy;
+import org.springframework.cglib.core.FileCachingGeneratorStrategy;
+import org.springframework.cglib.core.GeneratorStrategy;
 import org.springframework.cglib.core.SpringNamingPolicy;
 import org.springframework.cglib.proxy.Callback;
 import org.springframework.cglib.proxy.CallbackFilter;
@@ -47,6 +50,7 @@ import org.springframework.cglib.proxy.MethodProxy;
 import org.springframework.cglib.proxy.NoOp;
 import org.springframework.cglib.transform.ClassEmitterTransformer;
 import org.springframework.cglib.transform.TransformingClassGenerator;
+import org.springframework.core.SpringProperties;
 import org.springframework.lang.Nullable;
 import org.springframework.objenesis.ObjenesisException;
 import org.springframework.objenesis.SpringObjenesis;
@@ -72,6 +76,22 @@ import org.springframework.util.ReflectionUtils;
  */
 class ConfigurationClassEnhancer {
 
+	/**
+	 * System property that points to a local directory for persisting generated
+	 * {@code @Configuration} subclasses across JVM starts. Generated bytecode
+	 * is reused as long as the configuration class (and its superclasses) as well
+	 * as the Spring version remain unchanged, skipping CGLIB class generation.
+	 * <p>The directory must be private to the application, i.e. owned by its user
+	 * and not writable by anyone else: never point this to a shared location such
+	 * as a temp directory. Directories failing that check are ignored.
+	 * <p>May alternatively be configured through a {@code spring.properties} file
+	 * in the root of the classpath. By default, no such cache is used.
+	 * @since 5.1.10
+	 * @see FileCachingGeneratorStrategy
+	 */
+	static final String CACHE_DIRECTORY_PROPERTY_NAME = "spring.cglib.cacheDirectory";
+
+
 	// The callbacks to use. Note that these callbacks must be stateless.
 	private static final Callback[] CALLBACKS = new Callback[] {
 			new BeanMethodInterceptor(),
@@ -123,12 +143,32 @@ class ConfigurationClassEnhancer {
 		enhancer.setInterfaces(new Class<?>[] {EnhancedConfiguration.class});
 		enhancer.setUseFactory(false);
 		enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE);
-		enhancer.setStrategy(new BeanFactoryAwareGeneratorStrategy(classLoader));
+		enhancer.setStrategy(newGeneratorStrategy(configSuperClass, classLoader));
 		enhancer.setCallbackFilter(CALLBACK_FILTER);
 		enhancer.setCallbackTypes(CALLBACK_FILTER.getCallbackTypes());
 		return enhancer;
 	}
 
+	/**
+	 * Creates the CGLIB {@link GeneratorStrategy} for the given configuration class,
+	 * persisting the generated bytecode if a cache directory has been specified.
+	 * @see #CACHE_DIRECTORY_PROPERTY_NAME
+	 */
+	private GeneratorStrategy newGeneratorStrategy(Class<?> configSuperClass, @Nullable ClassLoader classLoader) {
+		GeneratorStrategy strategy = new BeanFactoryAwareGeneratorStrategy(classLoader);
+		String cacheDirectory = SpringProperties.getProperty(CACHE_DIRECTORY_PROPERTY_NAME);
+		if (cacheDirectory == null) {
+			return strategy;
+		}
+		// The callback filter only depends on the methods of the configuration class,
+		// which are covered by the bytecode fingerprint of the caching strategy.
+		Object[] keyParts = new Object[CALLBACK_FILTER.getCallbackTypes().length + 2];
+		keyParts[0] = EnhancedConfiguration.class;
+		keyParts[1] = BEAN_FACTORY_FIELD;
+		System.arraycopy(CALLBACK_FILTER.getCallbackTypes(), 0, keyParts, 2, keyParts.length - 2);
+		return new FileCachingGeneratorStrategy(strategy, new File(cacheDirectory), configSuperClass, keyParts);
+	}
+
 	/**
 	 * Uses enhancer to generate a subclass of superclass,
 	 * ensuring that callbacks are registered for the new subclass.
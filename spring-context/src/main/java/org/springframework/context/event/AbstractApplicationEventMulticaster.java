@@ -16,8 +16,11 @@
 
 package org.springframework.context.event;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -32,7 +35,9 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -66,6 +71,9 @@ public abstract class AbstractApplicationEventMulticaster
 
 	final Map<ListenerCacheKey, ListenerRetriever> retrieverCache = new ConcurrentHashMap<>(64);
 
+	/** Retrievers by plain event class (and payload class), avoiding ResolvableType matching */
+	final Map<DispatchKey, ListenerRetriever> dispatchTable = new ConcurrentHashMap<>(64);
+
 	@Nullable
 	private ClassLoader beanClassLoader;
 
@@ -111,7 +119,7 @@ public abstract class AbstractApplicationEventMulticaster
 				this.defaultRetriever.applicationListeners.remove(singletonTarget);
 			}
 			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
+			clearRetrieverCaches();
 		}
 	}
 
@@ -119,7 +127,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void addApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
-			this.retrieverCache.clear();
+			clearRetrieverCaches();
 		}
 	}
 
@@ -127,7 +135,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			clearRetrieverCaches();
 		}
 	}
 
@@ -135,7 +143,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListenerBeans.remove(listenerBeanName);
-			this.retrieverCache.clear();
+			clearRetrieverCaches();
 		}
 	}
 
@@ -144,11 +152,17 @@ public abstract class AbstractApplicationEventMulticaster
 		synchronized (this.retrievalMutex) {
 			this.defaultRetriever.applicationListeners.clear();
 			this.defaultRetriever.applicationListenerBeans.clear();
-			this.retrieverCache.clear();
+			clearRetrieverCaches();
 		}
 	}
 
 
+	private void clearRetrieverCaches() {
+		this.retrieverCache.clear();
+		this.dispatchTable.clear();
+	}
+
+
 	/**
 	 * Return a Collection containing all ApplicationListeners.
 	 * @return a Collection of ApplicationListeners
@@ -163,6 +177,9 @@ public abstract class AbstractApplicationEventMulticaster
 	/**
 	 * Return a Collection of ApplicationListeners matching the given
 	 * event type. Non-matching listeners get excluded early.
+	 * <p>Listeners for plain event classes and {@link PayloadApplicationEvent}
+	 * payload classes are looked up in a dispatch table keyed by class,
+	 * matching the event type in full on first retrieval only.
 	 * @param event the event to be propagated. Allows for excluding
 	 * non-matching listeners early, based on cached matching information.
 	 * @param eventType the event type
@@ -174,27 +191,43 @@ public abstract class AbstractApplicationEventMulticaster
 
 		Object source = event.getSource();
 		Class<?> sourceType = (source != null ? source.getClass() : null);
-		ListenerCacheKey cacheKey = new ListenerCacheKey(eventType, sourceType);
+		DispatchKey dispatchKey = DispatchKey.forEvent(event, sourceType);
+		if (dispatchKey != null && !dispatchKey.matches(eventType)) {
+			// Event published with a specific type other than its default type
+			dispatchKey = null;
+		}
 
-		// Quick check for existing entry on ConcurrentHashMap...
-		ListenerRetriever retriever = this.retrieverCache.get(cacheKey);
+		// Quick check for existing entry in the dispatch table...
+		ListenerRetriever retriever = (dispatchKey != null ? this.dispatchTable.get(dispatchKey) : null);
 		if (retriever != null) {
 			return retriever.getApplicationListeners();
 		}
 
+		ListenerCacheKey cacheKey = new ListenerCacheKey(eventType, sourceType);
+		retriever = this.retrieverCache.get(cacheKey);
+		if (retriever != null && dispatchKey == null) {
+			return retriever.getApplicationListeners();
+		}
+
 		if (this.beanClassLoader == null ||
 				(ClassUtils.isCacheSafe(event.getClass(), this.beanClassLoader) &&
 						(sourceType == null || ClassUtils.isCacheSafe(sourceType, this.beanClassLoader)))) {
 			// Fully synchronized building and caching of a ListenerRetriever
 			synchronized (this.retrievalMutex) {
+				Collection<ApplicationListener<?>> listeners;
 				retriever = this.retrieverCache.get(cacheKey);
 				if (retriever != null) {
-					return retriever.getApplicationListeners();
+					listeners = retriever.getApplicationListeners();
+				}
+				else {
+					retriever = new ListenerRetriever(true);
+					listeners = retrieveApplicationListeners(eventType, sourceType, retriever);
+					this.retrieverCache.put(cacheKey, retriever);
+				}
+				// Registered under the retrieval mutex, consistently with cache invalidation
+				if (dispatchKey != null && (this.beanClassLoader == null || dispatchKey.isCacheSafe(this.beanClassLoader))) {
+					this.dispatchTable.put(dispatchKey, retriever);
 				}
-				retriever = new ListenerRetriever(true);
-				Collection<ApplicationListener<?>> listeners =
-						retrieveApplicationListeners(eventType, sourceType, retriever);
-				this.retrieverCache.put(cacheKey, retriever);
 				return listeners;
 			}
 		}
@@ -358,6 +391,93 @@ public abstract class AbstractApplicationEventMulticaster
 	}
 
 
+	/**
+	 * Dispatch table key for events whose type is fully determined by their
+	 * class, or by their payload class in case of a {@link PayloadApplicationEvent}.
+	 */
+	private static final class DispatchKey {
+
+		private final Class<?> eventClass;
+
+		@Nullable
+		private final Class<?> payloadClass;
+
+		@Nullable
+		private final Class<?> sourceType;
+
+		private final int hash;
+
+		public DispatchKey(Class<?> eventClass, @Nullable Class<?> payloadClass, @Nullable Class<?> sourceType) {
+			this.eventClass = eventClass;
+			this.payloadClass = payloadClass;
+			this.sourceType = sourceType;
+			this.hash = (eventClass.hashCode() * 29 + ObjectUtils.nullSafeHashCode(payloadClass)) * 29 +
+					ObjectUtils.nullSafeHashCode(sourceType);
+		}
+
+		/**
+		 * Determine whether the given event type is the default event type
+		 * of the events represented by this key.
+		 */
+		public boolean matches(ResolvableType eventType) {
+			if (this.payloadClass == null) {
+				return (eventType.getType() == this.eventClass);
+			}
+			Type type = eventType.getType();
+			if (!(type instanceof ParameterizedType)) {
+				return false;
+			}
+			ParameterizedType parameterizedType = (ParameterizedType) type;
+			Type[] typeArguments = parameterizedType.getActualTypeArguments();
+			return (parameterizedType.getRawType() == this.eventClass &&
+					typeArguments.length == 1 && typeArguments[0] == this.payloadClass);
+		}
+
+		public boolean isCacheSafe(ClassLoader classLoader) {
+			return (this.payloadClass == null || ClassUtils.isCacheSafe(this.payloadClass, classLoader));
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof DispatchKey)) {
+				return false;
+			}
+			DispatchKey otherKey = (DispatchKey) other;
+			return (this.eventClass == otherKey.eventClass && this.payloadClass == otherKey.payloadClass &&
+					this.sourceType == otherKey.sourceType);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public String toString() {
+			return "DispatchKey [eventClass = " + this.eventClass.getName() + ", payloadClass = " +
+					this.payloadClass + ", sourceType = " + this.sourceType + "]";
+		}
+
+		/**
+		 * Determine the dispatch key for the given event, if its default event type
+		 * does not depend on further generic information.
+		 */
+		@Nullable
+		public static DispatchKey forEvent(ApplicationEvent event, @Nullable Class<?> sourceType) {
+			Class<?> eventClass = event.getClass();
+			if (eventClass == PayloadApplicationEvent.class) {
+				Object payload = ((PayloadApplicationEvent<?>) event).getPayload();
+				return (!(payload instanceof ResolvableTypeProvider) ?
+						new DispatchKey(eventClass, payload.getClass(), sourceType) : null);
+			}
+			return (!(event instanceof ResolvableTypeProvider) ? new DispatchKey(eventClass, null, sourceType) : null);
+		}
+	}
+
+
 	/**
 	 * Helper class that encapsulates a specific set of target listeners,
 	 * allowing for efficient retrieval of pre-filtered listeners.
@@ -371,11 +491,23 @@ public abstract class AbstractApplicationEventMulticaster
 
 		private final boolean preFiltered;
 
+		@Nullable
+		private volatile List<ApplicationListener<?>> preFilteredListeners;
+
 		public ListenerRetriever(boolean preFiltered) {
 			this.preFiltered = preFiltered;
 		}
 
 		public Collection<ApplicationListener<?>> getApplicationListeners() {
+			if (this.preFiltered && this.applicationListenerBeans.isEmpty()) {
+				// Fully resolved and sorted already -> reuse an unmodifiable snapshot
+				List<ApplicationListener<?>> listeners = this.preFilteredListeners;
+				if (listeners == null) {
+					listeners = Collections.unmodifiableList(new ArrayList<>(this.applicationListeners));
+					this.preFilteredListeners = listeners;
+				}
+				return listeners;
+			}
 			List<ApplicationListener<?>> allListeners = new ArrayList<>(
 					this.applicationListeners.size() + this.applicationListenerBeans.size());
 			allListeners.addAll(this.applicationListeners);
@@ -77,6 +77,9 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	private final int order;
 
+	@Nullable
+	private final ListenerExecutionPolicy executionPolicy;
+
 	@Nullable
 	private ApplicationContext applicationContext;
 
@@ -95,6 +98,8 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		this.declaredEventTypes = resolveDeclaredEventTypes(method, ann);
 		this.condition = (ann != null ? ann.condition() : null);
 		this.order = resolveOrder(this.targetMethod);
+		this.executionPolicy = (ann != null ? ListenerExecutionPolicy.from(
+				ann.execution(), ann.executor(), ann.maxPending(), ann.batchSize()) : null);
 	}
 
 	private static List<ResolvableType> resolveDeclaredEventTypes(Method method, @Nullable EventListener ann) {
@@ -168,6 +173,12 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		return this.order;
 	}
 
+	@Override
+	@Nullable
+	public ListenerExecutionPolicy getExecutionPolicy() {
+		return this.executionPolicy;
+	}
+
 
 	/**
 	 * Process the specified {@link ApplicationEvent}, checking if the condition
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -59,6 +59,11 @@ import org.springframework.core.annotation.AliasFor;
  * {@link java.lang.reflect.UndeclaredThrowableException}
  * since the event publisher can only handle runtime exceptions.
  *
+ * <p>Each listener method may declare its own execution arrangement through
+ * the {@link #execution}, {@link #executor}, {@link #maxPending} and
+ * {@link #batchSize} attributes, e.g. to keep a slow listener off the
+ * publishing thread while other listeners remain synchronous.
+ *
  * @author Stephane Nicoll
  * @since 4.2
  * @see EventListenerMethodProcessor
@@ -102,4 +107,46 @@ public @interface EventListener {
 	 */
 	String condition() default "";
 
+	/**
+	 * How the annotated method is to be invoked by the multicaster.
+	 * <p>Default is {@link ListenerExecutionPolicy.Mode#DEFAULT}, using the
+	 * multicaster's task executor if any, unless an {@link #executor} is
+	 * specified, in which case the method gets invoked asynchronously
+	 * through that executor.
+	 * @since 5.1.10
+	 * @see ListenerExecutionPolicy
+	 */
+	ListenerExecutionPolicy.Mode execution() default ListenerExecutionPolicy.Mode.DEFAULT;
+
+	/**
+	 * The bean name of the {@link java.util.concurrent.Executor} to invoke
+	 * the annotated method with, for {@link ListenerExecutionPolicy.Mode#ASYNC}
+	 * and {@link ListenerExecutionPolicy.Mode#ORDERED} execution.
+	 * <p>Default is {@code ""}, meaning the multicaster's task executor.
+	 * @since 5.1.10
+	 */
+	String executor() default "";
+
+	/**
+	 * The maximum number of events which may be pending for asynchronous
+	 * execution of the annotated method before the publisher is slowed down.
+	 * Not supported for {@link ListenerExecutionPolicy.Mode#SYNC} execution;
+	 * with {@link ListenerExecutionPolicy.Mode#DEFAULT} execution, the method
+	 * gets invoked as with {@link ListenerExecutionPolicy.Mode#ASYNC}.
+	 * <p>Default is {@code 0}, meaning no limit.
+	 * @since 5.1.10
+	 * @see ListenerExecutionPolicy#withMaxPending
+	 */
+	int maxPending() default 0;
+
+	/**
+	 * The maximum number of events delivered per executor hand-off for
+	 * {@link ListenerExecutionPolicy.Mode#ORDERED} execution. Not supported
+	 * for any other execution mode.
+	 * <p>Default is {@code 1}.
+	 * @since 5.1.10
+	 * @see ListenerExecutionPolicy#withBatchSize
+	 */
+	int batchSize() default 1;
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -92,6 +92,18 @@ public class GenericApplicationListenerAdapter implements GenericApplicationList
 		return (this.delegate instanceof Ordered ? ((Ordered) this.delegate).getOrder() : Ordered.LOWEST_PRECEDENCE);
 	}
 
+	@Override
+	@Nullable
+	public ListenerExecutionPolicy getExecutionPolicy() {
+		if (this.delegate instanceof GenericApplicationListener) {
+			return ((GenericApplicationListener) this.delegate).getExecutionPolicy();
+		}
+		if (this.delegate instanceof SmartApplicationListener) {
+			return ((SmartApplicationListener) this.delegate).getExecutionPolicy();
+		}
+		return null;
+	}
+
 
 	@Nullable
 	private static ResolvableType resolveDeclaredEventType(ApplicationListener<ApplicationEvent> listener) {
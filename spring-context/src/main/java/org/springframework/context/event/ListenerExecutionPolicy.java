@@ -0,0 +1,305 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Describes how a specific listener wants to be invoked by a
+ * {@link SimpleApplicationEventMulticaster}, overriding the multicaster's
+ * global {@linkplain SimpleApplicationEventMulticaster#setTaskExecutor task executor}
+ * arrangement for that listener.
+ *
+ * <p>Exposed by {@link SmartApplicationListener} and {@link GenericApplicationListener}
+ * implementations, or declared through the corresponding {@link EventListener}
+ * attributes for annotated listener methods.
+ *
+ * @since 5.1.10
+ * @see SmartApplicationListener#getExecutionPolicy()
+ * @see GenericApplicationListener#getExecutionPolicy()
+ * @see EventListener#execution()
+ */
+public final class ListenerExecutionPolicy {
+
+	/**
+	 * Policy for listeners which should be invoked synchronously in the
+	 * publishing thread, even if the multicaster uses a task executor.
+	 */
+	public static final ListenerExecutionPolicy SYNC = new ListenerExecutionPolicy(Mode.SYNC, null, null, 0, 1);
+
+
+	private final Mode mode;
+
+	@Nullable
+	private final Executor executor;
+
+	@Nullable
+	private final String executorName;
+
+	private final int maxPending;
+
+	private final int batchSize;
+
+
+	private ListenerExecutionPolicy(Mode mode, @Nullable Executor executor, @Nullable String executorName,
+			int maxPending, int batchSize) {
+
+		this.mode = mode;
+		this.executor = executor;
+		this.executorName = executorName;
+		this.maxPending = maxPending;
+		this.batchSize = batchSize;
+	}
+
+
+	/**
+	 * Return the execution mode.
+	 */
+	public Mode getMode() {
+		return this.mode;
+	}
+
+	/**
+	 * Return the specific executor to use, if any.
+	 */
+	@Nullable
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
+	/**
+	 * Return the bean name of the specific executor to use, if any.
+	 */
+	@Nullable
+	public String getExecutorName() {
+		return this.executorName;
+	}
+
+	/**
+	 * Return the maximum number of events which may be pending for the
+	 * listener, or {@code 0} for no limit.
+	 */
+	public int getMaxPending() {
+		return this.maxPending;
+	}
+
+	/**
+	 * Return the maximum number of events delivered per executor hand-off
+	 * in {@link Mode#ORDERED} mode.
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Return a variant of this policy which limits the number of pending events.
+	 * <p>Once that limit is reached, an {@link Mode#ASYNC} listener gets invoked
+	 * in the publishing thread itself, whereas publishers of events to an
+	 * {@link Mode#ORDERED} listener wait until the listener caught up.
+	 * @param maxPending the maximum number of pending events, or {@code 0} for no limit
+	 */
+	public ListenerExecutionPolicy withMaxPending(int maxPending) {
+		Assert.isTrue(maxPending >= 0, "'maxPending' must not be negative");
+		return new ListenerExecutionPolicy(this.mode, this.executor, this.executorName, maxPending, this.batchSize);
+	}
+
+	/**
+	 * Return a variant of this policy which delivers up to the given number
+	 * of queued events per executor hand-off in {@link Mode#ORDERED} mode,
+	 * reducing scheduling overhead for high-frequency events.
+	 * @param batchSize the maximum number of events per hand-off (at least 1)
+	 */
+	public ListenerExecutionPolicy withBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be greater than 0");
+		return new ListenerExecutionPolicy(this.mode, this.executor, this.executorName, this.maxPending, batchSize);
+	}
+
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof ListenerExecutionPolicy)) {
+			return false;
+		}
+		ListenerExecutionPolicy otherPolicy = (ListenerExecutionPolicy) other;
+		return (this.mode == otherPolicy.mode && this.executor == otherPolicy.executor &&
+				ObjectUtils.nullSafeEquals(this.executorName, otherPolicy.executorName) &&
+				this.maxPending == otherPolicy.maxPending && this.batchSize == otherPolicy.batchSize);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.mode.hashCode() * 29 + ObjectUtils.nullSafeHashCode(this.executorName);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("ListenerExecutionPolicy: ").append(this.mode);
+		if (this.executorName != null) {
+			sb.append(" on '").append(this.executorName).append("'");
+		}
+		else if (this.executor != null) {
+			sb.append(" on ").append(this.executor);
+		}
+		if (this.maxPending > 0) {
+			sb.append(", max pending ").append(this.maxPending);
+		}
+		if (this.batchSize > 1) {
+			sb.append(", batch size ").append(this.batchSize);
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Create a policy for asynchronous invocation through the multicaster's
+	 * task executor. Without such an executor, the listener gets invoked
+	 * synchronously.
+	 */
+	public static ListenerExecutionPolicy async() {
+		return new ListenerExecutionPolicy(Mode.ASYNC, null, null, 0, 1);
+	}
+
+	/**
+	 * Create a policy for asynchronous invocation through the given executor.
+	 * @param executor the executor to invoke the listener with
+	 */
+	public static ListenerExecutionPolicy async(Executor executor) {
+		Assert.notNull(executor, "Executor must not be null");
+		return new ListenerExecutionPolicy(Mode.ASYNC, executor, null, 0, 1);
+	}
+
+	/**
+	 * Create a policy for asynchronous invocation through the executor bean
+	 * with the given name.
+	 * @param executorName the bean name of the executor to invoke the listener with
+	 */
+	public static ListenerExecutionPolicy async(String executorName) {
+		Assert.hasText(executorName, "Executor name must not be empty");
+		return new ListenerExecutionPolicy(Mode.ASYNC, null, executorName, 0, 1);
+	}
+
+	/**
+	 * Create a policy for asynchronous invocation in a dedicated ordered lane
+	 * running on the multicaster's task executor. Without such an executor,
+	 * the listener gets invoked synchronously.
+	 */
+	public static ListenerExecutionPolicy ordered() {
+		return new ListenerExecutionPolicy(Mode.ORDERED, null, null, 0, 1);
+	}
+
+	/**
+	 * Create a policy for asynchronous invocation in a dedicated ordered lane
+	 * running on the given executor.
+	 * @param executor the executor to run the listener's lane on
+	 */
+	public static ListenerExecutionPolicy ordered(Executor executor) {
+		Assert.notNull(executor, "Executor must not be null");
+		return new ListenerExecutionPolicy(Mode.ORDERED, executor, null, 0, 1);
+	}
+
+	/**
+	 * Create a policy for asynchronous invocation in a dedicated ordered lane
+	 * running on the executor bean with the given name.
+	 * @param executorName the bean name of the executor to run the listener's lane on
+	 */
+	public static ListenerExecutionPolicy ordered(String executorName) {
+		Assert.hasText(executorName, "Executor name must not be empty");
+		return new ListenerExecutionPolicy(Mode.ORDERED, null, executorName, 0, 1);
+	}
+
+	/**
+	 * Build a policy from the given {@link EventListener} attributes.
+	 * <p>{@link Mode#DEFAULT} with a {@code maxPending} limit maps to {@link #async()},
+	 * which uses the multicaster's task executor just like the default arrangement.
+	 * @return the corresponding policy, or {@code null} for the multicaster's default
+	 */
+	@Nullable
+	static ListenerExecutionPolicy from(Mode mode, String executorName, int maxPending, int batchSize) {
+		boolean hasExecutorName = StringUtils.hasText(executorName);
+		Assert.isTrue(batchSize <= 1 || mode == Mode.ORDERED,
+				"A batch size can only be specified for ORDERED listeners");
+		ListenerExecutionPolicy policy;
+		switch (mode) {
+			case SYNC:
+				Assert.isTrue(!hasExecutorName, "An executor cannot be specified for synchronous listeners");
+				Assert.isTrue(maxPending <= 0, "A pending limit cannot be specified for synchronous listeners");
+				return SYNC;
+			case ORDERED:
+				policy = (hasExecutorName ? ordered(executorName) : ordered());
+				break;
+			case ASYNC:
+				policy = (hasExecutorName ? async(executorName) : async());
+				break;
+			default:
+				if (hasExecutorName) {
+					policy = async(executorName);
+				}
+				else if (maxPending > 0) {
+					policy = async();
+				}
+				else {
+					return null;
+				}
+		}
+		if (maxPending > 0) {
+			policy = policy.withMaxPending(maxPending);
+		}
+		if (batchSize > 1) {
+			policy = policy.withBatchSize(batchSize);
+		}
+		return policy;
+	}
+
+
+	/**
+	 * Enumeration of the supported ways to invoke a listener.
+	 */
+	public enum Mode {
+
+		/**
+		 * Use the multicaster's default arrangement: its task executor if any,
+		 * or synchronous invocation otherwise.
+		 */
+		DEFAULT,
+
+		/**
+		 * Invoke the listener synchronously in the publishing thread.
+		 */
+		SYNC,
+
+		/**
+		 * Invoke the listener asynchronously, concurrently delivering events
+		 * through a shared executor.
+		 */
+		ASYNC,
+
+		/**
+		 * Invoke the listener asynchronously through a dedicated lane which
+		 * delivers events one after the other, in publication order.
+		 */
+		ORDERED
+	}
+
+}
@@ -16,7 +16,15 @@
 
 package org.springframework.context.event;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -41,10 +49,16 @@ import org.springframework.util.ErrorHandler;
  * but adds minimal overhead. Specify an alternative task executor to have
  * listeners executed in different threads, for example from a thread pool.
  *
+ * <p>Individual listeners may deviate from that default arrangement through a
+ * {@link ListenerExecutionPolicy}: for example, a slow listener may run on
+ * its own executor or in a dedicated ordered lane, with a limit on the number
+ * of pending events, while all other listeners are invoked synchronously.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @author Stephane Nicoll
  * @see #setTaskExecutor
+ * @see ListenerExecutionPolicy
  */
 public class SimpleApplicationEventMulticaster extends AbstractApplicationEventMulticaster {
 
@@ -54,6 +68,14 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	@Nullable
 	private ErrorHandler errorHandler;
 
+	@Nullable
+	private BeanFactory beanFactory;
+
+	private final Map<String, Executor> executorCache = new ConcurrentHashMap<>(4);
+
+	private final Map<ApplicationListener<?>, ListenerLane> listenerLanes =
+			Collections.synchronizedMap(new WeakHashMap<>(16));
+
 
 	/**
 	 * Create a new SimpleApplicationEventMulticaster.
@@ -122,6 +144,13 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	}
 
 
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		super.setBeanFactory(beanFactory);
+		this.beanFactory = beanFactory;
+	}
+
+
 	@Override
 	public void multicastEvent(ApplicationEvent event) {
 		multicastEvent(event, resolveDefaultEventType(event));
@@ -132,7 +161,11 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		ResolvableType type = (eventType != null ? eventType : resolveDefaultEventType(event));
 		Executor executor = getTaskExecutor();
 		for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
-			if (executor != null) {
+			ListenerExecutionPolicy policy = determineExecutionPolicy(listener);
+			if (policy != null && policy.getMode() != ListenerExecutionPolicy.Mode.DEFAULT) {
+				invokeListener(listener, event, policy, executor);
+			}
+			else if (executor != null) {
 				executor.execute(() -> invokeListener(listener, event));
 			}
 			else {
@@ -145,6 +178,58 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return ResolvableType.forInstance(event);
 	}
 
+	@Nullable
+	private ListenerExecutionPolicy determineExecutionPolicy(ApplicationListener<?> listener) {
+		if (listener instanceof GenericApplicationListener) {
+			return ((GenericApplicationListener) listener).getExecutionPolicy();
+		}
+		if (listener instanceof SmartApplicationListener) {
+			return ((SmartApplicationListener) listener).getExecutionPolicy();
+		}
+		return null;
+	}
+
+	private void invokeListener(ApplicationListener<?> listener, ApplicationEvent event,
+			ListenerExecutionPolicy policy, @Nullable Executor defaultExecutor) {
+
+		Executor executor = (policy.getMode() != ListenerExecutionPolicy.Mode.SYNC ?
+				resolveExecutor(policy, defaultExecutor) : null);
+		if (executor == null) {
+			invokeListener(listener, event);
+		}
+		else if (policy.getMode() == ListenerExecutionPolicy.Mode.ORDERED) {
+			getListenerLane(listener).enqueue(listener, event, executor, policy);
+		}
+		else if (policy.getMaxPending() > 0) {
+			getListenerLane(listener).execute(listener, event, executor, policy.getMaxPending());
+		}
+		else {
+			executor.execute(() -> invokeListener(listener, event));
+		}
+	}
+
+	@Nullable
+	private Executor resolveExecutor(ListenerExecutionPolicy policy, @Nullable Executor defaultExecutor) {
+		if (policy.getExecutor() != null) {
+			return policy.getExecutor();
+		}
+		String executorName = policy.getExecutorName();
+		if (executorName == null) {
+			return defaultExecutor;
+		}
+		return this.executorCache.computeIfAbsent(executorName, name -> {
+			if (this.beanFactory == null) {
+				throw new IllegalStateException("ApplicationEventMulticaster cannot retrieve executor bean '" +
+						name + "' because it is not associated with a BeanFactory");
+			}
+			return this.beanFactory.getBean(name, Executor.class);
+		});
+	}
+
+	private ListenerLane getListenerLane(ApplicationListener<?> listener) {
+		return this.listenerLanes.computeIfAbsent(listener, key -> new ListenerLane());
+	}
+
 	/**
 	 * Invoke the given listener with the given event.
 	 * @param listener the ApplicationListener to invoke
@@ -205,4 +290,195 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return false;
 	}
 
+
+	/**
+	 * Execution state for a listener with a {@link ListenerExecutionPolicy}
+	 * that limits its pending events or requires ordered delivery.
+	 * Does not hold on to the listener itself beyond pending deliveries.
+	 */
+	private class ListenerLane {
+
+		private final AtomicInteger pendingCount = new AtomicInteger();
+
+		private final Deque<ApplicationEvent> queue = new ArrayDeque<>();
+
+		private boolean scheduled;
+
+		@Nullable
+		private Thread drainingThread;
+
+		/**
+		 * Execute the given event through the executor, unless the limit of
+		 * pending events has been reached: in which case the listener gets
+		 * invoked in the publishing thread, slowing down the publisher.
+		 */
+		public void execute(ApplicationListener<?> listener, ApplicationEvent event, Executor executor, int maxPending) {
+			if (this.pendingCount.incrementAndGet() > maxPending) {
+				this.pendingCount.decrementAndGet();
+				invokeListener(listener, event);
+				return;
+			}
+			try {
+				executor.execute(() -> {
+					try {
+						invokeListener(listener, event);
+					}
+					finally {
+						this.pendingCount.decrementAndGet();
+					}
+				});
+			}
+			catch (RuntimeException ex) {
+				this.pendingCount.decrementAndGet();
+				throw ex;
+			}
+		}
+
+		/**
+		 * Queue the given event for ordered delivery, waiting for the listener
+		 * to catch up if the limit of pending events has been reached.
+		 */
+		public void enqueue(ApplicationListener<?> listener, ApplicationEvent event, Executor executor,
+				ListenerExecutionPolicy policy) {
+
+			synchronized (this.queue) {
+				int maxPending = policy.getMaxPending();
+				// Never block the lane's own thread: a listener may publish further events
+				if (maxPending > 0 && Thread.currentThread() != this.drainingThread) {
+					while (this.queue.size() >= maxPending) {
+						try {
+							this.queue.wait();
+						}
+						catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+							throw new IllegalStateException(
+									"Interrupted while waiting for ordered listener to catch up: " + listener);
+						}
+					}
+				}
+				this.queue.add(event);
+				if (this.scheduled) {
+					return;
+				}
+				this.scheduled = true;
+			}
+			try {
+				executor.execute(() -> drain(listener, executor, policy.getBatchSize()));
+			}
+			catch (RuntimeException ex) {
+				boolean remaining;
+				synchronized (this.queue) {
+					// Not delivered: the publisher gets the exception instead
+					removeQueuedEvent(event);
+					this.queue.notifyAll();
+					remaining = !this.queue.isEmpty();
+					if (!remaining) {
+						this.scheduled = false;
+					}
+				}
+				if (remaining) {
+					// Events accepted from other publishers in the meantime: no task is going to deliver them
+					try {
+						drain(listener, executor, policy.getBatchSize());
+					}
+					catch (RuntimeException | Error err) {
+						ex.addSuppressed(err);
+					}
+				}
+				throw ex;
+			}
+		}
+
+		private void removeQueuedEvent(ApplicationEvent event) {
+			Iterator<ApplicationEvent> it = this.queue.descendingIterator();
+			while (it.hasNext()) {
+				if (it.next() == event) {
+					it.remove();
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Deliver queued events in batches, handing off remaining events in a
+		 * fresh task after each batch, letting other tasks run in between.
+		 * If the executor rejects that task, delivery continues in the
+		 * current thread so that the lane never stalls with pending events.
+		 */
+		private void drain(ApplicationListener<?> listener, Executor executor, int batchSize) {
+			RuntimeException runtimeFailure = null;
+			Error errorFailure = null;
+			boolean drainInline;
+			do {
+				try {
+					drainBatch(listener, batchSize);
+				}
+				catch (RuntimeException ex) {
+					runtimeFailure = (runtimeFailure != null ? runtimeFailure : ex);
+				}
+				catch (Error err) {
+					errorFailure = (errorFailure != null ? errorFailure : err);
+				}
+				drainInline = !scheduleRemaining(listener, executor, batchSize);
+			}
+			while (drainInline);
+			if (errorFailure != null) {
+				throw errorFailure;
+			}
+			if (runtimeFailure != null) {
+				throw runtimeFailure;
+			}
+		}
+
+		private void drainBatch(ApplicationListener<?> listener, int batchSize) {
+			synchronized (this.queue) {
+				this.drainingThread = Thread.currentThread();
+			}
+			try {
+				for (int i = 0; i < batchSize; i++) {
+					ApplicationEvent event;
+					synchronized (this.queue) {
+						event = this.queue.poll();
+						this.queue.notifyAll();
+					}
+					if (event == null) {
+						break;
+					}
+					invokeListener(listener, event);
+				}
+			}
+			finally {
+				synchronized (this.queue) {
+					this.drainingThread = null;
+				}
+			}
+		}
+
+		/**
+		 * Schedule a task for the remaining events, if any.
+		 * @return {@code false} if the executor rejected the task,
+		 * leaving it up to the caller to deliver the remaining events
+		 */
+		private boolean scheduleRemaining(ApplicationListener<?> listener, Executor executor, int batchSize) {
+			synchronized (this.queue) {
+				if (this.queue.isEmpty()) {
+					this.scheduled = false;
+					return true;
+				}
+			}
+			try {
+				executor.execute(() -> drain(listener, executor, batchSize));
+				return true;
+			}
+			catch (RuntimeException ex) {
+				Log logger = LogFactory.getLog(getClass());
+				if (logger.isDebugEnabled()) {
+					logger.debug("Executor rejected ordered delivery to listener " + listener +
+							" - continuing in current thread", ex);
+				}
+				return false;
+			}
+		}
+	}
+
 }
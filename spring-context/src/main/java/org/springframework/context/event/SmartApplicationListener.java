@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -59,4 +59,16 @@ public interface SmartApplicationListener extends ApplicationListener<Applicatio
 		return LOWEST_PRECEDENCE;
 	}
 
+	/**
+	 * Determine how this listener wants to be invoked by the multicaster.
+	 * <p>The default implementation returns {@code null}, applying the
+	 * multicaster's default arrangement.
+	 * @since 5.1.10
+	 * @see SimpleApplicationEventMulticaster#setTaskExecutor
+	 */
+	@Nullable
+	default ListenerExecutionPolicy getExecutionPolicy() {
+		return null;
+	}
+
 }
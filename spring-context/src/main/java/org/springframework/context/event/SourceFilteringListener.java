@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -94,6 +94,12 @@ public class SourceFilteringListener implements GenericApplicationListener, Smar
 		return (this.delegate != null ? this.delegate.getOrder() : Ordered.LOWEST_PRECEDENCE);
 	}
 
+	@Override
+	@Nullable
+	public ListenerExecutionPolicy getExecutionPolicy() {
+		return (this.delegate != null ? this.delegate.getExecutionPolicy() : null);
+	}
+
 
 	/**
 	 * Actually process the event, after having filtered according to the
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,25 @@
 
 package org.springframework.context.expression;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.SpringProperties;
 import org.springframework.expression.Expression;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
@@ -35,9 +48,14 @@ import org.springframework.util.ObjectUtils;
  */
 public abstract class CachedExpressionEvaluator {
 
+	private static final String COMPILER_MODE_PROPERTY_NAME = "spring.expression.compiler.mode";
+
 	private final SpelExpressionParser parser;
 
-	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+	private final ParameterNameDiscoverer parameterNameDiscoverer =
+			new CachingParameterNameDiscoverer(new DefaultParameterNameDiscoverer());
+
+	private final PropertyAccessor propertyAccessor = new ReflectivePropertyAccessor();
 
 
 	/**
@@ -50,9 +68,14 @@ public abstract class CachedExpressionEvaluator {
 
 	/**
 	 * Create a new instance with a default {@link SpelExpressionParser}.
+	 * <p>As of 5.1.10, the default parser compiles frequently evaluated
+	 * expressions ({@link SpelCompilerMode#MIXED}), unless a compiler mode
+	 * has been specified through the "spring.expression.compiler.mode" property.
 	 */
 	protected CachedExpressionEvaluator() {
-		this(new SpelExpressionParser());
+		this(new SpelExpressionParser(new SpelParserConfiguration(
+				SpringProperties.getProperty(COMPILER_MODE_PROPERTY_NAME) != null ? null : SpelCompilerMode.MIXED,
+				null)));
 	}
 
 
@@ -71,10 +94,30 @@ public abstract class CachedExpressionEvaluator {
 		return this.parameterNameDiscoverer;
 	}
 
+	/**
+	 * Apply the shared delegates of this evaluator to the given context:
+	 * the reflective property accessor is thread-safe and keeps its reflection
+	 * caches across evaluations, instead of being re-created (with empty caches)
+	 * for every new evaluation context. The context gets its own list of
+	 * accessors, so further accessors can still be added to it.
+	 * <p>Method resolvers are not shared: the reflective method resolver does
+	 * not cache anything, and method filters registered on a context must
+	 * not leak into other contexts.
+	 * @param evaluationContext the freshly created evaluation context
+	 * @since 5.1.10
+	 */
+	protected void applySharedDelegates(StandardEvaluationContext evaluationContext) {
+		List<PropertyAccessor> accessors = new ArrayList<>(4);
+		accessors.add(this.propertyAccessor);
+		evaluationContext.setPropertyAccessors(accessors);
+	}
+
 
 	/**
 	 * Return the {@link Expression} for the specified SpEL value
-	 * <p>Parse the expression if it hasn't been already.
+	 * <p>Parse the expression if it hasn't been already. As of 5.1.10, parsed
+	 * expressions are kept per element (for stable operand types) but get
+	 * compiled in the background once frequently evaluated in mixed mode.
 	 * @param cache the cache to use
 	 * @param elementKey the element on which the expression is defined
 	 * @param expression the expression to parse
@@ -86,6 +129,7 @@ public abstract class CachedExpressionEvaluator {
 		Expression expr = cache.get(expressionKey);
 		if (expr == null) {
 			expr = getParser().parseExpression(expression);
+			SpelExpressionCache.getSharedInstance().enableBackgroundCompilation(expr);
 			cache.put(expressionKey, expr);
 		}
 		return expr;
@@ -96,6 +140,41 @@ public abstract class CachedExpressionEvaluator {
 	}
 
 
+	/**
+	 * ParameterNameDiscoverer decorator which caches the parameter names per method,
+	 * avoiding repeated reflection or bytecode introspection for every evaluation.
+	 */
+	private static class CachingParameterNameDiscoverer implements ParameterNameDiscoverer {
+
+		private static final String[] NO_NAMES = new String[0];
+
+		private final ParameterNameDiscoverer delegate;
+
+		private final Map<Method, String[]> parameterNamesCache = new ConcurrentHashMap<>(64);
+
+		public CachingParameterNameDiscoverer(ParameterNameDiscoverer delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		@Nullable
+		public String[] getParameterNames(Method method) {
+			String[] names = this.parameterNamesCache.get(method);
+			if (names == null) {
+				names = this.delegate.getParameterNames(method);
+				this.parameterNamesCache.put(method, (names != null ? names : NO_NAMES));
+			}
+			return (names != NO_NAMES ? names : null);
+		}
+
+		@Override
+		@Nullable
+		public String[] getParameterNames(Constructor<?> ctor) {
+			return this.delegate.getParameterNames(ctor);
+		}
+	}
+
+
 	/**
 	 * An expression key.
 	 */
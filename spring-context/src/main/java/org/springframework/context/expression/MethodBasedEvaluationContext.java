@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -49,6 +49,11 @@ public class MethodBasedEvaluationContext extends StandardEvaluationContext {
 
 	private boolean argumentsLoaded = false;
 
+	@Nullable
+	private String[] parameterNames;
+
+	private boolean parameterNamesResolved = false;
+
 
 	public MethodBasedEvaluationContext(Object rootObject, Method method, Object[] arguments,
 			ParameterNameDiscoverer parameterNameDiscoverer) {
@@ -71,40 +76,91 @@ public class MethodBasedEvaluationContext extends StandardEvaluationContext {
 			lazyLoadArguments();
 			this.argumentsLoaded = true;
 			variable = super.lookupVariable(name);
+			if (variable != null) {
+				return variable;
+			}
 		}
-		return variable;
+		return resolveArgument(name);
 	}
 
 	/**
 	 * Load the param information only when needed.
+	 * <p>As of 5.1.10, the default implementation only resolves the parameter
+	 * names: arguments are resolved on access, by position or by name, without
+	 * exposing them as regular variables upfront. Subclasses may still register
+	 * further variables here via {@link #setVariable}, which take precedence.
 	 */
 	protected void lazyLoadArguments() {
-		// Shortcut if no args need to be loaded
+		resolveParameterNames();
+	}
+
+	private void resolveParameterNames() {
+		if (!this.parameterNamesResolved) {
+			this.parameterNames = this.parameterNameDiscoverer.getParameterNames(this.method);
+			this.parameterNamesResolved = true;
+		}
+	}
+
+	/**
+	 * Resolve the argument exposed under the given variable name: pX or aX where X
+	 * is the index of the argument, or the name of the parameter (if discoverable).
+	 * The latest parameter wins in case of a clash between such aliases.
+	 */
+	@Nullable
+	private Object resolveArgument(String name) {
+		// Shortcut if no args need to be resolved
 		if (ObjectUtils.isEmpty(this.arguments)) {
-			return;
+			return null;
 		}
 
-		// Expose indexed variables as well as parameter names (if discoverable)
-		String[] paramNames = this.parameterNameDiscoverer.getParameterNames(this.method);
+		resolveParameterNames();
+		String[] paramNames = this.parameterNames;
 		int paramCount = (paramNames != null ? paramNames.length : this.method.getParameterCount());
+		int index = getArgumentIndex(name);
+		if (index >= paramCount) {
+			index = -1;
+		}
+		if (paramNames != null) {
+			for (int i = paramCount - 1; i > index; i--) {
+				if (name.equals(paramNames[i])) {
+					index = i;
+					break;
+				}
+			}
+		}
+		if (index < 0) {
+			return null;
+		}
+
 		int argsCount = this.arguments.length;
+		if (argsCount > paramCount && index == paramCount - 1) {
+			// Expose remaining arguments as vararg array for last parameter
+			return Arrays.copyOfRange(this.arguments, index, argsCount);
+		}
+		// Actual argument found - otherwise left as null
+		return (argsCount > index ? this.arguments[index] : null);
+	}
 
-		for (int i = 0; i < paramCount; i++) {
-			Object value = null;
-			if (argsCount > paramCount && i == paramCount - 1) {
-				// Expose remaining arguments as vararg array for last parameter
-				value = Arrays.copyOfRange(this.arguments, i, argsCount);
-			}
-			else if (argsCount > i) {
-				// Actual argument found - otherwise left as null
-				value = this.arguments[i];
-			}
-			setVariable("a" + i, value);
-			setVariable("p" + i, value);
-			if (paramNames != null && paramNames[i] != null) {
-				setVariable(paramNames[i], value);
+	/**
+	 * Parse the positional index from an {@code aX} or {@code pX} variable name.
+	 * @param name the variable name
+	 * @return the index, or -1 if the given name is not a positional alias
+	 * @since 5.1.10
+	 */
+	public static int getArgumentIndex(String name) {
+		int length = name.length();
+		if (length < 2 || length > 5 || (name.charAt(0) != 'a' && name.charAt(0) != 'p')) {
+			return -1;
+		}
+		int index = 0;
+		for (int i = 1; i < length; i++) {
+			char c = name.charAt(i);
+			if (c < '0' || c > '9' || (c == '0' && i == 1 && length > 2)) {
+				return -1;
 			}
+			index = index * 10 + (c - '0');
 		}
+		return index;
 	}
 
 }
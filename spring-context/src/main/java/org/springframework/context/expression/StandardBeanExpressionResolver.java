@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParserContext;
 import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.expression.spel.support.StandardTypeConverter;
@@ -64,6 +65,8 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 
 	private final Map<String, Expression> expressionCache = new ConcurrentHashMap<>(256);
 
+	private volatile SpelExpressionCache spelExpressionCache = new SpelExpressionCache(Integer.MAX_VALUE);
+
 	private final Map<BeanExpressionContext, StandardEvaluationContext> evaluationCache = new ConcurrentHashMap<>(8);
 
 	private final ParserContext beanExpressionParserContext = new ParserContext() {
@@ -129,6 +132,25 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 		this.expressionParser = expressionParser;
 	}
 
+	/**
+	 * Specify the maximum number of parsed expressions to keep when parsing
+	 * through a {@link SpelExpressionParser}, evicting the least recently used
+	 * expressions beyond that limit.
+	 * <p>Default is -1, caching every distinct expression string for the lifetime
+	 * of this resolver. Consider a limit if expression strings get assembled
+	 * dynamically, e.g. for prototype beans with varying bean definitions.
+	 * @param expressionCacheLimit the maximum number of expressions to hold,
+	 * or -1 for an unbounded cache
+	 * @since 5.1.10
+	 * @see SpelExpressionCache
+	 */
+	public void setExpressionCacheLimit(int expressionCacheLimit) {
+		Assert.isTrue(expressionCacheLimit > 0 || expressionCacheLimit == -1,
+				"Expression cache limit must be greater than 0 or -1 for an unbounded cache");
+		this.spelExpressionCache = new SpelExpressionCache(
+				expressionCacheLimit != -1 ? expressionCacheLimit : Integer.MAX_VALUE);
+	}
+
 
 	@Override
 	@Nullable
@@ -137,11 +159,7 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 			return value;
 		}
 		try {
-			Expression expr = this.expressionCache.get(value);
-			if (expr == null) {
-				expr = this.expressionParser.parseExpression(value, this.beanExpressionParserContext);
-				this.expressionCache.put(value, expr);
-			}
+			Expression expr = getExpression(value);
 			StandardEvaluationContext sec = this.evaluationCache.get(evalContext);
 			if (sec == null) {
 				sec = new StandardEvaluationContext(evalContext);
@@ -165,6 +183,24 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 		}
 	}
 
+	/**
+	 * Return the parsed expression for the given value: through a
+	 * {@link SpelExpressionCache} for a {@link SpelExpressionParser},
+	 * compiling frequently evaluated expressions in the background in mixed mode.
+	 */
+	private Expression getExpression(String value) {
+		if (this.expressionParser instanceof SpelExpressionParser) {
+			return this.spelExpressionCache.parseExpression(
+					(SpelExpressionParser) this.expressionParser, value, this.beanExpressionParserContext);
+		}
+		Expression expr = this.expressionCache.get(value);
+		if (expr == null) {
+			expr = this.expressionParser.parseExpression(value, this.beanExpressionParserContext);
+			this.expressionCache.put(value, expr);
+		}
+		return expr;
+	}
+
 	/**
 	 * Template method for customizing the expression evaluation context.
 	 * <p>The default implementation is empty.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,7 +20,7 @@ import java.util.Locale;
 import java.util.TimeZone;
 
 import org.springframework.core.NamedInheritableThreadLocal;
-import org.springframework.core.NamedThreadLocal;
+import org.springframework.core.ThreadContextVariable;
 import org.springframework.lang.Nullable;
 
 /**
@@ -35,6 +35,10 @@ import org.springframework.lang.Nullable;
  * Other applications can expose theirs too, to make classes like
  * MessageSourceAccessor automatically use that Locale.
  *
+ * <p>A non-inheritable LocaleContext is part of the current
+ * {@link org.springframework.core.ThreadContext} and gets propagated
+ * along with a captured context snapshot, e.g. to executor threads.
+ *
  * @author Juergen Hoeller
  * @author Nicholas Williams
  * @since 1.2
@@ -44,8 +48,8 @@ import org.springframework.lang.Nullable;
  */
 public final class LocaleContextHolder {
 
-	private static final ThreadLocal<LocaleContext> localeContextHolder =
-			new NamedThreadLocal<>("LocaleContext");
+	private static final ThreadContextVariable<LocaleContext> localeContextHolder =
+			new ThreadContextVariable<>("LocaleContext", true);
 
 	private static final ThreadLocal<LocaleContext> inheritableLocaleContextHolder =
 			new NamedInheritableThreadLocal<>("LocaleContext");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,8 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+import org.springframework.scheduling.config.OverlapPolicy;
+
 /**
  * An annotation that marks a method to be scheduled. Exactly one of
  * the {@link #cron()}, {@link #fixedDelay()}, or {@link #fixedRate()}
@@ -136,4 +138,15 @@ public @interface Scheduled {
 	 */
 	String initialDelayString() default "";
 
+	/**
+	 * What to do when the method gets triggered while a previous invocation is
+	 * still in progress, e.g. on a scheduler with more than one thread or for
+	 * a fixed-rate task which runs longer than its period.
+	 * <p>Default is {@link OverlapPolicy#ALLOW}, executing every trigger.
+	 * @return the policy for overlapping executions
+	 * @since 5.1.10
+	 * @see org.springframework.scheduling.config.ScheduledTask#getMetrics()
+	 */
+	OverlapPolicy overlap() default OverlapPolicy.ALLOW;
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -61,6 +61,10 @@ public abstract class ExecutorConfigurationSupport extends CustomizableThreadFac
 
 	private int awaitTerminationSeconds = 0;
 
+	private boolean taskMetricsEnabled = false;
+
+	private final TaskExecutionMetrics taskMetrics = new TaskExecutionMetrics();
+
 	@Nullable
 	private String beanName;
 
@@ -148,6 +152,37 @@ public abstract class ExecutorConfigurationSupport extends CustomizableThreadFac
 		this.awaitTerminationSeconds = awaitTerminationSeconds;
 	}
 
+	/**
+	 * Specify whether to collect {@link TaskExecutionMetrics} for this executor:
+	 * queue wait time and execution time per task as well as rejection counts.
+	 * <p>Default is "false". Switching this on wraps each submitted task
+	 * for timing purposes and is only supported by executors that
+	 * {@link #instrumentTask instrument} their tasks.
+	 * @since 5.1.10
+	 * @see #getTaskMetrics()
+	 */
+	public void setTaskMetricsEnabled(boolean taskMetricsEnabled) {
+		this.taskMetricsEnabled = taskMetricsEnabled;
+	}
+
+	/**
+	 * Return whether {@link TaskExecutionMetrics} are being collected.
+	 * @since 5.1.10
+	 */
+	public boolean isTaskMetricsEnabled() {
+		return this.taskMetricsEnabled;
+	}
+
+	/**
+	 * Return the {@link TaskExecutionMetrics} collected for this executor
+	 * (remaining empty unless {@link #setTaskMetricsEnabled task metrics}
+	 * are enabled).
+	 * @since 5.1.10
+	 */
+	public TaskExecutionMetrics getTaskMetrics() {
+		return this.taskMetrics;
+	}
+
 	@Override
 	public void setBeanName(String name) {
 		this.beanName = name;
@@ -173,7 +208,11 @@ public abstract class ExecutorConfigurationSupport extends CustomizableThreadFac
 		if (!this.threadNamePrefixSet && this.beanName != null) {
 			setThreadNamePrefix(this.beanName + "-");
 		}
-		this.executor = initializeExecutor(this.threadFactory, this.rejectedExecutionHandler);
+		RejectedExecutionHandler rejectedExecutionHandler = this.rejectedExecutionHandler;
+		if (this.taskMetricsEnabled) {
+			rejectedExecutionHandler = new RejectionCountingHandler(rejectedExecutionHandler, this.taskMetrics);
+		}
+		this.executor = initializeExecutor(this.threadFactory, rejectedExecutionHandler);
 	}
 
 	/**
@@ -229,11 +268,34 @@ public abstract class ExecutorConfigurationSupport extends CustomizableThreadFac
 	 * @see RunnableFuture#cancel(boolean)
 	 */
 	protected void cancelRemainingTask(Runnable task) {
-		if (task instanceof Future) {
-			((Future<?>) task).cancel(true);
+		Runnable taskToCancel = unwrapInstrumentedTask(task);
+		if (taskToCancel instanceof Future) {
+			((Future<?>) taskToCancel).cancel(true);
 		}
 	}
 
+	/**
+	 * Wrap the given task for {@link TaskExecutionMetrics} collection,
+	 * if {@link #setTaskMetricsEnabled enabled}. To be called by subclasses
+	 * right before handing a task to the target executor.
+	 * @param task the task about to be submitted
+	 * @return the task to actually submit (possibly the original task)
+	 * @since 5.1.10
+	 */
+	protected final Runnable instrumentTask(Runnable task) {
+		return (this.taskMetricsEnabled ? new InstrumentedTask(task, this.taskMetrics) : task);
+	}
+
+	/**
+	 * Unwrap a task as {@link #instrumentTask instrumented} for metrics collection.
+	 * @param task the task as submitted to the target executor
+	 * @return the original task
+	 * @since 5.1.10
+	 */
+	protected final Runnable unwrapInstrumentedTask(Runnable task) {
+		return (task instanceof InstrumentedTask ? ((InstrumentedTask) task).delegate : task);
+	}
+
 	/**
 	 * Wait for the executor to terminate, according to the value of the
 	 * {@link #setAwaitTerminationSeconds "awaitTerminationSeconds"} property.
@@ -258,4 +320,60 @@ public abstract class ExecutorConfigurationSupport extends CustomizableThreadFac
 		}
 	}
 
+
+	/**
+	 * Task wrapper recording queue wait time and execution time.
+	 */
+	private static class InstrumentedTask implements Runnable {
+
+		private final Runnable delegate;
+
+		private final TaskExecutionMetrics metrics;
+
+		private final long submitTime = System.nanoTime();
+
+		public InstrumentedTask(Runnable delegate, TaskExecutionMetrics metrics) {
+			this.delegate = delegate;
+			this.metrics = metrics;
+		}
+
+		@Override
+		public void run() {
+			long startTime = System.nanoTime();
+			try {
+				this.delegate.run();
+			}
+			finally {
+				this.metrics.recordExecution(startTime - this.submitTime, System.nanoTime() - startTime);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return this.delegate.toString();
+		}
+	}
+
+
+	/**
+	 * RejectedExecutionHandler decorator counting rejections.
+	 */
+	private static class RejectionCountingHandler implements RejectedExecutionHandler {
+
+		private final RejectedExecutionHandler delegate;
+
+		private final TaskExecutionMetrics metrics;
+
+		public RejectionCountingHandler(RejectedExecutionHandler delegate, TaskExecutionMetrics metrics) {
+			this.delegate = delegate;
+			this.metrics = metrics;
+		}
+
+		@Override
+		public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+			this.metrics.recordRejection();
+			this.delegate.rejectedExecution(task, executor);
+		}
+	}
+
 }
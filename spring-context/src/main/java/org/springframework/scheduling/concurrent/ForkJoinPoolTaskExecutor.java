@@ -0,0 +1,272 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.SchedulingTaskExecutor;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+/**
+ * JavaBean that allows for configuring a work-stealing {@link ForkJoinPool}
+ * in bean style (through its "parallelism" and "asyncMode" properties) and
+ * exposing it as a Spring {@link org.springframework.core.task.TaskExecutor}.
+ * This is an alternative to {@link ThreadPoolTaskExecutor} for many short-lived
+ * tasks, avoiding contention on a single shared queue.
+ *
+ * <p>Worker threads are created according to the common
+ * {@link #setThreadNamePrefix "threadNamePrefix"}, {@link #setThreadPriority
+ * "threadPriority"} and {@link #setDaemon "daemon"} settings, with daemon
+ * threads by default as for a plain ForkJoinPool. A custom
+ * {@link #setThreadFactory ThreadFactory} needs to implement
+ * {@link ForkJoinPool.ForkJoinWorkerThreadFactory} as well. A
+ * {@link #setThreadGroup thread group} is not supported, since worker threads
+ * cannot be assigned to a specific group. Since a ForkJoinPool does not
+ * reject tasks unless shut down,
+ * a configured {@link #setRejectedExecutionHandler RejectedExecutionHandler}
+ * does not apply here.
+ *
+ * @since 5.1.10
+ * @see java.util.concurrent.ForkJoinPool
+ * @see ForkJoinPoolFactoryBean
+ * @see ThreadPoolTaskExecutor
+ */
+@SuppressWarnings("serial")
+public class ForkJoinPoolTaskExecutor extends ExecutorConfigurationSupport
+		implements AsyncListenableTaskExecutor, SchedulingTaskExecutor {
+
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	private boolean asyncMode = true;
+
+	@Nullable
+	private ForkJoinPool forkJoinPool;
+
+
+	/**
+	 * Create a new ForkJoinPoolTaskExecutor with daemon worker threads.
+	 */
+	public ForkJoinPoolTaskExecutor() {
+		setDaemon(true);
+	}
+
+	/**
+	 * Specify the parallelism level. Default is {@link Runtime#availableProcessors()}.
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "'parallelism' must be greater than 0");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Return the parallelism level.
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Specify whether to establish a local first-in-first-out scheduling mode
+	 * for tasks that are never joined. Default is {@code true}, as appropriate
+	 * for event-style tasks submitted through the TaskExecutor interface.
+	 * @see ForkJoinPoolFactoryBean#setAsyncMode
+	 */
+	public void setAsyncMode(boolean asyncMode) {
+		this.asyncMode = asyncMode;
+	}
+
+
+	@Override
+	protected ExecutorService initializeExecutor(
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		Assert.state(getThreadGroup() == null, "ForkJoinPoolTaskExecutor does not support a thread group");
+		ForkJoinPool.ForkJoinWorkerThreadFactory workerThreadFactory;
+		if (threadFactory == this) {
+			workerThreadFactory = this::newWorkerThread;
+		}
+		else if (threadFactory instanceof ForkJoinPool.ForkJoinWorkerThreadFactory) {
+			workerThreadFactory = (ForkJoinPool.ForkJoinWorkerThreadFactory) threadFactory;
+		}
+		else {
+			throw new IllegalStateException("ForkJoinPoolTaskExecutor requires a ThreadFactory " +
+					"which implements ForkJoinWorkerThreadFactory as well: " + threadFactory);
+		}
+		ForkJoinPool pool = new ForkJoinPool(this.parallelism, workerThreadFactory, null, this.asyncMode);
+		this.forkJoinPool = pool;
+		return pool;
+	}
+
+	/**
+	 * Create a new worker thread for the given pool, applying the
+	 * common thread name prefix, priority and daemon settings.
+	 */
+	private ForkJoinWorkerThread newWorkerThread(ForkJoinPool pool) {
+		ForkJoinWorkerThread thread = new NamedWorkerThread(pool);
+		thread.setName(nextThreadName());
+		thread.setPriority(getThreadPriority());
+		thread.setDaemon(isDaemon());
+		return thread;
+	}
+
+	/**
+	 * Return the underlying ForkJoinPool for native access.
+	 * @return the underlying ForkJoinPool (never {@code null})
+	 * @throws IllegalStateException if the ForkJoinPoolTaskExecutor hasn't been initialized yet
+	 */
+	public ForkJoinPool getForkJoinPool() throws IllegalStateException {
+		Assert.state(this.forkJoinPool != null, "ForkJoinPoolTaskExecutor not initialized");
+		return this.forkJoinPool;
+	}
+
+	/**
+	 * Return the current pool size.
+	 * @see java.util.concurrent.ForkJoinPool#getPoolSize()
+	 */
+	public int getPoolSize() {
+		return (this.forkJoinPool != null ? this.forkJoinPool.getPoolSize() : 0);
+	}
+
+	/**
+	 * Return the number of currently active threads.
+	 * @see java.util.concurrent.ForkJoinPool#getActiveThreadCount()
+	 */
+	public int getActiveCount() {
+		return (this.forkJoinPool != null ? this.forkJoinPool.getActiveThreadCount() : 0);
+	}
+
+
+	@Override
+	public void execute(Runnable task) {
+		ForkJoinPool pool = getForkJoinPool();
+		try {
+			pool.execute(instrumentTask(task));
+		}
+		catch (RejectedExecutionException ex) {
+			throw taskRejected(pool, task, ex);
+		}
+	}
+
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		execute(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		return submitFuture(new FutureTask<>(task, null), task);
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		return submitFuture(new FutureTask<>(task), task);
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		return submitFuture(new ListenableFutureTask<>(task, null), task);
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		return submitFuture(new ListenableFutureTask<>(task), task);
+	}
+
+	private <F extends RunnableFuture<?>> F submitFuture(F future, Object task) {
+		ForkJoinPool pool = getForkJoinPool();
+		try {
+			pool.execute(new FutureAdapter(instrumentTask(future), future));
+			return future;
+		}
+		catch (RejectedExecutionException ex) {
+			throw taskRejected(pool, task, ex);
+		}
+	}
+
+	private TaskRejectedException taskRejected(ForkJoinPool pool, Object task, RejectedExecutionException ex) {
+		if (isTaskMetricsEnabled()) {
+			getTaskMetrics().recordRejection();
+		}
+		return new TaskRejectedException("Executor [" + pool + "] did not accept task: " + task, ex);
+	}
+
+
+	/**
+	 * ForkJoinWorkerThread subclass, exposing the protected constructor.
+	 */
+	private static class NamedWorkerThread extends ForkJoinWorkerThread {
+
+		public NamedWorkerThread(ForkJoinPool pool) {
+			super(pool);
+		}
+	}
+
+
+	/**
+	 * ForkJoinTask adapter for a user-level Future, propagating cancellation
+	 * of pending tasks on {@link ForkJoinPool#shutdownNow()} to that Future.
+	 */
+	private static class FutureAdapter extends ForkJoinTask<Void> {
+
+		private final Runnable runnable;
+
+		private final Future<?> future;
+
+		public FutureAdapter(Runnable runnable, Future<?> future) {
+			this.runnable = runnable;
+			this.future = future;
+		}
+
+		@Override
+		@Nullable
+		public Void getRawResult() {
+			return null;
+		}
+
+		@Override
+		protected void setRawResult(@Nullable Void value) {
+		}
+
+		@Override
+		protected boolean exec() {
+			this.runnable.run();
+			return true;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			this.future.cancel(mayInterruptIfRunning);
+			return super.cancel(mayInterruptIfRunning);
+		}
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Task execution statistics collected by an {@link ExecutorConfigurationSupport}
+ * based executor with {@link ExecutorConfigurationSupport#setTaskMetricsEnabled
+ * task metrics} enabled: queue wait time, execution time and rejection counts.
+ *
+ * <p>Counters are updated without locking and may be read at any time,
+ * e.g. for exposure through JMX or a metrics registry.
+ *
+ * @since 5.1.10
+ * @see ExecutorConfigurationSupport#getTaskMetrics()
+ */
+public final class TaskExecutionMetrics {
+
+	private final LongAdder executedCount = new LongAdder();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	private final LongAdder totalQueueWaitNanos = new LongAdder();
+
+	private final LongAccumulator maxQueueWaitNanos = new LongAccumulator(Math::max, 0);
+
+	private final LongAdder totalExecutionNanos = new LongAdder();
+
+	private final LongAccumulator maxExecutionNanos = new LongAccumulator(Math::max, 0);
+
+
+	TaskExecutionMetrics() {
+	}
+
+
+	/**
+	 * Return the number of tasks which completed their execution,
+	 * successfully or with an exception.
+	 */
+	public long getExecutedCount() {
+		return this.executedCount.sum();
+	}
+
+	/**
+	 * Return the number of tasks rejected by the executor.
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount.sum();
+	}
+
+	/**
+	 * Return the accumulated time that executed tasks spent waiting in the queue.
+	 * @param unit the time unit to return the time in
+	 */
+	public long getTotalQueueWaitTime(TimeUnit unit) {
+		return unit.convert(this.totalQueueWaitNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Return the longest time that a single task spent waiting in the queue.
+	 * @param unit the time unit to return the time in
+	 */
+	public long getMaxQueueWaitTime(TimeUnit unit) {
+		return unit.convert(this.maxQueueWaitNanos.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Return the average time that executed tasks spent waiting in the queue.
+	 * @param unit the time unit to return the time in
+	 */
+	public long getAverageQueueWaitTime(TimeUnit unit) {
+		long count = getExecutedCount();
+		return (count > 0 ? unit.convert(this.totalQueueWaitNanos.sum() / count, TimeUnit.NANOSECONDS) : 0);
+	}
+
+	/**
+	 * Return the accumulated execution time of all executed tasks.
+	 * @param unit the time unit to return the time in
+	 */
+	public long getTotalExecutionTime(TimeUnit unit) {
+		return unit.convert(this.totalExecutionNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Return the longest execution time of a single task.
+	 * @param unit the time unit to return the time in
+	 */
+	public long getMaxExecutionTime(TimeUnit unit) {
+		return unit.convert(this.maxExecutionNanos.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Return the average execution time of the executed tasks.
+	 * @param unit the time unit to return the time in
+	 */
+	public long getAverageExecutionTime(TimeUnit unit) {
+		long count = getExecutedCount();
+		return (count > 0 ? unit.convert(this.totalExecutionNanos.sum() / count, TimeUnit.NANOSECONDS) : 0);
+	}
+
+	/**
+	 * Reset all counters, e.g. at the start of a new reporting interval.
+	 */
+	public void reset() {
+		this.executedCount.reset();
+		this.rejectedCount.reset();
+		this.totalQueueWaitNanos.reset();
+		this.maxQueueWaitNanos.reset();
+		this.totalExecutionNanos.reset();
+		this.maxExecutionNanos.reset();
+	}
+
+
+	void recordExecution(long queueWaitNanos, long executionNanos) {
+		this.executedCount.increment();
+		this.totalQueueWaitNanos.add(queueWaitNanos);
+		this.maxQueueWaitNanos.accumulate(queueWaitNanos);
+		this.totalExecutionNanos.add(executionNanos);
+		this.maxExecutionNanos.accumulate(executionNanos);
+	}
+
+	void recordRejection() {
+		this.rejectedCount.increment();
+	}
+
+	@Override
+	public String toString() {
+		return "TaskExecutionMetrics: executed=" + getExecutedCount() + ", rejected=" + getRejectedCount() +
+				", average queue wait=" + getAverageQueueWaitTime(TimeUnit.MICROSECONDS) + "us" +
+				", average execution=" + getAverageExecutionTime(TimeUnit.MICROSECONDS) + "us";
+	}
+
+}
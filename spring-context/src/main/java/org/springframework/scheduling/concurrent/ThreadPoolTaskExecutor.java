@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,20 +16,27 @@
 
 package org.springframework.scheduling.concurrent;
 
+import java.util.Comparator;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.core.Ordered;
 import org.springframework.core.task.AsyncListenableTaskExecutor;
 import org.springframework.core.task.TaskDecorator;
 import org.springframework.core.task.TaskRejectedException;
@@ -58,6 +65,10 @@ import org.springframework.util.concurrent.ListenableFutureTask;
  * {@link #setCorePoolSize "corePoolSize"} (see also the
  * {@link #setAllowCoreThreadTimeOut "allowCoreThreadTimeOut"} mode of scaling).
  *
+ * <p>Alternative {@link #setPoolMode pool modes} grow the pool up to its max pool
+ * size before queueing tasks, or execute queued tasks by priority. For a
+ * work-stealing pool, consider {@link ForkJoinPoolTaskExecutor} instead.
+ *
  * <p><b>NOTE:</b> This class implements Spring's
  * {@link org.springframework.core.task.TaskExecutor} interface as well as the
  * {@link java.util.concurrent.Executor} interface, with the former being the primary
@@ -94,6 +105,8 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 
 	private boolean allowCoreThreadTimeOut = false;
 
+	private PoolMode poolMode = PoolMode.STANDARD;
+
 	@Nullable
 	private TaskDecorator taskDecorator;
 
@@ -197,6 +210,26 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		this.allowCoreThreadTimeOut = allowCoreThreadTimeOut;
 	}
 
+	/**
+	 * Specify the pool mode, i.e. how tasks are queued and threads get added.
+	 * <p>Default is {@link PoolMode#STANDARD}.
+	 * @since 5.1.10
+	 * @see PoolMode#EAGER
+	 * @see PoolMode#PRIORITY
+	 */
+	public void setPoolMode(PoolMode poolMode) {
+		Assert.notNull(poolMode, "PoolMode must not be null");
+		this.poolMode = poolMode;
+	}
+
+	/**
+	 * Return the pool mode.
+	 * @since 5.1.10
+	 */
+	public PoolMode getPoolMode() {
+		return this.poolMode;
+	}
+
 	/**
 	 * Specify a custom {@link TaskDecorator} to be applied to any {@link Runnable}
 	 * about to be executed.
@@ -222,30 +255,21 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 	protected ExecutorService initializeExecutor(
 			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
 
-		BlockingQueue<Runnable> queue = createQueue(this.queueCapacity);
-
-		ThreadPoolExecutor executor;
-		if (this.taskDecorator != null) {
-			executor = new ThreadPoolExecutor(
-					this.corePoolSize, this.maxPoolSize, this.keepAliveSeconds, TimeUnit.SECONDS,
-					queue, threadFactory, rejectedExecutionHandler) {
-				@Override
-				public void execute(Runnable command) {
-					Runnable decorated = taskDecorator.decorate(command);
-					if (decorated != command) {
-						decoratedTaskMap.put(decorated, command);
-					}
-					super.execute(decorated);
-				}
-			};
+		BlockingQueue<Runnable> queue;
+		if (this.poolMode == PoolMode.PRIORITY) {
+			queue = new PriorityBlockingQueue<>(11, PrioritizedTask.COMPARATOR);
+		}
+		else if (this.poolMode == PoolMode.EAGER && this.queueCapacity > 0) {
+			queue = new EagerGrowthQueue(this.queueCapacity);
 		}
 		else {
-			executor = new ThreadPoolExecutor(
-					this.corePoolSize, this.maxPoolSize, this.keepAliveSeconds, TimeUnit.SECONDS,
-					queue, threadFactory, rejectedExecutionHandler);
-
+			queue = createQueue(this.queueCapacity);
 		}
 
+		ThreadPoolExecutor executor = new ConfigurableThreadPoolExecutor(
+				this.corePoolSize, this.maxPoolSize, this.keepAliveSeconds, queue, threadFactory,
+				rejectedExecutionHandler);
+
 		if (this.allowCoreThreadTimeOut) {
 			executor.allowCoreThreadTimeOut(true);
 		}
@@ -349,7 +373,9 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 	public ListenableFuture<?> submitListenable(Runnable task) {
 		ExecutorService executor = getThreadPoolExecutor();
 		try {
-			ListenableFutureTask<Object> future = new ListenableFutureTask<>(task, null);
+			ListenableFutureTask<Object> future = (this.poolMode == PoolMode.PRIORITY ?
+					new OrderedListenableFutureTask<>(task, null, PrioritizedTask.getOrder(task)) :
+					new ListenableFutureTask<>(task, null));
 			executor.execute(future);
 			return future;
 		}
@@ -362,7 +388,9 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
 		ExecutorService executor = getThreadPoolExecutor();
 		try {
-			ListenableFutureTask<T> future = new ListenableFutureTask<>(task);
+			ListenableFutureTask<T> future = (this.poolMode == PoolMode.PRIORITY ?
+					new OrderedListenableFutureTask<>(task, PrioritizedTask.getOrder(task)) :
+					new ListenableFutureTask<>(task));
 			executor.execute(future);
 			return future;
 		}
@@ -373,12 +401,233 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 
 	@Override
 	protected void cancelRemainingTask(Runnable task) {
-		super.cancelRemainingTask(task);
+		Runnable taskToCancel = unwrapInstrumentedTask(
+				task instanceof PrioritizedTask ? ((PrioritizedTask) task).delegate : task);
+		super.cancelRemainingTask(taskToCancel);
 		// Cancel associated user-level Future handle as well
-		Object original = this.decoratedTaskMap.get(task);
+		Object original = this.decoratedTaskMap.get(taskToCancel);
 		if (original instanceof Future) {
 			((Future<?>) original).cancel(true);
 		}
 	}
 
+
+	/**
+	 * Enumeration of the supported pool modes.
+	 * @since 5.1.10
+	 */
+	public enum PoolMode {
+
+		/**
+		 * The standard {@link ThreadPoolExecutor} arrangement: threads beyond the
+		 * core pool size only get added once the queue is full.
+		 */
+		STANDARD,
+
+		/**
+		 * Add threads up to the max pool size before queueing tasks, as long as
+		 * no idle thread is available; queue tasks once the max pool size is reached.
+		 */
+		EAGER,
+
+		/**
+		 * Execute queued tasks by priority, as indicated through the
+		 * {@link Ordered} interface on the submitted {@code Runnable} or
+		 * {@code Callable}: lower values first, tasks of equal priority in
+		 * submission order. Tasks without priority are treated as
+		 * {@link Ordered#LOWEST_PRECEDENCE}. The queue is unbounded in this mode.
+		 */
+		PRIORITY
+	}
+
+
+	/**
+	 * ThreadPoolExecutor applying task decoration, metrics instrumentation
+	 * and the specific queueing arrangements of the configured pool mode.
+	 */
+	private class ConfigurableThreadPoolExecutor extends ThreadPoolExecutor {
+
+		private final AtomicInteger submittedCount = new AtomicInteger();
+
+		private final AtomicLong sequence = new AtomicLong();
+
+		public ConfigurableThreadPoolExecutor(int corePoolSize, int maxPoolSize, int keepAliveSeconds,
+				BlockingQueue<Runnable> queue, ThreadFactory threadFactory,
+				RejectedExecutionHandler rejectedExecutionHandler) {
+
+			super(corePoolSize, maxPoolSize, keepAliveSeconds, TimeUnit.SECONDS, queue, threadFactory,
+					rejectedExecutionHandler);
+			if (queue instanceof EagerGrowthQueue) {
+				((EagerGrowthQueue) queue).executor = this;
+				setRejectedExecutionHandler((task, executor) -> {
+					// Max pool size reached in the meantime -> queue the task after all
+					if (isShutdown() || !((EagerGrowthQueue) queue).forceOffer(task)) {
+						this.submittedCount.decrementAndGet();
+						rejectedExecutionHandler.rejectedExecution(task, executor);
+					}
+				});
+			}
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			int order = (poolMode == PoolMode.PRIORITY ? PrioritizedTask.getOrder(command) : 0);
+			Runnable taskToUse = command;
+			if (taskDecorator != null) {
+				taskToUse = taskDecorator.decorate(command);
+				if (taskToUse != command) {
+					decoratedTaskMap.put(taskToUse, command);
+				}
+			}
+			taskToUse = instrumentTask(taskToUse);
+			if (poolMode == PoolMode.PRIORITY) {
+				taskToUse = new PrioritizedTask(taskToUse, order, this.sequence.getAndIncrement());
+			}
+			else if (poolMode == PoolMode.EAGER) {
+				this.submittedCount.incrementAndGet();
+			}
+			super.execute(taskToUse);
+		}
+
+		@Override
+		protected void afterExecute(Runnable task, @Nullable Throwable ex) {
+			if (poolMode == PoolMode.EAGER) {
+				this.submittedCount.decrementAndGet();
+			}
+		}
+
+		@Override
+		protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+			return (poolMode == PoolMode.PRIORITY ?
+					new OrderedFutureTask<>(runnable, value, PrioritizedTask.getOrder(runnable)) :
+					super.newTaskFor(runnable, value));
+		}
+
+		@Override
+		protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+			return (poolMode == PoolMode.PRIORITY ?
+					new OrderedFutureTask<>(callable, PrioritizedTask.getOrder(callable)) :
+					super.newTaskFor(callable));
+		}
+	}
+
+
+	/**
+	 * Queue which rejects offered tasks as long as the pool may still grow and
+	 * no idle thread is available, making the ThreadPoolExecutor add a thread.
+	 */
+	private static class EagerGrowthQueue extends LinkedBlockingQueue<Runnable> {
+
+		@Nullable
+		volatile ConfigurableThreadPoolExecutor executor;
+
+		public EagerGrowthQueue(int capacity) {
+			super(capacity);
+		}
+
+		@Override
+		public boolean offer(Runnable task) {
+			ConfigurableThreadPoolExecutor executor = this.executor;
+			if (executor != null) {
+				int poolSize = executor.getPoolSize();
+				if (executor.submittedCount.get() > poolSize && poolSize < executor.getMaximumPoolSize()) {
+					return false;
+				}
+			}
+			return super.offer(task);
+		}
+
+		public boolean forceOffer(Runnable task) {
+			return super.offer(task);
+		}
+	}
+
+
+	/**
+	 * Queue entry for the priority pool mode.
+	 */
+	private static class PrioritizedTask implements Runnable {
+
+		static final Comparator<Runnable> COMPARATOR = (task1, task2) -> {
+			PrioritizedTask prioritized1 = (PrioritizedTask) task1;
+			PrioritizedTask prioritized2 = (PrioritizedTask) task2;
+			int result = Integer.compare(prioritized1.order, prioritized2.order);
+			return (result != 0 ? result : Long.compare(prioritized1.sequence, prioritized2.sequence));
+		};
+
+		private final Runnable delegate;
+
+		private final int order;
+
+		private final long sequence;
+
+		public PrioritizedTask(Runnable delegate, int order, long sequence) {
+			this.delegate = delegate;
+			this.order = order;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public void run() {
+			this.delegate.run();
+		}
+
+		@Override
+		public String toString() {
+			return this.delegate.toString();
+		}
+
+		static int getOrder(Object task) {
+			return (task instanceof Ordered ? ((Ordered) task).getOrder() : Ordered.LOWEST_PRECEDENCE);
+		}
+	}
+
+
+	/**
+	 * FutureTask exposing the priority of the submitted task.
+	 */
+	private static class OrderedFutureTask<T> extends FutureTask<T> implements Ordered {
+
+		private final int order;
+
+		public OrderedFutureTask(Runnable runnable, @Nullable T value, int order) {
+			super(runnable, value);
+			this.order = order;
+		}
+
+		public OrderedFutureTask(Callable<T> callable, int order) {
+			super(callable);
+			this.order = order;
+		}
+
+		@Override
+		public int getOrder() {
+			return this.order;
+		}
+	}
+
+
+	/**
+	 * ListenableFutureTask exposing the priority of the submitted task.
+	 */
+	private static class OrderedListenableFutureTask<T> extends ListenableFutureTask<T> implements Ordered {
+
+		private final int order;
+
+		public OrderedListenableFutureTask(Runnable runnable, @Nullable T value, int order) {
+			super(runnable, value);
+			this.order = order;
+		}
+
+		public OrderedListenableFutureTask(Callable<T> callable, int order) {
+			super(callable);
+			this.order = order;
+		}
+
+		@Override
+		public int getOrder() {
+			return this.order;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -381,7 +381,7 @@ public class ThreadPoolTaskScheduler extends ExecutorConfigurationSupport
 	}
 
 
-	private static class DelegatingErrorHandlingCallable<V> implements Callable<V> {
+	static class DelegatingErrorHandlingCallable<V> implements Callable<V> {
 
 		private final Callable<V> delegate;
 
@@ -0,0 +1,671 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.SchedulingTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+/**
+ * Implementation of Spring's {@link TaskScheduler} interface based on a
+ * hierarchical timing wheel, designed for very large numbers of scheduled
+ * tasks such as per-session timeouts.
+ *
+ * <p>In contrast to {@link ThreadPoolTaskScheduler}, scheduling and cancelling
+ * a task are constant-time operations which do not contend on a shared heap:
+ * new and cancelled tasks get handed to a single timer thread through lock-free
+ * queues, and the timer thread processes them in batches once per tick before
+ * passing expired tasks to a pool of worker threads. The price is precision:
+ * tasks fire on the first tick at or after their scheduled time, so the
+ * {@link #setTickDuration tick duration} determines the timing resolution.
+ *
+ * <p>Trigger-based tasks (e.g. with a
+ * {@link org.springframework.scheduling.support.CronTrigger}) are supported,
+ * so this scheduler can serve as the
+ * {@link org.springframework.scheduling.config.ScheduledTaskRegistrar}'s
+ * TaskScheduler as well. Pending tasks get cancelled on shutdown.
+ *
+ * @since 5.1.10
+ * @see #setTickDuration
+ * @see #setTicksPerWheel
+ * @see #setPoolSize
+ * @see ThreadPoolTaskScheduler
+ */
+@SuppressWarnings("serial")
+public class TimingWheelTaskScheduler extends ExecutorConfigurationSupport
+		implements AsyncListenableTaskExecutor, SchedulingTaskExecutor, TaskScheduler {
+
+	private long tickDuration = 10;
+
+	private int ticksPerWheel = 512;
+
+	private int poolSize = 1;
+
+	@Nullable
+	private volatile ErrorHandler errorHandler;
+
+	@Nullable
+	private ThreadPoolExecutor workerExecutor;
+
+	@Nullable
+	private TimingWheel timingWheel;
+
+
+	/**
+	 * Set the duration of a single tick in milliseconds, i.e. the timing resolution.
+	 * Default is 10.
+	 */
+	public void setTickDuration(long tickDuration) {
+		Assert.isTrue(tickDuration > 0, "'tickDuration' must be greater than 0");
+		this.tickDuration = tickDuration;
+	}
+
+	/**
+	 * Set the number of ticks per wheel level, rounded up to a power of two.
+	 * Default is 512.
+	 * <p>Each level covers this many ticks of the level below, so larger values
+	 * mean fewer levels to cascade tasks through at the expense of some memory.
+	 */
+	public void setTicksPerWheel(int ticksPerWheel) {
+		Assert.isTrue(ticksPerWheel > 1 && ticksPerWheel <= (1 << 16),
+				"'ticksPerWheel' must be between 2 and 65536");
+		this.ticksPerWheel = ticksPerWheel;
+	}
+
+	/**
+	 * Set the number of worker threads executing expired tasks.
+	 * Default is 1.
+	 */
+	public void setPoolSize(int poolSize) {
+		Assert.isTrue(poolSize > 0, "'poolSize' must be 1 or higher");
+		this.poolSize = poolSize;
+	}
+
+	/**
+	 * Set a custom {@link ErrorHandler} strategy.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+
+	@Override
+	protected ExecutorService initializeExecutor(
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(this.poolSize, this.poolSize, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), threadFactory, rejectedExecutionHandler);
+		TimingWheel wheel = new TimingWheel(TimeUnit.MILLISECONDS.toNanos(this.tickDuration), this.ticksPerWheel);
+		Thread timerThread = threadFactory.newThread(wheel);
+		this.workerExecutor = executor;
+		this.timingWheel = wheel;
+		wheel.start(timerThread);
+		return executor;
+	}
+
+	/**
+	 * Stop the timer thread, cancelling all pending tasks,
+	 * and shut down the worker threads.
+	 */
+	@Override
+	public void shutdown() {
+		if (this.timingWheel != null) {
+			this.timingWheel.stop();
+		}
+		super.shutdown();
+	}
+
+	/**
+	 * Return the underlying ThreadPoolExecutor for executing expired tasks.
+	 * @throws IllegalStateException if the TimingWheelTaskScheduler hasn't been initialized yet
+	 */
+	public ThreadPoolExecutor getWorkerExecutor() throws IllegalStateException {
+		Assert.state(this.workerExecutor != null, "TimingWheelTaskScheduler not initialized");
+		return this.workerExecutor;
+	}
+
+	private TimingWheel getTimingWheel() {
+		Assert.state(this.timingWheel != null, "TimingWheelTaskScheduler not initialized");
+		return this.timingWheel;
+	}
+
+	/**
+	 * Return the number of worker threads.
+	 * @see java.util.concurrent.ThreadPoolExecutor#getPoolSize()
+	 */
+	public int getPoolSize() {
+		if (this.workerExecutor == null) {
+			// Not initialized yet: assume initial pool size.
+			return this.poolSize;
+		}
+		return this.workerExecutor.getPoolSize();
+	}
+
+	/**
+	 * Return the number of currently active worker threads.
+	 * @see java.util.concurrent.ThreadPoolExecutor#getActiveCount()
+	 */
+	public int getActiveCount() {
+		if (this.workerExecutor == null) {
+			// Not initialized yet: assume no active threads.
+			return 0;
+		}
+		return this.workerExecutor.getActiveCount();
+	}
+
+
+	// SchedulingTaskExecutor implementation
+
+	@Override
+	public void execute(Runnable task) {
+		ExecutorService executor = getWorkerExecutor();
+		try {
+			executor.execute(instrumentTask(errorHandlingTask(task, false)));
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
+		}
+	}
+
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		execute(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		return submitFuture(new FutureTask<>(errorHandlingTask(task, false), null), task);
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		return submitFuture(new FutureTask<>(errorHandlingTask(task)), task);
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		return submitFuture(new ListenableFutureTask<>(errorHandlingTask(task, false), null), task);
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		return submitFuture(new ListenableFutureTask<>(errorHandlingTask(task)), task);
+	}
+
+	private <F extends FutureTask<?>> F submitFuture(F future, Object task) {
+		ExecutorService executor = getWorkerExecutor();
+		try {
+			executor.execute(instrumentTask(future));
+			return future;
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
+		}
+	}
+
+
+	// TaskScheduler implementation
+
+	@Override
+	@Nullable
+	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		ErrorHandler errorHandler = this.errorHandler;
+		if (errorHandler == null) {
+			errorHandler = TaskUtils.getDefaultErrorHandler(true);
+		}
+		TriggerTimeout timeout = new TriggerTimeout(
+				TaskUtils.decorateTaskWithErrorHandler(task, errorHandler, true), trigger);
+		return (timeout.scheduleNext() ? schedule(timeout, task) : null);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+		return schedule(new WheelTimeout(errorHandlingTask(task, false), toDeadline(startTime), 0), task);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		Assert.isTrue(period > 0, "'period' must be greater than 0");
+		return schedule(new WheelTimeout(errorHandlingTask(task, true), toDeadline(startTime),
+				TimeUnit.MILLISECONDS.toNanos(period)), task);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+		return scheduleAtFixedRate(task, new Date(), period);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		Assert.isTrue(delay > 0, "'delay' must be greater than 0");
+		return schedule(new WheelTimeout(errorHandlingTask(task, true), toDeadline(startTime),
+				-TimeUnit.MILLISECONDS.toNanos(delay)), task);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+		return scheduleWithFixedDelay(task, new Date(), delay);
+	}
+
+	private ScheduledFuture<?> schedule(WheelTimeout timeout, Runnable task) {
+		TimingWheel wheel = getTimingWheel();
+		if (!wheel.add(timeout)) {
+			throw new TaskRejectedException("TimingWheelTaskScheduler has been shut down - did not accept task: " + task);
+		}
+		return timeout;
+	}
+
+	private Runnable errorHandlingTask(Runnable task, boolean isRepeatingTask) {
+		return TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, isRepeatingTask);
+	}
+
+	private <T> Callable<T> errorHandlingTask(Callable<T> task) {
+		ErrorHandler errorHandler = this.errorHandler;
+		return (errorHandler != null ?
+				new ThreadPoolTaskScheduler.DelegatingErrorHandlingCallable<>(task, errorHandler) : task);
+	}
+
+	private static long toDeadline(Date time) {
+		return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(time.getTime() - System.currentTimeMillis());
+	}
+
+
+	/**
+	 * Hierarchical timing wheel, driven by a single timer thread.
+	 * <p>Level 0 has one bucket per tick; each bucket of level n covers a full
+	 * rotation of level n-1. Whenever a lower level completes a rotation, the
+	 * next bucket of the level above gets cascaded down. Apart from the
+	 * lock-free hand-off queues, all state is confined to the timer thread.
+	 */
+	private class TimingWheel implements Runnable {
+
+		private final long tickNanos;
+
+		private final int bits;
+
+		private final long mask;
+
+		private final Bucket[][] levels;
+
+		private final Queue<WheelTimeout> newTimeouts = new ConcurrentLinkedQueue<>();
+
+		private final Queue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+		private volatile boolean running = true;
+
+		@Nullable
+		private volatile Thread timerThread;
+
+		private long startTime;
+
+		private long currentTick;
+
+		public TimingWheel(long tickNanos, int ticksPerWheel) {
+			this.tickNanos = tickNanos;
+			this.bits = 32 - Integer.numberOfLeadingZeros(ticksPerWheel - 1);
+			this.mask = (1L << this.bits) - 1;
+			// Enough levels to cover any positive tick number
+			this.levels = new Bucket[(63 + this.bits - 1) / this.bits][1 << this.bits];
+			for (Bucket[] level : this.levels) {
+				for (int i = 0; i < level.length; i++) {
+					level[i] = new Bucket();
+				}
+			}
+		}
+
+		public void start(Thread timerThread) {
+			this.startTime = System.nanoTime();
+			this.timerThread = timerThread;
+			timerThread.start();
+		}
+
+		public void stop() {
+			this.running = false;
+			Thread timerThread = this.timerThread;
+			if (timerThread != null) {
+				LockSupport.unpark(timerThread);
+			}
+		}
+
+		public boolean add(WheelTimeout timeout) {
+			if (!this.running) {
+				return false;
+			}
+			if (timeout.deadline - System.nanoTime() <= 0) {
+				// Already due: no need to wait for the next tick
+				dispatch(timeout);
+			}
+			else {
+				this.newTimeouts.add(timeout);
+			}
+			return true;
+		}
+
+		public void cancelled(WheelTimeout timeout) {
+			if (this.running) {
+				this.cancelledTimeouts.add(timeout);
+			}
+		}
+
+		@Override
+		public void run() {
+			while (this.running) {
+				long nextTickTime = this.startTime + (this.currentTick + 1) * this.tickNanos;
+				long sleepTime = nextTickTime - System.nanoTime();
+				if (sleepTime > 0) {
+					LockSupport.parkNanos(this, sleepTime);
+					continue;
+				}
+				processNewTimeouts();
+				processCancelledTimeouts();
+				long targetTick = (System.nanoTime() - this.startTime) / this.tickNanos;
+				while (this.currentTick < targetTick) {
+					advance(++this.currentTick);
+				}
+			}
+			cancelAll();
+		}
+
+		private void processNewTimeouts() {
+			WheelTimeout timeout;
+			while ((timeout = this.newTimeouts.poll()) != null) {
+				if (!timeout.isCancelled()) {
+					long deadline = timeout.deadline - this.startTime;
+					timeout.deadlineTick = (deadline > 0 ? (deadline + this.tickNanos - 1) / this.tickNanos : 0);
+					place(timeout);
+				}
+			}
+		}
+
+		private void processCancelledTimeouts() {
+			WheelTimeout timeout;
+			while ((timeout = this.cancelledTimeouts.poll()) != null) {
+				if (timeout.bucket != null) {
+					timeout.bucket.remove(timeout);
+				}
+			}
+		}
+
+		private void place(WheelTimeout timeout) {
+			long delta = timeout.deadlineTick - this.currentTick;
+			if (delta <= 0) {
+				dispatch(timeout);
+				return;
+			}
+			int level = 0;
+			while (level < this.levels.length - 1 && (delta >>> ((level + 1) * this.bits)) != 0) {
+				level++;
+			}
+			int index = (int) ((timeout.deadlineTick >>> (level * this.bits)) & this.mask);
+			this.levels[level][index].add(timeout);
+		}
+
+		private void advance(long tick) {
+			// Cascade buckets of upper levels whose time span starts with this tick
+			int topLevel = 0;
+			while (topLevel < this.levels.length - 1 &&
+					(tick & ((1L << ((topLevel + 1) * this.bits)) - 1)) == 0) {
+				topLevel++;
+			}
+			for (int level = topLevel; level > 0; level--) {
+				WheelTimeout timeout = this.levels[level][(int) ((tick >>> (level * this.bits)) & this.mask)].clear();
+				while (timeout != null) {
+					WheelTimeout next = timeout.next;
+					timeout.next = null;
+					place(timeout);
+					timeout = next;
+				}
+			}
+			WheelTimeout timeout = this.levels[0][(int) (tick & this.mask)].clear();
+			while (timeout != null) {
+				WheelTimeout next = timeout.next;
+				timeout.next = null;
+				dispatch(timeout);
+				timeout = next;
+			}
+		}
+
+		private void dispatch(WheelTimeout timeout) {
+			if (timeout.isCancelled()) {
+				return;
+			}
+			try {
+				getWorkerExecutor().execute(instrumentTask(timeout));
+			}
+			catch (RejectedExecutionException ex) {
+				timeout.cancel(false);
+			}
+		}
+
+		private void cancelAll() {
+			for (Bucket[] level : this.levels) {
+				for (Bucket bucket : level) {
+					WheelTimeout timeout = bucket.clear();
+					while (timeout != null) {
+						timeout.cancel(false);
+						timeout = timeout.next;
+					}
+				}
+			}
+			WheelTimeout timeout;
+			while ((timeout = this.newTimeouts.poll()) != null) {
+				timeout.cancel(false);
+			}
+			this.cancelledTimeouts.clear();
+		}
+	}
+
+
+	/**
+	 * Doubly-linked list of the timeouts in a wheel slot.
+	 */
+	private static class Bucket {
+
+		@Nullable
+		private WheelTimeout head;
+
+		public void add(WheelTimeout timeout) {
+			timeout.bucket = this;
+			timeout.prev = null;
+			timeout.next = this.head;
+			if (this.head != null) {
+				this.head.prev = timeout;
+			}
+			this.head = timeout;
+		}
+
+		public void remove(WheelTimeout timeout) {
+			if (timeout.prev != null) {
+				timeout.prev.next = timeout.next;
+			}
+			else {
+				this.head = timeout.next;
+			}
+			if (timeout.next != null) {
+				timeout.next.prev = timeout.prev;
+			}
+			timeout.bucket = null;
+			timeout.prev = null;
+			timeout.next = null;
+		}
+
+		/**
+		 * Detach all timeouts, returning the first one in the chain.
+		 */
+		@Nullable
+		public WheelTimeout clear() {
+			WheelTimeout head = this.head;
+			for (WheelTimeout timeout = head; timeout != null; timeout = timeout.next) {
+				timeout.bucket = null;
+				timeout.prev = null;
+			}
+			this.head = null;
+			return head;
+		}
+	}
+
+
+	/**
+	 * A task scheduled in the timing wheel, serving as its own ScheduledFuture.
+	 * Periodic timeouts get put back into the wheel after each execution.
+	 */
+	private class WheelTimeout extends FutureTask<Object> implements ScheduledFuture<Object> {
+
+		// Positive for fixed-rate execution, negative for fixed-delay execution
+		private final long period;
+
+		volatile long deadline;
+
+		// Wheel state, confined to the timer thread
+		long deadlineTick;
+
+		@Nullable
+		Bucket bucket;
+
+		@Nullable
+		WheelTimeout prev;
+
+		@Nullable
+		WheelTimeout next;
+
+		public WheelTimeout(Runnable task, long deadline, long period) {
+			super(task, null);
+			this.deadline = deadline;
+			this.period = period;
+		}
+
+		protected boolean isPeriodic() {
+			return (this.period != 0);
+		}
+
+		@Override
+		public void run() {
+			if (!isPeriodic()) {
+				super.run();
+			}
+			else if (runAndReset()) {
+				this.deadline = (this.period > 0 ? this.deadline + this.period : System.nanoTime() - this.period);
+				reschedule();
+			}
+		}
+
+		protected void reschedule() {
+			if (!getTimingWheel().add(this)) {
+				cancel(false);
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				getTimingWheel().cancelled(this);
+			}
+			return cancelled;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return (diff == 0 ? 0 : ((diff < 0) ? -1 : 1));
+		}
+	}
+
+
+	/**
+	 * Timeout rescheduled according to the next execution time of a Trigger.
+	 * Executions never overlap, so the trigger context needs no synchronization.
+	 */
+	private class TriggerTimeout extends WheelTimeout {
+
+		private final Trigger trigger;
+
+		private final SimpleTriggerContext triggerContext = new SimpleTriggerContext();
+
+		@Nullable
+		private Date scheduledExecutionTime;
+
+		public TriggerTimeout(Runnable task, Trigger trigger) {
+			super(task, 0, 0);
+			this.trigger = trigger;
+		}
+
+		@Override
+		protected boolean isPeriodic() {
+			return true;
+		}
+
+		boolean scheduleNext() {
+			this.scheduledExecutionTime = this.trigger.nextExecutionTime(this.triggerContext);
+			if (this.scheduledExecutionTime == null) {
+				return false;
+			}
+			this.deadline = toDeadline(this.scheduledExecutionTime);
+			return true;
+		}
+
+		@Override
+		public void run() {
+			Date actualExecutionTime = new Date();
+			if (runAndReset()) {
+				Assert.state(this.scheduledExecutionTime != null, "No scheduled execution");
+				this.triggerContext.update(this.scheduledExecutionTime, actualExecutionTime, new Date());
+				if (scheduleNext()) {
+					reschedule();
+				}
+				else {
+					set(null);
+				}
+			}
+		}
+	}
+
+}
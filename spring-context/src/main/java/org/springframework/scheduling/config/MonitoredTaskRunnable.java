@@ -0,0 +1,178 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.scheduling.Trigger;
+
+/**
+ * Internal Runnable decorator for scheduled tasks, collecting
+ * {@link ScheduledTaskMetrics} and applying the task's {@link OverlapPolicy}.
+ *
+ * <p>Keeps track of the intended time of the next execution in order to
+ * measure start delays: derived from the trigger for trigger-based tasks,
+ * from the initial start time plus n times the period for fixed-rate tasks,
+ * and from the last completion time for fixed-delay tasks.
+ *
+ * @since 5.1.10
+ * @see ScheduledTaskRegistrar
+ */
+class MonitoredTaskRunnable implements Runnable {
+
+	private final Runnable delegate;
+
+	private final OverlapPolicy overlapPolicy;
+
+	private final ScheduledTaskMetrics metrics;
+
+	private final long fixedRate;
+
+	private final long fixedDelay;
+
+	private final AtomicInteger activeCount = new AtomicInteger();
+
+	private volatile boolean pending;
+
+	private volatile long intendedTime;
+
+	private volatile long lastCompletionTime;
+
+
+	/**
+	 * Create a decorator for a trigger-based task.
+	 * @see #monitor(Trigger)
+	 */
+	public MonitoredTaskRunnable(ScheduledTask scheduledTask) {
+		this(scheduledTask, 0, 0, 0);
+	}
+
+	/**
+	 * Create a decorator for a fixed-rate or fixed-delay task.
+	 * @param fixedRate the period for a fixed-rate task, or 0
+	 * @param fixedDelay the delay for a fixed-delay task, or 0
+	 * @param startTime the time of the first execution
+	 */
+	public MonitoredTaskRunnable(ScheduledTask scheduledTask, long fixedRate, long fixedDelay, long startTime) {
+		this.delegate = scheduledTask.getTask().getRunnable();
+		this.overlapPolicy = scheduledTask.getTask().getOverlapPolicy();
+		this.metrics = scheduledTask.getMetrics();
+		this.fixedRate = fixedRate;
+		this.fixedDelay = fixedDelay;
+		this.intendedTime = startTime;
+	}
+
+
+	/**
+	 * Decorate the given trigger, capturing the next execution times.
+	 */
+	public Trigger monitor(Trigger trigger) {
+		return triggerContext -> {
+			Date nextExecutionTime = trigger.nextExecutionTime(triggerContext);
+			if (nextExecutionTime != null) {
+				this.intendedTime = nextExecutionTime.getTime();
+			}
+			return nextExecutionTime;
+		};
+	}
+
+	@Override
+	public void run() {
+		long intendedTime = this.intendedTime;
+		if (this.fixedRate > 0) {
+			this.intendedTime = intendedTime + this.fixedRate;
+		}
+		// A fixed-rate execution which became due while the previous execution was in progress
+		boolean overdue = (this.fixedRate > 0 && intendedTime < this.lastCompletionTime);
+
+		switch (this.overlapPolicy) {
+			case SKIP:
+				if (overdue || !this.activeCount.compareAndSet(0, 1)) {
+					this.metrics.recordOverlap(true);
+					return;
+				}
+				try {
+					execute(intendedTime);
+				}
+				finally {
+					this.activeCount.set(0);
+				}
+				break;
+
+			case COALESCE:
+				if (overdue && this.intendedTime <= System.currentTimeMillis()) {
+					// Another overdue execution follows right away: coalesce into that one
+					this.metrics.recordOverlap(true);
+					return;
+				}
+				boolean executed = false;
+				this.pending = true;
+				while (this.pending && this.activeCount.compareAndSet(0, 1)) {
+					try {
+						this.pending = false;
+						execute(executed ? 0 : intendedTime);
+						executed = true;
+					}
+					finally {
+						this.activeCount.set(0);
+					}
+				}
+				if (!executed || overdue) {
+					// Coalesced into the execution in progress, or catching up after an overlap
+					this.metrics.recordOverlap(!executed);
+				}
+				break;
+
+			default:
+				if (this.activeCount.incrementAndGet() > 1 || overdue) {
+					this.metrics.recordOverlap(false);
+				}
+				try {
+					execute(intendedTime);
+				}
+				finally {
+					this.activeCount.decrementAndGet();
+				}
+		}
+	}
+
+	private void execute(long intendedTime) {
+		long startTime = System.currentTimeMillis();
+		long startNanos = System.nanoTime();
+		this.metrics.recordStart(startTime, intendedTime);
+		try {
+			this.delegate.run();
+		}
+		finally {
+			long completionTime = System.currentTimeMillis();
+			this.lastCompletionTime = completionTime;
+			if (this.fixedDelay > 0) {
+				this.intendedTime = completionTime + this.fixedDelay;
+			}
+			this.metrics.recordCompletion(completionTime,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.delegate.toString();
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+/**
+ * Enumeration of the policies for a scheduled {@link Task} that gets
+ * triggered while a previous execution of it is still in progress.
+ *
+ * <p>Such overlaps occur when a task runs longer than its period: with
+ * a fixed-rate task, executions missed in the meantime pile up and run
+ * back-to-back; with a scheduler that does not serialize executions
+ * of the same task, they run concurrently.
+ *
+ * @since 5.1.10
+ * @see Task#setOverlapPolicy
+ * @see ScheduledTaskMetrics#getOverlapCount()
+ */
+public enum OverlapPolicy {
+
+	/**
+	 * Run every triggered execution (the default).
+	 */
+	ALLOW,
+
+	/**
+	 * Skip executions triggered while a previous execution was in progress.
+	 */
+	SKIP,
+
+	/**
+	 * Collapse all executions triggered while a previous execution was in
+	 * progress into a single execution after the previous one completed.
+	 */
+	COALESCE
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+import java.util.Date;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Execution statistics of a {@link ScheduledTask}: run durations, the start
+ * delay relative to the intended execution time (e.g. due to a saturated
+ * scheduler pool), as well as overlapping and skipped executions.
+ *
+ * <p>All times are in milliseconds. Counters are updated without locking
+ * and may be read at any time, e.g. for exposure through JMX or a metrics registry.
+ *
+ * @since 5.1.10
+ * @see ScheduledTask#getMetrics()
+ * @see OverlapPolicy
+ */
+public final class ScheduledTaskMetrics {
+
+	private final LongAdder executionCount = new LongAdder();
+
+	private final LongAdder skippedCount = new LongAdder();
+
+	private final LongAdder overlapCount = new LongAdder();
+
+	private final LongAdder totalDuration = new LongAdder();
+
+	private final LongAccumulator maxDuration = new LongAccumulator(Math::max, 0);
+
+	private final LongAdder delayedCount = new LongAdder();
+
+	private final LongAdder totalStartDelay = new LongAdder();
+
+	private final LongAccumulator maxStartDelay = new LongAccumulator(Math::max, 0);
+
+	private volatile long lastStartTime;
+
+	private volatile long lastCompletionTime;
+
+	private volatile long lastDuration;
+
+	private volatile long lastStartDelay;
+
+
+	ScheduledTaskMetrics() {
+	}
+
+
+	/**
+	 * Return the number of completed executions, successful or not.
+	 */
+	public long getExecutionCount() {
+		return this.executionCount.sum();
+	}
+
+	/**
+	 * Return the number of executions skipped or coalesced
+	 * according to the task's {@link OverlapPolicy}.
+	 */
+	public long getSkippedCount() {
+		return this.skippedCount.sum();
+	}
+
+	/**
+	 * Return the number of executions triggered while a previous
+	 * execution was still in progress, whether run or skipped.
+	 */
+	public long getOverlapCount() {
+		return this.overlapCount.sum();
+	}
+
+	/**
+	 * Return the start time of the last execution, if any.
+	 */
+	@Nullable
+	public Date getLastStartTime() {
+		long time = this.lastStartTime;
+		return (time != 0 ? new Date(time) : null);
+	}
+
+	/**
+	 * Return the completion time of the last execution, if any.
+	 */
+	@Nullable
+	public Date getLastCompletionTime() {
+		long time = this.lastCompletionTime;
+		return (time != 0 ? new Date(time) : null);
+	}
+
+	/**
+	 * Return the duration of the last execution.
+	 */
+	public long getLastDuration() {
+		return this.lastDuration;
+	}
+
+	/**
+	 * Return the longest duration of a single execution.
+	 */
+	public long getMaxDuration() {
+		return this.maxDuration.get();
+	}
+
+	/**
+	 * Return the average duration of the completed executions.
+	 */
+	public long getAverageDuration() {
+		long count = getExecutionCount();
+		return (count > 0 ? this.totalDuration.sum() / count : 0);
+	}
+
+	/**
+	 * Return how late the last execution started relative to its intended
+	 * execution time, including any queueing in the scheduler pool.
+	 */
+	public long getLastStartDelay() {
+		return this.lastStartDelay;
+	}
+
+	/**
+	 * Return the longest start delay of a single execution.
+	 */
+	public long getMaxStartDelay() {
+		return this.maxStartDelay.get();
+	}
+
+	/**
+	 * Return the average start delay of the executions
+	 * with a known intended execution time.
+	 */
+	public long getAverageStartDelay() {
+		long count = this.delayedCount.sum();
+		return (count > 0 ? this.totalStartDelay.sum() / count : 0);
+	}
+
+
+	void recordStart(long startTime, long intendedTime) {
+		this.lastStartTime = startTime;
+		if (intendedTime > 0) {
+			long startDelay = Math.max(startTime - intendedTime, 0);
+			this.lastStartDelay = startDelay;
+			this.delayedCount.increment();
+			this.totalStartDelay.add(startDelay);
+			this.maxStartDelay.accumulate(startDelay);
+		}
+	}
+
+	void recordCompletion(long completionTime, long duration) {
+		this.lastCompletionTime = completionTime;
+		this.lastDuration = duration;
+		this.executionCount.increment();
+		this.totalDuration.add(duration);
+		this.maxDuration.accumulate(duration);
+	}
+
+	void recordOverlap(boolean skipped) {
+		this.overlapCount.increment();
+		if (skipped) {
+			this.skippedCount.increment();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ScheduledTaskMetrics: executions=" + getExecutionCount() + ", skipped=" + getSkippedCount() +
+				", overlaps=" + getOverlapCount() + ", average duration=" + getAverageDuration() + "ms" +
+				", average start delay=" + getAverageStartDelay() + "ms";
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -386,7 +386,8 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
-			scheduledTask.future = this.taskScheduler.schedule(task.getRunnable(), task.getTrigger());
+			MonitoredTaskRunnable runnable = new MonitoredTaskRunnable(scheduledTask);
+			scheduledTask.future = this.taskScheduler.schedule(runnable, runnable.monitor(task.getTrigger()));
 		}
 		else {
 			addTriggerTask(task);
@@ -411,7 +412,8 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
-			scheduledTask.future = this.taskScheduler.schedule(task.getRunnable(), task.getTrigger());
+			MonitoredTaskRunnable runnable = new MonitoredTaskRunnable(scheduledTask);
+			scheduledTask.future = this.taskScheduler.schedule(runnable, runnable.monitor(task.getTrigger()));
 		}
 		else {
 			addCronTask(task);
@@ -452,14 +454,15 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
+			long startTime = System.currentTimeMillis() + Math.max(task.getInitialDelay(), 0);
+			Runnable runnable = new MonitoredTaskRunnable(scheduledTask, task.getInterval(), 0, startTime);
 			if (task.getInitialDelay() > 0) {
-				Date startTime = new Date(System.currentTimeMillis() + task.getInitialDelay());
 				scheduledTask.future =
-						this.taskScheduler.scheduleAtFixedRate(task.getRunnable(), startTime, task.getInterval());
+						this.taskScheduler.scheduleAtFixedRate(runnable, new Date(startTime), task.getInterval());
 			}
 			else {
 				scheduledTask.future =
-						this.taskScheduler.scheduleAtFixedRate(task.getRunnable(), task.getInterval());
+						this.taskScheduler.scheduleAtFixedRate(runnable, task.getInterval());
 			}
 		}
 		else {
@@ -501,14 +504,15 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
+			long startTime = System.currentTimeMillis() + Math.max(task.getInitialDelay(), 0);
+			Runnable runnable = new MonitoredTaskRunnable(scheduledTask, 0, task.getInterval(), startTime);
 			if (task.getInitialDelay() > 0) {
-				Date startTime = new Date(System.currentTimeMillis() + task.getInitialDelay());
 				scheduledTask.future =
-						this.taskScheduler.scheduleWithFixedDelay(task.getRunnable(), startTime, task.getInterval());
+						this.taskScheduler.scheduleWithFixedDelay(runnable, new Date(startTime), task.getInterval());
 			}
 			else {
 				scheduledTask.future =
-						this.taskScheduler.scheduleWithFixedDelay(task.getRunnable(), task.getInterval());
+						this.taskScheduler.scheduleWithFixedDelay(runnable, task.getInterval());
 			}
 		}
 		else {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,6 +30,8 @@ public class Task {
 
 	private final Runnable runnable;
 
+	private OverlapPolicy overlapPolicy = OverlapPolicy.ALLOW;
+
 
 	/**
 	 * Create a new {@code Task}.
@@ -48,6 +50,25 @@ public class Task {
 		return this.runnable;
 	}
 
+	/**
+	 * Specify what to do when this task gets triggered while a previous
+	 * execution is still in progress. Default is {@link OverlapPolicy#ALLOW}.
+	 * <p>Needs to be set before the task gets scheduled.
+	 * @since 5.1.10
+	 */
+	public void setOverlapPolicy(OverlapPolicy overlapPolicy) {
+		Assert.notNull(overlapPolicy, "OverlapPolicy must not be null");
+		this.overlapPolicy = overlapPolicy;
+	}
+
+	/**
+	 * Return the policy for overlapping executions of this task.
+	 * @since 5.1.10
+	 */
+	public OverlapPolicy getOverlapPolicy() {
+		return this.overlapPolicy;
+	}
+
 
 	@Override
 	public String toString() {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,16 @@
 
 package org.springframework.scheduling.support;
 
-import java.util.ArrayList;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneRules;
 import java.util.BitSet;
-import java.util.Calendar;
-import java.util.Collections;
 import java.util.Date;
-import java.util.GregorianCalendar;
-import java.util.List;
 import java.util.TimeZone;
 
 import org.springframework.lang.Nullable;
@@ -48,6 +51,10 @@ import org.springframework.util.StringUtils;
  * <li>"0 0 0 25 12 ?" = every Christmas Day at midnight</li>
  * </ul>
  *
+ * <p>The allowed values of each field are precomputed into bit masks, so that
+ * {@link #next} can find each field's next match in constant time, operating
+ * on plain {@code java.time} field values instead of a {@code Calendar}.
+ *
  * @author Dave Syer
  * @author Juergen Hoeller
  * @author Ruslan Sibgatullin
@@ -56,10 +63,9 @@ import org.springframework.util.StringUtils;
  */
 public class CronSequenceGenerator {
 
-	private final String expression;
+	private static final int[] DAY_OF_WEEK_OFFSETS = {0, 3, 2, 5, 0, 3, 5, 1, 4, 6, 2, 4};
 
-	@Nullable
-	private final TimeZone timeZone;
+	private final String expression;
 
 	private final BitSet months = new BitSet(12);
 
@@ -73,6 +79,23 @@ public class CronSequenceGenerator {
 
 	private final BitSet seconds = new BitSet(60);
 
+	// Precomputed field masks for next(Date), with bit n representing value n
+	// (for months: bit n-1 representing month n; for days of week: 0 for Sunday)
+
+	private long monthMask;
+
+	private long daysOfMonthMask;
+
+	private long daysOfWeekMask;
+
+	private long hoursMask;
+
+	private long minutesMask;
+
+	private long secondsMask;
+
+	private final ZoneId zoneId;
+
 
 	/**
 	 * Construct a {@link CronSequenceGenerator} from the pattern provided,
@@ -94,13 +117,13 @@ public class CronSequenceGenerator {
 	 */
 	public CronSequenceGenerator(String expression, TimeZone timeZone) {
 		this.expression = expression;
-		this.timeZone = timeZone;
+		this.zoneId = timeZone.toZoneId();
 		parse(expression);
 	}
 
 	private CronSequenceGenerator(String expression, String[] fields) {
 		this.expression = expression;
-		this.timeZone = null;
+		this.zoneId = ZoneId.systemDefault();
 		doParse(fields);
 	}
 
@@ -124,141 +147,148 @@ public class CronSequenceGenerator {
 		/*
 		The plan:
 
-		1 Start with whole second (rounding up if necessary)
+		1 Start with the next whole second after the given date
 
-		2 If seconds match move on, otherwise find the next match:
-		2.1 If next match is in the next minute then roll forwards
+		2 Roll forward the month, day, hour, minute and second fields in
+		  that order to their next match, resetting all lower fields to
+		  their first possible value whenever a field changes
 
-		3 If minute matches move on, otherwise find the next match
-		3.1 If next match is in the next hour then roll forwards
-		3.2 Reset the seconds and go to 2
+		3 If a field has no further match, increment the next higher
+		  field and go to 2
 
-		4 If hour matches move on, otherwise find the next match
-		4.1 If next match is in the next day then roll forwards,
-		4.2 Reset the minutes and seconds and go to 2
+		4 Convert the local date-time to an instant, skipping date-times
+		  which fall into a daylight saving gap
 		*/
 
-		Calendar calendar = new GregorianCalendar();
-		calendar.setTimeZone(this.timeZone);
-		calendar.setTime(date);
-
-		// First, just reset the milliseconds and try to calculate from there...
-		calendar.set(Calendar.MILLISECOND, 0);
-		long originalTimestamp = calendar.getTimeInMillis();
-		doNext(calendar, calendar.get(Calendar.YEAR));
-
-		if (calendar.getTimeInMillis() == originalTimestamp) {
-			// We arrived at the original timestamp - round up to the next whole second and try again...
-			calendar.add(Calendar.SECOND, 1);
-			doNext(calendar, calendar.get(Calendar.YEAR));
-		}
-
-		return calendar.getTime();
-	}
-
-	private void doNext(Calendar calendar, int dot) {
-		List<Integer> resets = new ArrayList<>();
+		long epochSecond = Math.floorDiv(date.getTime(), 1000) + 1;
+		ZoneRules rules = this.zoneId.getRules();
+		ZoneOffset offset = rules.getOffset(Instant.ofEpochSecond(epochSecond));
+		LocalDateTime start = LocalDateTime.ofEpochSecond(epochSecond, 0, offset);
+
+		int year = start.getYear();
+		int month = start.getMonthValue();
+		int day = start.getDayOfMonth();
+		int hour = start.getHour();
+		int minute = start.getMinute();
+		int second = start.getSecond();
+		int startYear = year;
+
+		while (true) {
+			// Normalize after a field got incremented beyond its range
+			if (second > 59) {
+				second = 0;
+				minute++;
+			}
+			if (minute > 59) {
+				minute = 0;
+				hour++;
+			}
+			if (hour > 23) {
+				hour = 0;
+				day++;
+			}
+			if (month <= 12 && day > monthLength(year, month)) {
+				day = 1;
+				month++;
+			}
+			if (month > 12) {
+				month = 1;
+				year++;
+			}
+			if (year - startYear > 4) {
+				throw new IllegalArgumentException("Invalid cron expression \"" + this.expression +
+						"\" led to runaway search for next trigger");
+			}
 
-		int second = calendar.get(Calendar.SECOND);
-		List<Integer> emptyList = Collections.emptyList();
-		int updateSecond = findNext(this.seconds, second, calendar, Calendar.SECOND, Calendar.MINUTE, emptyList);
-		if (second == updateSecond) {
-			resets.add(Calendar.SECOND);
-		}
+			int nextMonth = nextSetBit(this.monthMask, month - 1) + 1;
+			if (nextMonth == 0) {
+				month = 13;
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextMonth != month) {
+				month = nextMonth;
+				day = 1;
+				hour = minute = second = 0;
+			}
 
-		int minute = calendar.get(Calendar.MINUTE);
-		int updateMinute = findNext(this.minutes, minute, calendar, Calendar.MINUTE, Calendar.HOUR_OF_DAY, resets);
-		if (minute == updateMinute) {
-			resets.add(Calendar.MINUTE);
-		}
-		else {
-			doNext(calendar, dot);
-		}
+			int length = monthLength(year, month);
+			int dayOfWeek = dayOfWeek(year, month, day);
+			int startDay = day;
+			while (day <= length && ((this.daysOfMonthMask & (1L << day)) == 0 ||
+					(this.daysOfWeekMask & (1L << dayOfWeek)) == 0)) {
+				day++;
+				dayOfWeek = (dayOfWeek + 1) % 7;
+			}
+			if (day != startDay) {
+				hour = minute = second = 0;
+				if (day > length) {
+					continue;
+				}
+			}
 
-		int hour = calendar.get(Calendar.HOUR_OF_DAY);
-		int updateHour = findNext(this.hours, hour, calendar, Calendar.HOUR_OF_DAY, Calendar.DAY_OF_WEEK, resets);
-		if (hour == updateHour) {
-			resets.add(Calendar.HOUR_OF_DAY);
-		}
-		else {
-			doNext(calendar, dot);
-		}
+			int nextHour = nextSetBit(this.hoursMask, hour);
+			if (nextHour == -1) {
+				hour = 24;
+				minute = second = 0;
+				continue;
+			}
+			if (nextHour != hour) {
+				hour = nextHour;
+				minute = second = 0;
+			}
 
-		int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
-		int dayOfMonth = calendar.get(Calendar.DAY_OF_MONTH);
-		int updateDayOfMonth = findNextDay(calendar, this.daysOfMonth, dayOfMonth, this.daysOfWeek, dayOfWeek, resets);
-		if (dayOfMonth == updateDayOfMonth) {
-			resets.add(Calendar.DAY_OF_MONTH);
-		}
-		else {
-			doNext(calendar, dot);
-		}
+			int nextMinute = nextSetBit(this.minutesMask, minute);
+			if (nextMinute == -1) {
+				minute = 60;
+				second = 0;
+				continue;
+			}
+			if (nextMinute != minute) {
+				minute = nextMinute;
+				second = 0;
+			}
 
-		int month = calendar.get(Calendar.MONTH);
-		int updateMonth = findNext(this.months, month, calendar, Calendar.MONTH, Calendar.YEAR, resets);
-		if (month != updateMonth) {
-			if (calendar.get(Calendar.YEAR) - dot > 4) {
-				throw new IllegalArgumentException("Invalid cron expression \"" + this.expression +
-						"\" led to runaway search for next trigger");
+			int nextSecond = nextSetBit(this.secondsMask, second);
+			if (nextSecond == -1) {
+				second = 60;
+				continue;
 			}
-			doNext(calendar, dot);
+			second = nextSecond;
+
+			LocalDateTime candidate = LocalDateTime.of(year, month, day, hour, minute, second);
+			ZonedDateTime result = ZonedDateTime.ofLocal(candidate, this.zoneId, offset);
+			if (!result.toLocalDateTime().equals(candidate)) {
+				// Daylight saving gap: continue from the first existing local time after it
+				LocalDateTime shifted = result.toLocalDateTime();
+				year = shifted.getYear();
+				month = shifted.getMonthValue();
+				day = shifted.getDayOfMonth();
+				hour = shifted.getHour();
+				minute = shifted.getMinute();
+				second = shifted.getSecond();
+				continue;
+			}
+			return Date.from(result.toInstant());
 		}
-
 	}
 
-	private int findNextDay(Calendar calendar, BitSet daysOfMonth, int dayOfMonth, BitSet daysOfWeek, int dayOfWeek,
-			List<Integer> resets) {
-
-		int count = 0;
-		int max = 366;
-		// the DAY_OF_WEEK values in java.util.Calendar start with 1 (Sunday),
-		// but in the cron pattern, they start with 0, so we subtract 1 here
-		while ((!daysOfMonth.get(dayOfMonth) || !daysOfWeek.get(dayOfWeek - 1)) && count++ < max) {
-			calendar.add(Calendar.DAY_OF_MONTH, 1);
-			dayOfMonth = calendar.get(Calendar.DAY_OF_MONTH);
-			dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
-			reset(calendar, resets);
-		}
-		if (count >= max) {
-			throw new IllegalArgumentException("Overflow in day for expression \"" + this.expression + "\"");
-		}
-		return dayOfMonth;
+	private static int nextSetBit(long mask, int fromIndex) {
+		long remaining = mask & (-1L << fromIndex);
+		return (remaining != 0 ? Long.numberOfTrailingZeros(remaining) : -1);
 	}
 
-	/**
-	 * Search the bits provided for the next set bit after the value provided,
-	 * and reset the calendar.
-	 * @param bits a {@link BitSet} representing the allowed values of the field
-	 * @param value the current value of the field
-	 * @param calendar the calendar to increment as we move through the bits
-	 * @param field the field to increment in the calendar (@see
-	 * {@link Calendar} for the static constants defining valid fields)
-	 * @param lowerOrders the Calendar field ids that should be reset (i.e. the
-	 * ones of lower significance than the field of interest)
-	 * @return the value of the calendar field that is next in the sequence
-	 */
-	private int findNext(BitSet bits, int value, Calendar calendar, int field, int nextField, List<Integer> lowerOrders) {
-		int nextValue = bits.nextSetBit(value);
-		// roll over if needed
-		if (nextValue == -1) {
-			calendar.add(nextField, 1);
-			reset(calendar, Collections.singletonList(field));
-			nextValue = bits.nextSetBit(0);
-		}
-		if (nextValue != value) {
-			calendar.set(field, nextValue);
-			reset(calendar, lowerOrders);
-		}
-		return nextValue;
+	private static int monthLength(int year, int month) {
+		return Month.of(month).length(Year.isLeap(year));
 	}
 
 	/**
-	 * Reset the calendar setting all the fields provided to zero.
+	 * Compute the day of week for the given date, with 0 for Sunday as in cron.
 	 */
-	private void reset(Calendar calendar, List<Integer> fields) {
-		for (int field : fields) {
-			calendar.set(field, field == Calendar.DAY_OF_MONTH ? 1 : 0);
-		}
+	private static int dayOfWeek(int year, int month, int day) {
+		int y = (month < 3 ? year - 1 : year);
+		return (y + y / 4 - y / 100 + y / 400 + DAY_OF_WEEK_OFFSETS[month - 1] + day) % 7;
 	}
 
 
@@ -289,6 +319,18 @@ public class CronSequenceGenerator {
 			this.daysOfWeek.set(0);
 			this.daysOfWeek.clear(7);
 		}
+
+		this.monthMask = toMask(this.months);
+		this.daysOfMonthMask = toMask(this.daysOfMonth);
+		this.daysOfWeekMask = toMask(this.daysOfWeek);
+		this.hoursMask = toMask(this.hours);
+		this.minutesMask = toMask(this.minutes);
+		this.secondsMask = toMask(this.seconds);
+	}
+
+	private static long toMask(BitSet bits) {
+		long[] words = bits.toLongArray();
+		return (words.length > 0 ? words[0] : 0);
 	}
 
 	/**
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.target;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.tests.sample.beans.Person;
+import org.springframework.tests.sample.beans.SerializablePerson;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link StripedPoolingTargetSource}.
+ */
+public class StripedPoolingTargetSourceTests {
+
+	@Test
+	public void reuseReturnedTarget() throws Exception {
+		StripedPoolingTargetSource targetSource = new StripedPoolingTargetSource();
+		prepareTargetSource(targetSource);
+
+		Object first = targetSource.getTarget();
+		assertEquals(1, targetSource.getActiveCount());
+		targetSource.releaseTarget(first);
+		assertEquals(0, targetSource.getActiveCount());
+		assertEquals(1, targetSource.getIdleCount());
+
+		assertSame(first, targetSource.getTarget());
+		assertEquals(2, targetSource.getBorrowCount());
+		assertEquals(1, targetSource.getCreatedCount());
+	}
+
+	@Test
+	public void hitMaxSize() throws Exception {
+		int maxSize = 10;
+		StripedPoolingTargetSource targetSource = new StripedPoolingTargetSource();
+		targetSource.setMaxSize(maxSize);
+		targetSource.setMaxIdle(maxSize);
+		targetSource.setMaxWait(1);
+		prepareTargetSource(targetSource);
+
+		Object[] pooledInstances = new Object[maxSize];
+		for (int x = 0; x < maxSize; x++) {
+			pooledInstances[x] = targetSource.getTarget();
+			assertNotNull(pooledInstances[x]);
+		}
+
+		try {
+			targetSource.getTarget();
+			fail("Should throw NoSuchElementException");
+		}
+		catch (NoSuchElementException ex) {
+			// desired
+		}
+
+		targetSource.releaseTarget(pooledInstances[9]);
+		pooledInstances[9] = targetSource.getTarget();
+
+		for (Object pooledInstance : pooledInstances) {
+			targetSource.releaseTarget(pooledInstance);
+		}
+		assertEquals(0, targetSource.getActiveCount());
+		assertEquals(maxSize, targetSource.getIdleCount());
+	}
+
+	@Test
+	public void blockUntilTargetReturned() throws Exception {
+		StripedPoolingTargetSource targetSource = new StripedPoolingTargetSource();
+		targetSource.setMaxSize(1);
+		prepareTargetSource(targetSource);
+
+		Object target = targetSource.getTarget();
+		CountDownLatch borrowed = new CountDownLatch(1);
+		AtomicReference<Object> other = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			try {
+				other.set(targetSource.getTarget());
+				borrowed.countDown();
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		thread.start();
+		long deadline = System.currentTimeMillis() + 5000;
+		while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals("Borrowing thread should block while the pool is exhausted",
+				Thread.State.WAITING, thread.getState());
+		assertEquals(1, borrowed.getCount());
+
+		targetSource.releaseTarget(target);
+		assertTrue("Borrowing thread should proceed once the target is returned",
+				borrowed.await(5, TimeUnit.SECONDS));
+		assertSame(target, other.get());
+		thread.join(5000);
+	}
+
+	@Test
+	public void destroyTargetsBeyondMaxIdle() throws Exception {
+		StripedPoolingTargetSource targetSource = new StripedPoolingTargetSource();
+		targetSource.setMaxIdle(1);
+		prepareTargetSource(targetSource);
+
+		Object first = targetSource.getTarget();
+		Object second = targetSource.getTarget();
+		targetSource.releaseTarget(first);
+		targetSource.releaseTarget(second);
+
+		assertEquals(1, targetSource.getIdleCount());
+		assertEquals(2, targetSource.getCreatedCount());
+		assertEquals(1, targetSource.getDestroyedCount());
+	}
+
+	@Test
+	public void evictIdleTargets() throws Exception {
+		StripedPoolingTargetSource targetSource = new StripedPoolingTargetSource();
+		targetSource.setTimeBetweenEvictionRunsMillis(1);
+		targetSource.setMinEvictableIdleTimeMillis(1);
+		prepareTargetSource(targetSource);
+
+		Object first = targetSource.getTarget();
+		Object second = targetSource.getTarget();
+		targetSource.releaseTarget(first);
+		Thread.sleep(20);
+		targetSource.releaseTarget(second);
+
+		assertEquals(1, targetSource.getIdleCount());
+		assertEquals(1, targetSource.getDestroyedCount());
+		assertSame(second, targetSource.getTarget());
+	}
+
+	@Test
+	public void concurrentAccess() throws Exception {
+		int maxSize = 4;
+		StripedPoolingTargetSource targetSource = new StripedPoolingTargetSource();
+		targetSource.setMaxSize(maxSize);
+		prepareTargetSource(targetSource);
+
+		Thread[] threads = new Thread[16];
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				try {
+					for (int j = 0; j < 1000; j++) {
+						Object target = targetSource.getTarget();
+						assertTrue(targetSource.getActiveCount() <= maxSize);
+						targetSource.releaseTarget(target);
+					}
+				}
+				catch (Throwable ex) {
+					failure.set(ex);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertNull(failure.get());
+		assertEquals(0, targetSource.getActiveCount());
+		assertEquals(16 * 1000, targetSource.getBorrowCount());
+		assertTrue(targetSource.getCreatedCount() <= maxSize);
+	}
+
+	@Test
+	public void destroyIdleTargetsOnClose() throws Exception {
+		StripedPoolingTargetSource targetSource = new StripedPoolingTargetSource();
+		prepareTargetSource(targetSource);
+
+		Object first = targetSource.getTarget();
+		Object second = targetSource.getTarget();
+		targetSource.releaseTarget(first);
+		targetSource.destroy();
+		assertEquals(0, targetSource.getIdleCount());
+		assertEquals(1, targetSource.getDestroyedCount());
+
+		targetSource.releaseTarget(second);
+		assertEquals(0, targetSource.getIdleCount());
+		assertEquals(2, targetSource.getDestroyedCount());
+	}
+
+	@Test
+	public void releaseRacingWithClose() throws Exception {
+		for (int run = 0; run < 50; run++) {
+			StripedPoolingTargetSource targetSource = new StripedPoolingTargetSource();
+			targetSource.setMaxSize(16);
+			targetSource.setStripes(4);
+			prepareTargetSource(targetSource);
+
+			Object[] targets = new Object[16];
+			for (int i = 0; i < targets.length; i++) {
+				targets[i] = targetSource.getTarget();
+			}
+			Thread[] threads = new Thread[targets.length];
+			for (int i = 0; i < threads.length; i++) {
+				Object target = targets[i];
+				threads[i] = new Thread(() -> {
+					try {
+						targetSource.releaseTarget(target);
+					}
+					catch (Exception ex) {
+						throw new IllegalStateException(ex);
+					}
+				});
+				threads[i].start();
+			}
+			targetSource.destroy();
+			for (Thread thread : threads) {
+				thread.join();
+			}
+
+			assertEquals(0, targetSource.getIdleCount());
+			assertEquals(targetSource.getCreatedCount(), targetSource.getDestroyedCount());
+		}
+	}
+
+	@Test
+	public void poolingConfigMixin() throws Exception {
+		StripedPoolingTargetSource targetSource = new StripedPoolingTargetSource();
+		targetSource.setMaxSize(25);
+		prepareTargetSource(targetSource);
+
+		ProxyFactory pf = new ProxyFactory();
+		pf.setTargetSource(targetSource);
+		pf.addInterface(Person.class);
+		pf.addAdvisor(targetSource.getPoolingConfigMixin());
+		Person person = (Person) pf.getProxy();
+		person.setAge(5);
+
+		PoolingConfig config = (PoolingConfig) person;
+		assertEquals(25, config.getMaxSize());
+		assertEquals(1, config.getCreatedCount());
+		assertEquals(0, config.getDestroyedCount());
+	}
+
+
+	private void prepareTargetSource(StripedPoolingTargetSource targetSource) {
+		String beanName = "target";
+
+		StaticApplicationContext applicationContext = new StaticApplicationContext();
+		applicationContext.registerPrototype(beanName, SerializablePerson.class);
+
+		targetSource.setTargetBeanName(beanName);
+		targetSource.setBeanFactory(applicationContext);
+	}
+
+}
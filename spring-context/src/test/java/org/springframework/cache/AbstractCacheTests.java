@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,14 @@
 
 package org.springframework.cache;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.UUID;
 
@@ -211,6 +216,72 @@ public abstract class AbstractCacheTests<T extends Cache> {
 		results.forEach(r -> assertThat(r, is(1))); // Only one method got invoked
 	}
 
+	@Test
+	public void testCacheRetrieve() throws Exception {
+		T cache = getCache();
+
+		String key = createRandomKey();
+		CompletableFuture<Cache.ValueWrapper> miss = cache.retrieve(key);
+		assertTrue(miss == null || miss.get() == null);
+
+		cache.put(key, "value");
+		assertEquals("value", cache.retrieve(key).get().get());
+	}
+
+	@Test
+	public void testCacheRetrieveWithLoader() throws Exception {
+		T cache = getCache();
+
+		String key = createRandomKey();
+		CompletableFuture<String> value = cache.retrieve(key, () -> CompletableFuture.completedFuture("loaded"));
+		assertEquals("loaded", value.get());
+		assertEquals("loaded", cache.get(key).get());
+
+		CompletableFuture<String> hit = cache.retrieve(key, () -> {
+			throw new IllegalStateException("Should not have been invoked");
+		});
+		assertEquals("loaded", hit.get());
+	}
+
+	@Test
+	public void testCacheRetrieveWithLoaderFail() throws Exception {
+		T cache = getCache();
+
+		String key = createRandomKey();
+		CompletableFuture<String> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new UnsupportedOperationException("Expected exception"));
+		try {
+			cache.retrieve(key, () -> failed).get();
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertEquals(UnsupportedOperationException.class, ex.getCause().getClass());
+		}
+		assertNull(cache.get(key));
+	}
+
+	@Test
+	public void testCacheGetAllAndPutAll() {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		String key3 = createRandomKey();
+		assertTrue(cache.getAll(Arrays.asList(key1, key2, key3)).isEmpty());
+
+		Map<String, Object> entries = new LinkedHashMap<>();
+		entries.put(key1, "value1");
+		entries.put(key3, "value3");
+		cache.putAll(entries);
+		assertEquals("value1", cache.get(key1).get());
+		assertEquals("value3", cache.get(key3).get());
+
+		Map<Object, Cache.ValueWrapper> result = cache.getAll(Arrays.asList(key3, key2, key1));
+		assertEquals(Arrays.asList(key3, key1), Arrays.asList(result.keySet().toArray()));
+		assertEquals("value3", result.get(key3).get());
+		assertEquals("value1", result.get(key1).get());
+	}
+
 	protected String createRandomKey() {
 		return UUID.randomUUID().toString();
 	}
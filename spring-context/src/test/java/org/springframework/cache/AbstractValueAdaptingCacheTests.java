@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,17 @@
 
 package org.springframework.cache;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import org.springframework.cache.support.AbstractValueAdaptingCache;
 
+import static org.junit.Assert.*;
+
 /**
  * @author Stephane Nicoll
  */
@@ -47,4 +52,82 @@ public abstract class AbstractValueAdaptingCacheTests<T extends AbstractValueAda
 		cache.put(key, null);
 	}
 
+	@Test
+	public void testCacheRetrieveSharesPendingLoad() throws Exception {
+		T cache = getCache();
+		String key = createRandomKey();
+		AtomicInteger counter = new AtomicInteger();
+		CompletableFuture<String> loading = new CompletableFuture<>();
+
+		CompletableFuture<String> first = cache.retrieve(key, () -> {
+			counter.incrementAndGet();
+			return loading;
+		});
+		CompletableFuture<String> second = cache.retrieve(key, () -> {
+			counter.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+		assertFalse(first.isDone());
+		assertFalse(second.isDone());
+
+		loading.complete("value");
+		assertEquals("value", first.get());
+		assertEquals("value", second.get());
+		assertEquals(1, counter.get());
+		assertEquals("value", cache.get(key).get());
+	}
+
+	@Test
+	public void testCacheRetrieveDoesNotExposeSharedFuture() throws Exception {
+		T cache = getCache();
+		String key = createRandomKey();
+		CompletableFuture<String> loading = new CompletableFuture<>();
+
+		CompletableFuture<String> first = cache.retrieve(key, () -> loading);
+		CompletableFuture<String> second = cache.retrieve(key, () -> CompletableFuture.completedFuture("other"));
+		first.complete("tampered");
+
+		loading.complete("value");
+		assertEquals("value", second.get());
+		assertEquals("value", cache.get(key).get());
+	}
+
+	@Test
+	public void testCacheRetrieveAfterEvict() throws Exception {
+		T cache = getCache();
+		String key = createRandomKey();
+		CompletableFuture<String> loading = new CompletableFuture<>();
+
+		CompletableFuture<String> value = cache.retrieve(key, () -> loading);
+		cache.evict(key);
+		loading.complete("stale");
+		assertEquals("stale", value.get());
+		assertNull(cache.get(key));
+	}
+
+	@Test
+	public void testCacheRetrieveAfterClear() throws Exception {
+		T cache = getCache();
+		String key = createRandomKey();
+		CompletableFuture<String> loading = new CompletableFuture<>();
+
+		CompletableFuture<String> value = cache.retrieve(key, () -> loading);
+		cache.clear();
+		loading.complete("stale");
+		assertEquals("stale", value.get());
+		assertNull(cache.get(key));
+
+		assertEquals("fresh", cache.retrieve(key, () -> CompletableFuture.completedFuture("fresh")).get());
+		assertEquals("fresh", cache.get(key).get());
+	}
+
+	@Test
+	public void testCacheRetrieveNullValueAllowNullFalse() throws Exception {
+		T cache = getCache(false);
+		String key = createRandomKey();
+
+		assertNull(cache.retrieve(key, () -> CompletableFuture.completedFuture(null)).get());
+		assertNull(cache.get(key));
+	}
+
 }
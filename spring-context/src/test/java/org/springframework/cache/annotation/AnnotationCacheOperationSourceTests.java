@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -280,6 +281,28 @@ public class AnnotationCacheOperationSourceTests {
 		assertSharedConfig(cacheOperation, "classKeyGenerator", "classCacheManager", "", "classCacheName");
 	}
 
+	@Test
+	public void refreshAfter() {
+		CacheableOperation millis = (CacheableOperation) getOps(RefreshAheadClass.class, "millis", 1).iterator().next();
+		assertEquals(Duration.ofMillis(500), millis.getRefreshAfter());
+		CacheableOperation iso = (CacheableOperation) getOps(RefreshAheadClass.class, "iso", 1).iterator().next();
+		assertEquals(Duration.ofSeconds(30), iso.getRefreshAfter());
+		CacheableOperation none = (CacheableOperation) getOps(AnnotatedClass.class, "singular", 1).iterator().next();
+		assertNull(none.getRefreshAfter());
+	}
+
+	@Test
+	public void refreshAfterFromCacheConfig() {
+		CacheableOperation op = (CacheableOperation) getOps(RefreshAheadClass.class, "inherited", 1).iterator().next();
+		assertEquals(Duration.ofMinutes(1), op.getRefreshAfter());
+	}
+
+	@Test
+	public void invalidRefreshAfter() {
+		this.exception.expect(IllegalArgumentException.class);
+		getOps(RefreshAheadClass.class, "invalid");
+	}
+
 
 	private Collection<CacheOperation> getOps(Class<?> target, String name, int expectedNumberOfOperations) {
 		Collection<CacheOperation> result = getOps(target, name);
@@ -416,6 +439,27 @@ public class AnnotationCacheOperationSourceTests {
 	}
 
 
+	@CacheConfig(cacheNames = "refreshCache", refreshAfter = "PT1M")
+	private static class RefreshAheadClass {
+
+		@Cacheable(refreshAfter = "500")
+		public void millis() {
+		}
+
+		@Cacheable(refreshAfter = "PT30S")
+		public void iso() {
+		}
+
+		@Cacheable
+		public void inherited() {
+		}
+
+		@Cacheable(refreshAfter = "soon")
+		public void invalid() {
+		}
+	}
+
+
 	@CacheConfigFoo
 	private static class AnnotatedClassWithCustomDefault {
 
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BoundedConcurrentMap}.
+ */
+public class BoundedConcurrentMapTests {
+
+	private final AtomicLong ticker = new AtomicLong();
+
+
+	@Test
+	public void basicOperations() {
+		BoundedConcurrentMap<String, String> map = createMap(-1, null, null);
+		assertNull(map.put("a", "1"));
+		assertEquals("1", map.put("a", "2"));
+		assertEquals("2", map.putIfAbsent("a", "3"));
+		assertNull(map.putIfAbsent("b", "3"));
+		assertEquals("3", map.computeIfAbsent("b", key -> "4"));
+		assertEquals("5", map.computeIfAbsent("c", key -> "5"));
+		assertNull(map.computeIfAbsent("d", key -> null));
+		assertEquals("5", map.replace("c", "6"));
+		assertTrue(map.replace("c", "6", "7"));
+		assertFalse(map.replace("c", "6", "8"));
+		assertFalse(map.remove("c", "6"));
+		assertTrue(map.remove("c", "7"));
+		assertEquals("3", map.remove("b"));
+		assertTrue(map.containsKey("a"));
+		assertFalse(map.containsKey("b"));
+
+		Map<String, String> expected = new HashMap<>();
+		expected.put("a", "2");
+		assertEquals(expected, map);
+		map.clear();
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void evictBeyondMaximumSize() {
+		BoundedConcurrentMap<Integer, String> map = createMap(3, null, null);
+		for (int i = 0; i < 10; i++) {
+			map.put(i, "value" + i);
+		}
+		assertEquals(3, map.size());
+		assertTrue(map.containsKey(9));
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		BoundedConcurrentMap<String, String> map = createMap(3, null, null);
+		map.put("a", "1");
+		map.put("b", "2");
+		map.put("c", "3");
+		map.put("d", "4");
+		assertFalse("Oldest unreferenced entry evicted", map.containsKey("a"));
+
+		// Reading "b" gives it a second chance over "c"
+		map.get("b");
+		map.put("e", "5");
+		assertTrue(map.containsKey("b"));
+		assertFalse(map.containsKey("c"));
+		assertTrue(map.containsKey("d"));
+		assertTrue(map.containsKey("e"));
+	}
+
+	@Test
+	public void evictBeyondMaximumWeight() {
+		BoundedConcurrentMap<String, String> map =
+				new BoundedConcurrentMap<>(-1, 10, (key, value) -> value.length(), null, null, this.ticker::get);
+		map.put("a", "12345");
+		map.put("b", "1234");
+		assertEquals(9, map.getTotalWeight());
+		map.put("b", "123");
+		assertEquals(8, map.getTotalWeight());
+		map.put("c", "123");
+		assertEquals(2, map.size());
+		assertFalse(map.containsKey("a"));
+		assertEquals(6, map.getTotalWeight());
+		map.remove("b");
+		assertEquals(3, map.getTotalWeight());
+	}
+
+	@Test
+	public void evictBeyondMaximumWeightOnReplace() {
+		BoundedConcurrentMap<String, String> map =
+				new BoundedConcurrentMap<>(-1, 10, (key, value) -> value.length(), null, null, this.ticker::get);
+		map.put("a", "12345");
+		map.put("b", "1234");
+		assertEquals("1234", map.replace("b", "123456"));
+		assertEquals(1, map.size());
+		assertFalse(map.containsKey("a"));
+		assertEquals(6, map.getTotalWeight());
+		map.put("a", "1234");
+		assertTrue(map.replace("a", "1234", "12345"));
+		assertEquals(1, map.size());
+		assertFalse(map.containsKey("b"));
+		assertEquals(5, map.getTotalWeight());
+	}
+
+	@Test
+	public void expireAfterWrite() {
+		BoundedConcurrentMap<String, String> map = createMap(-1, Duration.ofSeconds(10), null);
+		map.put("a", "1");
+		this.ticker.addAndGet(Duration.ofSeconds(5).toNanos());
+		map.put("b", "2");
+		assertEquals("1", map.get("a"));
+
+		this.ticker.addAndGet(Duration.ofSeconds(5).toNanos());
+		assertNull(map.get("a"));
+		assertEquals("2", map.get("b"));
+		assertNull("Expired entry replaced", map.putIfAbsent("a", "3"));
+		assertEquals("3", map.get("a"));
+	}
+
+	@Test
+	public void expireAfterAccess() {
+		BoundedConcurrentMap<String, String> map = createMap(-1, null, Duration.ofSeconds(10));
+		map.put("a", "1");
+		map.put("b", "2");
+		this.ticker.addAndGet(Duration.ofSeconds(6).toNanos());
+		assertEquals("1", map.get("a"));
+
+		this.ticker.addAndGet(Duration.ofSeconds(6).toNanos());
+		assertEquals("1", map.get("a"));
+		assertNull(map.get("b"));
+		assertEquals(1, map.entrySet().size());
+	}
+
+	@Test
+	public void expiredEntriesCleanedUpOnWrite() {
+		BoundedConcurrentMap<Integer, String> map = createMap(-1, Duration.ofSeconds(10), null);
+		for (int i = 0; i < 100; i++) {
+			map.put(i, "value");
+		}
+		this.ticker.addAndGet(Duration.ofSeconds(10).toNanos());
+		map.put(100, "value");
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	public void entrySetSkipsExpiredEntries() {
+		BoundedConcurrentMap<String, String> map = createMap(-1, Duration.ofSeconds(10), null);
+		map.put("a", "1");
+		this.ticker.addAndGet(Duration.ofSeconds(10).toNanos());
+		map.put("b", "2");
+		assertEquals(1, map.keySet().stream().count());
+		assertEquals("b", map.keySet().iterator().next());
+	}
+
+	@Test
+	public void computeIfAbsentWithFailingFunctionOverExpiredEntry() {
+		BoundedConcurrentMap<String, String> map = new BoundedConcurrentMap<>(
+				-1, 100, (key, value) -> value.length(), Duration.ofSeconds(10), null, this.ticker::get);
+		map.put("a", "12345");
+		map.put("b", "123");
+		this.ticker.addAndGet(Duration.ofSeconds(5).toNanos());
+		map.put("b", "123");
+		this.ticker.addAndGet(Duration.ofSeconds(5).toNanos());
+		try {
+			map.computeIfAbsent("a", key -> {
+				throw new IllegalStateException("Expected exception");
+			});
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+		assertEquals(8, map.getTotalWeight());
+
+		assertNull(map.get("a"));
+		assertEquals(3, map.getTotalWeight());
+		assertEquals("1", map.computeIfAbsent("a", key -> "1"));
+		assertEquals(4, map.getTotalWeight());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void maximumWeightRequiresWeigher() {
+		new BoundedConcurrentMap<String, String>(-1, 10, null, null, null);
+	}
+
+
+	private <K> BoundedConcurrentMap<K, String> createMap(
+			long maximumSize, Duration expireAfterWrite, Duration expireAfterAccess) {
+
+		return new BoundedConcurrentMap<>(maximumSize, -1, null,
+				expireAfterWrite, expireAfterAccess, this.ticker::get);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,22 @@
 
 package org.springframework.cache.concurrent;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.CacheSnapshotStore;
+import org.springframework.cache.support.FileSystemCacheSnapshotStore;
+import org.springframework.lang.Nullable;
 
 import static org.junit.Assert.*;
 
@@ -29,6 +41,10 @@ import static org.junit.Assert.*;
  */
 public class ConcurrentMapCacheManagerTests {
 
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+
 	@Test
 	public void testDynamicMode() {
 		CacheManager cm = new ConcurrentMapCacheManager();
@@ -131,4 +147,103 @@ public class ConcurrentMapCacheManagerTests {
 		assertNull(cache1x.get("key"));
 	}
 
+	@Test
+	public void testBoundedCaches() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager("c1");
+		assertFalse(cm.isBounded());
+		assertFalse(((ConcurrentMapCache) cm.getCache("c1")).getNativeCache() instanceof BoundedConcurrentMap);
+
+		cm.setWeigher((key, value) -> (value instanceof String ? ((String) value).length() : 1));
+		assertFalse("No maximum weight set", cm.isBounded());
+		cm.setMaximumWeight(10);
+		cm.setMaximumSize(3);
+		assertTrue(cm.isBounded());
+		Cache cache1 = cm.getCache("c1");
+		assertTrue(((ConcurrentMapCache) cache1).getNativeCache() instanceof BoundedConcurrentMap);
+
+		for (int i = 0; i < 5; i++) {
+			cache1.put("key" + i, "v");
+		}
+		assertEquals(3, ((ConcurrentMapCache) cache1).getNativeCache().size());
+		cache1.put("big", "0123456789");
+		assertEquals(1, ((ConcurrentMapCache) cache1).getNativeCache().size());
+		assertNotNull(cache1.get("big"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testMaximumWeightWithoutWeigher() {
+		new ConcurrentMapCacheManager().setMaximumWeight(10);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testWeigherRemovedWithMaximumWeight() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager();
+		cm.setWeigher((key, value) -> 1);
+		cm.setMaximumWeight(10);
+		cm.setWeigher(null);
+	}
+
+	@Test
+	public void testSnapshotStore() throws Exception {
+		FileSystemCacheSnapshotStore store = new FileSystemCacheSnapshotStore(this.folder.getRoot());
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager("c1", "c2");
+		cm.setSnapshotStore(store);
+		Cache cache1 = cm.getCache("c1");
+		cache1.put("key1", "value1");
+		cache1.put("key2", null);
+		cm.destroy();
+		assertEquals(1, this.folder.getRoot().listFiles().length);
+
+		ConcurrentMapCacheManager cm2 = new ConcurrentMapCacheManager("c1", "c2");
+		cm2.setSnapshotStore(store);
+		Cache cache1again = cm2.getCache("c1");
+		assertEquals("value1", cache1again.get("key1").get());
+		assertNull(cache1again.get("key2").get());
+		assertTrue(((Map<?, ?>) cm2.getCache("c2").getNativeCache()).isEmpty());
+
+		Thread.sleep(20);
+		ConcurrentMapCacheManager cm3 = new ConcurrentMapCacheManager("c1");
+		cm3.setExpireAfterWrite(Duration.ofMillis(10));
+		cm3.setSnapshotStore(store);
+		assertNull(cm3.getCache("c1").get("key1"));
+
+		ConcurrentMapCacheManager cm4 = new ConcurrentMapCacheManager("c1");
+		cm4.setExpireAfterWrite(Duration.ofHours(1));
+		cm4.setExpireAfterAccess(Duration.ofMillis(10));
+		cm4.setSnapshotStore(store);
+		assertNull(cm4.getCache("c1").get("key1"));
+	}
+
+	@Test
+	public void testEvictDuringSnapshotRestore() throws Exception {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager();
+		AtomicReference<Thread> evictor = new AtomicReference<>();
+		cm.setSnapshotStore(new CacheSnapshotStore() {
+			@Override
+			public void save(String cacheName, Map<?, ?> entries) {
+			}
+			@Override
+			public int load(String cacheName, @Nullable Duration timeToLive, BiConsumer<Object, Object> consumer)
+					throws IOException {
+				Thread thread = new Thread(() -> cm.getCache(cacheName).evict("key1"));
+				evictor.set(thread);
+				thread.start();
+				try {
+					// Give the concurrent eviction a chance to overtake the restore
+					thread.join(200);
+				}
+				catch (InterruptedException ex) {
+					throw new InterruptedIOException();
+				}
+				consumer.accept("key1", "value1");
+				return 1;
+			}
+		});
+
+		Cache cache = cm.getCache("c1");
+		evictor.get().join(5000);
+		assertNull(cache.get("key1"));
+		assertSame(cache, cm.getCache("c1"));
+	}
+
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@code @Cacheable(batch = true)} bulk lookup methods.
+ */
+public class BatchCachingTests {
+
+	private ConfigurableApplicationContext context;
+
+	private Cache cache;
+
+	private BatchService service;
+
+
+	@Before
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("test");
+		this.service = this.context.getBean(BatchService.class);
+	}
+
+	@After
+	public void close() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void loadMissingKeysOnly() {
+		Map<Long, String> first = this.service.findAll(Arrays.asList(1L, 2L, 3L));
+		assertEquals(Arrays.asList(1L, 2L, 3L), new ArrayList<>(first.keySet()));
+		assertEquals("entity-2", this.cache.get(2L).get());
+
+		Map<Long, String> second = this.service.findAll(Arrays.asList(4L, 2L, 3L));
+		assertEquals(Arrays.asList(4L, 2L, 3L), new ArrayList<>(second.keySet()));
+		assertEquals("entity-4", second.get(4L));
+
+		Map<Long, String> third = this.service.findAll(Arrays.asList(3L, 1L, 4L));
+		assertEquals(3, third.size());
+
+		List<Collection<Long>> invocations = this.service.getInvocations();
+		assertEquals(2, invocations.size());
+		assertEquals(Arrays.asList(1L, 2L, 3L), invocations.get(0));
+		assertEquals(Collections.singletonList(4L), invocations.get(1));
+	}
+
+	@Test
+	public void unlessEvaluatedPerValue() {
+		Map<Long, String> result = this.service.findAll(Arrays.asList(1L, -1L));
+		assertEquals(2, result.size());
+		assertNull(result.get(-1L));
+		assertNotNull(this.cache.get(1L));
+		assertNull(this.cache.get(-1L));
+
+		this.service.findAll(Arrays.asList(1L, -1L));
+		assertEquals(Collections.singletonList(-1L), this.service.getInvocations().get(1));
+	}
+
+	@Test
+	public void setParameter() {
+		this.service.findAllById(new LinkedHashSet<>(Arrays.asList(1L, 2L)));
+		Map<Long, String> result = this.service.findAllById(new LinkedHashSet<>(Arrays.asList(2L, 3L)));
+		assertEquals(Arrays.asList(2L, 3L), new ArrayList<>(result.keySet()));
+
+		Collection<Long> secondInvocation = this.service.getInvocations().get(1);
+		assertTrue(secondInvocation instanceof Set);
+		assertEquals(Collections.singleton(3L), secondInvocation);
+	}
+
+	@Test
+	public void conditionNotPassing() {
+		this.service.findAllIf(Arrays.asList(1L, 2L), false);
+		assertNull(this.cache.get(1L));
+		this.service.findAllIf(Arrays.asList(1L, 2L), true);
+		this.service.findAllIf(Arrays.asList(1L, 2L), true);
+		assertEquals(2, this.service.getInvocations().size());
+	}
+
+	@Test
+	public void invokerWithoutArgumentReplacement() throws Exception {
+		CacheInterceptor interceptor = this.context.getBean(CacheInterceptor.class);
+		BatchService target = new BatchService();
+		Method method = BatchService.class.getMethod("findAll", List.class);
+		List<Long> ids = Arrays.asList(1L, 2L);
+		CacheOperationInvoker invoker = () -> target.findAll(ids);
+
+		this.cache.put(1L, "entity-1");
+		this.cache.put(2L, "entity-2");
+		assertEquals(2, ((Map<?, ?>) interceptor.execute(invoker, target, method, new Object[] {ids})).size());
+
+		this.cache.evict(2L);
+		try {
+			interceptor.execute(invoker, target, method, new Object[] {ids});
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getCause() instanceof UnsupportedOperationException);
+		}
+		assertTrue(target.getInvocations().isEmpty());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void keyAttributeNotSupported() {
+		this.service.findAllWithKey(Arrays.asList(1L, 2L));
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("test");
+		}
+
+		@Bean
+		public BatchService batchService() {
+			return new BatchService();
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "test")
+	public static class BatchService {
+
+		private final List<Collection<Long>> invocations = new ArrayList<>();
+
+		public List<Collection<Long>> getInvocations() {
+			return this.invocations;
+		}
+
+		@Cacheable(batch = true, unless = "#result == null")
+		public Map<Long, String> findAll(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(batch = true)
+		public Map<Long, String> findAllById(Set<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(batch = true, condition = "#useCache")
+		public Map<Long, String> findAllIf(Collection<Long> ids, boolean useCache) {
+			return load(ids);
+		}
+
+		@Cacheable(batch = true, key = "#ids")
+		public Map<Long, String> findAllWithKey(Collection<Long> ids) {
+			return load(ids);
+		}
+
+		private Map<Long, String> load(Collection<Long> ids) {
+			this.invocations.add(ids);
+			Map<Long, String> result = new LinkedHashMap<>();
+			for (Long id : ids) {
+				result.put(id, (id > 0 ? "entity-" + id : null));
+			}
+			return result;
+		}
+	}
+
+}
@@ -16,7 +16,12 @@
 
 package org.springframework.cache.interceptor;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Before;
@@ -104,6 +109,54 @@ public class CacheErrorHandlerTests {
 		this.simpleService.get(0L);
 	}
 
+	@Test
+	public void retrieveSynchronizedFail() throws Exception {
+		UnsupportedOperationException exception = new UnsupportedOperationException("Test exception on retrieve");
+		willThrow(exception).given(this.cache).retrieve(eq(0L), any());
+
+		Object result = this.simpleService.getFuture(0L).get();
+		assertEquals(0L, result);
+		verify(this.errorHandler).handleCacheGetError(exception, cache, 0L);
+	}
+
+	@Test
+	public void retrieveSynchronizedFailAsync() throws Exception {
+		UnsupportedOperationException exception = new UnsupportedOperationException("Test exception on retrieve");
+		CompletableFuture<Object> failed = new CompletableFuture<>();
+		failed.completeExceptionally(exception);
+		willReturn(failed).given(this.cache).retrieve(eq(0L), any());
+
+		Object result = this.simpleService.getFuture(0L).get();
+		assertEquals(0L, result);
+		verify(this.errorHandler).handleCacheGetError(exception, cache, 0L);
+	}
+
+	@Test
+	public void retrieveSynchronizedFailProperException() throws Exception {
+		UnsupportedOperationException exception = new UnsupportedOperationException("Test exception on retrieve");
+		CompletableFuture<Object> failed = new CompletableFuture<>();
+		failed.completeExceptionally(exception);
+		willReturn(failed).given(this.cache).retrieve(eq(0L), any());
+
+		this.cacheInterceptor.setErrorHandler(new SimpleCacheErrorHandler());
+
+		this.thrown.expectCause(is(exception));
+		this.simpleService.getFuture(0L).get();
+	}
+
+	@Test
+	public void getAllAndPutAllFail() {
+		UnsupportedOperationException exception = new UnsupportedOperationException("Test exception on bulk access");
+		willThrow(exception).given(this.cache).getAll(any());
+		willThrow(exception).given(this.cache).putAll(any());
+
+		Map<Long, Object> result = this.simpleService.getAll(Arrays.asList(1L, 2L));
+		verify(this.errorHandler).handleCacheGetError(exception, cache, 1L);
+		verify(this.errorHandler).handleCacheGetError(exception, cache, 2L);
+		verify(this.errorHandler).handleCachePutError(exception, cache, 1L, result.get(1L));
+		verify(this.errorHandler).handleCachePutError(exception, cache, 2L, result.get(2L));
+	}
+
 	@Test
 	public void putFail() {
 		UnsupportedOperationException exception = new UnsupportedOperationException("Test exception on put");
@@ -205,6 +258,18 @@ public class CacheErrorHandlerTests {
 			return this.counter.getAndIncrement();
 		}
 
+		@Cacheable(batch = true)
+		public Map<Long, Object> getAll(List<Long> ids) {
+			Map<Long, Object> result = new LinkedHashMap<>();
+			ids.forEach(id -> result.put(id, this.counter.getAndIncrement()));
+			return result;
+		}
+
+		@Cacheable(sync = true)
+		public CompletableFuture<Object> getFuture(long id) {
+			return CompletableFuture.completedFuture(this.counter.getAndIncrement());
+		}
+
 		@CachePut
 		public Object put(long id) {
 			return this.counter.getAndIncrement();
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.metrics.CacheMetricsRecorder;
+import org.springframework.cache.metrics.CacheStatistics;
+import org.springframework.cache.metrics.SimpleCacheMetricsRecorder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for recording the cache operations of the caching aspect
+ * with a {@link org.springframework.cache.metrics.CacheMetricsRecorder}.
+ */
+public class CacheMetricsRecordingTests {
+
+	private ConfigurableApplicationContext context;
+
+	private SimpleCacheMetricsRecorder recorder;
+
+	private MetricsService service;
+
+
+	@Before
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.recorder = this.context.getBean(SimpleCacheMetricsRecorder.class);
+		this.service = this.context.getBean(MetricsService.class);
+	}
+
+	@After
+	public void close() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void recordOperations() {
+		this.service.get("key");
+		this.service.get("key");
+		this.service.get("other");
+		this.service.evict("key");
+
+		CacheStatistics statistics = this.recorder.getStatistics("test");
+		assertEquals(1, statistics.getHitCount());
+		assertEquals(2, statistics.getMissCount());
+		assertEquals(2, statistics.getLoadSuccessCount());
+		assertEquals(2, statistics.getPutCount());
+		assertEquals(1, statistics.getEvictionCount());
+	}
+
+	@Test
+	public void recordSynchronizedLoads() {
+		this.service.getSync("key");
+		this.service.getSync("key");
+
+		CacheStatistics statistics = this.recorder.getStatistics("test");
+		assertEquals(1, statistics.getHitCount());
+		assertEquals(1, statistics.getMissCount());
+		assertEquals(1, statistics.getLoadSuccessCount());
+	}
+
+	@Test
+	public void recorderFailureDoesNotInvolveErrorHandler() {
+		CacheErrorHandler errorHandler = mock(CacheErrorHandler.class);
+		AbstractCacheInvoker invoker = new AbstractCacheInvoker(errorHandler) {};
+		invoker.setMetricsRecorder(mock(CacheMetricsRecorder.class, invocation -> {
+			throw new IllegalStateException("Expected exception");
+		}));
+		Cache cache = new ConcurrentMapCache("test");
+
+		invoker.doPut(cache, "key", "value");
+		assertEquals("value", invoker.doGet(cache, "key").get());
+		invoker.doEvict(cache, "key");
+		assertNull(cache.get("key"));
+		verifyZeroInteractions(errorHandler);
+	}
+
+	@Test
+	public void recordFailedLoads() {
+		try {
+			this.service.getFailing("key");
+			fail("Should have thrown UnsupportedOperationException");
+		}
+		catch (UnsupportedOperationException ex) {
+			// expected
+		}
+
+		CacheStatistics statistics = this.recorder.getStatistics("test");
+		assertEquals(1, statistics.getMissCount());
+		assertEquals(1, statistics.getLoadFailureCount());
+		assertEquals(0, statistics.getPutCount());
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("test");
+		}
+
+		@Bean
+		public SimpleCacheMetricsRecorder cacheMetricsRecorder() {
+			return new SimpleCacheMetricsRecorder();
+		}
+
+		@Bean
+		public MetricsService metricsService() {
+			return new MetricsService();
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "test")
+	public static class MetricsService {
+
+		private final AtomicLong counter = new AtomicLong();
+
+		@Cacheable
+		public long get(Object key) {
+			return this.counter.incrementAndGet();
+		}
+
+		@Cacheable(sync = true)
+		public long getSync(Object key) {
+			return this.counter.incrementAndGet();
+		}
+
+		@Cacheable
+		public long getFailing(Object key) {
+			throw new UnsupportedOperationException("Expected exception");
+		}
+
+		@CacheEvict
+		public void evict(Object key) {
+		}
+	}
+
+}
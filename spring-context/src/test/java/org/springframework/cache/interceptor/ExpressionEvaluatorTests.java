@@ -140,6 +140,23 @@ public class ExpressionEvaluatorTests {
 		assertThat(value, is(String.class.getName()));
 	}
 
+	@Test
+	public void argumentIndexForPlainReferences() {
+		Method method = ReflectionUtils.findMethod(
+				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		assertEquals(0, this.eval.getArgumentIndex("#a", method));
+		assertEquals(1, this.eval.getArgumentIndex(" #b ", method));
+		assertEquals(0, this.eval.getArgumentIndex("#p0", method));
+		assertEquals(1, this.eval.getArgumentIndex("#a1", method));
+		assertEquals(-1, this.eval.getArgumentIndex("#p2", method));
+		assertEquals(-1, this.eval.getArgumentIndex("#c", method));
+		assertEquals(-1, this.eval.getArgumentIndex("#result", method));
+		assertEquals(-1, this.eval.getArgumentIndex("#root", method));
+		assertEquals(-1, this.eval.getArgumentIndex("#a.toString()", method));
+		assertEquals(-1, this.eval.getArgumentIndex("#a + #b", method));
+		assertEquals(-1, this.eval.getArgumentIndex("a", method));
+	}
+
 	private EvaluationContext createEvaluationContext(Object result) {
 		return createEvaluationContext(result, null);
 	}
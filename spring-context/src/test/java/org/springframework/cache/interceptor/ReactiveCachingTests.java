@@ -0,0 +1,218 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for caching the emitted values of methods returning
+ * {@link CompletableFuture} or reactive types.
+ */
+public class ReactiveCachingTests {
+
+	private ConfigurableApplicationContext context;
+
+	private Cache cache;
+
+	private ReactiveService service;
+
+
+	@Before
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("test");
+		this.service = this.context.getBean(ReactiveService.class);
+	}
+
+	@After
+	public void close() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void cacheCompletableFuture() throws Exception {
+		Long first = this.service.future("key").get();
+		Long second = this.service.future("key").get();
+		assertEquals(first, second);
+		assertEquals(first, this.cache.get("key").get());
+		assertEquals(1, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void cacheCompletableFutureWithSync() throws Exception {
+		Long first = this.service.futureSync("key").get();
+		Long second = this.service.futureSync("key").get();
+		assertEquals(first, second);
+		assertEquals(first, this.cache.get("key").get());
+	}
+
+	@Test
+	public void completableFutureFailureNotCached() throws Exception {
+		try {
+			this.service.failingFuture("key").get();
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertEquals(UnsupportedOperationException.class, ex.getCause().getClass());
+		}
+		assertNull(this.cache.get("key"));
+	}
+
+	@Test
+	public void cacheMono() {
+		Mono<Long> mono = this.service.mono("key");
+		assertNull("Lazy until subscription", this.cache.get("key"));
+		assertEquals(0, this.service.getInvocationCount());
+
+		Long first = mono.block();
+		Long second = this.service.mono("key").block();
+		assertEquals(first, second);
+		assertEquals(first, this.cache.get("key").get());
+		assertEquals(1, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void cacheEmptyMono() {
+		assertNull(this.service.emptyMono("key").block());
+		assertNull(this.service.emptyMono("key").block());
+		assertNotNull(this.cache.get("key"));
+		assertEquals(1, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void cacheMonoWithSync() {
+		Long first = this.service.monoSync("key").block();
+		Long second = this.service.monoSync("key").block();
+		assertEquals(first, second);
+		assertEquals(first, this.cache.get("key").get());
+	}
+
+	@Test
+	public void cacheFlux() {
+		List<Long> first = this.service.flux("key").collectList().block();
+		List<Long> second = this.service.flux("key").collectList().block();
+		assertEquals(3, first.size());
+		assertEquals(first, second);
+		assertEquals(first, this.cache.get("key").get());
+		assertEquals(3, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void evictWithMono() {
+		Long first = this.service.mono("key").block();
+		this.service.evict("key").block();
+		assertNull(this.cache.get("key"));
+		Long second = this.service.mono("key").block();
+		assertNotEquals(first, second);
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("test");
+		}
+
+		@Bean
+		public ReactiveService reactiveService() {
+			return new ReactiveService();
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "test")
+	public static class ReactiveService {
+
+		private final AtomicLong counter = new AtomicLong();
+
+		public long getInvocationCount() {
+			return this.counter.get();
+		}
+
+		@Cacheable
+		public CompletableFuture<Long> future(Object key) {
+			return CompletableFuture.completedFuture(this.counter.incrementAndGet());
+		}
+
+		@Cacheable(sync = true)
+		public CompletableFuture<Long> futureSync(Object key) {
+			return CompletableFuture.supplyAsync(this.counter::incrementAndGet);
+		}
+
+		@Cacheable
+		public CompletableFuture<Long> failingFuture(Object key) {
+			CompletableFuture<Long> future = new CompletableFuture<>();
+			future.completeExceptionally(new UnsupportedOperationException("Expected exception"));
+			return future;
+		}
+
+		@Cacheable
+		public Mono<Long> mono(Object key) {
+			return Mono.fromSupplier(this.counter::incrementAndGet);
+		}
+
+		@Cacheable
+		public Mono<Long> emptyMono(Object key) {
+			this.counter.incrementAndGet();
+			return Mono.empty();
+		}
+
+		@Cacheable(sync = true)
+		public Mono<Long> monoSync(Object key) {
+			return Mono.fromSupplier(this.counter::incrementAndGet);
+		}
+
+		@Cacheable
+		public Flux<Long> flux(Object key) {
+			return Flux.fromIterable(Arrays.asList(1L, 2L, 3L)).map(i -> this.counter.incrementAndGet());
+		}
+
+		@CacheEvict
+		public Mono<Void> evict(Object key) {
+			return Mono.empty();
+		}
+	}
+
+}
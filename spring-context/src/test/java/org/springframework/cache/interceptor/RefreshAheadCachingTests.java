@@ -0,0 +1,185 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@code @Cacheable(refreshAfter = ...)} refresh-ahead operations,
+ * refreshing synchronously on the calling thread for predictable results.
+ */
+public class RefreshAheadCachingTests {
+
+	private static final long REFRESH_AFTER = 50;
+
+
+	private ConfigurableApplicationContext context;
+
+	private Cache cache;
+
+	private RefreshService service;
+
+
+	@Before
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("test");
+		this.service = this.context.getBean(RefreshService.class);
+	}
+
+	@After
+	public void close() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void freshValueNotRefreshed() {
+		assertEquals(1L, this.service.get("key"));
+		assertEquals(1L, this.service.get("key"));
+		assertEquals(1, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void staleValueServedAndRefreshed() throws InterruptedException {
+		assertEquals(1L, this.service.get("key"));
+		Thread.sleep(REFRESH_AFTER * 2);
+
+		assertEquals("Stale value served", 1L, this.service.get("key"));
+		assertEquals(2L, this.cache.get("key").get());
+		assertEquals(2L, this.service.get("key"));
+		assertEquals(2, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void staleValueServedAndRefreshedWithSync() throws InterruptedException {
+		assertEquals(1L, this.service.getSync("key"));
+		Thread.sleep(REFRESH_AFTER * 2);
+
+		assertEquals("Stale value served", 1L, this.service.getSync("key"));
+		assertEquals(2L, this.cache.get("key").get());
+		assertEquals(2L, this.service.getSync("key"));
+		assertEquals(2, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void valueOfUnknownAgeConsideredFresh() throws InterruptedException {
+		this.cache.put("key", 42L);
+		Thread.sleep(REFRESH_AFTER * 2);
+
+		assertEquals(42L, this.service.get("key"));
+		assertEquals(0, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void failedRefreshKeepsValue() throws InterruptedException {
+		assertEquals(1L, this.service.getFailingAfterFirst("key"));
+		Thread.sleep(REFRESH_AFTER * 2);
+
+		assertEquals(1L, this.service.getFailingAfterFirst("key"));
+		assertEquals(1L, this.cache.get("key").get());
+		assertEquals("No retry before refresh age has passed again",
+				1L, this.service.getFailingAfterFirst("key"));
+		assertEquals(2, this.service.getInvocationCount());
+	}
+
+	@Test
+	public void noRefreshWithCachePut() throws InterruptedException {
+		assertEquals(1L, this.service.getAndPut("key"));
+		Thread.sleep(REFRESH_AFTER * 2);
+
+		assertEquals(2L, this.service.getAndPut("key"));
+		assertEquals(2, this.service.getInvocationCount());
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("test", "other");
+		}
+
+		@Bean
+		public Executor cacheRefreshExecutor() {
+			return new SyncTaskExecutor();
+		}
+
+		@Bean
+		public RefreshService refreshService() {
+			return new RefreshService();
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "test", refreshAfter = "" + REFRESH_AFTER)
+	public static class RefreshService {
+
+		private final AtomicLong counter = new AtomicLong();
+
+		public long getInvocationCount() {
+			return this.counter.get();
+		}
+
+		@Cacheable
+		public long get(Object key) {
+			return this.counter.incrementAndGet();
+		}
+
+		@Cacheable(sync = true)
+		public long getSync(Object key) {
+			return this.counter.incrementAndGet();
+		}
+
+		@Cacheable
+		public long getFailingAfterFirst(Object key) {
+			if (this.counter.incrementAndGet() > 1) {
+				throw new UnsupportedOperationException("Expected exception");
+			}
+			return 1L;
+		}
+
+		@Cacheable
+		@CachePut("other")
+		public long getAndPut(Object key) {
+			return this.counter.incrementAndGet();
+		}
+	}
+
+}
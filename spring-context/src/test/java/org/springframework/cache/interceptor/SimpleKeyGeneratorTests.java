@@ -16,6 +16,8 @@
 
 package org.springframework.cache.interceptor;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 import static org.hamcrest.Matchers.*;
@@ -111,6 +113,32 @@ public class SimpleKeyGeneratorTests {
 		assertThat(k1, not(equalTo(k3)));
 	}
 
+	@Test
+	public void hashCodeConsistentWithDeepHashCode() {
+		Object[] plain = new Object[] { "a", 1, null, 2L };
+		Object[] nested = new Object[] { "a", new int[] {1, 2}, new String[] {"b"} };
+		assertThat(new SimpleKey(plain).hashCode(), equalTo(Arrays.deepHashCode(plain)));
+		assertThat(new SimpleKey(nested).hashCode(), equalTo(Arrays.deepHashCode(nested)));
+	}
+
+	@Test
+	public void arrayNotEqualToPlainValue() {
+		Object k1 = generateKey(new Object[] { "a", new String[] {"b"} });
+		Object k2 = generateKey(new Object[] { "a", "b" });
+		Object k3 = generateKey(new Object[] { "a", new Object[] {"b"} });
+		assertThat(k1, not(equalTo(k2)));
+		assertThat(k2, not(equalTo(k1)));
+		assertThat(k1, equalTo(k3));
+	}
+
+	@Test
+	public void keyIndependentOfArgumentArray() {
+		Object[] arguments = new Object[] { "a", "b" };
+		Object k1 = generateKey(arguments);
+		arguments[1] = "c";
+		assertThat(k1, equalTo(generateKey(new Object[] { "a", "b" })));
+	}
+
 
 	private Object generateKey(Object[] arguments) {
 		return this.generator.generate(null, null, arguments);
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link InstrumentedCacheManager} and {@link InstrumentedCache}.
+ */
+public class InstrumentedCacheManagerTests {
+
+	private final SimpleCacheMetricsRecorder recorder = new SimpleCacheMetricsRecorder();
+
+	private final InstrumentedCacheManager cacheManager =
+			new InstrumentedCacheManager(new ConcurrentMapCacheManager("test"), this.recorder);
+
+
+	@Test
+	public void decoratesTargetCaches() {
+		Cache cache = this.cacheManager.getCache("test");
+		assertTrue(cache instanceof InstrumentedCache);
+		assertSame(cache, this.cacheManager.getCache("test"));
+		assertEquals(Collections.singleton("test"), this.cacheManager.getCacheNames());
+	}
+
+	@Test
+	public void recordLookupsAndModifications() {
+		Cache cache = this.cacheManager.getCache("test");
+		assertNull(cache.get("key"));
+		cache.put("key", "value");
+		assertEquals("value", cache.get("key", String.class));
+		assertNull(cache.putIfAbsent("other", "value"));
+		assertNotNull(cache.putIfAbsent("other", "value"));
+		assertEquals(2, cache.getAll(Arrays.asList("key", "other", "missing")).size());
+		cache.evict("key");
+		cache.clear();
+
+		CacheStatistics statistics = this.recorder.getStatistics("test");
+		assertEquals(3, statistics.getHitCount());
+		assertEquals(2, statistics.getMissCount());
+		assertEquals(2, statistics.getPutCount());
+		assertEquals(1, statistics.getEvictionCount());
+		assertEquals(1, statistics.getClearCount());
+	}
+
+	@Test
+	public void recordLoads() {
+		Cache cache = this.cacheManager.getCache("test");
+		assertEquals("value", cache.get("key", () -> "value"));
+		assertEquals("value", cache.get("key", () -> "other"));
+		try {
+			cache.get("failing", () -> {
+				throw new IllegalStateException("Expected exception");
+			});
+			fail("Should have thrown ValueRetrievalException");
+		}
+		catch (Cache.ValueRetrievalException ex) {
+			// expected
+		}
+
+		CacheStatistics statistics = this.recorder.getStatistics("test");
+		assertEquals(1, statistics.getHitCount());
+		assertEquals(2, statistics.getMissCount());
+		assertEquals(1, statistics.getLoadSuccessCount());
+		assertEquals(1, statistics.getLoadFailureCount());
+	}
+
+	@Test
+	public void recordAsyncRetrieval() throws Exception {
+		Cache cache = this.cacheManager.getCache("test");
+		assertEquals("value", cache.retrieve("key", () -> CompletableFuture.completedFuture("value")).get());
+		assertEquals("value", cache.retrieve("key").get().get());
+
+		CacheStatistics statistics = this.recorder.getStatistics("test");
+		assertEquals(1, statistics.getHitCount());
+		assertEquals(1, statistics.getMissCount());
+		assertEquals(1, statistics.getLoadSuccessCount());
+	}
+
+}
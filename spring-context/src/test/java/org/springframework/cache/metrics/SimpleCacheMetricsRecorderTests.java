@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.metrics;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.Test;
+
+import org.springframework.jmx.export.MBeanExporter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SimpleCacheMetricsRecorder}.
+ */
+public class SimpleCacheMetricsRecorderTests {
+
+	private final SimpleCacheMetricsRecorder recorder = new SimpleCacheMetricsRecorder();
+
+
+	@Test
+	public void statisticsPerCache() {
+		this.recorder.recordHit("a", "key", 100);
+		this.recorder.recordHit("a", "key", 300);
+		this.recorder.recordMiss("a", "other", 200);
+		this.recorder.recordLoad("a", 2000, true);
+		this.recorder.recordLoad("a", 4000, false);
+		this.recorder.recordPut("a", "other", 50);
+		this.recorder.recordEviction("a", "key", 50);
+		this.recorder.recordEviction("a", null, 50);
+		this.recorder.recordMiss("b", "key", 100);
+
+		assertEquals(2, this.recorder.getCacheNames().size());
+		assertNull(this.recorder.getStatistics("c"));
+
+		CacheStatistics statistics = this.recorder.getStatistics("a");
+		assertEquals("a", statistics.getCacheName());
+		assertEquals(2, statistics.getHitCount());
+		assertEquals(1, statistics.getMissCount());
+		assertEquals(2.0 / 3, statistics.getHitRatio(), 0.001);
+		assertEquals(200, statistics.getAverageLookupTime(TimeUnit.NANOSECONDS));
+		assertEquals(1, statistics.getLoadSuccessCount());
+		assertEquals(1, statistics.getLoadFailureCount());
+		assertEquals(3, statistics.getAverageLoadTime(TimeUnit.MICROSECONDS));
+		assertEquals(4, statistics.getMaxLoadTime(TimeUnit.MICROSECONDS));
+		assertEquals(1, statistics.getPutCount());
+		assertEquals(1, statistics.getEvictionCount());
+		assertEquals(1, statistics.getClearCount());
+		assertEquals(0, this.recorder.getStatistics("b").getHitRatio(), 0);
+
+		this.recorder.reset();
+		assertEquals(0, statistics.getHitCount());
+		assertEquals(0, statistics.getAverageLoadTime(TimeUnit.NANOSECONDS));
+		assertTrue(statistics.getHotKeys().isEmpty());
+	}
+
+	@Test
+	public void hotKeys() {
+		this.recorder.setHotKeyCount(2);
+		this.recorder.setHotKeySampleRate(1);
+		for (int i = 0; i < 100; i++) {
+			this.recorder.recordHit("test", "hot", 0);
+			if (i % 2 == 0) {
+				this.recorder.recordMiss("test", "warm", 0);
+			}
+			// Many keys accessed once, exceeding the tracking capacity
+			this.recorder.recordMiss("test", "cold" + i, 0);
+		}
+
+		Map<Object, Long> hotKeys = this.recorder.getStatistics("test").getHotKeys();
+		assertEquals(2, hotKeys.size());
+		Iterator<Map.Entry<Object, Long>> it = hotKeys.entrySet().iterator();
+		Map.Entry<Object, Long> first = it.next();
+		assertEquals("hot", first.getKey());
+		assertEquals(100, first.getValue().longValue());
+		Map.Entry<Object, Long> second = it.next();
+		assertEquals("warm", second.getKey());
+		assertEquals(50, second.getValue().longValue());
+	}
+
+	@Test
+	public void hotKeysWithSampling() {
+		this.recorder.setHotKeySampleRate(0.5);
+		for (int i = 0; i < 10000; i++) {
+			this.recorder.recordHit("test", "hot", 0);
+		}
+		long estimate = this.recorder.getStatistics("test").getHotKeys().get("hot");
+		assertTrue("Unexpected estimate: " + estimate, estimate > 9000 && estimate < 11000);
+	}
+
+	@Test
+	public void exposeThroughJmx() throws Exception {
+		MBeanServer server = MBeanServerFactory.newMBeanServer();
+		MBeanExporter exporter = new MBeanExporter();
+		exporter.setServer(server);
+		this.recorder.setMBeanExporter(exporter);
+
+		this.recorder.recordHit("test cache", "key", 100);
+		this.recorder.recordMiss("test cache", "key", 100);
+
+		ObjectName objectName = new ObjectName(
+				"org.springframework.cache:type=CacheStatistics,name=" + ObjectName.quote("test cache"));
+		assertTrue(server.isRegistered(objectName));
+		assertEquals(1L, server.getAttribute(objectName, "HitCount"));
+		assertEquals(0.5, server.getAttribute(objectName, "HitRatio"));
+		assertEquals(100L, server.getAttribute(objectName, "AverageLookupNanos"));
+		assertEquals(0L, server.getAttribute(objectName, "MaxLoadNanos"));
+		assertTrue(server.getAttribute(objectName, "HotKeyCounts") instanceof TabularData);
+	}
+
+	@Test
+	public void recordDespiteFailedJmxRegistration() throws Exception {
+		MBeanServer server = MBeanServerFactory.newMBeanServer();
+		MBeanExporter exporter = new MBeanExporter();
+		exporter.setServer(server);
+		SimpleCacheMetricsRecorder other = new SimpleCacheMetricsRecorder();
+		other.setMBeanExporter(exporter);
+		other.recordHit("test", "key", 100);
+		this.recorder.setMBeanExporter(exporter);
+
+		// Already registered by the other recorder
+		this.recorder.recordHit("test", "key", 100);
+		CacheStatistics statistics = this.recorder.getStatistics("test");
+		this.recorder.recordMiss("test", "key", 100);
+		assertSame(statistics, this.recorder.getStatistics("test"));
+		assertEquals(1, statistics.getHitCount());
+		assertEquals(1, statistics.getMissCount());
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.io.File;
+import java.io.NotSerializableException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.cache.interceptor.SimpleKey;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FileSystemCacheSnapshotStore}.
+ */
+public class FileSystemCacheSnapshotStoreTests {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private FileSystemCacheSnapshotStore store;
+
+
+	@Before
+	public void setup() {
+		this.store = new FileSystemCacheSnapshotStore(new File(this.folder.getRoot(), "snapshots"));
+	}
+
+
+	@Test
+	public void saveAndLoad() throws Exception {
+		Map<Object, Object> entries = new LinkedHashMap<>();
+		entries.put("a", 1);
+		entries.put(2L, "b");
+		entries.put("c", NullValue.INSTANCE);
+		this.store.save("test", entries);
+
+		Map<Object, Object> loaded = new LinkedHashMap<>();
+		assertEquals(3, this.store.load("test", null, loaded::put));
+		assertEquals(entries, loaded);
+		assertSame(NullValue.INSTANCE, loaded.get("c"));
+	}
+
+	@Test
+	public void saveAndLoadSimpleKeyWithEnumParameter() throws Exception {
+		SimpleKey key = new SimpleKey(TimeUnit.SECONDS, "a", Object.class);
+		this.store.save("test", singletonMap(key, "1"));
+
+		Map<Object, Object> loaded = new LinkedHashMap<>();
+		assertEquals(1, this.store.load("test", null, loaded::put));
+		Object loadedKey = loaded.keySet().iterator().next();
+		assertNotSame(key, loadedKey);
+		assertEquals(key, loadedKey);
+		assertEquals(new SimpleKey(TimeUnit.SECONDS, "a", Object.class).hashCode(), loadedKey.hashCode());
+		assertEquals("1", loaded.get(new SimpleKey(TimeUnit.SECONDS, "a", Object.class)));
+	}
+
+	@Test
+	public void loadWithoutSnapshot() throws Exception {
+		Map<Object, Object> loaded = new LinkedHashMap<>();
+		assertEquals(0, this.store.load("test", null, loaded::put));
+		assertTrue(loaded.isEmpty());
+	}
+
+	@Test
+	public void saveReplacesPreviousSnapshot() throws Exception {
+		this.store.save("test", singletonMap("a", "1"));
+		this.store.save("test", singletonMap("b", "2"));
+
+		Map<Object, Object> loaded = new LinkedHashMap<>();
+		this.store.load("test", null, loaded::put);
+		assertEquals(singletonMap("b", "2"), loaded);
+		assertEquals(1, this.store.getDirectory().listFiles().length);
+	}
+
+	@Test
+	public void cacheNamesMappedToSeparateFiles() throws Exception {
+		this.store.save("a/b", singletonMap("a", "1"));
+		this.store.save("a:b", singletonMap("b", "2"));
+
+		Map<Object, Object> loaded = new LinkedHashMap<>();
+		this.store.load("a/b", null, loaded::put);
+		assertEquals(singletonMap("a", "1"), loaded);
+	}
+
+	@Test
+	public void nonSerializableEntriesSkipped() throws Exception {
+		Map<Object, Object> entries = new LinkedHashMap<>();
+		entries.put("a", new Object());
+		entries.put(new Object(), "b");
+		entries.put("c", "3");
+		this.store.save("test", entries);
+
+		Map<Object, Object> loaded = new LinkedHashMap<>();
+		assertEquals(1, this.store.load("test", null, loaded::put));
+		assertEquals(singletonMap("c", "3"), loaded);
+	}
+
+	@Test
+	public void undeserializableEntriesSkipped() throws Exception {
+		this.store.save("test", singletonMap("a", "1"));
+		this.store.setDeserializer(inputStream -> {
+			throw new NotSerializableException();
+		});
+
+		Map<Object, Object> loaded = new LinkedHashMap<>();
+		assertEquals(0, this.store.load("test", null, loaded::put));
+	}
+
+	@Test
+	public void expiredSnapshotDiscarded() throws Exception {
+		this.store.save("test", singletonMap("a", "1"));
+		Thread.sleep(20);
+
+		Map<Object, Object> loaded = new LinkedHashMap<>();
+		assertEquals(0, this.store.load("test", Duration.ofMillis(10), loaded::put));
+		assertEquals(1, this.store.load("test", Duration.ofHours(1), loaded::put));
+
+		this.store.setMaxAge(Duration.ofMillis(10));
+		assertEquals(0, this.store.load("test", Duration.ofHours(1), loaded::put));
+	}
+
+	@Test
+	public void truncatedSnapshotLoadedPartially() throws Exception {
+		Map<Object, Object> entries = new LinkedHashMap<>();
+		entries.put("a", "1");
+		entries.put("b", "2");
+		this.store.save("test", entries);
+		File file = this.store.getDirectory().listFiles()[0];
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(file.length() - 10);
+		}
+
+		Map<Object, Object> loaded = new LinkedHashMap<>();
+		assertEquals(1, this.store.load("test", null, loaded::put));
+		assertEquals(singletonMap("a", "1"), loaded);
+	}
+
+	@Test
+	public void corruptEntryLengthIgnored() throws Exception {
+		Map<Object, Object> entries = new LinkedHashMap<>();
+		entries.put("a", "1");
+		entries.put("b", "2");
+		this.store.save("test", entries);
+		File file = this.store.getDirectory().listFiles()[0];
+		Map<Object, Object> loaded = new LinkedHashMap<>();
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			// Length of the first key, right after the header and the entry marker
+			raf.seek(17);
+			raf.writeInt(Integer.MAX_VALUE);
+		}
+		assertEquals(0, this.store.load("test", null, loaded::put));
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(17);
+			raf.writeInt(-1);
+		}
+		assertEquals(0, this.store.load("test", null, loaded::put));
+		assertTrue(loaded.isEmpty());
+	}
+
+	@Test
+	public void incompatibleFileIgnored() throws Exception {
+		this.store.save("test", singletonMap("a", "1"));
+		File file = this.store.getDirectory().listFiles()[0];
+		Files.write(file.toPath(), new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+		Map<Object, Object> loaded = new LinkedHashMap<>();
+		assertEquals(0, this.store.load("test", null, loaded::put));
+	}
+
+
+	private static Map<Object, Object> singletonMap(Object key, Object value) {
+		Map<Object, Object> map = new LinkedHashMap<>();
+		map.put(key, value);
+		return map;
+	}
+
+}
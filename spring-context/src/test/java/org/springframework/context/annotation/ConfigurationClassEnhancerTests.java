@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.OverridingClassLoader;
+import org.springframework.core.SpringProperties;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConfigurationClassEnhancer}.
+ */
+public class ConfigurationClassEnhancerTests {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@After
+	public void resetCacheDirectory() {
+		SpringProperties.setProperty(ConfigurationClassEnhancer.CACHE_DIRECTORY_PROPERTY_NAME, null);
+	}
+
+
+	@Test
+	public void enhanceWithoutCacheDirectory() {
+		Class<?> enhancedClass = new ConfigurationClassEnhancer().enhance(MyConfig.class, getClass().getClassLoader());
+		assertTrue(ConfigurationClassEnhancer.EnhancedConfiguration.class.isAssignableFrom(enhancedClass));
+	}
+
+	@Test
+	public void enhanceWithCacheDirectory() throws Exception {
+		File cacheDirectory = this.temporaryFolder.newFolder();
+		SpringProperties.setProperty(
+				ConfigurationClassEnhancer.CACHE_DIRECTORY_PROPERTY_NAME, cacheDirectory.getAbsolutePath());
+
+		Class<?> first = enhanceInNewClassLoader();
+		assertEquals(1, cacheDirectory.listFiles().length);
+		File cacheFile = cacheDirectory.listFiles()[0];
+		long lastModified = cacheFile.lastModified();
+		assertTrue(cacheFile.getName().startsWith(MyConfig.class.getName()));
+
+		Class<?> second = enhanceInNewClassLoader();
+		assertNotSame(first, second);
+		assertEquals(first.getName(), second.getName());
+		assertEquals(1, cacheDirectory.listFiles().length);
+		assertEquals(lastModified, cacheFile.lastModified());
+		assertTrue(ConfigurationClassEnhancer.EnhancedConfiguration.class.isAssignableFrom(second));
+
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(MyConfig.class);
+		MyConfig config = ctx.getBean(MyConfig.class);
+		assertSame(ctx.getBean("name"), config.name());
+		ctx.close();
+	}
+
+
+	private Class<?> enhanceInNewClassLoader() throws ClassNotFoundException {
+		ClassLoader classLoader = new OverridingClassLoader(getClass().getClassLoader()) {
+			@Override
+			protected boolean isEligibleForOverriding(String className) {
+				return MyConfig.class.getName().equals(className);
+			}
+		};
+		Class<?> configClass = classLoader.loadClass(MyConfig.class.getName());
+		return new ConfigurationClassEnhancer().enhance(configClass, classLoader);
+	}
+
+
+	@Configuration
+	public static class MyConfig {
+
+		@Bean
+		public StringBuilder name() {
+			return new StringBuilder("name");
+		}
+	}
+
+}
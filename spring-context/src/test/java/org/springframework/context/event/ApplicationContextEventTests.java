@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,18 @@
 
 package org.springframework.context.event;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.junit.Test;
@@ -44,6 +51,7 @@ import org.springframework.context.support.StaticMessageSource;
 import org.springframework.core.Ordered;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.support.TaskUtils;
 import org.springframework.tests.sample.beans.TestBean;
 import org.springframework.util.ReflectionUtils;
@@ -178,6 +186,173 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		smc.multicastEvent(evt);
 	}
 
+	@Test
+	public void simpleApplicationEventMulticasterWithSyncListener() {
+		@SuppressWarnings("unchecked")
+		ApplicationListener<ApplicationEvent> listener = mock(ApplicationListener.class);
+		PolicyListener syncListener = new PolicyListener(ListenerExecutionPolicy.SYNC);
+		ApplicationEvent evt = new ContextClosedEvent(new StaticApplicationContext());
+		List<Runnable> tasks = new ArrayList<>();
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.addApplicationListener(listener);
+		smc.addApplicationListener(syncListener);
+
+		smc.multicastEvent(evt);
+		assertEquals(Collections.singletonList(evt), syncListener.events);
+		assertEquals(1, tasks.size());
+		verify(listener, never()).onApplicationEvent(evt);
+		tasks.get(0).run();
+		verify(listener).onApplicationEvent(evt);
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithAsyncListenerAndMaxPending() {
+		List<Runnable> tasks = new ArrayList<>();
+		PolicyListener listener = new PolicyListener(ListenerExecutionPolicy.async(tasks::add).withMaxPending(2));
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener);
+
+		MyEvent evt1 = new MyEvent(this);
+		MyEvent evt2 = new MyEvent(this);
+		MyEvent evt3 = new MyEvent(this);
+		smc.multicastEvent(evt1);
+		smc.multicastEvent(evt2);
+		assertEquals(2, tasks.size());
+		assertTrue(listener.events.isEmpty());
+
+		// Limit reached -> invoked in the publishing thread
+		smc.multicastEvent(evt3);
+		assertEquals(2, tasks.size());
+		assertEquals(Collections.singletonList(evt3), listener.events);
+
+		tasks.forEach(Runnable::run);
+		assertEquals(Arrays.asList(evt3, evt1, evt2), listener.events);
+		smc.multicastEvent(evt1);
+		assertEquals(3, tasks.size());
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithOrderedListener() {
+		List<Runnable> tasks = new ArrayList<>();
+		PolicyListener listener = new PolicyListener(ListenerExecutionPolicy.ordered().withBatchSize(2));
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.addApplicationListener(listener);
+
+		MyEvent evt1 = new MyEvent(this);
+		MyEvent evt2 = new MyEvent(this);
+		MyEvent evt3 = new MyEvent(this);
+		smc.multicastEvent(evt1);
+		smc.multicastEvent(evt2);
+		smc.multicastEvent(evt3);
+		assertEquals(1, tasks.size());
+
+		tasks.remove(0).run();
+		assertEquals(Arrays.asList(evt1, evt2), listener.events);
+		assertEquals(1, tasks.size());
+		tasks.remove(0).run();
+		assertEquals(Arrays.asList(evt1, evt2, evt3), listener.events);
+		assertTrue(tasks.isEmpty());
+	}
+
+	@Test(timeout = 5000)
+	public void simpleApplicationEventMulticasterWithOrderedListenerAndRejectingExecutor() {
+		PolicyListener listener = new PolicyListener(ListenerExecutionPolicy.ordered(command -> {
+			throw new RejectedExecutionException();
+		}).withMaxPending(1));
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener);
+
+		MyEvent evt1 = new MyEvent(this);
+		MyEvent evt2 = new MyEvent(this);
+		try {
+			smc.multicastEvent(evt1);
+			fail("Should have thrown RejectedExecutionException");
+		}
+		catch (RejectedExecutionException ex) {
+			// expected
+		}
+		// Neither blocked by nor delivered together with the rejected event
+		try {
+			smc.multicastEvent(evt2);
+			fail("Should have thrown RejectedExecutionException");
+		}
+		catch (RejectedExecutionException ex) {
+			// expected
+		}
+		assertTrue(listener.events.isEmpty());
+	}
+
+	@Test(timeout = 5000)
+	public void simpleApplicationEventMulticasterWithOrderedListenerAndRejectedReschedule() {
+		List<Runnable> tasks = new ArrayList<>();
+		PolicyListener listener = new PolicyListener(ListenerExecutionPolicy.ordered(command -> {
+			if (!tasks.isEmpty()) {
+				throw new RejectedExecutionException();
+			}
+			tasks.add(command);
+		}).withMaxPending(2));
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener);
+
+		MyEvent evt1 = new MyEvent(this);
+		MyEvent evt2 = new MyEvent(this);
+		MyEvent evt3 = new MyEvent(this);
+		smc.multicastEvent(evt1);
+		smc.multicastEvent(evt2);
+		assertEquals(1, tasks.size());
+
+		// Follow-up task rejected -> remaining events delivered by the current task
+		tasks.get(0).run();
+		assertEquals(Arrays.asList(evt1, evt2), listener.events);
+
+		try {
+			smc.multicastEvent(evt3);
+			fail("Should have thrown RejectedExecutionException");
+		}
+		catch (RejectedExecutionException ex) {
+			// expected
+		}
+		assertEquals(Arrays.asList(evt1, evt2), listener.events);
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithOrderedListenerOnExecutorBean() throws Exception {
+		StaticApplicationContext context = new StaticApplicationContext();
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(4);
+		executor.initialize();
+		context.getBeanFactory().registerSingleton("listenerExecutor", executor);
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster(context.getBeanFactory());
+		CountDownLatch latch = new CountDownLatch(100);
+		List<Integer> received = new ArrayList<>();
+		PolicyListener listener = new PolicyListener(
+				ListenerExecutionPolicy.ordered("listenerExecutor").withMaxPending(10).withBatchSize(5)) {
+			@Override
+			@SuppressWarnings("unchecked")
+			public void onApplicationEvent(ApplicationEvent event) {
+				received.add(((PayloadApplicationEvent<Integer>) event).getPayload());
+				latch.countDown();
+			}
+		};
+		smc.addApplicationListener(listener);
+
+		try {
+			for (int i = 0; i < 100; i++) {
+				smc.multicastEvent(new PayloadApplicationEvent<>(this, i));
+			}
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+			for (int i = 0; i < 100; i++) {
+				assertEquals(Integer.valueOf(i), received.get(i));
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void orderedListeners() {
 		MyOrderedListener1 listener1 = new MyOrderedListener1();
@@ -319,10 +494,56 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 
 		AbstractApplicationEventMulticaster multicaster = context.getBean(AbstractApplicationEventMulticaster.class);
 		assertEquals(2, multicaster.retrieverCache.size());
+		assertEquals(2, multicaster.dispatchTable.size());
 
 		context.close();
 	}
 
+	@Test
+	public void dispatchTableWithPayloadEvents() {
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		MyPayloadListener payloadListener = new MyPayloadListener();
+		smc.addApplicationListener(payloadListener);
+
+		smc.multicastEvent(new PayloadApplicationEvent<>(this, "event1"));
+		smc.multicastEvent(new PayloadApplicationEvent<>(this, 2));
+		smc.multicastEvent(new PayloadApplicationEvent<>(this, "event3"));
+		smc.multicastEvent(new MyEvent(this));
+		assertEquals(3, smc.dispatchTable.size());
+		assertEquals(3, smc.retrieverCache.size());
+		assertEquals(3, payloadListener.seenPayloads.size());
+
+		MyOrderedListener1 listener = new MyOrderedListener1();
+		smc.addApplicationListener(listener);
+		assertTrue(smc.dispatchTable.isEmpty());
+		smc.multicastEvent(new MyEvent(this));
+		assertEquals(1, smc.dispatchTable.size());
+		assertEquals(1, listener.seenEvents.size());
+	}
+
+	@Test
+	public void dispatchTableWithCustomListenerRetrieval() {
+		MyOrderedListener1 excludedListener = new MyOrderedListener1();
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster() {
+			@Override
+			protected Collection<ApplicationListener<?>> getApplicationListeners(
+					ApplicationEvent event, ResolvableType eventType) {
+				Collection<ApplicationListener<?>> listeners = new ArrayList<>(super.getApplicationListeners(event, eventType));
+				listeners.remove(excludedListener);
+				return listeners;
+			}
+		};
+		MyOrderedListener1 listener = new MyOrderedListener1();
+		smc.addApplicationListener(listener);
+		smc.addApplicationListener(excludedListener);
+
+		smc.multicastEvent(new MyEvent(this));
+		smc.multicastEvent(new MyEvent(this));
+		assertEquals(1, smc.dispatchTable.size());
+		assertEquals(2, listener.seenEvents.size());
+		assertTrue(excludedListener.seenEvents.isEmpty());
+	}
+
 	@Test
 	public void listenersInApplicationContextWithNestedChild() {
 		StaticApplicationContext context = new StaticApplicationContext();
@@ -627,6 +848,33 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 	}
 
 
+	public static class PolicyListener implements SmartApplicationListener {
+
+		private final ListenerExecutionPolicy executionPolicy;
+
+		public final List<ApplicationEvent> events = new ArrayList<>();
+
+		public PolicyListener(ListenerExecutionPolicy executionPolicy) {
+			this.executionPolicy = executionPolicy;
+		}
+
+		@Override
+		public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+			return true;
+		}
+
+		@Override
+		public ListenerExecutionPolicy getExecutionPolicy() {
+			return this.executionPolicy;
+		}
+
+		@Override
+		public void onApplicationEvent(ApplicationEvent event) {
+			this.events.add(event);
+		}
+	}
+
+
 	public static class EventPublishingBeanPostProcessor implements BeanPostProcessor, ApplicationContextAware {
 
 		private ApplicationContext applicationContext;
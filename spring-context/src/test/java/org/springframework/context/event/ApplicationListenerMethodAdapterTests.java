@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -174,6 +174,37 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		assertEquals(42, adapter.getOrder());
 	}
 
+	@Test
+	public void defaultExecutionPolicy() {
+		Method method = ReflectionUtils.findMethod(
+				SampleEvents.class, "handleGenericString", GenericTestEvent.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		assertNull(adapter.getExecutionPolicy());
+	}
+
+	@Test
+	public void specifiedExecutionPolicy() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleOrdered", String.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		assertEquals(ListenerExecutionPolicy.ordered("auditExecutor").withMaxPending(100).withBatchSize(10),
+				adapter.getExecutionPolicy());
+
+		method = ReflectionUtils.findMethod(SampleEvents.class, "handleWithExecutor", String.class);
+		adapter = createTestInstance(method);
+		assertEquals(ListenerExecutionPolicy.async("auditExecutor"), adapter.getExecutionPolicy());
+
+		method = ReflectionUtils.findMethod(SampleEvents.class, "handleWithMaxPending", String.class);
+		adapter = createTestInstance(method);
+		assertEquals(ListenerExecutionPolicy.async().withMaxPending(5), adapter.getExecutionPolicy());
+	}
+
+	@Test
+	public void batchSizeWithoutOrderedExecution() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleBatchedWithoutOrder", String.class);
+		this.thrown.expect(IllegalArgumentException.class);
+		createTestInstance(method);
+	}
+
 	@Test
 	public void invokeListener() {
 		Method method = ReflectionUtils.findMethod(
@@ -394,6 +425,23 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		public void handleStringOrInteger() {
 		}
 
+		@EventListener(execution = ListenerExecutionPolicy.Mode.ORDERED, executor = "auditExecutor",
+				maxPending = 100, batchSize = 10)
+		public void handleOrdered(String payload) {
+		}
+
+		@EventListener(executor = "auditExecutor")
+		public void handleWithExecutor(String payload) {
+		}
+
+		@EventListener(maxPending = 5)
+		public void handleWithMaxPending(String payload) {
+		}
+
+		@EventListener(batchSize = 10)
+		public void handleBatchedWithoutOrder(String payload) {
+		}
+
 		@EventListener({String.class, Integer.class})
 		public void handleStringOrIntegerWithParam(String invalid) {
 		}
@@ -324,6 +324,32 @@ public class ApplicationContextExpressionTests {
 		assertTrue(str.startsWith("test-"));
 	}
 
+	@Test
+	public void expressionCacheLimit() {
+		GenericApplicationContext ac = new GenericApplicationContext();
+		StandardBeanExpressionResolver resolver = new StandardBeanExpressionResolver();
+		resolver.setExpressionCacheLimit(1);
+		ac.getBeanFactory().setBeanExpressionResolver(resolver);
+
+		for (String country : new String[] {"NL", "DE", "NL"}) {
+			GenericBeanDefinition bd = new GenericBeanDefinition();
+			bd.setBeanClass(TestBean.class);
+			bd.getPropertyValues().add("country", "#{'" + country + "'}");
+			ac.registerBeanDefinition("tb" + ac.getBeanDefinitionCount(), bd);
+		}
+		ac.refresh();
+
+		assertEquals("NL", ac.getBean("tb0", TestBean.class).getCountry());
+		assertEquals("DE", ac.getBean("tb1", TestBean.class).getCountry());
+		assertEquals("NL", ac.getBean("tb2", TestBean.class).getCountry());
+		ac.close();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void expressionCacheLimitInvalid() {
+		new StandardBeanExpressionResolver().setExpressionCacheLimit(0);
+	}
+
 	@Test
 	public void resourceInjection() throws IOException {
 		System.setProperty("logfile", "do_not_delete_me.txt");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.context.expression;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -23,7 +24,10 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.junit.Test;
 
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.util.ReflectionUtils;
 
 import static org.junit.Assert.*;
@@ -64,6 +68,54 @@ public class CachedExpressionEvaluatorTests {
 		assertEquals("Cached expression should be based on type", 2, expressionEvaluator.testCache.size());
 	}
 
+	@Test
+	public void compileFrequentlyEvaluatedExpressionByDefault() throws Exception {
+		Method method = ReflectionUtils.findMethod(Integer.class, "valueOf", int.class);
+		DefaultExpressionEvaluator evaluator = new DefaultExpressionEvaluator();
+		Expression expression = evaluator.getTestExpression("#p0 + 1", method, getClass());
+
+		Field compiledAst = ReflectionUtils.findField(SpelExpression.class, "compiledAst");
+		ReflectionUtils.makeAccessible(compiledAst);
+		for (int i = 0; i < 200; i++) {
+			MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+					this, method, new Object[] {i}, evaluator.getParameterNameDiscoverer());
+			evaluator.applySharedDelegates(context);
+			assertEquals(i + 1, expression.getValue(context));
+		}
+		// Compiled in the background
+		for (int i = 0; i < 100 && ReflectionUtils.getField(compiledAst, expression) == null; i++) {
+			Thread.sleep(50);
+		}
+		assertNotNull(ReflectionUtils.getField(compiledAst, expression));
+	}
+
+	@Test
+	public void applySharedDelegates() {
+		DefaultExpressionEvaluator evaluator = new DefaultExpressionEvaluator();
+		StandardEvaluationContext first = new StandardEvaluationContext();
+		StandardEvaluationContext second = new StandardEvaluationContext();
+		evaluator.applySharedDelegates(first);
+		evaluator.applySharedDelegates(second);
+		assertNotSame(first.getPropertyAccessors(), second.getPropertyAccessors());
+		assertSame(first.getPropertyAccessors().get(0), second.getPropertyAccessors().get(0));
+	}
+
+	@Test
+	public void sharedDelegatesKeepContextCustomizable() {
+		DefaultExpressionEvaluator evaluator = new DefaultExpressionEvaluator();
+		StandardEvaluationContext first = new StandardEvaluationContext();
+		StandardEvaluationContext second = new StandardEvaluationContext();
+		evaluator.applySharedDelegates(first);
+		evaluator.applySharedDelegates(second);
+
+		first.addPropertyAccessor(new MapAccessor());
+		first.addMethodResolver(new ReflectiveMethodResolver());
+		first.registerMethodFilter(String.class, methods -> methods);
+		assertEquals(2, first.getPropertyAccessors().size());
+		assertEquals(1, second.getPropertyAccessors().size());
+		assertEquals(1, second.getMethodResolvers().size());
+	}
+
 	private void hasParsedExpression(String expression) {
 		verify(expressionEvaluator.getParser(), times(1)).parseExpression(expression);
 	}
@@ -86,4 +138,13 @@ public class CachedExpressionEvaluatorTests {
 		}
 	}
 
+	private static class DefaultExpressionEvaluator extends CachedExpressionEvaluator {
+
+		private final Map<ExpressionKey, Expression> testCache = new ConcurrentHashMap<>();
+
+		public Expression getTestExpression(String expression, Method method, Class<?> type) {
+			return getExpression(this.testCache, new AnnotatedElementKey(method, type), expression);
+		}
+	}
+
 }
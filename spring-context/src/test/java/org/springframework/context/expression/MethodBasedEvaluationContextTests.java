@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -125,6 +125,18 @@ public class MethodBasedEvaluationContextTests {
 		assertArrayEquals(new Object[] {"hello", "hi"}, (Object[]) context.lookupVariable("vararg"));
 	}
 
+	@Test
+	public void explicitVariableTakesPrecedence() {
+		Method method = ReflectionUtils.findMethod(SampleMethods.class, "hello", String.class, Boolean.class);
+		MethodBasedEvaluationContext context = createEvaluationContext(method, "test", true);
+		context.setVariable("foo", "explicit");
+
+		assertEquals("explicit", context.lookupVariable("foo"));
+		assertEquals("test", context.lookupVariable("p0"));
+		assertNull(context.lookupVariable("p01"));
+		assertNull(context.lookupVariable("other"));
+	}
+
 	private MethodBasedEvaluationContext createEvaluationContext(Method method, Object... args) {
 		return new MethodBasedEvaluationContext(this, method, args, this.paramDiscover);
 	}
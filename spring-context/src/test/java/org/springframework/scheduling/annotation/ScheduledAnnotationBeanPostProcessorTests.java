@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -49,6 +49,7 @@ import org.springframework.scheduling.Trigger;
 import org.springframework.scheduling.TriggerContext;
 import org.springframework.scheduling.config.CronTask;
 import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.OverlapPolicy;
 import org.springframework.scheduling.config.ScheduledTaskHolder;
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 import org.springframework.scheduling.support.CronTrigger;
@@ -160,6 +161,28 @@ public class ScheduledAnnotationBeanPostProcessorTests {
 		assertEquals("fixedRate", targetMethod.getName());
 		assertEquals(1000L, task.getInitialDelay());
 		assertEquals(3000L, task.getInterval());
+		assertEquals(OverlapPolicy.ALLOW, task.getOverlapPolicy());
+	}
+
+	@Test
+	public void fixedRateTaskWithOverlapPolicy() {
+		BeanDefinition processorDefinition = new RootBeanDefinition(ScheduledAnnotationBeanPostProcessor.class);
+		BeanDefinition targetDefinition = new RootBeanDefinition(FixedRateWithOverlapPolicyTestBean.class);
+		context.registerBeanDefinition("postProcessor", processorDefinition);
+		context.registerBeanDefinition("target", targetDefinition);
+		context.refresh();
+
+		ScheduledTaskHolder postProcessor = context.getBean("postProcessor", ScheduledTaskHolder.class);
+		assertEquals(1, postProcessor.getScheduledTasks().size());
+
+		ScheduledTaskRegistrar registrar = (ScheduledTaskRegistrar)
+				new DirectFieldAccessor(postProcessor).getPropertyValue("registrar");
+		@SuppressWarnings("unchecked")
+		List<IntervalTask> fixedRateTasks = (List<IntervalTask>)
+				new DirectFieldAccessor(registrar).getPropertyValue("fixedRateTasks");
+		assertEquals(1, fixedRateTasks.size());
+		assertEquals(OverlapPolicy.SKIP, fixedRateTasks.get(0).getOverlapPolicy());
+		assertNotNull(postProcessor.getScheduledTasks().iterator().next().getMetrics());
 	}
 
 	@Test
@@ -711,6 +734,14 @@ public class ScheduledAnnotationBeanPostProcessorTests {
 	}
 
 
+	static class FixedRateWithOverlapPolicyTestBean {
+
+		@Scheduled(fixedRate = 3000, overlap = OverlapPolicy.SKIP)
+		public void fixedRate() {
+		}
+	}
+
+
 	static class SeveralFixedRatesWithSchedulesContainerAnnotationTestBean {
 
 		@Schedules({@Scheduled(fixedRate = 4000), @Scheduled(fixedRate = 4000, initialDelay = 2000)})
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+
+import static org.junit.Assert.*;
+
+/**
+ * @since 5.1.10
+ */
+public class ForkJoinPoolTaskExecutorTests extends AbstractSchedulingTaskExecutorTests {
+
+	@Override
+	protected AsyncListenableTaskExecutor buildExecutor() {
+		ForkJoinPoolTaskExecutor executor = new ForkJoinPoolTaskExecutor();
+		executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		executor.setParallelism(1);
+		executor.afterPropertiesSet();
+		return executor;
+	}
+
+
+	@Test
+	public void taskMetrics() throws Exception {
+		ForkJoinPoolTaskExecutor executor = new ForkJoinPoolTaskExecutor();
+		executor.setTaskMetricsEnabled(true);
+		executor.afterPropertiesSet();
+		try {
+			executor.submit(() -> "result").get(1, TimeUnit.SECONDS);
+			executor.submitListenable(() -> "result").get(1, TimeUnit.SECONDS);
+			// Metrics get recorded once a task has completed, possibly after its Future
+			assertTrue(executor.getForkJoinPool().awaitQuiescence(1, TimeUnit.SECONDS));
+			assertEquals(2, executor.getTaskMetrics().getExecutedCount());
+			assertEquals(0, executor.getTaskMetrics().getRejectedCount());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void threadSettings() throws Exception {
+		ForkJoinPoolTaskExecutor executor = new ForkJoinPoolTaskExecutor();
+		executor.setThreadNamePrefix("fj-");
+		executor.setThreadPriority(Thread.MIN_PRIORITY);
+		executor.setDaemon(false);
+		executor.afterPropertiesSet();
+		try {
+			Thread thread = executor.submit(Thread::currentThread).get(1, TimeUnit.SECONDS);
+			assertTrue(thread.getName().startsWith("fj-"));
+			assertEquals(Thread.MIN_PRIORITY, thread.getPriority());
+			assertFalse(thread.isDaemon());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void daemonThreadsByDefault() throws Exception {
+		ForkJoinPoolTaskExecutor executor = new ForkJoinPoolTaskExecutor();
+		executor.afterPropertiesSet();
+		try {
+			assertTrue(executor.submit(Thread::currentThread).get(1, TimeUnit.SECONDS).isDaemon());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void plainThreadFactoryRejected() {
+		ForkJoinPoolTaskExecutor executor = new ForkJoinPoolTaskExecutor();
+		executor.setThreadFactory(Thread::new);
+		executor.afterPropertiesSet();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void threadGroupRejected() {
+		ForkJoinPoolTaskExecutor executor = new ForkJoinPoolTaskExecutor();
+		executor.setThreadGroupName("fj");
+		executor.afterPropertiesSet();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,20 @@
 
 package org.springframework.scheduling.concurrent;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.core.Ordered;
 import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import static org.junit.Assert.*;
 
 /**
  * @author Juergen Hoeller
@@ -33,4 +46,128 @@ public class ThreadPoolTaskExecutorTests extends AbstractSchedulingTaskExecutorT
 		return executor;
 	}
 
+
+	@Test
+	public void eagerPoolModeGrowsBeforeQueueing() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(3);
+		executor.setQueueCapacity(10);
+		executor.setPoolMode(ThreadPoolTaskExecutor.PoolMode.EAGER);
+		executor.afterPropertiesSet();
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			for (int i = 0; i < 5; i++) {
+				executor.execute(() -> awaitQuietly(release));
+			}
+			ThreadPoolExecutor threadPoolExecutor = executor.getThreadPoolExecutor();
+			assertEquals(3, threadPoolExecutor.getPoolSize());
+			assertEquals(2, threadPoolExecutor.getQueue().size());
+		}
+		finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void priorityPoolModeOrdersQueuedTasks() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setMaxPoolSize(1);
+		executor.setPoolMode(ThreadPoolTaskExecutor.PoolMode.PRIORITY);
+		executor.afterPropertiesSet();
+		CountDownLatch release = new CountDownLatch(1);
+		List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+		try {
+			executor.execute(() -> awaitQuietly(release));
+			executor.execute(new PrioritizedTask(5, executed));
+			executor.submitListenable(new PrioritizedTask(1, executed));
+			executor.submit(() -> executed.add(Ordered.LOWEST_PRECEDENCE));
+			executor.submit(new PrioritizedTask(3, executed));
+			release.countDown();
+			executor.submit(() -> null).get(1, TimeUnit.SECONDS);
+			assertEquals(4, executed.size());
+			assertEquals(Integer.valueOf(1), executed.get(0));
+			assertEquals(Integer.valueOf(3), executed.get(1));
+			assertEquals(Integer.valueOf(5), executed.get(2));
+			assertEquals(Integer.valueOf(Ordered.LOWEST_PRECEDENCE), executed.get(3));
+		}
+		finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void taskMetrics() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(1);
+		executor.setTaskMetricsEnabled(true);
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(5);
+		executor.afterPropertiesSet();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			executor.execute(() -> {
+				started.countDown();
+				awaitQuietly(release);
+			});
+			executor.submit(() -> null);
+			try {
+				executor.execute(() -> {});
+				fail("Should have thrown TaskRejectedException");
+			}
+			catch (TaskRejectedException ex) {
+				// expected
+			}
+			awaitQuietly(started);
+			Thread.sleep(20);
+		}
+		finally {
+			release.countDown();
+			executor.shutdown();
+		}
+
+		TaskExecutionMetrics metrics = executor.getTaskMetrics();
+		assertEquals(2, metrics.getExecutedCount());
+		assertEquals(1, metrics.getRejectedCount());
+		assertTrue(metrics.getMaxQueueWaitTime(TimeUnit.MILLISECONDS) >= 20);
+		assertTrue(metrics.getMaxExecutionTime(TimeUnit.MILLISECONDS) >= 20);
+	}
+
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	private static class PrioritizedTask implements Runnable, Ordered {
+
+		private final int order;
+
+		private final List<Integer> executed;
+
+		PrioritizedTask(int order, List<Integer> executed) {
+			this.order = order;
+			this.executed = executed;
+		}
+
+		@Override
+		public void run() {
+			this.executed.add(this.order);
+		}
+
+		@Override
+		public int getOrder() {
+			return this.order;
+		}
+	}
+
 }
@@ -18,9 +18,15 @@ package org.springframework.scheduling.config;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.After;
 import org.junit.Test;
 
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -35,6 +41,14 @@ public class ScheduledTaskRegistrarTests {
 
 	private final ScheduledTaskRegistrar taskRegistrar = new ScheduledTaskRegistrar();
 
+	private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+
+	@After
+	public void destroy() {
+		this.taskRegistrar.destroy();
+		this.scheduler.shutdown();
+	}
 
 	@Test
 	public void emptyTaskLists() {
@@ -84,4 +98,111 @@ public class ScheduledTaskRegistrarTests {
 		assertEquals(mockFixedDelayTask, retrievedList.get(0));
 	}
 
+	@Test
+	public void metricsForFixedDelayTask() throws Exception {
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledTask scheduledTask = schedule(new FixedDelayTask(latch::countDown, 10, 0));
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+		ScheduledTaskMetrics metrics = scheduledTask.getMetrics();
+		assertTrue(metrics.getExecutionCount() >= 2);
+		assertNotNull(metrics.getLastStartTime());
+		assertEquals(0, metrics.getSkippedCount());
+		assertEquals(0, metrics.getOverlapCount());
+	}
+
+	@Test
+	public void skipOverdueFixedRateExecutions() throws Exception {
+		ScheduledTask scheduledTask = scheduleSlowFixedRateTask(OverlapPolicy.SKIP);
+		ScheduledTaskMetrics metrics = scheduledTask.getMetrics();
+		assertTrue(metrics.getSkippedCount() > 0);
+		assertEquals(metrics.getSkippedCount(), metrics.getOverlapCount());
+		assertTrue(metrics.getMaxDuration() >= 50);
+	}
+
+	@Test
+	public void coalesceOverdueFixedRateExecutions() throws Exception {
+		ScheduledTask scheduledTask = scheduleSlowFixedRateTask(OverlapPolicy.COALESCE);
+		ScheduledTaskMetrics metrics = scheduledTask.getMetrics();
+		assertTrue(metrics.getSkippedCount() > 0);
+		assertTrue(metrics.getOverlapCount() > metrics.getSkippedCount());
+	}
+
+	@Test
+	public void allowOverdueFixedRateExecutions() throws Exception {
+		ScheduledTask scheduledTask = scheduleSlowFixedRateTask(OverlapPolicy.ALLOW);
+		ScheduledTaskMetrics metrics = scheduledTask.getMetrics();
+		assertEquals(0, metrics.getSkippedCount());
+		assertTrue(metrics.getOverlapCount() > 0);
+		assertTrue(metrics.getMaxStartDelay() >= 20);
+	}
+
+	@Test
+	public void skipConcurrentExecution() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Task task = new Task(() -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		task.setOverlapPolicy(OverlapPolicy.SKIP);
+		ScheduledTask scheduledTask = new ScheduledTask(task);
+		MonitoredTaskRunnable runnable = new MonitoredTaskRunnable(scheduledTask);
+
+		Thread thread = new Thread(runnable);
+		thread.start();
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		runnable.run();
+		release.countDown();
+		thread.join(5000);
+
+		ScheduledTaskMetrics metrics = scheduledTask.getMetrics();
+		assertEquals(1, metrics.getExecutionCount());
+		assertEquals(1, metrics.getSkippedCount());
+		assertEquals(1, metrics.getOverlapCount());
+	}
+
+
+	private ScheduledTask schedule(IntervalTask task) {
+		this.scheduler.initialize();
+		this.taskRegistrar.setTaskScheduler(this.scheduler);
+		ScheduledTask scheduledTask = (task instanceof FixedRateTask ?
+				this.taskRegistrar.scheduleFixedRateTask((FixedRateTask) task) :
+				this.taskRegistrar.scheduleFixedDelayTask((FixedDelayTask) task));
+		assertNotNull(scheduledTask);
+		return scheduledTask;
+	}
+
+	/**
+	 * Schedule a fixed-rate task with a period of 10 ms whose first execution
+	 * takes 65 ms, and wait for three further executions.
+	 */
+	private ScheduledTask scheduleSlowFixedRateTask(OverlapPolicy overlapPolicy) throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(3);
+		FixedRateTask task = new FixedRateTask(() -> {
+			if (count.getAndIncrement() == 0) {
+				try {
+					Thread.sleep(65);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			else {
+				latch.countDown();
+			}
+		}, 10, 0);
+		task.setOverlapPolicy(overlapPolicy);
+		ScheduledTask scheduledTask = schedule(task);
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		scheduledTask.cancel();
+		return scheduledTask;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 
 package org.springframework.scheduling.support;
 
+import java.time.Instant;
 import java.util.Date;
+import java.util.TimeZone;
 
 import org.junit.Test;
 
@@ -102,4 +104,20 @@ public class CronSequenceGeneratorTests {
 		assertFalse(CronSequenceGenerator.isValidExpression(null));
 	}
 
+	@Test
+	public void dayOfMonthAndDayOfWeekMoreThanOneYearAhead() {
+		// The next Monday which is the first day of a month is September 1st, 2014
+		assertEquals(Date.from(Instant.parse("2014-09-01T01:00:00Z")),
+				new CronSequenceGenerator("0 0 1 1 * MON", TimeZone.getTimeZone("UTC"))
+						.next(Date.from(Instant.parse("2013-07-15T07:09:36Z"))));
+	}
+
+	@Test
+	public void continuousAcrossDaylightSavingOverlap() {
+		// 02:56:19 CEST, right before clocks go back from 03:00 CEST to 02:00 CET
+		assertEquals(Date.from(Instant.parse("2023-10-29T00:56:20Z")),
+				new CronSequenceGenerator("*/10 * * * * *", TimeZone.getTimeZone("CET"))
+						.next(Date.from(Instant.parse("2023-10-29T00:56:19Z"))));
+	}
+
 }
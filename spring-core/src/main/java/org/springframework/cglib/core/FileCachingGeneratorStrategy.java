@@ -0,0 +1,335 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.core.SpringVersion;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * {@link GeneratorStrategy} decorator which persists generated class bytecode
+ * in a local cache directory, reusing it on subsequent JVM starts instead of
+ * running the ASM-based class generation again.
+ *
+ * <p>Cache entries are keyed by the name of the source class (typically the
+ * superclass of the generated class) plus a fingerprint of the bytecode of the
+ * source class and its superclasses, the given key parts describing the
+ * generator configuration (e.g. interfaces and callback types), and the Spring
+ * version. Any change to these leads to a cache miss and a regular class
+ * generation, whose result replaces the stale entry. A cache directory may
+ * also be pre-populated at build time by starting the application once.
+ *
+ * <p>The key parts must fully determine the generated bytecode for the given
+ * source class: this strategy is therefore only suitable for generators whose
+ * output does not depend on runtime state beyond the supplied key parts.
+ *
+ * <p>Since cached bytecode gets defined in the application's class loader,
+ * the cache directory must be private to the application: it is only used if
+ * it is owned by the current user and not writable by group or others (as far
+ * as the file system exposes such permissions), and gets created with
+ * owner-only permissions if necessary. Each cache entry also carries a digest
+ * of its cache key and bytecode, which is verified before the bytecode is used.
+ *
+ * <p>Reading or writing cache entries never fails class generation: I/O
+ * problems are logged and lead to regular class generation.
+ *
+ * @since 5.1.10
+ * @see AbstractClassGenerator#setStrategy
+ */
+public class FileCachingGeneratorStrategy implements GeneratorStrategy {
+
+	private static final String CACHE_FILE_SUFFIX = ".class";
+
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+
+	private static final int DIGEST_LENGTH = 32;
+
+	private static final Log logger = LogFactory.getLog(FileCachingGeneratorStrategy.class);
+
+	private static final Map<File, Boolean> trustedDirectories = new ConcurrentHashMap<>(4);
+
+
+	private final GeneratorStrategy delegate;
+
+	private final File cacheDirectory;
+
+	private final Class<?> sourceClass;
+
+	private final Object[] keyParts;
+
+
+	/**
+	 * Create a new FileCachingGeneratorStrategy.
+	 * @param delegate the strategy to delegate to on a cache miss
+	 * @param cacheDirectory the local directory to store generated classes in
+	 * @param sourceClass the class that the generated class is derived from
+	 * @param keyParts further configuration determining the generated bytecode
+	 * (Class instances contribute their name, other objects their String representation)
+	 */
+	public FileCachingGeneratorStrategy(GeneratorStrategy delegate, File cacheDirectory,
+			Class<?> sourceClass, Object... keyParts) {
+
+		Assert.notNull(delegate, "Delegate GeneratorStrategy must not be null");
+		Assert.notNull(cacheDirectory, "Cache directory must not be null");
+		Assert.notNull(sourceClass, "Source class must not be null");
+		this.delegate = delegate;
+		this.cacheDirectory = cacheDirectory;
+		this.sourceClass = sourceClass;
+		this.keyParts = keyParts;
+	}
+
+
+	@Override
+	public byte[] generate(ClassGenerator cg) throws Exception {
+		File cacheFile = (isTrustedDirectory(this.cacheDirectory) ? getCacheFile() : null);
+		if (cacheFile == null) {
+			return this.delegate.generate(cg);
+		}
+
+		byte[] cached = readCacheFile(cacheFile);
+		if (cached != null && isDefinable(cached, cg)) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Using cached CGLIB class for " + this.sourceClass.getName() + " from " + cacheFile);
+			}
+			return cached;
+		}
+
+		byte[] generated = this.delegate.generate(cg);
+		writeCacheFile(cacheFile, generated);
+		return generated;
+	}
+
+	/**
+	 * Check whether the given cache directory is private to the current user,
+	 * creating it with owner-only permissions if it does not exist yet.
+	 */
+	private static boolean isTrustedDirectory(File directory) {
+		return trustedDirectories.computeIfAbsent(directory, FileCachingGeneratorStrategy::checkDirectory);
+	}
+
+	private static boolean checkDirectory(File directory) {
+		Path path = directory.toPath();
+		try {
+			boolean posix = path.getFileSystem().supportedFileAttributeViews().contains("posix");
+			if (!Files.isDirectory(path)) {
+				if (posix) {
+					Files.createDirectories(path, PosixFilePermissions.asFileAttribute(
+							EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE,
+									PosixFilePermission.OWNER_EXECUTE)));
+				}
+				else {
+					Files.createDirectories(path);
+				}
+			}
+			UserPrincipal currentUser = path.getFileSystem().getUserPrincipalLookupService()
+					.lookupPrincipalByName(System.getProperty("user.name"));
+			if (!currentUser.equals(Files.getOwner(path))) {
+				logger.warn("Not using CGLIB cache directory " + directory + ": not owned by current user");
+				return false;
+			}
+			if (posix) {
+				Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path);
+				if (permissions.contains(PosixFilePermission.GROUP_WRITE) ||
+						permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+					logger.warn("Not using CGLIB cache directory " + directory + ": writable by group or others");
+					return false;
+				}
+			}
+			return true;
+		}
+		catch (IOException | RuntimeException ex) {
+			logger.debug("Not using CGLIB cache directory " + directory, ex);
+			return false;
+		}
+	}
+
+	/**
+	 * Determine the cache file for the current source class and key parts.
+	 * @return the cache file, or {@code null} if no fingerprint can be computed
+	 * (e.g. because the bytecode of the source class is not accessible)
+	 */
+	@Nullable
+	private File getCacheFile() {
+		ByteArrayOutputStream fingerprint = new ByteArrayOutputStream(4096);
+		try {
+			fingerprint.write(String.valueOf(SpringVersion.getVersion()).getBytes(StandardCharsets.UTF_8));
+			for (Object keyPart : this.keyParts) {
+				String value = (keyPart instanceof Class ? ((Class<?>) keyPart).getName() : String.valueOf(keyPart));
+				fingerprint.write(0);
+				fingerprint.write(value.getBytes(StandardCharsets.UTF_8));
+			}
+			Class<?> clazz = this.sourceClass;
+			while (clazz != null && clazz != Object.class) {
+				byte[] bytecode = readBytecode(clazz);
+				if (bytecode == null) {
+					return null;
+				}
+				fingerprint.write(0);
+				fingerprint.write(bytecode);
+				clazz = clazz.getSuperclass();
+			}
+			// Interfaces may contribute default methods that the generated class dispatches to
+			for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(this.sourceClass)) {
+				byte[] bytecode = readBytecode(ifc);
+				if (bytecode == null) {
+					return null;
+				}
+				fingerprint.write(0);
+				fingerprint.write(bytecode);
+			}
+		}
+		catch (IOException ex) {
+			logger.debug("Failed to compute CGLIB cache fingerprint for " + this.sourceClass.getName(), ex);
+			return null;
+		}
+		String fileName = this.sourceClass.getName() + "-" +
+				DigestUtils.md5DigestAsHex(fingerprint.toByteArray()) + CACHE_FILE_SUFFIX;
+		return new File(this.cacheDirectory, fileName);
+	}
+
+	@Nullable
+	private byte[] readBytecode(Class<?> clazz) throws IOException {
+		ClassLoader classLoader = clazz.getClassLoader();
+		if (classLoader == null) {
+			classLoader = ClassUtils.getDefaultClassLoader();
+			if (classLoader == null) {
+				return null;
+			}
+		}
+		InputStream is = classLoader.getResourceAsStream(ClassUtils.convertClassNameToResourcePath(
+				clazz.getName()) + ClassUtils.CLASS_FILE_SUFFIX);
+		if (is == null) {
+			return null;
+		}
+		try {
+			return StreamUtils.copyToByteArray(is);
+		}
+		finally {
+			is.close();
+		}
+	}
+
+	@Nullable
+	private byte[] readCacheFile(File cacheFile) {
+		if (!cacheFile.isFile()) {
+			return null;
+		}
+		byte[] content;
+		try {
+			content = Files.readAllBytes(cacheFile.toPath());
+		}
+		catch (IOException ex) {
+			logger.debug("Failed to read cached CGLIB class from " + cacheFile, ex);
+			return null;
+		}
+		if (content.length > DIGEST_LENGTH) {
+			byte[] bytecode = Arrays.copyOfRange(content, DIGEST_LENGTH, content.length);
+			if (MessageDigest.isEqual(Arrays.copyOf(content, DIGEST_LENGTH), digest(cacheFile, bytecode))) {
+				return bytecode;
+			}
+		}
+		logger.debug("Ignoring cached CGLIB class with invalid digest in " + cacheFile);
+		return null;
+	}
+
+	/**
+	 * Compute the digest of the given bytecode for the given cache file,
+	 * binding the bytecode to the cache key encoded in the file name.
+	 */
+	private static byte[] digest(File cacheFile, byte[] bytecode) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+			messageDigest.update(cacheFile.getName().getBytes(StandardCharsets.UTF_8));
+			messageDigest.update((byte) 0);
+			return messageDigest.digest(bytecode);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("Could not find MessageDigest with algorithm \"" +
+					DIGEST_ALGORITHM + "\"", ex);
+		}
+	}
+
+	/**
+	 * Check whether the class contained in the cached bytecode can be defined,
+	 * i.e. whether no class with the same name has been defined in the target
+	 * ClassLoader already (e.g. through a generator with caching turned off).
+	 */
+	private boolean isDefinable(byte[] bytecode, ClassGenerator cg) {
+		if (!(cg instanceof AbstractClassGenerator)) {
+			return true;
+		}
+		ClassLoader classLoader = ((AbstractClassGenerator<?>) cg).getClassLoader();
+		try {
+			String className = ClassNameReader.getClassName(new ClassReader(bytecode));
+			Class.forName(className, false, classLoader);
+			return false;
+		}
+		catch (ClassNotFoundException ex) {
+			return true;
+		}
+		catch (Throwable ex) {
+			logger.debug("Ignoring unreadable cached CGLIB class for " + this.sourceClass.getName(), ex);
+			return false;
+		}
+	}
+
+	private void writeCacheFile(File cacheFile, byte[] bytecode) {
+		try {
+			File tempFile = File.createTempFile(cacheFile.getName(), ".tmp", this.cacheDirectory);
+			try (OutputStream out = Files.newOutputStream(tempFile.toPath())) {
+				out.write(digest(cacheFile, bytecode));
+				out.write(bytecode);
+			}
+			Files.move(tempFile.toPath(), cacheFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			if (logger.isTraceEnabled()) {
+				logger.trace("Stored generated CGLIB class for " + this.sourceClass.getName() + " in " + cacheFile);
+			}
+		}
+		catch (IOException ex) {
+			logger.debug("Failed to store generated CGLIB class in " + cacheFile, ex);
+		}
+	}
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Consolidated per-thread execution context, holding the values of all
+ * {@link ThreadContextVariable ThreadContextVariables} for a thread in a
+ * single {@link ThreadLocal} entry.
+ *
+ * <p>Framework holders such as {@code TransactionSynchronizationManager},
+ * {@code AopContext}, {@code LocaleContextHolder} and {@code RequestContextHolder}
+ * keep their thread-bound state in such variables: a thread therefore only
+ * carries one thread-local map entry for all of them, and variable access
+ * after the thread-local lookup is a plain array access.
+ *
+ * <p>A snapshot of the {@link ThreadContextVariable#isPropagated() propagated}
+ * variables can be {@link #capture() captured} and handed off to other threads,
+ * e.g. through {@link #wrap(Runnable)} or a
+ * {@link org.springframework.core.task.support.ContextPropagatingTaskDecorator}.
+ *
+ * @since 5.1.10
+ * @see ThreadContextVariable
+ */
+public final class ThreadContext {
+
+	private static final ThreadLocal<ThreadContext> currentContext = new NamedThreadLocal<>("Thread context");
+
+	private static final Object[] EMPTY_VALUES = new Object[0];
+
+
+	private Object[] values;
+
+	private int valueCount;
+
+
+	private ThreadContext(Object[] values) {
+		this.values = values;
+		for (Object value : values) {
+			if (value != null) {
+				this.valueCount++;
+			}
+		}
+	}
+
+
+	@Nullable
+	Object getValue(int index) {
+		Object[] values = this.values;
+		return (index < values.length ? values[index] : null);
+	}
+
+	@Nullable
+	Object setValue(int index, @Nullable Object value) {
+		if (index >= this.values.length) {
+			if (value == null) {
+				return null;
+			}
+			this.values = Arrays.copyOf(this.values, ThreadContextVariable.getVariableCount());
+		}
+		Object oldValue = this.values[index];
+		this.values[index] = value;
+		if (oldValue == null && value != null) {
+			this.valueCount++;
+		}
+		else if (oldValue != null && value == null) {
+			this.valueCount--;
+		}
+		return oldValue;
+	}
+
+	/**
+	 * Return whether this context does not hold any values.
+	 */
+	public boolean isEmpty() {
+		return (this.valueCount == 0);
+	}
+
+	/**
+	 * Decorate the given {@code Runnable} to run with the values of this
+	 * context snapshot bound to the executing thread.
+	 * <p>Values of the executing thread which are not part of this snapshot
+	 * remain visible to the task. The executing thread's previous values are
+	 * restored once the task has completed, including any changes that
+	 * the task may have made to the propagated variables.
+	 * @param task the task to decorate
+	 * @return the decorated task
+	 * @see #capture()
+	 */
+	public Runnable wrap(Runnable task) {
+		Assert.notNull(task, "Task must not be null");
+		return () -> {
+			ThreadContext previous = attach();
+			try {
+				task.run();
+			}
+			finally {
+				restore(previous);
+			}
+		};
+	}
+
+	/**
+	 * Decorate the given {@code Callable} to run with the values of this
+	 * context snapshot bound to the executing thread.
+	 * @param task the task to decorate
+	 * @return the decorated task
+	 * @see #wrap(Runnable)
+	 */
+	public <V> Callable<V> wrap(Callable<V> task) {
+		Assert.notNull(task, "Task must not be null");
+		return () -> {
+			ThreadContext previous = attach();
+			try {
+				return task.call();
+			}
+			finally {
+				restore(previous);
+			}
+		};
+	}
+
+	@Nullable
+	private ThreadContext attach() {
+		ThreadContext previous = currentContext.get();
+		if (isEmpty()) {
+			return previous;
+		}
+		Object[] values = (previous != null ? previous.values : EMPTY_VALUES);
+		values = Arrays.copyOf(values, Math.max(values.length, this.values.length));
+		for (int i = 0; i < this.values.length; i++) {
+			if (this.values[i] != null) {
+				values[i] = this.values[i];
+			}
+		}
+		currentContext.set(new ThreadContext(values));
+		return previous;
+	}
+
+	private void restore(@Nullable ThreadContext previous) {
+		if (previous != null && !previous.isEmpty()) {
+			currentContext.set(previous);
+		}
+		else {
+			currentContext.remove();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ThreadContext with " + this.valueCount + " value(s)";
+	}
+
+
+	/**
+	 * Capture a snapshot of the propagated variables of the current thread.
+	 * <p>The snapshot shares the variable values themselves but not their
+	 * binding: subsequent changes to the variables on either thread are not
+	 * visible to the other.
+	 * @return the context snapshot (never {@code null}, possibly {@link #isEmpty() empty})
+	 * @see ThreadContextVariable#isPropagated()
+	 * @see #wrap(Runnable)
+	 */
+	public static ThreadContext capture() {
+		ThreadContext context = currentContext.get();
+		if (context == null || context.isEmpty()) {
+			return new ThreadContext(EMPTY_VALUES);
+		}
+		Object[] values = new Object[context.values.length];
+		for (int i = 0; i < values.length; i++) {
+			if (ThreadContextVariable.isPropagated(i)) {
+				values[i] = context.values[i];
+			}
+		}
+		return new ThreadContext(values);
+	}
+
+	/**
+	 * Return the context bound to the current thread.
+	 * @param create whether to create and bind a new context if none is bound yet
+	 * @return the current context, or {@code null} if none and not to be created
+	 */
+	@Nullable
+	static ThreadContext current(boolean create) {
+		ThreadContext context = currentContext.get();
+		if (context == null && create) {
+			context = new ThreadContext(new Object[ThreadContextVariable.getVariableCount()]);
+			currentContext.set(context);
+		}
+		return context;
+	}
+
+	/**
+	 * Unbind the given context from the current thread if it does not hold
+	 * any values anymore, avoiding a lingering thread-local entry.
+	 */
+	static void releaseIfEmpty(ThreadContext context) {
+		if (context.isEmpty()) {
+			currentContext.remove();
+		}
+	}
+
+}
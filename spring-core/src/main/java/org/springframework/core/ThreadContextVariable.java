@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.util.Arrays;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Thread-bound variable stored in the consolidated {@link ThreadContext}
+ * of the current thread, as a drop-in alternative to a {@link NamedThreadLocal}.
+ *
+ * <p>Variables are meant to be held in static fields: each variable
+ * permanently occupies a slot in every thread's context.
+ *
+ * <p>Like a {@link ThreadLocal}, a variable is not inherited by child threads.
+ * Propagated variables are however included in {@link ThreadContext#capture()
+ * context snapshots} handed off to other threads.
+ *
+ * @param <T> the type of the variable's value
+ * @since 5.1.10
+ * @see ThreadContext
+ */
+public final class ThreadContextVariable<T> {
+
+	private static final Object registryMonitor = new Object();
+
+	private static volatile boolean[] propagatedFlags = new boolean[0];
+
+
+	private final String name;
+
+	private final boolean propagated;
+
+	private final int index;
+
+
+	/**
+	 * Create a new non-propagated ThreadContextVariable with the given name.
+	 * @param name a descriptive name for this variable
+	 */
+	public ThreadContextVariable(String name) {
+		this(name, false);
+	}
+
+	/**
+	 * Create a new ThreadContextVariable with the given name.
+	 * @param name a descriptive name for this variable
+	 * @param propagated whether the variable's value should be included
+	 * in {@link ThreadContext#capture() context snapshots}
+	 */
+	public ThreadContextVariable(String name, boolean propagated) {
+		Assert.hasText(name, "Name must not be empty");
+		this.name = name;
+		this.propagated = propagated;
+		synchronized (registryMonitor) {
+			boolean[] flags = Arrays.copyOf(propagatedFlags, propagatedFlags.length + 1);
+			this.index = flags.length - 1;
+			flags[this.index] = propagated;
+			propagatedFlags = flags;
+		}
+	}
+
+
+	/**
+	 * Return whether this variable's value gets propagated to other threads
+	 * through {@link ThreadContext#capture() context snapshots}.
+	 */
+	public boolean isPropagated() {
+		return this.propagated;
+	}
+
+	/**
+	 * Return the value of this variable for the current thread.
+	 * @return the current value, or {@code null} if none
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public T get() {
+		ThreadContext context = ThreadContext.current(false);
+		return (context != null ? (T) context.getValue(this.index) : null);
+	}
+
+	/**
+	 * Set the value of this variable for the current thread.
+	 * @param value the new value, or {@code null} to remove the current value
+	 */
+	public void set(@Nullable T value) {
+		if (value == null) {
+			remove();
+		}
+		else {
+			ThreadContext context = ThreadContext.current(true);
+			Assert.state(context != null, "No ThreadContext");
+			context.setValue(this.index, value);
+		}
+	}
+
+	/**
+	 * Set the value of this variable for the current thread, returning the
+	 * previous value: a single context lookup for a get and set combination.
+	 * @param value the new value, or {@code null} to remove the current value
+	 * @return the previous value, or {@code null} if none
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public T getAndSet(@Nullable T value) {
+		ThreadContext context = ThreadContext.current(value != null);
+		if (context == null) {
+			return null;
+		}
+		T oldValue = (T) context.setValue(this.index, value);
+		if (value == null && oldValue != null) {
+			ThreadContext.releaseIfEmpty(context);
+		}
+		return oldValue;
+	}
+
+	/**
+	 * Remove the value of this variable for the current thread,
+	 * unbinding the entire context once it does not hold any values anymore.
+	 */
+	public void remove() {
+		ThreadContext context = ThreadContext.current(false);
+		if (context != null && context.setValue(this.index, null) != null) {
+			ThreadContext.releaseIfEmpty(context);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.name;
+	}
+
+
+	static int getVariableCount() {
+		return propagatedFlags.length;
+	}
+
+	static boolean isPropagated(int index) {
+		boolean[] flags = propagatedFlags;
+		return (index < flags.length && flags[index]);
+	}
+
+}
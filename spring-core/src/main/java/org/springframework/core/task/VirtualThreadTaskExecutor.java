@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link SimpleAsyncTaskExecutor} variant which fires up a new virtual thread
+ * for each task when running on a JDK with virtual thread support, falling back
+ * to a new platform thread per task on older JDKs.
+ *
+ * <p>Virtual threads are cheap to create and to block, which makes this
+ * executor a good fit for fanning out blocking I/O, e.g. for {@code @Async}
+ * methods, the task execution of a {@code ThreadPoolTaskScheduler}-based setup,
+ * asynchronous request processing, or asynchronous listener invocation in a
+ * {@code SimpleApplicationEventMulticaster}. Since there is no pool bounding
+ * the number of threads, consider a {@link #setConcurrencyLimit concurrency limit}
+ * for protecting downstream resources such as connection pools.
+ *
+ * <p>Virtual threads are always daemon threads and ignore the configured
+ * thread priority and thread group. An explicitly specified
+ * {@link #setThreadFactory thread factory} takes precedence.
+ *
+ * @since 5.1.10
+ * @see #isVirtualThreadsActive()
+ * @see #setConcurrencyLimit
+ */
+@SuppressWarnings("serial")
+public class VirtualThreadTaskExecutor extends SimpleAsyncTaskExecutor {
+
+	private static final Log logger = LogFactory.getLog(VirtualThreadTaskExecutor.class);
+
+	@Nullable
+	private static final Method ofVirtualMethod =
+			ClassUtils.getMethodIfAvailable(Thread.class, "ofVirtual");
+
+	@Nullable
+	private transient volatile ThreadFactory virtualThreadFactory;
+
+	private transient volatile boolean virtualThreadFactoryResolved;
+
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with default thread name prefix.
+	 */
+	public VirtualThreadTaskExecutor() {
+		super();
+	}
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with the given thread name prefix.
+	 * @param threadNamePrefix the prefix to use for the names of newly created threads
+	 */
+	public VirtualThreadTaskExecutor(String threadNamePrefix) {
+		super(threadNamePrefix);
+	}
+
+
+	@Override
+	public void setThreadNamePrefix(@Nullable String threadNamePrefix) {
+		super.setThreadNamePrefix(threadNamePrefix);
+		this.virtualThreadFactoryResolved = false;
+	}
+
+	/**
+	 * Return whether tasks actually run on virtual threads: that is, whether
+	 * the JDK supports virtual threads and no custom thread factory is set.
+	 */
+	public boolean isVirtualThreadsActive() {
+		return (getThreadFactory() == null && getVirtualThreadFactory() != null);
+	}
+
+	/**
+	 * Creates a new virtual thread for the given task if supported,
+	 * or a platform thread otherwise.
+	 */
+	@Override
+	protected void doExecute(Runnable task) {
+		ThreadFactory virtualThreadFactory = (getThreadFactory() == null ? getVirtualThreadFactory() : null);
+		if (virtualThreadFactory != null) {
+			virtualThreadFactory.newThread(task).start();
+		}
+		else {
+			super.doExecute(task);
+		}
+	}
+
+	@Nullable
+	private ThreadFactory getVirtualThreadFactory() {
+		if (!this.virtualThreadFactoryResolved) {
+			this.virtualThreadFactory = createVirtualThreadFactory(getThreadNamePrefix());
+			this.virtualThreadFactoryResolved = true;
+		}
+		return this.virtualThreadFactory;
+	}
+
+
+	/**
+	 * Create a factory for virtual threads with the given name prefix,
+	 * through the JDK's {@code Thread.Builder} API if available.
+	 * @param threadNamePrefix the prefix for the names of the created threads
+	 * @return the thread factory, or {@code null} if virtual threads are not supported
+	 */
+	@Nullable
+	static ThreadFactory createVirtualThreadFactory(String threadNamePrefix) {
+		if (ofVirtualMethod == null) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Virtual threads not supported on this JDK - falling back to platform threads");
+			}
+			return null;
+		}
+		try {
+			Object builder = ofVirtualMethod.invoke(null);
+			Class<?> builderType = ClassUtils.forName("java.lang.Thread$Builder", Thread.class.getClassLoader());
+			Method nameMethod = builderType.getMethod("name", String.class, long.class);
+			Method factoryMethod = builderType.getMethod("factory");
+			builder = nameMethod.invoke(builder, threadNamePrefix, 1L);
+			return (ThreadFactory) factoryMethod.invoke(builder);
+		}
+		catch (Throwable ex) {
+			// e.g. preview feature not enabled on JDK 19/20
+			if (logger.isInfoEnabled()) {
+				logger.info("Virtual threads not available - falling back to platform threads: " + ex);
+			}
+			return null;
+		}
+	}
+
+}
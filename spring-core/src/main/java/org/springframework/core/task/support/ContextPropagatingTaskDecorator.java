@@ -0,0 +1,44 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task.support;
+
+import org.springframework.core.ThreadContext;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * {@link TaskDecorator} which propagates the submitting thread's
+ * {@link ThreadContext} to the thread executing the task: for example,
+ * the current {@code LocaleContext} and {@code RequestAttributes}.
+ *
+ * <p>The snapshot is captured once at submission time and only includes
+ * variables marked as {@link org.springframework.core.ThreadContextVariable#isPropagated()
+ * propagated}; transactional resources and the current AOP proxy remain
+ * confined to their original thread.
+ *
+ * @since 5.1.10
+ * @see ThreadContext#capture()
+ * @see TaskExecutorAdapter#setTaskDecorator
+ */
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+	@Override
+	public Runnable decorate(Runnable runnable) {
+		ThreadContext context = ThreadContext.capture();
+		return (context.isEmpty() ? runnable : context.wrap(runnable));
+	}
+
+}
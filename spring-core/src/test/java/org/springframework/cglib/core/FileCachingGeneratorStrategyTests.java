@@ -0,0 +1,244 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.NoOp;
+import org.springframework.core.OverridingClassLoader;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FileCachingGeneratorStrategy}.
+ */
+public class FileCachingGeneratorStrategyTests {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final AtomicInteger generationCount = new AtomicInteger();
+
+	private final GeneratorStrategy countingStrategy = cg -> {
+		this.generationCount.incrementAndGet();
+		return DefaultGeneratorStrategy.INSTANCE.generate(cg);
+	};
+
+
+	@Test
+	public void reuseCachedClassInOtherClassLoader() throws Exception {
+		File cacheDirectory = this.temporaryFolder.newFolder();
+
+		Class<?> first = createClass(cacheDirectory, newClassLoader(), "key");
+		assertEquals(1, this.generationCount.get());
+		assertEquals(1, cacheDirectory.listFiles().length);
+
+		Class<?> second = createClass(cacheDirectory, newClassLoader(), "key");
+		assertEquals(1, this.generationCount.get());
+		assertNotSame(first, second);
+		assertEquals(first.getName(), second.getName());
+		assertTrue(second.newInstance() instanceof CachedBean);
+	}
+
+	@Test
+	public void generateOnDifferentKey() throws Exception {
+		File cacheDirectory = this.temporaryFolder.newFolder();
+
+		createClass(cacheDirectory, newClassLoader(), "key");
+		createClass(cacheDirectory, newClassLoader(), "otherKey");
+		assertEquals(2, this.generationCount.get());
+		assertEquals(2, cacheDirectory.listFiles().length);
+	}
+
+	@Test
+	public void generateIfCachedClassAlreadyDefined() throws Exception {
+		File cacheDirectory = this.temporaryFolder.newFolder();
+		ClassLoader classLoader = newClassLoader();
+
+		Class<?> first = createClass(cacheDirectory, classLoader, "key");
+		Class<?> second = createClass(cacheDirectory, classLoader, "key");
+		assertEquals(2, this.generationCount.get());
+		assertNotEquals(first.getName(), second.getName());
+	}
+
+	@Test
+	public void generateIfCacheDirectoryNotWritable() throws Exception {
+		File cacheDirectory = new File(this.temporaryFolder.newFile(), "cache");
+
+		createClass(cacheDirectory, newClassLoader(), "key");
+		createClass(cacheDirectory, newClassLoader(), "key");
+		assertEquals(2, this.generationCount.get());
+	}
+
+	@Test
+	public void generateIfCachedClassTampered() throws Exception {
+		File cacheDirectory = this.temporaryFolder.newFolder();
+
+		createClass(cacheDirectory, newClassLoader(), "key");
+		File cacheFile = cacheDirectory.listFiles()[0];
+		byte[] content = Files.readAllBytes(cacheFile.toPath());
+		content[content.length - 1]++;
+		Files.write(cacheFile.toPath(), content);
+
+		Class<?> clazz = createClass(cacheDirectory, newClassLoader(), "key");
+		assertEquals(2, this.generationCount.get());
+		assertTrue(clazz.newInstance() instanceof CachedBean);
+	}
+
+	@Test
+	public void generateIfCacheDirectoryWritableByOthers() throws Exception {
+		File cacheDirectory = this.temporaryFolder.newFolder();
+		Assume.assumeTrue(cacheDirectory.toPath().getFileSystem().supportedFileAttributeViews().contains("posix"));
+		Files.setPosixFilePermissions(cacheDirectory.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+
+		createClass(cacheDirectory, newClassLoader(), "key");
+		createClass(cacheDirectory, newClassLoader(), "key");
+		assertEquals(2, this.generationCount.get());
+		assertEquals(0, cacheDirectory.listFiles().length);
+	}
+
+	@Test
+	public void createCacheDirectoryWithOwnerOnlyPermissions() throws Exception {
+		File cacheDirectory = new File(this.temporaryFolder.getRoot(), "cache");
+		Assume.assumeTrue(cacheDirectory.toPath().getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+		createClass(cacheDirectory, newClassLoader(), "key");
+		assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(cacheDirectory.toPath())));
+		assertEquals(1, cacheDirectory.listFiles().length);
+	}
+
+
+	@Test
+	public void generateOnChangedInterface() throws Exception {
+		File cacheDirectory = this.temporaryFolder.newFolder();
+
+		createClass(cacheDirectory, new InterfaceOverridingClassLoader(false));
+		createClass(cacheDirectory, new InterfaceOverridingClassLoader(false));
+		assertEquals(1, this.generationCount.get());
+
+		createClass(cacheDirectory, new InterfaceOverridingClassLoader(true));
+		assertEquals(2, this.generationCount.get());
+		assertEquals(2, cacheDirectory.listFiles().length);
+	}
+
+
+	private void createClass(File cacheDirectory, ClassLoader classLoader) throws Exception {
+		Class<?> sourceClass = classLoader.loadClass(InterfaceBean.class.getName());
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(sourceClass);
+		enhancer.setCallbackType(NoOp.class);
+		enhancer.setUseFactory(false);
+		enhancer.setUseCache(false);
+		enhancer.setClassLoader(classLoader);
+		enhancer.setStrategy(new FileCachingGeneratorStrategy(
+				this.countingStrategy, cacheDirectory, sourceClass, NoOp.class, "key"));
+		enhancer.createClass();
+	}
+
+	private Class<?> createClass(File cacheDirectory, ClassLoader classLoader, String key) {
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(CachedBean.class);
+		enhancer.setCallbackType(NoOp.class);
+		enhancer.setUseFactory(false);
+		enhancer.setUseCache(false);
+		enhancer.setClassLoader(classLoader);
+		enhancer.setStrategy(new FileCachingGeneratorStrategy(
+				this.countingStrategy, cacheDirectory, CachedBean.class, NoOp.class, key));
+		Class<?> clazz = enhancer.createClass();
+		Enhancer.registerStaticCallbacks(clazz, new NoOp[] {NoOp.INSTANCE});
+		return clazz;
+	}
+
+	private ClassLoader newClassLoader() {
+		return new URLClassLoader(new URL[0], getClass().getClassLoader());
+	}
+
+
+	public static class CachedBean {
+
+		public String getName() {
+			return "cached";
+		}
+	}
+
+
+	public interface Named {
+
+		default String getName() {
+			return "named";
+		}
+	}
+
+
+	public static class InterfaceBean implements Named {
+	}
+
+
+	/**
+	 * ClassLoader defining the test bean and its interface itself, optionally
+	 * exposing different bytecode for the interface, like a changed version.
+	 */
+	private static class InterfaceOverridingClassLoader extends OverridingClassLoader {
+
+		private final boolean changedInterface;
+
+		InterfaceOverridingClassLoader(boolean changedInterface) {
+			super(FileCachingGeneratorStrategyTests.class.getClassLoader());
+			this.changedInterface = changedInterface;
+		}
+
+		@Override
+		protected boolean isEligibleForOverriding(String className) {
+			return (className.equals(InterfaceBean.class.getName()) || className.equals(Named.class.getName()));
+		}
+
+		@Override
+		public InputStream getResourceAsStream(String name) {
+			InputStream is = super.getResourceAsStream(name);
+			if (this.changedInterface && is != null &&
+					name.equals(ClassUtils.convertClassNameToResourcePath(Named.class.getName()) + ".class")) {
+				try {
+					byte[] bytes = StreamUtils.copyToByteArray(is);
+					byte[] changed = new byte[bytes.length + 1];
+					System.arraycopy(bytes, 0, changed, 0, bytes.length);
+					return new ByteArrayInputStream(changed);
+				}
+				catch (IOException ex) {
+					throw new IllegalStateException(ex);
+				}
+			}
+			return is;
+		}
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ThreadContext} and {@link ThreadContextVariable}.
+ */
+public class ThreadContextTests {
+
+	private static final ThreadContextVariable<String> local = new ThreadContextVariable<>("local");
+
+	private static final ThreadContextVariable<String> propagated = new ThreadContextVariable<>("propagated", true);
+
+
+	@After
+	public void clearVariables() {
+		local.remove();
+		propagated.remove();
+	}
+
+
+	@Test
+	public void setAndRemove() {
+		assertNull(local.get());
+		local.set("value");
+		assertEquals("value", local.get());
+		assertNull(propagated.get());
+
+		assertEquals("value", local.getAndSet("other"));
+		assertEquals("other", local.get());
+		local.set(null);
+		assertNull(local.get());
+		assertTrue(ThreadContext.capture().isEmpty());
+	}
+
+	@Test
+	public void variablesAreThreadConfined() throws Exception {
+		local.set("value");
+		AtomicReference<String> other = new AtomicReference<>("unset");
+		Thread thread = new Thread(() -> other.set(local.get()));
+		thread.start();
+		thread.join();
+		assertNull(other.get());
+	}
+
+	@Test
+	public void captureOnlyPropagatedVariables() throws Exception {
+		local.set("local");
+		propagated.set("propagated");
+		ThreadContext snapshot = ThreadContext.capture();
+		assertFalse(snapshot.isEmpty());
+
+		AtomicReference<String> localValue = new AtomicReference<>("unset");
+		AtomicReference<String> propagatedValue = new AtomicReference<>();
+		Thread thread = new Thread(snapshot.wrap(() -> {
+			localValue.set(local.get());
+			propagatedValue.set(propagated.get());
+		}));
+		thread.start();
+		thread.join();
+		assertNull(localValue.get());
+		assertEquals("propagated", propagatedValue.get());
+	}
+
+	@Test
+	public void wrapRestoresPreviousValues() throws Exception {
+		propagated.set("outer");
+		ThreadContext snapshot = ThreadContext.capture();
+		propagated.set("current");
+		local.set("local");
+
+		assertEquals("outer", snapshot.wrap(() -> {
+			assertEquals("local", local.get());
+			String value = propagated.get();
+			propagated.set("changed");
+			return value;
+		}).call());
+		assertEquals("current", propagated.get());
+		assertEquals("local", local.get());
+
+		snapshot.wrap(() -> propagated.set("changed")).run();
+		assertEquals("outer", snapshot.wrap(propagated::get).call());
+	}
+
+	@Test
+	public void contextPropagatingTaskDecorator() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ContextPropagatingTaskDecorator decorator = new ContextPropagatingTaskDecorator();
+			AtomicReference<String> value = new AtomicReference<>();
+			propagated.set("first");
+			executor.submit(decorator.decorate(() -> value.set(propagated.get()))).get();
+			assertEquals("first", value.get());
+
+			propagated.set("second");
+			executor.submit(decorator.decorate(() -> value.set(propagated.get()))).get();
+			assertEquals("second", value.get());
+
+			executor.submit(() -> value.set(propagated.get())).get();
+			assertNull(value.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
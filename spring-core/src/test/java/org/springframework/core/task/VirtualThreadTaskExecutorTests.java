@@ -0,0 +1,83 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.util.ClassUtils;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link VirtualThreadTaskExecutor}.
+ */
+public class VirtualThreadTaskExecutorTests {
+
+	private static final boolean virtualThreadsSupported =
+			ClassUtils.hasMethod(Thread.class, "ofVirtual");
+
+
+	@Test
+	public void virtualThreadsWhenSupported() throws Exception {
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("io-");
+		assertEquals(virtualThreadsSupported, executor.isVirtualThreadsActive());
+
+		String threadName = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+		assertThat(threadName, startsWith("io-"));
+	}
+
+	@Test
+	public void threadFactoryTakesPrecedence() throws Exception {
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor();
+		executor.setThreadFactory(runnable -> new Thread(runnable, "custom"));
+		assertFalse(executor.isVirtualThreadsActive());
+
+		String threadName = executor.submitListenable(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+		assertEquals("custom", threadName);
+	}
+
+	@Test
+	public void concurrencyLimit() throws Exception {
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor();
+		executor.setConcurrencyLimit(2);
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(10);
+		for (int i = 0; i < 10; i++) {
+			executor.execute(() -> {
+				int current = active.incrementAndGet();
+				maxActive.accumulateAndGet(current, Math::max);
+				try {
+					Thread.sleep(10);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				active.decrementAndGet();
+				latch.countDown();
+			});
+		}
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertTrue(maxActive.get() <= 2);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -85,9 +85,18 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this',
+	 * variables 1 and 2 are the target and the EvaluationContext).
 	 */
-	private int nextFreeVariableId = 1;
+	private int nextFreeVariableId = 3;
+
+	/**
+	 * The local variables holding the current target, i.e. the active context object
+	 * that expression elements operate on if nothing is on the stack: the first argument
+	 * to CompiledExpression.getValue(target, context) by default, or the current element
+	 * while generating code for a selection or projection.
+	 */
+	private final Deque<Integer> targetVariables = new ArrayDeque<>();
 
 
 	/**
@@ -109,7 +118,30 @@ public class CodeFlow implements Opcodes {
 	 * @param mv the visitor into which the load instruction should be inserted
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		Integer targetVariable = this.targetVariables.peek();
+		mv.visitVarInsn(ALOAD, (targetVariable != null ? targetVariable : 1));
+	}
+
+	/**
+	 * Use the given local variable as the target for subsequently generated code,
+	 * e.g. for the current element in a selection or projection.
+	 * @param variableId the id of the local variable holding the new target
+	 * @since 5.1.10
+	 * @see #loadTarget
+	 * @see #exitTargetScope
+	 */
+	public void enterTargetScope(int variableId) {
+		this.targetVariables.push(variableId);
+	}
+
+	/**
+	 * Return to the previous target after a nested selection or projection criteria
+	 * expression has been generated.
+	 * @since 5.1.10
+	 * @see #enterTargetScope
+	 */
+	public void exitTargetScope() {
+		this.targetVariables.pop();
 	}
 
 	/**
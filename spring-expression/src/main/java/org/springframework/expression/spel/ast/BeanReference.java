@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,15 @@
 
 package org.springframework.expression.spel.ast;
 
+import java.lang.reflect.Modifier;
+
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.AccessException;
 import org.springframework.expression.BeanResolver;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -52,7 +57,11 @@ public class BeanReference extends SpelNodeImpl {
 		}
 
 		try {
-			return new TypedValue(beanResolver.resolve(state.getEvaluationContext(), this.beanName));
+			Object bean = beanResolver.resolve(state.getEvaluationContext(), this.beanName);
+			// Bean instances of non-public classes are exposed as Object to compiled code
+			this.exitTypeDescriptor = (bean != null && Modifier.isPublic(bean.getClass().getModifiers()) ?
+					CodeFlow.toDescriptorFromObject(bean) : "Ljava/lang/Object");
+			return new TypedValue(bean);
 		}
 		catch (AccessException ex) {
 			throw new SpelEvaluationException(getStartPosition(), ex, SpelMessage.EXCEPTION_DURING_BEAN_RESOLUTION,
@@ -60,6 +69,21 @@ public class BeanReference extends SpelNodeImpl {
 		}
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null);
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		cf.loadEvaluationContext(mv);
+		mv.visitLdcInsn(this.beanName);
+		mv.visitMethodInsn(INVOKESTATIC, "org/springframework/expression/spel/ast/BeanReference", "resolveBean",
+				"(Lorg/springframework/expression/EvaluationContext;Ljava/lang/String;)Ljava/lang/Object;", false);
+		CodeFlow.insertCheckCast(mv, this.exitTypeDescriptor);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
 	@Override
 	public String toStringAST() {
 		StringBuilder sb = new StringBuilder();
@@ -75,4 +99,28 @@ public class BeanReference extends SpelNodeImpl {
 		return sb.toString();
 	}
 
+
+	/**
+	 * Resolve the given bean through the context's {@link BeanResolver}.
+	 * <p>Invoked from compiled expression code, which is why it needs to be
+	 * declared as {@code public static} here.
+	 * @param context the current evaluation context
+	 * @param beanName the name of the bean to resolve
+	 * @return the bean instance
+	 * @since 5.1.10
+	 */
+	public static Object resolveBean(EvaluationContext context, String beanName) {
+		BeanResolver beanResolver = context.getBeanResolver();
+		if (beanResolver == null) {
+			throw new SpelEvaluationException(SpelMessage.NO_BEAN_RESOLVER_REGISTERED, beanName);
+		}
+		try {
+			return beanResolver.resolve(context, beanName);
+		}
+		catch (AccessException ex) {
+			throw new SpelEvaluationException(ex, SpelMessage.EXCEPTION_DURING_BEAN_RESOLUTION,
+					beanName, ex.getMessage());
+		}
+	}
+
 }
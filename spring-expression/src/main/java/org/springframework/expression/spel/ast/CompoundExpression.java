@@ -86,8 +86,41 @@ public class CompoundExpression extends SpelNodeImpl {
 	 */
 	@Override
 	public TypedValue getValueInternal(ExpressionState state) throws EvaluationException {
-		ValueRef ref = getValueRef(state);
-		TypedValue result = ref.getValue();
+		TypedValue result;
+		int cc = getChildCount();
+		if (cc == 1) {
+			result = this.children[0].getValueInternal(state);
+		}
+		else {
+			// Evaluate the last piece directly rather than through an intermediate ValueRef
+			SpelNodeImpl nextNode = this.children[0];
+			try {
+				TypedValue context = nextNode.getValueInternal(state);
+				for (int i = 1; i < cc - 1; i++) {
+					try {
+						state.pushActiveContextObject(context);
+						nextNode = this.children[i];
+						context = nextNode.getValueInternal(state);
+					}
+					finally {
+						state.popActiveContextObject();
+					}
+				}
+				try {
+					state.pushActiveContextObject(context);
+					nextNode = this.children[cc - 1];
+					result = nextNode.getValueInternal(state);
+				}
+				finally {
+					state.popActiveContextObject();
+				}
+			}
+			catch (SpelEvaluationException ex) {
+				// Correct the position for the error before re-throwing
+				ex.setPosition(nextNode.getStartPosition());
+				throw ex;
+			}
+		}
 		this.exitTypeDescriptor = this.children[this.children.length - 1].exitTypeDescriptor;
 		return result;
 	}
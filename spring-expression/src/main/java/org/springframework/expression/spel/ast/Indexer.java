@@ -255,18 +255,13 @@ public class Indexer extends SpelNodeImpl {
 						//depthPlusOne(exitTypeDescriptor)+"Ljava/lang/Object;");
 				insn = AALOAD;
 			}
-			SpelNodeImpl index = this.children[0];
-			cf.enterCompilationScope();
-			index.generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf);
 			mv.visitInsn(insn);
 		}
 
 		else if (this.indexedType == IndexedType.LIST) {
 			mv.visitTypeInsn(CHECKCAST, "java/util/List");
-			cf.enterCompilationScope();
-			this.children[0].generateCode(mv, cf);
-			cf.exitCompilationScope();
+			generateIndexCode(mv, cf);
 			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "get", "(I)Ljava/lang/Object;", true);
 		}
 
@@ -280,9 +275,7 @@ public class Indexer extends SpelNodeImpl {
 				mv.visitLdcInsn(mapKeyName);
 			}
 			else {
-				cf.enterCompilationScope();
-				this.children[0].generateCode(mv, cf);
-				cf.exitCompilationScope();
+				generateIndexCode(mv, cf);
 			}
 			mv.visitMethodInsn(
 					INVOKEINTERFACE, "java/util/Map", "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
@@ -318,6 +311,18 @@ public class Indexer extends SpelNodeImpl {
 		cf.pushDescriptor(this.exitTypeDescriptor);
 	}
 
+	/**
+	 * Generate the index expression against the root object (local variable 1),
+	 * mirroring {@link #getValueRef}, even inside a selection or projection.
+	 */
+	private void generateIndexCode(MethodVisitor mv, CodeFlow cf) {
+		cf.enterTargetScope(1);
+		cf.enterCompilationScope();
+		this.children[0].generateCode(mv, cf);
+		cf.exitCompilationScope();
+		cf.exitTargetScope();
+	}
+
 	@Override
 	public String toStringAST() {
 		StringBuilder sb = new StringBuilder("[");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,9 +19,11 @@ package org.springframework.expression.spel.ast;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.Operation;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -123,6 +125,8 @@ public class OpDec extends Operator {
 			}
 		}
 
+		this.exitTypeDescriptor = (OpInc.isCompilableIncrementType(operandValue) ? CodeFlow.toDescriptorFromObject(operandValue) : null);
+
 		if (!this.postfix) {
 			// the return value is the new value, not the original value
 			returnValue = newValue;
@@ -136,6 +140,16 @@ public class OpDec extends Operator {
 		return getLeftOperand().toStringAST() + "--";
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return OpInc.isCompilableIncrement(getLeftOperand(), this.exitTypeDescriptor);
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		OpInc.generateIncrementCode(mv, cf, (VariableReference) getLeftOperand(), this.exitTypeDescriptor, false, this.postfix);
+	}
+
 	@Override
 	public SpelNodeImpl getRightOperand() {
 		throw new IllegalStateException("No right operand");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,12 +19,15 @@ package org.springframework.expression.spel.ast;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.Operation;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 /**
@@ -118,6 +121,8 @@ public class OpInc extends Operator {
 			}
 		}
 
+		this.exitTypeDescriptor = (isCompilableIncrementType(value) ? CodeFlow.toDescriptorFromObject(value) : null);
+
 		if (!this.postfix) {
 			// The return value is the new value, not the original value
 			returnValue = newValue;
@@ -131,9 +136,79 @@ public class OpInc extends Operator {
 		return getLeftOperand().toStringAST() + "++";
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return isCompilableIncrement(getLeftOperand(), this.exitTypeDescriptor);
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		generateIncrementCode(mv, cf, (VariableReference) getLeftOperand(), this.exitTypeDescriptor, true, this.postfix);
+	}
+
 	@Override
 	public SpelNodeImpl getRightOperand() {
 		throw new IllegalStateException("No right operand");
 	}
 
+
+	static boolean isCompilableIncrementType(@Nullable Object value) {
+		return (value instanceof Integer || value instanceof Long || value instanceof Double || value instanceof Float);
+	}
+
+	/**
+	 * Only increments and decrements of variables holding an {@code int},
+	 * {@code long}, {@code float} or {@code double} value are compiled.
+	 */
+	static boolean isCompilableIncrement(SpelNodeImpl operand, @Nullable String descriptor) {
+		return (descriptor != null && operand instanceof VariableReference &&
+				((VariableReference) operand).isCompilableVariableUpdate());
+	}
+
+	/**
+	 * Generate code that reads the given variable, adds or subtracts one
+	 * and stores the result back into the variable.
+	 * @param mv the method visitor into which code should be generated
+	 * @param cf the current code flow
+	 * @param variable the variable to update
+	 * @param descriptor the (boxed) descriptor of the variable's value
+	 * @param increment {@code true} to add one, {@code false} to subtract one
+	 * @param postfix whether the original value is the result (rather than the new value)
+	 */
+	static void generateIncrementCode(MethodVisitor mv, CodeFlow cf, VariableReference variable,
+			String descriptor, boolean increment, boolean postfix) {
+
+		char primitive = CodeFlow.toPrimitiveTargetDesc(descriptor);
+		variable.generateLookupVariableCode(mv);
+		CodeFlow.insertCheckCast(mv, descriptor);
+		if (postfix) {
+			mv.visitInsn(DUP);
+		}
+		CodeFlow.insertUnboxInsns(mv, primitive, descriptor);
+		switch (primitive) {
+			case 'J':
+				mv.visitInsn(LCONST_1);
+				mv.visitInsn(increment ? LADD : LSUB);
+				break;
+			case 'D':
+				mv.visitInsn(DCONST_1);
+				mv.visitInsn(increment ? DADD : DSUB);
+				break;
+			case 'F':
+				mv.visitInsn(FCONST_1);
+				mv.visitInsn(increment ? FADD : FSUB);
+				break;
+			default:
+				mv.visitInsn(ICONST_1);
+				mv.visitInsn(increment ? IADD : ISUB);
+		}
+		CodeFlow.insertBoxIfNecessary(mv, primitive);
+		variable.generateSetVariableCode(mv);
+		if (postfix) {
+			// Drop the new value, leaving the original value as the result
+			mv.visitInsn(POP);
+		}
+		cf.pushDescriptor(descriptor);
+	}
+
 }
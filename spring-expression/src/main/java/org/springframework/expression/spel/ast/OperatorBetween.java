@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,12 +18,16 @@ package org.springframework.expression.spel.ast;
 
 import java.util.List;
 
+import org.springframework.asm.MethodVisitor;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypeComparator;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
 import org.springframework.expression.spel.support.BooleanTypedValue;
+import org.springframework.lang.Nullable;
 
 /**
  * Represents the between operator. The left operand to between must be a single value and
@@ -63,7 +67,9 @@ public class OperatorBetween extends Operator {
 		Object high = list.get(1);
 		TypeComparator comp = state.getTypeComparator();
 		try {
-			return BooleanTypedValue.forValue(comp.compare(left, low) >= 0 && comp.compare(left, high) <= 0);
+			boolean result = (comp.compare(left, low) >= 0 && comp.compare(left, high) <= 0);
+			this.exitTypeDescriptor = "Z";
+			return BooleanTypedValue.forValue(result);
 		}
 		catch (SpelEvaluationException ex) {
 			ex.setPosition(getStartPosition());
@@ -71,4 +77,46 @@ public class OperatorBetween extends Operator {
 		}
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null &&
+				getLeftOperand().isCompilable() && getRightOperand().isCompilable());
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		cf.loadEvaluationContext(mv);
+		cf.enterCompilationScope();
+		getLeftOperand().generateCode(mv, cf);
+		CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
+		cf.exitCompilationScope();
+		cf.enterCompilationScope();
+		getRightOperand().generateCode(mv, cf);
+		CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
+		cf.exitCompilationScope();
+		mv.visitMethodInsn(INVOKESTATIC, "org/springframework/expression/spel/ast/OperatorBetween", "betweenCheck",
+				"(Lorg/springframework/expression/EvaluationContext;Ljava/lang/Object;Ljava/lang/Object;)Z", false);
+		cf.pushDescriptor("Z");
+	}
+
+
+	/**
+	 * Perform a range check for the given operand values, using the context's
+	 * {@link TypeComparator}.
+	 * <p>Invoked from compiled expression code, which is why it needs to be
+	 * declared as {@code public static} here.
+	 * @param context the current evaluation context
+	 * @param left the value to check
+	 * @param right the two-element list holding the inclusive bounds
+	 * @since 5.1.10
+	 */
+	public static boolean betweenCheck(EvaluationContext context, @Nullable Object left, @Nullable Object right) {
+		if (!(right instanceof List) || ((List<?>) right).size() != 2) {
+			throw new SpelEvaluationException(SpelMessage.BETWEEN_RIGHT_OPERAND_MUST_BE_TWO_ELEMENT_LIST);
+		}
+		List<?> list = (List<?>) right;
+		TypeComparator comp = context.getTypeComparator();
+		return (comp.compare(left, list.get(0)) >= 0 && comp.compare(left, list.get(1)) <= 0);
+	}
+
 }
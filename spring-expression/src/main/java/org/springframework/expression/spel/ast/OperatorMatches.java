@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,11 +22,14 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
 import org.springframework.expression.spel.support.BooleanTypedValue;
+import org.springframework.lang.Nullable;
 
 /**
  * Implements the matches operator. Matches takes two operands:
@@ -82,7 +85,9 @@ public class OperatorMatches extends Operator {
 				this.patternCache.putIfAbsent(rightString, pattern);
 			}
 			Matcher matcher = pattern.matcher(new MatcherInput(left, new AccessCount()));
-			return BooleanTypedValue.forValue(matcher.matches());
+			boolean result = matcher.matches();
+			this.exitTypeDescriptor = "Z";
+			return BooleanTypedValue.forValue(result);
 		}
 		catch (PatternSyntaxException ex) {
 			throw new SpelEvaluationException(
@@ -94,6 +99,63 @@ public class OperatorMatches extends Operator {
 		}
 	}
 
+	/**
+	 * Only a regex given as a String literal is compiled: the generated class
+	 * compiles the {@link Pattern} once in its static initializer.
+	 */
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl left = getLeftOperand();
+		return (this.exitTypeDescriptor != null && "Ljava/lang/String".equals(left.exitTypeDescriptor) &&
+				left.isCompilable() && getRightOperand() instanceof StringLiteral);
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		final String regex = (String) ((StringLiteral) getRightOperand()).getLiteralValue().getValue();
+		final String patternFieldName = "pattern$" + cf.nextFieldId();
+		final String className = cf.getClassName();
+
+		cf.registerNewField((cw, cflow) ->
+				cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, patternFieldName, "Ljava/util/regex/Pattern;", null, null));
+		cf.registerNewClinit((mVisitor, cflow) -> {
+			mVisitor.visitLdcInsn(regex);
+			mVisitor.visitMethodInsn(INVOKESTATIC, "java/util/regex/Pattern", "compile",
+					"(Ljava/lang/String;)Ljava/util/regex/Pattern;", false);
+			mVisitor.visitFieldInsn(PUTSTATIC, className, patternFieldName, "Ljava/util/regex/Pattern;");
+		});
+
+		mv.visitFieldInsn(GETSTATIC, className, patternFieldName, "Ljava/util/regex/Pattern;");
+		cf.enterCompilationScope();
+		getLeftOperand().generateCode(mv, cf);
+		cf.exitCompilationScope();
+		mv.visitMethodInsn(INVOKESTATIC, "org/springframework/expression/spel/ast/OperatorMatches",
+				"matchesCheck", "(Ljava/util/regex/Pattern;Ljava/lang/String;)Z", false);
+		cf.pushDescriptor("Z");
+	}
+
+
+	/**
+	 * Perform a match of the given input against a precompiled pattern,
+	 * applying the same access threshold as the interpreted operator.
+	 * <p>Invoked from compiled expressions.
+	 * @param pattern the pattern to match against
+	 * @param input the input to match
+	 * @return {@code true} if the input matches the pattern
+	 * @since 5.1.10
+	 */
+	public static boolean matchesCheck(Pattern pattern, @Nullable String input) {
+		if (input == null) {
+			throw new SpelEvaluationException(SpelMessage.INVALID_FIRST_OPERAND_FOR_MATCHES_OPERATOR, (Object) null);
+		}
+		try {
+			return pattern.matcher(new MatcherInput(input, new AccessCount())).matches();
+		}
+		catch (IllegalStateException ex) {
+			throw new SpelEvaluationException(ex, SpelMessage.FLAWED_PATTERN, pattern.pattern());
+		}
+	}
+
 
 	private static class AccessCount {
 
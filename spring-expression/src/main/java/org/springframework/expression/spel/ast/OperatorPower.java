@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,9 +19,11 @@ package org.springframework.expression.spel.ast;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.Operation;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.util.NumberUtils;
 
@@ -47,27 +49,49 @@ public class OperatorPower extends Operator {
 		Object leftOperand = leftOp.getValueInternal(state).getValue();
 		Object rightOperand = rightOp.getValueInternal(state).getValue();
 
+		this.exitTypeDescriptor = null;
 		if (leftOperand instanceof Number && rightOperand instanceof Number) {
 			Number leftNumber = (Number) leftOperand;
 			Number rightNumber = (Number) rightOperand;
+			String leftDesc = leftOp.exitTypeDescriptor;
+			String rightDesc = rightOp.exitTypeDescriptor;
+			boolean compilable = CodeFlow.isPrimitiveOrUnboxableSupportedNumber(rightDesc);
 
 			if (leftNumber instanceof BigDecimal) {
+				if (compilable && "Ljava/math/BigDecimal".equals(leftDesc)) {
+					this.exitTypeDescriptor = leftDesc;
+				}
 				BigDecimal leftBigDecimal = NumberUtils.convertNumberToTargetClass(leftNumber, BigDecimal.class);
 				return new TypedValue(leftBigDecimal.pow(rightNumber.intValue()));
 			}
 			else if (leftNumber instanceof BigInteger) {
+				if (compilable && "Ljava/math/BigInteger".equals(leftDesc)) {
+					this.exitTypeDescriptor = leftDesc;
+				}
 				BigInteger leftBigInteger = NumberUtils.convertNumberToTargetClass(leftNumber, BigInteger.class);
 				return new TypedValue(leftBigInteger.pow(rightNumber.intValue()));
 			}
-			else if (leftNumber instanceof Double || rightNumber instanceof Double) {
+
+			compilable = (compilable && CodeFlow.isPrimitiveOrUnboxableSupportedNumber(leftDesc));
+			if (leftNumber instanceof Double || rightNumber instanceof Double) {
+				if (compilable) {
+					this.exitTypeDescriptor = "D";
+				}
 				return new TypedValue(Math.pow(leftNumber.doubleValue(), rightNumber.doubleValue()));
 			}
 			else if (leftNumber instanceof Float || rightNumber instanceof Float) {
+				if (compilable) {
+					this.exitTypeDescriptor = "D";
+				}
 				return new TypedValue(Math.pow(leftNumber.floatValue(), rightNumber.floatValue()));
 			}
 
 			double d = Math.pow(leftNumber.doubleValue(), rightNumber.doubleValue());
 			if (d > Integer.MAX_VALUE || leftNumber instanceof Long || rightNumber instanceof Long) {
+				// An int result overflowing into a long is value-dependent: not compilable
+				if (compilable && (leftNumber instanceof Long || rightNumber instanceof Long)) {
+					this.exitTypeDescriptor = "J";
+				}
 				return new TypedValue((long) d);
 			}
 			else {
@@ -78,4 +102,59 @@ public class OperatorPower extends Operator {
 		return state.operate(Operation.POWER, leftOperand, rightOperand);
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null &&
+				getLeftOperand().isCompilable() && getRightOperand().isCompilable());
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		String leftDesc = getLeftOperand().exitTypeDescriptor;
+		String rightDesc = getRightOperand().exitTypeDescriptor;
+		String exitDesc = this.exitTypeDescriptor;
+		if (exitDesc == null || leftDesc == null || rightDesc == null) {
+			throw new IllegalStateException("No exit type descriptors recorded for power operation");
+		}
+
+		if (exitDesc.startsWith("Ljava/math/")) {
+			String owner = exitDesc.substring(1);
+			cf.enterCompilationScope();
+			getLeftOperand().generateCode(mv, cf);
+			cf.exitCompilationScope();
+			generateOperandCode(mv, cf, getRightOperand(), 'I');
+			mv.visitMethodInsn(INVOKEVIRTUAL, owner, "pow", "(I)" + exitDesc + ";", false);
+		}
+		else {
+			// Math.pow on doubles, on float-widened values if no double is involved
+			char operandType = (isOfType(leftDesc, 'D') || isOfType(rightDesc, 'D') ? 'D' :
+					isOfType(leftDesc, 'F') || isOfType(rightDesc, 'F') ? 'F' : 'D');
+			generateOperandCode(mv, cf, getLeftOperand(), operandType);
+			if (operandType == 'F') {
+				mv.visitInsn(F2D);
+			}
+			generateOperandCode(mv, cf, getRightOperand(), operandType);
+			if (operandType == 'F') {
+				mv.visitInsn(F2D);
+			}
+			mv.visitMethodInsn(INVOKESTATIC, "java/lang/Math", "pow", "(DD)D", false);
+			if (exitDesc.equals("J")) {
+				mv.visitInsn(D2L);
+			}
+		}
+		cf.pushDescriptor(exitDesc);
+	}
+
+	private static void generateOperandCode(MethodVisitor mv, CodeFlow cf, SpelNodeImpl operand, char targetType) {
+		cf.enterCompilationScope();
+		operand.generateCode(mv, cf);
+		CodeFlow.insertNumericUnboxOrPrimitiveTypeCoercion(mv, cf.lastDescriptor(), targetType);
+		cf.exitCompilationScope();
+	}
+
+	private static boolean isOfType(String descriptor, char primitiveType) {
+		return (descriptor.length() == 1 ? descriptor.charAt(0) == primitiveType :
+				CodeFlow.toPrimitiveTargetDesc(descriptor) == primitiveType);
+	}
+
 }
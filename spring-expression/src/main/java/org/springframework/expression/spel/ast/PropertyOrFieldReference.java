@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -60,6 +60,11 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 	@Nullable
 	private volatile PropertyAccessor cachedReadAccessor;
 
+	// The registered accessor that the cached read accessor has been derived from
+	// (e.g. a ReflectivePropertyAccessor for an OptimalPropertyAccessor)
+	@Nullable
+	private volatile DerivedAccessor cachedReadAccessorOrigin;
+
 	@Nullable
 	private volatile PropertyAccessor cachedWriteAccessor;
 
@@ -176,7 +181,11 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 
 		PropertyAccessor accessorToUse = this.cachedReadAccessor;
 		if (accessorToUse != null) {
-			if (evalContext.getPropertyAccessors().contains(accessorToUse)) {
+			DerivedAccessor derived = this.cachedReadAccessorOrigin;
+			// A derived accessor is reused through the resolution below: accessors
+			// ahead of its origin may claim the property for this particular target
+			if ((derived == null || derived.accessor != accessorToUse) &&
+					evalContext.getPropertyAccessors().contains(accessorToUse)) {
 				try {
 					return accessorToUse.read(evalContext, contextObject.getValue(), name);
 				}
@@ -197,8 +206,23 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 			for (PropertyAccessor accessor : accessorsToTry) {
 				if (accessor.canRead(evalContext, contextObject.getValue(), name)) {
 					if (accessor instanceof ReflectivePropertyAccessor) {
-						accessor = ((ReflectivePropertyAccessor) accessor).createOptimalAccessor(
-								evalContext, contextObject.getValue(), name);
+						DerivedAccessor derived = this.cachedReadAccessorOrigin;
+						if (derived != null && derived.isApplicable(accessor, targetObject)) {
+							// Derived from this very accessor for the same target type
+							accessor = derived.accessor;
+						}
+						else {
+							PropertyAccessor optimalAccessor = ((ReflectivePropertyAccessor) accessor).createOptimalAccessor(
+									evalContext, contextObject.getValue(), name);
+							// Remember where the optimal accessor came from: it is not registered
+							// with the context itself, and it only applies to the current target type
+							this.cachedReadAccessorOrigin = (optimalAccessor != accessor && targetObject != null ?
+									new DerivedAccessor(optimalAccessor, accessor, targetObject) : null);
+							accessor = optimalAccessor;
+						}
+					}
+					else {
+						this.cachedReadAccessorOrigin = null;
 					}
 					this.cachedReadAccessor = accessor;
 					return accessor.read(evalContext, contextObject.getValue(), name);
@@ -422,4 +446,30 @@ public class PropertyOrFieldReference extends SpelNodeImpl {
 		}
 	}
 
+
+	/**
+	 * A cached accessor derived from a registered accessor for a specific target:
+	 * reusable once its origin has been resolved again for the property, as long
+	 * as the target (or, for static access, the target class) is the same.
+	 */
+	private static final class DerivedAccessor {
+
+		final PropertyAccessor accessor;
+
+		private final PropertyAccessor origin;
+
+		private final Object targetKey;
+
+		DerivedAccessor(PropertyAccessor accessor, PropertyAccessor origin, Object target) {
+			this.accessor = accessor;
+			this.origin = origin;
+			this.targetKey = (target instanceof Class ? target : target.getClass());
+		}
+
+		boolean isApplicable(PropertyAccessor resolvedAccessor, @Nullable Object target) {
+			return (resolvedAccessor == this.origin && target != null &&
+					(target instanceof Class ? target : target.getClass()) == this.targetKey);
+		}
+	}
+
 }
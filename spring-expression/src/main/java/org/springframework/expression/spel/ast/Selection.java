@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,9 +23,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -88,6 +91,7 @@ public class Selection extends SpelNodeImpl {
 		SpelNodeImpl selectionCriteria = this.children[0];
 
 		if (operand instanceof Map) {
+			this.exitTypeDescriptor = null;
 			Map<?, ?> mapdata = (Map<?, ?>) operand;
 			// TODO don't lose generic info for the new map
 			Map<Object, Object> result = new HashMap<>();
@@ -135,6 +139,9 @@ public class Selection extends SpelNodeImpl {
 		}
 
 		if (operand instanceof Iterable || ObjectUtils.isArray(operand)) {
+			// Only selection over an Iterable is compiled: arrays require a typed result array
+			this.exitTypeDescriptor = (!(operand instanceof Iterable) ? null :
+					this.variant == ALL ? "Ljava/util/List" : "Ljava/lang/Object");
 			Iterable<?> data = (operand instanceof Iterable ?
 					(Iterable<?>) operand : Arrays.asList(ObjectUtils.toObjectArray(operand)));
 
@@ -203,6 +210,88 @@ public class Selection extends SpelNodeImpl {
 				operand.getClass().getName());
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null && this.children[0].isCompilable());
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		if (cf.lastDescriptor() == null) {
+			cf.loadTarget(mv);
+		}
+		Label done = new Label();
+		if (this.nullSafe) {
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNULL, done);
+		}
+		mv.visitTypeInsn(CHECKCAST, "java/lang/Iterable");
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+		int iterator = cf.nextFreeVariableId();
+		mv.visitVarInsn(ASTORE, iterator);
+		int result = cf.nextFreeVariableId();
+		if (this.variant == ALL) {
+			mv.visitTypeInsn(NEW, "java/util/ArrayList");
+			mv.visitInsn(DUP);
+			mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+			mv.visitVarInsn(ASTORE, result);
+		}
+		else if (this.variant == LAST) {
+			mv.visitInsn(ACONST_NULL);
+			mv.visitVarInsn(ASTORE, result);
+		}
+		int element = cf.nextFreeVariableId();
+
+		Label loop = new Label();
+		Label end = new Label();
+		mv.visitLabel(loop);
+		mv.visitVarInsn(ALOAD, iterator);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+		mv.visitJumpInsn(IFEQ, end);
+		mv.visitVarInsn(ALOAD, iterator);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		mv.visitVarInsn(ASTORE, element);
+
+		// Evaluate the selection criteria against the current element
+		cf.enterTargetScope(element);
+		cf.enterCompilationScope();
+		this.children[0].generateCode(mv, cf);
+		String criteriaDescriptor = cf.lastDescriptor();
+		if (!"Z".equals(criteriaDescriptor)) {
+			CodeFlow.insertUnboxInsns(mv, 'Z', criteriaDescriptor);
+		}
+		cf.exitCompilationScope();
+		cf.exitTargetScope();
+		mv.visitJumpInsn(IFEQ, loop);
+
+		if (this.variant == FIRST) {
+			mv.visitVarInsn(ALOAD, element);
+			mv.visitJumpInsn(GOTO, done);
+		}
+		else if (this.variant == LAST) {
+			mv.visitVarInsn(ALOAD, element);
+			mv.visitVarInsn(ASTORE, result);
+			mv.visitJumpInsn(GOTO, loop);
+		}
+		else {
+			mv.visitVarInsn(ALOAD, result);
+			mv.visitVarInsn(ALOAD, element);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+			mv.visitInsn(POP);
+			mv.visitJumpInsn(GOTO, loop);
+		}
+
+		mv.visitLabel(end);
+		if (this.variant == FIRST) {
+			mv.visitInsn(ACONST_NULL);
+		}
+		else {
+			mv.visitVarInsn(ALOAD, result);
+		}
+		mv.visitLabel(done);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
 	@Override
 	public String toStringAST() {
 		StringBuilder sb = new StringBuilder();
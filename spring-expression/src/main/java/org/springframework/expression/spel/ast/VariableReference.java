@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -66,27 +66,30 @@ public class VariableReference extends SpelNodeImpl {
 	@Override
 	public TypedValue getValueInternal(ExpressionState state) throws SpelEvaluationException {
 		if (this.name.equals(THIS)) {
-			return state.getActiveContextObject();
+			TypedValue result = state.getActiveContextObject();
+			this.exitTypeDescriptor = toPublicDescriptor(result.getValue());
+			return result;
 		}
 		if (this.name.equals(ROOT)) {
 			TypedValue result = state.getRootContextObject();
-			this.exitTypeDescriptor = CodeFlow.toDescriptorFromObject(result.getValue());
+			this.exitTypeDescriptor = toPublicDescriptor(result.getValue());
 			return result;
 		}
 		TypedValue result = state.lookupVariable(this.name);
-		Object value = result.getValue();
+		this.exitTypeDescriptor = toPublicDescriptor(result.getValue());
+		// a null value will mean either the value was null or the variable was not found
+		return result;
+	}
+
+	private static String toPublicDescriptor(@Nullable Object value) {
 		if (value == null || !Modifier.isPublic(value.getClass().getModifiers())) {
 			// If the type is not public then when generateCode produces a checkcast to it
 			// then an IllegalAccessError will occur.
 			// If resorting to Object isn't sufficient, the hierarchy could be traversed for
 			// the first public type.
-			this.exitTypeDescriptor = "Ljava/lang/Object";
+			return "Ljava/lang/Object";
 		}
-		else {
-			this.exitTypeDescriptor = CodeFlow.toDescriptorFromObject(value);
-		}
-		// a null value will mean either the value was null or the variable was not found
-		return result;
+		return CodeFlow.toDescriptorFromObject(value);
 	}
 
 	@Override
@@ -111,18 +114,58 @@ public class VariableReference extends SpelNodeImpl {
 
 	@Override
 	public void generateCode(MethodVisitor mv, CodeFlow cf) {
-		if (this.name.equals(ROOT)) {
+		if (this.name.equals(THIS)) {
+			// The active context object is either the result of the preceding
+			// element on the stack or the current target (root or selected element)
+			if (cf.lastDescriptor() == null) {
+				cf.loadTarget(mv);
+			}
+		}
+		else if (this.name.equals(ROOT)) {
 			mv.visitVarInsn(ALOAD,1);
 		}
 		else {
-			mv.visitVarInsn(ALOAD, 2);
-			mv.visitLdcInsn(this.name);
-			mv.visitMethodInsn(INVOKEINTERFACE, "org/springframework/expression/EvaluationContext", "lookupVariable", "(Ljava/lang/String;)Ljava/lang/Object;",true);
+			generateLookupVariableCode(mv);
 		}
 		CodeFlow.insertCheckCast(mv, this.exitTypeDescriptor);
 		cf.pushDescriptor(this.exitTypeDescriptor);
 	}
 
+	/**
+	 * Generate code that looks up the current value of this variable,
+	 * leaving it on the stack as a plain {@code Object}.
+	 * @param mv the method visitor into which code should be generated
+	 * @see EvaluationContext#lookupVariable
+	 */
+	void generateLookupVariableCode(MethodVisitor mv) {
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitLdcInsn(this.name);
+		mv.visitMethodInsn(INVOKEINTERFACE, "org/springframework/expression/EvaluationContext", "lookupVariable", "(Ljava/lang/String;)Ljava/lang/Object;",true);
+	}
+
+	/**
+	 * Indicate whether this reference points to a regular variable which
+	 * compiled code may assign through {@link #generateSetVariableCode}.
+	 */
+	boolean isCompilableVariableUpdate() {
+		return !(this.name.equals(THIS) || this.name.equals(ROOT));
+	}
+
+	/**
+	 * Generate code that assigns the (boxed) value on top of the stack to this
+	 * variable, leaving the value on the stack as the result of the assignment.
+	 * @param mv the method visitor into which code should be generated
+	 * @see EvaluationContext#setVariable
+	 */
+	void generateSetVariableCode(MethodVisitor mv) {
+		mv.visitInsn(DUP);
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitInsn(SWAP);
+		mv.visitLdcInsn(this.name);
+		mv.visitInsn(SWAP);
+		mv.visitMethodInsn(INVOKEINTERFACE, "org/springframework/expression/EvaluationContext", "setVariable", "(Ljava/lang/String;Ljava/lang/Object;)V",true);
+	}
+
 
 	private static class VariableRef implements ValueRef {
 
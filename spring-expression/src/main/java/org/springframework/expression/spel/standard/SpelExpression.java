@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 
 package org.springframework.expression.spel.standard;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.EvaluationException;
@@ -33,6 +37,7 @@ import org.springframework.expression.spel.ast.SpelNodeImpl;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
  * A {@code SpelExpression} represents a parsed (valid) expression that is ready to be
@@ -75,6 +80,12 @@ public class SpelExpression implements Expression {
 	// give up trying to compile it when it just doesn't seem to be possible.
 	private volatile int failedAttempts = 0;
 
+	// Executor for compiling the expression off the evaluating thread (MIXED mode only)
+	@Nullable
+	private volatile Executor compilationExecutor;
+
+	private final AtomicBoolean compilationScheduled = new AtomicBoolean();
+
 
 	/**
 	 * Construct an expression, only used by the parser.
@@ -94,6 +105,20 @@ public class SpelExpression implements Expression {
 		this.evaluationContext = evaluationContext;
 	}
 
+	/**
+	 * Set an executor for compiling this expression in the background once it has
+	 * been interpreted often enough in {@link SpelCompilerMode#MIXED} mode, rather
+	 * than compiling it on the evaluating thread.
+	 * <p>The expression keeps being interpreted until the compiled form is available.
+	 * @param compilationExecutor the executor to use, or {@code null} for compiling
+	 * on the evaluating thread (the default)
+	 * @since 5.1.10
+	 * @see SpelExpressionCache
+	 */
+	public void setCompilationExecutor(@Nullable Executor compilationExecutor) {
+		this.compilationExecutor = compilationExecutor;
+	}
+
 	/**
 	 * Return the default evaluation context that will be used if none is supplied on an evaluation call.
 	 * @return the default evaluation context
@@ -484,12 +509,48 @@ public class SpelExpression implements Expression {
 			else {
 				// compilerMode = SpelCompilerMode.MIXED
 				if (this.interpretedCount > INTERPRETED_COUNT_THRESHOLD) {
-					compileExpression();
+					Executor executor = this.compilationExecutor;
+					if (executor != null) {
+						scheduleCompilation(executor);
+					}
+					else {
+						compileExpression();
+					}
 				}
 			}
 		}
 	}
 
+	/**
+	 * Compile the expression through the given executor, unless a compilation
+	 * has been scheduled already. The thread context ClassLoader of the evaluating
+	 * thread is exposed to the compilation, as it would be for an inline compilation.
+	 */
+	private void scheduleCompilation(Executor executor) {
+		if (!this.compilationScheduled.compareAndSet(false, true)) {
+			return;
+		}
+		ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+		try {
+			executor.execute(() -> {
+				ClassLoader previousClassLoader = ClassUtils.overrideThreadContextClassLoader(classLoader);
+				try {
+					compileExpression();
+				}
+				finally {
+					if (previousClassLoader != null) {
+						Thread.currentThread().setContextClassLoader(previousClassLoader);
+					}
+					this.compilationScheduled.set(false);
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			// Keep interpreting for now, trying again on a later evaluation
+			this.compilationScheduled.set(false);
+		}
+	}
+
 
 	/**
 	 * Perform expression compilation. This will only succeed once exit descriptors for all nodes have
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.common.CompositeStringExpression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Bounded, thread-safe cache of parsed SpEL expressions, keyed by expression
+ * string, {@link SpelParserConfiguration} settings and template {@link ParserContext}.
+ * Each expression string gets parsed once per key; once the cache limit has been
+ * reached, entries get evicted in approximate least-recently-used order (CLOCK):
+ * a cache hit only marks its entry as referenced, without any locking.
+ *
+ * <p>Cached expressions are shared between all callers using the same key:
+ * they need to be evaluated against an explicitly passed
+ * {@link org.springframework.expression.EvaluationContext} rather than a default
+ * context set through {@link SpelExpression#setEvaluationContext}.
+ *
+ * <p>Expressions parsed in {@link SpelCompilerMode#MIXED} mode get compiled in the
+ * background once they have been interpreted often enough: see
+ * {@link SpelExpression#setCompilationExecutor}. By default, a single daemon thread
+ * (which terminates when idle) performs the compilation for all caches.
+ *
+ * @since 5.1.10
+ * @see #getSharedInstance()
+ */
+public class SpelExpressionCache {
+
+	/**
+	 * Default maximum number of expressions held per cache: 256.
+	 */
+	public static final int DEFAULT_CACHE_LIMIT = 256;
+
+	private static final Executor defaultCompilationExecutor = createDefaultCompilationExecutor();
+
+	private static final SpelExpressionCache sharedInstance = new SpelExpressionCache();
+
+
+	private final int cacheLimit;
+
+	@Nullable
+	private final Executor compilationExecutor;
+
+	private final ConcurrentHashMap<CacheKey, CachedExpression> cache;
+
+	private final Deque<CacheKey> queue = new ArrayDeque<>();
+
+	private final Lock lock = new ReentrantLock();
+
+
+	/**
+	 * Create a new {@code SpelExpressionCache} with the
+	 * {@link #DEFAULT_CACHE_LIMIT default limit} and background compilation.
+	 */
+	public SpelExpressionCache() {
+		this(DEFAULT_CACHE_LIMIT);
+	}
+
+	/**
+	 * Create a new {@code SpelExpressionCache} with the given limit
+	 * and background compilation.
+	 * @param cacheLimit the maximum number of expressions to hold
+	 * ({@code Integer.MAX_VALUE} for an effectively unbounded cache)
+	 */
+	public SpelExpressionCache(int cacheLimit) {
+		this(cacheLimit, defaultCompilationExecutor);
+	}
+
+	/**
+	 * Create a new {@code SpelExpressionCache} with the given limit.
+	 * @param cacheLimit the maximum number of expressions to hold
+	 * ({@code Integer.MAX_VALUE} for an effectively unbounded cache)
+	 * @param compilationExecutor the executor for compiling {@link SpelCompilerMode#MIXED}
+	 * mode expressions, or {@code null} for compiling them on the evaluating thread
+	 */
+	public SpelExpressionCache(int cacheLimit, @Nullable Executor compilationExecutor) {
+		Assert.isTrue(cacheLimit > 0, "Cache limit must be greater than 0");
+		this.cacheLimit = cacheLimit;
+		this.compilationExecutor = compilationExecutor;
+		this.cache = new ConcurrentHashMap<>(Math.min(cacheLimit, DEFAULT_CACHE_LIMIT));
+	}
+
+
+	/**
+	 * Return the parsed expression for the given expression string,
+	 * parsing it with the given parser if not cached yet.
+	 * @param parser the parser to use (also determining the configuration part of the key)
+	 * @param expressionString the raw expression string to parse
+	 * @return the shared expression instance
+	 * @throws ParseException if the expression string cannot be parsed
+	 */
+	public Expression parseExpression(SpelExpressionParser parser, String expressionString) throws ParseException {
+		return parseExpression(parser, expressionString, null);
+	}
+
+	/**
+	 * Return the parsed expression for the given expression string and parser context,
+	 * parsing it with the given parser if not cached yet.
+	 * @param parser the parser to use (also determining the configuration part of the key)
+	 * @param expressionString the raw expression string to parse
+	 * @param context a context for influencing the parsing routine (e.g. for templates)
+	 * @return the shared expression instance
+	 * @throws ParseException if the expression string cannot be parsed
+	 */
+	public Expression parseExpression(SpelExpressionParser parser, String expressionString,
+			@Nullable ParserContext context) throws ParseException {
+
+		CacheKey key = new CacheKey(expressionString, parser.getConfiguration(), context);
+		CachedExpression cached = this.cache.get(key);
+		if (cached != null) {
+			cached.referenced = true;
+			return cached.expression;
+		}
+
+		this.lock.lock();
+		try {
+			cached = this.cache.get(key);
+			if (cached != null) {
+				return cached.expression;
+			}
+			Expression expression = parser.parseExpression(expressionString, context);
+			enableBackgroundCompilation(expression);
+			evictIfNecessary();
+			this.queue.offer(key);
+			this.cache.put(key, new CachedExpression(expression));
+			return expression;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Make room for a new entry, sweeping the queue in CLOCK fashion:
+	 * referenced entries get a second chance. To be called under the lock.
+	 */
+	private void evictIfNecessary() {
+		int secondChances = 0;
+		while (this.cache.size() >= this.cacheLimit) {
+			CacheKey key = this.queue.poll();
+			if (key == null) {
+				return;
+			}
+			CachedExpression cached = this.cache.get(key);
+			if (cached != null && cached.referenced && secondChances < this.cacheLimit) {
+				cached.referenced = false;
+				secondChances++;
+				this.queue.offer(key);
+			}
+			else {
+				this.cache.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Let the given expression (or, for a template, its embedded expressions)
+	 * compile through this cache's executor, as applied to cached expressions.
+	 * <p>Useful for expressions cached elsewhere, e.g. per annotated element.
+	 * @param expression the expression to enable background compilation for
+	 * @see SpelExpression#setCompilationExecutor
+	 */
+	public void enableBackgroundCompilation(Expression expression) {
+		if (this.compilationExecutor == null) {
+			return;
+		}
+		if (expression instanceof SpelExpression) {
+			((SpelExpression) expression).setCompilationExecutor(this.compilationExecutor);
+		}
+		else if (expression instanceof CompositeStringExpression) {
+			for (Expression part : ((CompositeStringExpression) expression).getExpressions()) {
+				enableBackgroundCompilation(part);
+			}
+		}
+	}
+
+	/**
+	 * Return the number of expressions currently held in this cache.
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Remove all expressions from this cache.
+	 */
+	public void clear() {
+		this.lock.lock();
+		try {
+			this.cache.clear();
+			this.queue.clear();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+
+	/**
+	 * Return the shared default {@code SpelExpressionCache} instance.
+	 * <p>Keep in mind that its entries retain the compiler ClassLoader of their
+	 * parser configuration: components with a shorter lifecycle than the
+	 * application should use an instance of their own.
+	 */
+	public static SpelExpressionCache getSharedInstance() {
+		return sharedInstance;
+	}
+
+	private static Executor createDefaultCompilationExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(DEFAULT_CACHE_LIMIT), runnable -> {
+					Thread thread = new Thread(runnable, "spel-compiler");
+					thread.setDaemon(true);
+					thread.setContextClassLoader(SpelExpressionCache.class.getClassLoader());
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+
+	private static final class CachedExpression {
+
+		final Expression expression;
+
+		volatile boolean referenced;
+
+		CachedExpression(Expression expression) {
+			this.expression = expression;
+		}
+	}
+
+
+	private static final class CacheKey {
+
+		private final String expressionString;
+
+		private final SpelCompilerMode compilerMode;
+
+		@Nullable
+		private final ClassLoader compilerClassLoader;
+
+		private final boolean autoGrowNullReferences;
+
+		private final boolean autoGrowCollections;
+
+		private final int maximumAutoGrowSize;
+
+		@Nullable
+		private final String expressionPrefix;
+
+		@Nullable
+		private final String expressionSuffix;
+
+		CacheKey(String expressionString, SpelParserConfiguration configuration, @Nullable ParserContext context) {
+			this.expressionString = expressionString;
+			this.compilerMode = configuration.getCompilerMode();
+			this.compilerClassLoader = configuration.getCompilerClassLoader();
+			this.autoGrowNullReferences = configuration.isAutoGrowNullReferences();
+			this.autoGrowCollections = configuration.isAutoGrowCollections();
+			this.maximumAutoGrowSize = configuration.getMaximumAutoGrowSize();
+			boolean template = (context != null && context.isTemplate());
+			this.expressionPrefix = (template ? context.getExpressionPrefix() : null);
+			this.expressionSuffix = (template ? context.getExpressionSuffix() : null);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.expressionString.equals(otherKey.expressionString) &&
+					this.compilerMode == otherKey.compilerMode &&
+					this.compilerClassLoader == otherKey.compilerClassLoader &&
+					this.autoGrowNullReferences == otherKey.autoGrowNullReferences &&
+					this.autoGrowCollections == otherKey.autoGrowCollections &&
+					this.maximumAutoGrowSize == otherKey.maximumAutoGrowSize &&
+					ObjectUtils.nullSafeEquals(this.expressionPrefix, otherKey.expressionPrefix) &&
+					ObjectUtils.nullSafeEquals(this.expressionSuffix, otherKey.expressionSuffix));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.expressionString.hashCode() * 29 + this.compilerMode.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return this.expressionString;
+		}
+	}
+
+}
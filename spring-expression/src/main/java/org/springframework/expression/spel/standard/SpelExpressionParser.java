@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -52,6 +52,14 @@ public class SpelExpressionParser extends TemplateAwareExpressionParser {
 	}
 
 
+	/**
+	 * Return the configuration that this parser applies to parsed expressions.
+	 * @since 5.1.10
+	 */
+	SpelParserConfiguration getConfiguration() {
+		return this.configuration;
+	}
+
 	public SpelExpression parseRaw(String expressionString) throws ParseException {
 		return doParseExpression(expressionString, null);
 	}
@@ -40,6 +40,7 @@ import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.expression.spel.support.StandardTypeLocator;
+import org.springframework.expression.spel.testresources.Inventor;
 import org.springframework.expression.spel.testresources.TestPerson;
 
 import static org.hamcrest.Matchers.*;
@@ -243,6 +244,19 @@ public class EvaluationTests extends AbstractExpressionTests {
 		}
 	}
 
+	@Test
+	public void errorPositionInLastSegmentOfCompoundExpression() {
+		StandardEvaluationContext context = new StandardEvaluationContext(new Inventor("Nikola Tesla"));
+		try {
+			new SpelExpressionParser().parseExpression("placeOfBirth.city").getValue(context);
+			fail("Should have failed on null placeOfBirth");
+		}
+		catch (SpelEvaluationException ex) {
+			assertEquals(SpelMessage.PROPERTY_OR_FIELD_NOT_READABLE_ON_NULL, ex.getMessageCode());
+			assertEquals(13, ex.getPosition());
+		}
+	}
+
 	// nested properties
 	@Test
 	public void testPropertiesNested01() {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.expression.spel;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -32,9 +33,12 @@ import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
 import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.spel.testresources.Inventor;
 import org.springframework.expression.spel.testresources.Person;
+import org.springframework.lang.Nullable;
 
 import static org.junit.Assert.*;
 
@@ -285,6 +289,59 @@ public class PropertyAccessTests extends AbstractExpressionTests {
 		assertSame(Object.class, context.getRootObject().getTypeDescriptor().getType());
 	}
 
+	@Test
+	public void resolvedAccessorReusedForSameTargetType() {
+		CountingPropertyAccessor accessor = new CountingPropertyAccessor();
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setPropertyAccessors(Collections.singletonList(accessor));
+		Expression expr = parser.parseExpression("name");
+
+		assertEquals("p1", expr.getValue(context, new Person("p1")));
+		assertEquals("p2", expr.getValue(context, new Person("p2")));
+		assertEquals(1, accessor.createCount);
+
+		assertEquals("Nikola Tesla", expr.getValue(context, new Inventor("Nikola Tesla", new Date(), "Serbian")));
+		assertEquals(2, accessor.createCount);
+		assertEquals("p3", expr.getValue(context, new Person("p3")));
+		assertEquals(3, accessor.createCount);
+
+		context.setPropertyAccessors(Collections.singletonList(new ReflectivePropertyAccessor()));
+		assertEquals("p4", expr.getValue(context, new Person("p4")));
+		assertEquals(3, accessor.createCount);
+	}
+
+	@Test
+	public void resolvedAccessorDoesNotBypassPrecedingAccessors() {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.addPropertyAccessor(new PropertyAccessor() {
+			@Override
+			public Class<?>[] getSpecificTargetClasses() {
+				return null;
+			}
+			@Override
+			public boolean canRead(EvaluationContext context, @Nullable Object target, String name) {
+				return (target instanceof Person && "special".equals(((Person) target).getName()));
+			}
+			@Override
+			public TypedValue read(EvaluationContext context, @Nullable Object target, String name) {
+				return new TypedValue("intercepted");
+			}
+			@Override
+			public boolean canWrite(EvaluationContext context, @Nullable Object target, String name) {
+				return false;
+			}
+			@Override
+			public void write(EvaluationContext context, @Nullable Object target, String name, @Nullable Object newValue) {
+			}
+		});
+		context.addPropertyAccessor(new ReflectivePropertyAccessor());
+		Expression expr = parser.parseExpression("name");
+
+		assertEquals("p1", expr.getValue(context, new Person("p1")));
+		assertEquals("p2", expr.getValue(context, new Person("p2")));
+		assertEquals("intercepted", expr.getValue(context, new Person("special")));
+	}
+
 
 	// This can resolve the property 'flibbles' on any String (very useful...)
 	private static class StringyPropertyAccessor implements PropertyAccessor {
@@ -369,4 +426,16 @@ public class PropertyAccessTests extends AbstractExpressionTests {
 		}
 	}
 
+
+	private static class CountingPropertyAccessor extends ReflectivePropertyAccessor {
+
+		int createCount;
+
+		@Override
+		public PropertyAccessor createOptimalAccessor(EvaluationContext context, @Nullable Object target, String name) {
+			this.createCount++;
+			return super.createOptimalAccessor(context, target, name);
+		}
+	}
+
 }
@@ -19,7 +19,9 @@ package org.springframework.expression.spel;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -104,19 +106,17 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	 * FunctionReference
 	 * InlineList
 	 * OpModulus
+	 * InlineMap (constant maps only)
+	 * Selection, Projection (over an Iterable)
+	 * OpBetween
+	 * OpMatches (with a literal regex)
+	 * OpPower (when the result type does not depend on the operand values)
+	 * BeanReference
+	 * Assign, OpInc, OpDec (on variables)
 	 *
 	 * Not yet compiled (some may never need to be):
-	 * Assign
-	 * BeanReference
 	 * Identifier
-	 * OpDec
-	 * OpBetween
-	 * OpMatches
-	 * OpPower
-	 * OpInc
-	 * Projection
 	 * QualifiedId
-	 * Selection
 	 */
 
 
@@ -1023,7 +1023,7 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 
 		expression = parser.parseExpression("#negate(#ints.?[#this<2][0])");
 		assertEquals("-1", expression.getValue(context, Integer.class).toString());
-		// Selection isn't compilable.
+		// Selection over an array isn't compilable.
 		assertFalse(((SpelNodeImpl)((SpelExpression) expression).getAST()).isCompilable());
 	}
 
@@ -5123,6 +5123,165 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertTrue(classloadersUsed.size() > 1);
 	}
 
+	@Test
+	public void selectionAndProjection() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext(Arrays.asList("a", "bb", "ccc"));
+
+		expression = parser.parseExpression("?[length() > 1]");
+		assertEquals("[bb, ccc]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[bb, ccc]", expression.getValue(context).toString());
+
+		expression = parser.parseExpression("^[length() > 1]");
+		assertEquals("bb", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("bb", expression.getValue(context));
+
+		expression = parser.parseExpression("$[length() > 1]");
+		assertEquals("ccc", expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals("ccc", expression.getValue(context));
+
+		expression = parser.parseExpression("^[length() > 5]");
+		assertNull(expression.getValue(context));
+		expression.getValue(new StandardEvaluationContext(Collections.singletonList("abcdef")));
+		assertCanCompile(expression);
+		assertNull(expression.getValue(context));
+
+		expression = parser.parseExpression("?[#this.length() == #root.size()].![length() * 2]");
+		assertEquals("[6]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[6]", expression.getValue(context).toString());
+		assertEquals("[4]", expression.getValue(new StandardEvaluationContext(Arrays.asList("dd", "e"))).toString());
+
+		context.setVariable("list", Arrays.asList(1, 2, 3));
+		expression = parser.parseExpression("#list?.![#this * 10]");
+		assertEquals("[10, 20, 30]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[10, 20, 30]", expression.getValue(context).toString());
+		context.setVariable("list", null);
+		assertNull(expression.getValue(context));
+
+		// Arrays and maps remain interpreted
+		expression = parser.parseExpression("#array.?[#this > 1]");
+		context.setVariable("array", new int[] {1, 2, 3});
+		assertEquals(2, ((Object[]) expression.getValue(context)).length);
+		assertCantCompile(expression);
+
+		// Empty input: nothing known about the criteria yet
+		expression = parser.parseExpression("?[length() > 1]");
+		assertEquals(0, ((List<?>) expression.getValue(new StandardEvaluationContext(new ArrayList<>()))).size());
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void operatorMatchesBetweenAndPower() throws Exception {
+		expression = parse("'abc' matches 'a.c'");
+		assertTrue(expression.getValue(Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue(Boolean.class));
+		assertIsCompiled(expression);
+
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("regex", "a.c");
+		expression = parser.parseExpression("'abc' matches #regex");
+		assertTrue(expression.getValue(context, Boolean.class));
+		assertCantCompile(expression);
+
+		expression = parse("5 between {1, 5}");
+		assertTrue(expression.getValue(Boolean.class));
+		assertCanCompile(expression);
+		assertTrue(expression.getValue(Boolean.class));
+		expression = parse("'b' between {'c', 'd'}");
+		assertFalse(expression.getValue(Boolean.class));
+		assertCanCompile(expression);
+		assertFalse(expression.getValue(Boolean.class));
+
+		expression = parse("2.0d ^ 3");
+		assertEquals(8.0d, expression.getValue());
+		assertCanCompile(expression);
+		assertEquals(8.0d, expression.getValue());
+		expression = parse("2.0f ^ 2.0f");
+		assertEquals(4.0d, expression.getValue());
+		assertCanCompile(expression);
+		assertEquals(4.0d, expression.getValue());
+		expression = parse("2L ^ 40");
+		assertEquals(1099511627776L, expression.getValue());
+		assertCanCompile(expression);
+		assertEquals(1099511627776L, expression.getValue());
+		expression = parse("new java.math.BigInteger('2') ^ 3");
+		assertEquals(BigInteger.valueOf(8), expression.getValue());
+		assertCanCompile(expression);
+		assertEquals(BigInteger.valueOf(8), expression.getValue());
+
+		// int ^ int may overflow into a long depending on the values
+		expression = parse("2 ^ 3");
+		assertEquals(8, expression.getValue());
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void inlineMapBeanReferenceAndAssignment() throws Exception {
+		expression = parse("{'a':1, b:{'x', 'y'}, 'c':{d:true}}");
+		Object map = expression.getValue();
+		assertCanCompile(expression);
+		assertEquals(map, expression.getValue());
+		assertEquals("{a=1, b=[x, y], c={d=true}}", expression.getValue().toString());
+
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setBeanResolver((ctx, beanName) -> beanName.toUpperCase());
+		expression = parser.parseExpression("@foo.length()");
+		assertEquals(3, expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(3, expression.getValue(context));
+
+		context.setVariable("count", 1);
+		expression = parser.parseExpression("#total = #count * 2");
+		assertEquals(2, expression.getValue(context));
+		assertCanCompile(expression);
+		context.setVariable("count", 5);
+		assertEquals(10, expression.getValue(context));
+		assertEquals(10, context.lookupVariable("total"));
+
+		expression = parser.parseExpression("#count++");
+		assertEquals(5, expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(6, expression.getValue(context));
+		assertEquals(7, context.lookupVariable("count"));
+
+		expression = parser.parseExpression("--#count");
+		assertEquals(6, expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(5, expression.getValue(context));
+
+		context.setVariable("amount", 1.5d);
+		expression = parser.parseExpression("++#amount");
+		assertEquals(2.5d, expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(3.5d, expression.getValue(context));
+	}
+
+	@Test
+	public void indexInsideSelectionIsEvaluatedAgainstRoot() throws Exception {
+		IndexedItemHolder holder = new IndexedItemHolder();
+		StandardEvaluationContext context = new StandardEvaluationContext(holder);
+
+		expression = parser.parseExpression("items.?[arr[pos] == 1].size()");
+		assertEquals(1, expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(1, expression.getValue(context));
+		holder.pos = 0;
+		assertEquals(2, expression.getValue(context));
+
+		holder.pos = 1;
+		expression = parser.parseExpression("items.![values[pos]]");
+		assertEquals("[1, 2, 3]", expression.getValue(context).toString());
+		assertCanCompile(expression);
+		assertEquals("[1, 2, 3]", expression.getValue(context).toString());
+		holder.pos = 0;
+		assertEquals("[0, 0, 0]", expression.getValue(context).toString());
+	}
+
 
 	// Helper methods
 
@@ -6215,6 +6374,28 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 	}
 
 
+	public static class IndexedItemHolder {
+
+		public int pos = 1;
+
+		public List<IndexedItem> items = Arrays.asList(
+				new IndexedItem(new int[] {1, 1}), new IndexedItem(new int[] {1, 2}), new IndexedItem(new int[] {0, 3}));
+	}
+
+
+	public static class IndexedItem {
+
+		public int[] arr;
+
+		public List<Integer> values;
+
+		public IndexedItem(int[] arr) {
+			this.arr = arr;
+			this.values = Arrays.asList(arr[0] - arr[0], arr[1]);
+		}
+	}
+
+
 	public class Reg {
 
 		private Integer _value,_value2;
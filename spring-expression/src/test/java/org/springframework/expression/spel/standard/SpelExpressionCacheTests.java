@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.common.CompositeStringExpression;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SpelExpressionCache}.
+ */
+public class SpelExpressionCacheTests {
+
+	private final List<Runnable> compilationTasks = new ArrayList<>();
+
+	private final SpelExpressionCache cache = new SpelExpressionCache(2, this.compilationTasks::add);
+
+
+	@Test
+	public void parseOnce() {
+		SpelExpressionParser parser = new SpelExpressionParser();
+		Expression expression = this.cache.parseExpression(parser, "1 + 1");
+		assertSame(expression, this.cache.parseExpression(new SpelExpressionParser(), "1 + 1"));
+		assertEquals(2, expression.getValue());
+		assertEquals(1, this.cache.size());
+
+		SpelExpressionParser mixedParser = new SpelExpressionParser(
+				new SpelParserConfiguration(SpelCompilerMode.MIXED, null));
+		assertNotSame(expression, this.cache.parseExpression(mixedParser, "1 + 1"));
+		assertEquals(2, this.cache.size());
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		SpelExpressionParser parser = new SpelExpressionParser();
+		Expression first = this.cache.parseExpression(parser, "'a'");
+		Expression second = this.cache.parseExpression(parser, "'b'");
+		assertSame(first, this.cache.parseExpression(parser, "'a'"));
+
+		this.cache.parseExpression(parser, "'c'");
+		assertEquals(2, this.cache.size());
+		assertSame(first, this.cache.parseExpression(parser, "'a'"));
+		assertNotSame(second, this.cache.parseExpression(parser, "'b'"));
+
+		this.cache.clear();
+		assertEquals(0, this.cache.size());
+	}
+
+	@Test
+	public void keepFrequentlyUsedExpression() {
+		SpelExpressionCache cache = new SpelExpressionCache(3, null);
+		SpelExpressionParser parser = new SpelExpressionParser();
+		Expression hot = cache.parseExpression(parser, "'hot'");
+		for (int i = 0; i < 10; i++) {
+			assertSame(hot, cache.parseExpression(parser, "'hot'"));
+			cache.parseExpression(parser, "'cold" + i + "'");
+			assertTrue(cache.size() <= 3);
+		}
+		assertSame(hot, cache.parseExpression(parser, "'hot'"));
+	}
+
+	@Test
+	public void templateExpressions() {
+		SpelExpressionParser parser = new SpelExpressionParser();
+		Expression template = this.cache.parseExpression(parser, "#{1 + 1} items", new TemplateParserContext());
+		assertTrue(template instanceof CompositeStringExpression);
+		assertEquals("2 items", template.getValue());
+		assertSame(template, this.cache.parseExpression(parser, "#{1 + 1} items", new TemplateParserContext()));
+		assertEquals(1, this.cache.size());
+	}
+
+	@Test
+	public void compileHotExpressionsInBackground() {
+		SpelExpressionParser parser = new SpelExpressionParser(
+				new SpelParserConfiguration(SpelCompilerMode.MIXED, null));
+		SpelExpression expression = (SpelExpression) this.cache.parseExpression(parser, "#count * 2");
+		EvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("count", 21);
+
+		for (int i = 0; i < 150; i++) {
+			assertEquals(42, expression.getValue(context));
+		}
+		assertEquals(1, this.compilationTasks.size());
+		assertNull(getCompiledAst(expression));
+
+		this.compilationTasks.get(0).run();
+		assertNotNull(getCompiledAst(expression));
+		assertEquals(42, expression.getValue(context));
+	}
+
+	@Test
+	public void compileOnEvaluatingThreadWithoutExecutor() {
+		SpelExpressionCache cache = new SpelExpressionCache(2, null);
+		SpelExpressionParser parser = new SpelExpressionParser(
+				new SpelParserConfiguration(SpelCompilerMode.MIXED, null));
+		SpelExpression expression = (SpelExpression) cache.parseExpression(parser, "3 * 2");
+		for (int i = 0; i < 150; i++) {
+			assertEquals(6, expression.getValue());
+		}
+		assertNotNull(getCompiledAst(expression));
+	}
+
+
+	private static Object getCompiledAst(SpelExpression expression) {
+		try {
+			Field field = SpelExpression.class.getDeclaredField("compiledAst");
+			field.setAccessible(true);
+			return field.get(expression);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
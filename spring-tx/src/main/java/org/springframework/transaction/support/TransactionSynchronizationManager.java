@@ -27,7 +27,7 @@ import java.util.Set;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import org.springframework.core.NamedThreadLocal;
+import org.springframework.core.ThreadContextVariable;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -81,23 +81,23 @@ public abstract class TransactionSynchronizationManager {
 	// 事务资源：map<k,v> 两种数据对。
 	// 1.会话工厂和会话k=SqlsessionFactory v=SqlSessionHolder
 	// 2.数据源和连接k=DataSource v=ConnectionHolder
-	private static final ThreadLocal<Map<Object, Object>> resources =
-			new NamedThreadLocal<>("Transactional resources");
+	private static final ThreadContextVariable<Map<Object, Object>> resources =
+			new ThreadContextVariable<>("Transactional resources");
 	// 事务同步
-	private static final ThreadLocal<Set<TransactionSynchronization>> synchronizations =
-			new NamedThreadLocal<>("Transaction synchronizations");
+	private static final ThreadContextVariable<Set<TransactionSynchronization>> synchronizations =
+			new ThreadContextVariable<>("Transaction synchronizations");
 	// 当前事务名称
-	private static final ThreadLocal<String> currentTransactionName =
-			new NamedThreadLocal<>("Current transaction name");
+	private static final ThreadContextVariable<String> currentTransactionName =
+			new ThreadContextVariable<>("Current transaction name");
 	// 当前事务的只读属性
-	private static final ThreadLocal<Boolean> currentTransactionReadOnly =
-			new NamedThreadLocal<>("Current transaction read-only status");
+	private static final ThreadContextVariable<Boolean> currentTransactionReadOnly =
+			new ThreadContextVariable<>("Current transaction read-only status");
 	// 当前事务的隔离级别
-	private static final ThreadLocal<Integer> currentTransactionIsolationLevel =
-			new NamedThreadLocal<>("Current transaction isolation level");
+	private static final ThreadContextVariable<Integer> currentTransactionIsolationLevel =
+			new ThreadContextVariable<>("Current transaction isolation level");
 	// 是否存在事务
-	private static final ThreadLocal<Boolean> actualTransactionActive =
-			new NamedThreadLocal<>("Actual transaction active");
+	private static final ThreadContextVariable<Boolean> actualTransactionActive =
+			new ThreadContextVariable<>("Actual transaction active");
 
 
 	//-------------------------------------------------------------------------
@@ -161,7 +161,7 @@ public abstract class TransactionSynchronizationManager {
 		// Transparently remove ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
 			map.remove(actualKey);
-			// Remove entire ThreadLocal if empty...
+			// Remove entire resource map if empty...
 			if (map.isEmpty()) {
 				resources.remove();
 			}
@@ -181,7 +181,7 @@ public abstract class TransactionSynchronizationManager {
 		Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
 		Assert.notNull(value, "Value must not be null");
 		Map<Object, Object> map = resources.get();
-		// set ThreadLocal Map if none found
+		// set resource Map if none found
 		if (map == null) {
 			map = new HashMap<>();
 			resources.set(map);
@@ -239,7 +239,7 @@ public abstract class TransactionSynchronizationManager {
 			return null;
 		}
 		Object value = map.remove(actualKey);
-		// Remove entire ThreadLocal if empty...
+		// Remove entire resource map if empty...
 		if (map.isEmpty()) {
 			resources.remove();
 		}
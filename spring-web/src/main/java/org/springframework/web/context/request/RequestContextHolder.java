@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,7 @@ package org.springframework.web.context.request;
 import javax.faces.context.FacesContext;
 
 import org.springframework.core.NamedInheritableThreadLocal;
-import org.springframework.core.NamedThreadLocal;
+import org.springframework.core.ThreadContextVariable;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
 
@@ -35,6 +35,12 @@ import org.springframework.util.ClassUtils;
  * {@link org.springframework.web.servlet.DispatcherServlet}
  * already exposes the current request by default.
  *
+ * <p>Non-inheritable RequestAttributes are part of the current
+ * {@link org.springframework.core.ThreadContext} and get propagated
+ * along with a captured context snapshot, e.g. to executor threads.
+ * Note that the request needs to remain active for as long as
+ * such a propagated task accesses it.
+ *
  * @author Juergen Hoeller
  * @author Rod Johnson
  * @since 2.0
@@ -47,8 +53,8 @@ public abstract class RequestContextHolder  {
 	private static final boolean jsfPresent =
 			ClassUtils.isPresent("javax.faces.context.FacesContext", RequestContextHolder.class.getClassLoader());
 
-	private static final ThreadLocal<RequestAttributes> requestAttributesHolder =
-			new NamedThreadLocal<>("Request attributes");
+	private static final ThreadContextVariable<RequestAttributes> requestAttributesHolder =
+			new ThreadContextVariable<>("Request attributes", true);
 
 	private static final ThreadLocal<RequestAttributes> inheritableRequestAttributesHolder =
 			new NamedInheritableThreadLocal<>("Request context");